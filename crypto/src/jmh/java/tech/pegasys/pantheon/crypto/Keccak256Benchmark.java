@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.MutableBytes32;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares keccak-256 through a digest looked up from the JCA for each hash, as hashing used to be
+ * done, against the reused per-thread digest of {@link Hash}. Sizes cover addresses, words and
+ * typical trie nodes. Run with {@code -prof gc} to compare allocation.
+ */
+@State(Scope.Thread)
+public class Keccak256Benchmark {
+  private static final int BATCH_SIZE = 16;
+
+  @Param({"20", "32", "136", "532"})
+  public int size;
+
+  private BytesValue input;
+  private List<BytesValue> batch;
+  private final MutableBytes32 result = MutableBytes32.create();
+
+  @Setup
+  public void prepare() {
+    final Random random = new Random(1);
+    input = randomBytes(random);
+    batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch.add(randomBytes(random));
+    }
+  }
+
+  @Benchmark
+  public Bytes32 jcaDigest() throws NoSuchAlgorithmException {
+    final MessageDigest digest = MessageDigestFactory.create(Hash.KECCAK256_ALG);
+    input.update(digest);
+    return Bytes32.wrap(digest.digest());
+  }
+
+  @Benchmark
+  public Bytes32 keccak256() {
+    return Hash.keccak256(input);
+  }
+
+  @Benchmark
+  public Bytes32 keccak256IntoResult() {
+    Hash.keccak256(input, result);
+    return result;
+  }
+
+  @Benchmark
+  public List<Bytes32> keccak256Batch() {
+    return Hash.keccak256All(batch);
+  }
+
+  private BytesValue randomBytes(final Random random) {
+    final byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    return BytesValue.wrap(bytes);
+  }
+}
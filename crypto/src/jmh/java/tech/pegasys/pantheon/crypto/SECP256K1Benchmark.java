@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.Backend;
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.crypto.SECP256K1.PrivateKey;
+import tech.pegasys.pantheon.crypto.SECP256K1.PublicKey;
+import tech.pegasys.pantheon.crypto.SECP256K1.Signature;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+
+import java.util.Optional;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Compares the secp256k1 backends on the operations behind transaction signatures. */
+@State(Scope.Thread)
+public class SECP256K1Benchmark {
+
+  @Param({"BOUNCY_CASTLE", "OPTIMIZED"})
+  public Backend backend;
+
+  private KeyPair keyPair;
+  private Bytes32 dataHash;
+  private Signature signature;
+
+  @Setup
+  public void prepare() {
+    SECP256K1.setBackend(backend);
+    final Random random = new Random(1);
+    keyPair = KeyPair.create(PrivateKey.create(randomBytes32(random)));
+    dataHash = randomBytes32(random);
+    signature = SECP256K1.sign(dataHash, keyPair);
+  }
+
+  @TearDown
+  public void restoreBackend() {
+    SECP256K1.setBackend(Backend.OPTIMIZED);
+  }
+
+  @Benchmark
+  public Optional<PublicKey> recoverFromSignature() {
+    return PublicKey.recoverFromSignature(dataHash, signature);
+  }
+
+  @Benchmark
+  public Signature sign() {
+    return SECP256K1.sign(dataHash, keyPair);
+  }
+
+  @Benchmark
+  public boolean verify() {
+    return SECP256K1.verify(dataHash, signature, keyPair.getPublicKey());
+  }
+
+  @Benchmark
+  public PublicKey createPublicKey() {
+    return PublicKey.create(keyPair.getPrivateKey());
+  }
+
+  private static Bytes32 randomBytes32(final Random random) {
+    final byte[] bytes = new byte[Bytes32.SIZE];
+    random.nextBytes(bytes);
+    return Bytes32.wrap(bytes);
+  }
+}
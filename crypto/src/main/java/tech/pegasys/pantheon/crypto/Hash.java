@@ -14,9 +14,12 @@ package tech.pegasys.pantheon.crypto;
 
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.MutableBytes32;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 
 /** Various utilities for providing hashes (digests) of arbitrary data. */
 public abstract class Hash {
@@ -28,6 +31,9 @@ public abstract class Hash {
   private static final String RIPEMD160 = "RIPEMD160";
   private static final String BLAKE2BF_ALG = "BLAKE2BF";
 
+  private static final ThreadLocal<Keccak256MessageDigest> KECCAK256_DIGEST =
+      ThreadLocal.withInitial(Keccak256MessageDigest::new);
+
   /**
    * Helper method to generate a digest using the provided algorithm.
    *
@@ -62,7 +68,45 @@ public abstract class Hash {
    * @return A digest.
    */
   public static Bytes32 keccak256(final BytesValue input) {
-    return Bytes32.wrap(digestUsingAlgorithm(input, KECCAK256_ALG));
+    final MessageDigest digest = keccak256Digest();
+    input.update(digest);
+    return Bytes32.wrap(digest.digest());
+  }
+
+  /**
+   * Digest using keccak-256, writing the digest to the provided value rather than allocating a new
+   * one.
+   *
+   * @param input The input bytes to produce the digest for.
+   * @param result The value to write the digest to.
+   */
+  public static void keccak256(final BytesValue input, final MutableBytes32 result) {
+    final Keccak256MessageDigest digest = keccak256Digest();
+    input.update(digest);
+    digest.digest(result);
+  }
+
+  /**
+   * Digest each of the provided inputs using keccak-256, such as the nodes of a trie.
+   *
+   * @param inputs The inputs to produce digests for.
+   * @return The digests, in the order of the inputs.
+   */
+  public static List<Bytes32> keccak256All(final List<? extends BytesValue> inputs) {
+    final Keccak256MessageDigest digest = keccak256Digest();
+    final List<Bytes32> results = new ArrayList<>(inputs.size());
+    for (final BytesValue input : inputs) {
+      input.update(digest);
+      results.add(Bytes32.wrap(digest.digest()));
+    }
+    return results;
+  }
+
+  private static Keccak256MessageDigest keccak256Digest() {
+    final Keccak256MessageDigest digest = KECCAK256_DIGEST.get();
+    // Discard anything left behind by a previous use which failed part way.
+    digest.reset();
+    return digest;
   }
 
   /**
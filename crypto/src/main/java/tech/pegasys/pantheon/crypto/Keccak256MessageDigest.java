@@ -0,0 +1,217 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import tech.pegasys.pantheon.util.bytes.MutableBytesValue;
+
+import java.security.MessageDigest;
+
+/**
+ * A Keccak-256 digest, as used by Ethereum, which differs from the standardized SHA3-256 only by
+ * its padding.
+ *
+ * <p>Unlike digests obtained from the JCA, an instance holds all the state it needs and allocates
+ * nothing while hashing, so it is meant to be reused: {@link Hash#keccak256} keeps an instance per
+ * thread. As with any {@link MessageDigest}, an instance is not safe for use across threads.
+ */
+public final class Keccak256MessageDigest extends MessageDigest {
+
+  public static final int DIGEST_LENGTH = 32;
+
+  // The number of input bytes absorbed into the state by each permutation.
+  private static final int RATE = 136;
+  private static final int RATE_LANES = RATE / Long.BYTES;
+  private static final int ROUNDS = 24;
+
+  private static final long[] ROUND_CONSTANTS = {
+    0x0000000000000001L, 0x0000000000008082L, 0x800000000000808aL, 0x8000000080008000L,
+    0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+    0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+    0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L,
+    0x8000000000008002L, 0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL,
+    0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+  };
+
+  // The lanes visited by the combined rho and pi steps, starting from lane 1, and the rotation
+  // applied to the lane moved into each of them.
+  private static final int[] PI_LANES = {
+    10, 7, 11, 17, 18, 3, 5, 16, 8, 21, 24, 4, 15, 23, 19, 13, 12, 2, 20, 14, 22, 9, 6, 1
+  };
+  private static final int[] RHO_ROTATIONS = {
+    1, 3, 6, 10, 15, 21, 28, 36, 45, 55, 2, 14, 27, 41, 56, 8, 25, 43, 62, 18, 39, 61, 20, 44
+  };
+
+  private final long[] state = new long[25];
+  private final byte[] block = new byte[RATE];
+  private int blockPosition;
+
+  public Keccak256MessageDigest() {
+    super(Hash.KECCAK256_ALG);
+  }
+
+  /**
+   * Completes the digest, writing it to the start of the given value, and resets this digest.
+   *
+   * @param destination The value to write the digest to, of at least {@link #DIGEST_LENGTH} bytes.
+   */
+  public void digest(final MutableBytesValue destination) {
+    checkArgument(destination.size() >= DIGEST_LENGTH, "Destination is too small for the digest");
+    pad();
+    for (int i = 0; i < DIGEST_LENGTH; i++) {
+      destination.set(i, (byte) (state[i >>> 3] >>> ((i & 7) << 3)));
+    }
+    engineReset();
+  }
+
+  @Override
+  protected int engineGetDigestLength() {
+    return DIGEST_LENGTH;
+  }
+
+  @Override
+  protected void engineUpdate(final byte input) {
+    block[blockPosition++] = input;
+    if (blockPosition == RATE) {
+      absorb(block, 0);
+      blockPosition = 0;
+    }
+  }
+
+  @Override
+  protected void engineUpdate(final byte[] input, final int offset, final int length) {
+    int position = offset;
+    final int end = offset + length;
+    if (blockPosition > 0) {
+      final int count = Math.min(RATE - blockPosition, length);
+      System.arraycopy(input, position, block, blockPosition, count);
+      blockPosition += count;
+      position += count;
+      if (blockPosition < RATE) {
+        return;
+      }
+      absorb(block, 0);
+      blockPosition = 0;
+    }
+    // Whole blocks are absorbed straight from the input.
+    for (; end - position >= RATE; position += RATE) {
+      absorb(input, position);
+    }
+    System.arraycopy(input, position, block, 0, end - position);
+    blockPosition = end - position;
+  }
+
+  @Override
+  protected byte[] engineDigest() {
+    final byte[] digest = new byte[DIGEST_LENGTH];
+    engineDigest(digest, 0, DIGEST_LENGTH);
+    return digest;
+  }
+
+  @Override
+  protected int engineDigest(final byte[] buffer, final int offset, final int length) {
+    checkArgument(length >= DIGEST_LENGTH, "Buffer is too small for the digest");
+    pad();
+    for (int i = 0; i < DIGEST_LENGTH; i++) {
+      buffer[offset + i] = (byte) (state[i >>> 3] >>> ((i & 7) << 3));
+    }
+    engineReset();
+    return DIGEST_LENGTH;
+  }
+
+  @Override
+  protected void engineReset() {
+    for (int i = 0; i < state.length; i++) {
+      state[i] = 0;
+    }
+    blockPosition = 0;
+  }
+
+  private void pad() {
+    for (int i = blockPosition; i < RATE; i++) {
+      block[i] = 0;
+    }
+    block[blockPosition] ^= 0x01;
+    block[RATE - 1] ^= (byte) 0x80;
+    absorb(block, 0);
+  }
+
+  private void absorb(final byte[] input, final int offset) {
+    for (int i = 0; i < RATE_LANES; i++) {
+      state[i] ^= littleEndianLong(input, offset + i * Long.BYTES);
+    }
+    permute(state);
+  }
+
+  private static long littleEndianLong(final byte[] input, final int offset) {
+    return (input[offset] & 0xFFL)
+        | ((input[offset + 1] & 0xFFL) << 8)
+        | ((input[offset + 2] & 0xFFL) << 16)
+        | ((input[offset + 3] & 0xFFL) << 24)
+        | ((input[offset + 4] & 0xFFL) << 32)
+        | ((input[offset + 5] & 0xFFL) << 40)
+        | ((input[offset + 6] & 0xFFL) << 48)
+        | ((input[offset + 7] & 0xFFL) << 56);
+  }
+
+  /** The Keccak-f[1600] permutation, over lanes indexed by {@code x + 5 * y}. */
+  private static void permute(final long[] a) {
+    for (int round = 0; round < ROUNDS; round++) {
+      // Theta
+      final long c0 = a[0] ^ a[5] ^ a[10] ^ a[15] ^ a[20];
+      final long c1 = a[1] ^ a[6] ^ a[11] ^ a[16] ^ a[21];
+      final long c2 = a[2] ^ a[7] ^ a[12] ^ a[17] ^ a[22];
+      final long c3 = a[3] ^ a[8] ^ a[13] ^ a[18] ^ a[23];
+      final long c4 = a[4] ^ a[9] ^ a[14] ^ a[19] ^ a[24];
+      final long d0 = c4 ^ Long.rotateLeft(c1, 1);
+      final long d1 = c0 ^ Long.rotateLeft(c2, 1);
+      final long d2 = c1 ^ Long.rotateLeft(c3, 1);
+      final long d3 = c2 ^ Long.rotateLeft(c4, 1);
+      final long d4 = c3 ^ Long.rotateLeft(c0, 1);
+      for (int y = 0; y < 25; y += 5) {
+        a[y] ^= d0;
+        a[y + 1] ^= d1;
+        a[y + 2] ^= d2;
+        a[y + 3] ^= d3;
+        a[y + 4] ^= d4;
+      }
+
+      // Rho and pi
+      long current = a[1];
+      for (int i = 0; i < PI_LANES.length; i++) {
+        final int lane = PI_LANES[i];
+        final long next = a[lane];
+        a[lane] = Long.rotateLeft(current, RHO_ROTATIONS[i]);
+        current = next;
+      }
+
+      // Chi
+      for (int y = 0; y < 25; y += 5) {
+        final long b0 = a[y];
+        final long b1 = a[y + 1];
+        final long b2 = a[y + 2];
+        final long b3 = a[y + 3];
+        final long b4 = a[y + 4];
+        a[y] = b0 ^ (~b1 & b2);
+        a[y + 1] = b1 ^ (~b2 & b3);
+        a[y + 2] = b2 ^ (~b3 & b4);
+        a[y + 3] = b3 ^ (~b4 & b0);
+        a[y + 4] = b4 ^ (~b0 & b1);
+      }
+
+      // Iota
+      a[0] ^= ROUND_CONSTANTS[round];
+    }
+  }
+}
@@ -18,6 +18,7 @@ import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static tech.pegasys.pantheon.util.bytes.BytesValues.asUnsignedBigInteger;
 
+import tech.pegasys.pantheon.crypto.secp256k1.SECP256K1Arithmetic;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.bytes.BytesValues;
@@ -49,6 +50,7 @@ import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.crypto.params.ECDomainParameters;
 import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.DSAKCalculator;
 import org.bouncycastle.crypto.signers.ECDSASigner;
 import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPrivateKey;
@@ -79,6 +81,16 @@ public class SECP256K1 {
   private static final KeyPairGenerator KEY_PAIR_GENERATOR;
   private static final BigInteger CURVE_ORDER;
 
+  /** The implementations of the elliptic curve arithmetic behind signatures and public keys. */
+  public enum Backend {
+    /** Generic Bouncy Castle arithmetic, kept as the reference implementation. */
+    BOUNCY_CASTLE,
+    /** Arithmetic specialized for secp256k1, see {@link SECP256K1Arithmetic}. */
+    OPTIMIZED
+  }
+
+  private static volatile Backend backend = Backend.OPTIMIZED;
+
   static {
     Security.addProvider(new BouncyCastleProvider());
 
@@ -99,6 +111,24 @@ public class SECP256K1 {
     }
   }
 
+  public static Backend getBackend() {
+    return backend;
+  }
+
+  /**
+   * Selects the arithmetic used to verify signatures and recover public keys from signatures. Both
+   * backends produce identical results.
+   *
+   * <p>Multiplications by a secret scalar, when signing and deriving public keys from private keys,
+   * always use the Bouncy Castle comb multiplier, which takes the same steps whatever the scalar.
+   *
+   * @param backend The backend to use from now on.
+   */
+  public static void setBackend(final Backend backend) {
+    checkNotNull(backend);
+    SECP256K1.backend = backend;
+  }
+
   /** Decompress a compressed public key (x co-ord and low-bit of y-coord). */
   private static ECPoint decompressKey(final BigInteger xBN, final boolean yBit) {
     final X9IntegerConverter x9 = new X9IntegerConverter();
@@ -189,6 +219,9 @@ public class SECP256K1 {
   }
 
   public static Signature sign(final Bytes32 dataHash, final KeyPair keyPair) {
+    if (backend == Backend.OPTIMIZED) {
+      return signOptimized(dataHash, keyPair);
+    }
     final ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
 
     final ECPrivateKeyParameters privKey =
@@ -234,6 +267,42 @@ public class SECP256K1 {
     return new Signature(r, s, (byte) recId);
   }
 
+  /**
+   * Signs exactly as {@link ECDSASigner} does with the same deterministic k, but derives the recId
+   * from the point k * G rather than trying each recId in turn. As k is secret, k * G is computed
+   * with the same multiplier as {@link ECDSASigner}.
+   */
+  private static Signature signOptimized(final Bytes32 dataHash, final KeyPair keyPair) {
+    final BigInteger n = CURVE_ORDER;
+    final BigInteger d = asUnsignedBigInteger(keyPair.getPrivateKey().getEncodedBytes());
+    final BigInteger e = asUnsignedBigInteger(dataHash);
+    final DSAKCalculator kCalculator = new HMacDSAKCalculator(new SHA256Digest());
+    kCalculator.init(n, d, dataHash.getArrayUnsafe());
+
+    while (true) {
+      final BigInteger k = kCalculator.nextK();
+      final ECPoint point = new FixedPointCombMultiplier().multiply(CURVE.getG(), k).normalize();
+      final BigInteger x = point.getAffineXCoord().toBigInteger();
+      final BigInteger r = x.mod(n);
+      if (r.signum() == 0) {
+        continue;
+      }
+      BigInteger s = k.modInverse(n).multiply(e.add(d.multiply(r))).mod(n);
+      if (s.signum() == 0) {
+        continue;
+      }
+
+      // The recId gives the parity of the y coordinate of k * G, and whether x overflowed n.
+      int recId = (point.getAffineYCoord().testBitZero() ? 1 : 0) | (x.compareTo(n) >= 0 ? 2 : 0);
+      // Using the canonical s negates k, and with it the y coordinate.
+      if (s.compareTo(HALF_CURVE_ORDER) > 0) {
+        s = n.subtract(s);
+        recId ^= 1;
+      }
+      return new Signature(r, s, (byte) recId);
+    }
+  }
+
   /**
    * Verifies the given ECDSA signature against the message bytes using the public key bytes.
    *
@@ -247,6 +316,10 @@ public class SECP256K1 {
    */
   public static boolean verify(
       final BytesValue data, final Signature signature, final PublicKey pub) {
+    if (backend == Backend.OPTIMIZED) {
+      return SECP256K1Arithmetic.verify(
+          calculateE(data), signature.r, signature.s, pub.getEncodedBytes().extractArray());
+    }
     final ECDSASigner signer = new ECDSASigner();
     final BytesValue toDecode = BytesValue.wrap(BytesValue.of((byte) 4), pub.getEncodedBytes());
     final ECPublicKeyParameters params =
@@ -262,6 +335,13 @@ public class SECP256K1 {
     }
   }
 
+  /** Converts a hash to an integer as {@link ECDSASigner} does, truncating it to 256 bits. */
+  private static BigInteger calculateE(final BytesValue data) {
+    final BigInteger e = asUnsignedBigInteger(data);
+    final int excessBits = data.size() * 8 - CURVE_ORDER.bitLength();
+    return excessBits > 0 ? e.shiftRight(excessBits) : e;
+  }
+
   /**
    * Verifies the given ECDSA signature using the public key bytes against the message bytes,
    * previously passed through a preprocessor function, which is normally a hashing function.
@@ -444,6 +524,15 @@ public class SECP256K1 {
 
     public static Optional<PublicKey> recoverFromSignature(
         final Bytes32 dataHash, final Signature signature) {
+      if (backend == Backend.OPTIMIZED) {
+        final byte[] publicKey =
+            SECP256K1Arithmetic.recoverPublicKey(
+                signature.getRecId(),
+                signature.getR(),
+                signature.getS(),
+                asUnsignedBigInteger(dataHash));
+        return Optional.ofNullable(publicKey).map(BytesValue::wrap).map(PublicKey::create);
+      }
       final BigInteger publicKeyBI =
           SECP256K1.recoverFromSignature(
               signature.getRecId(), signature.getR(), signature.getS(), dataHash);
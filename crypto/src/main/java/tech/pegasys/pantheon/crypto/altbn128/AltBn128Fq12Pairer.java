@@ -12,93 +12,173 @@
  */
 package tech.pegasys.pantheon.crypto.altbn128;
 
-import static tech.pegasys.pantheon.crypto.altbn128.AltBn128Fq12Point.twist;
-
 import java.math.BigInteger;
-import java.util.Arrays;
+import java.util.List;
 
 /**
- * Adapted from the pc_ecc (Apache 2 License) implementation:
+ * The optimal ate pairing of alt_bn128, e(P, Q) = finalize(pair(P, Q)).
+ *
+ * <p>Adapted from the pc_ecc (Apache 2 License) implementation:
  * https://github.com/ethereum/py_ecc/blob/master/py_ecc/bn128/bn128_field_elements.py
+ *
+ * <p>Unlike py_ecc, the Miller loop keeps Q on the twist over Fq2 instead of mapping it into Fq12,
+ * so that each line only has three non-zero coefficients of Fq2 and costs a sparse multiplication.
+ * Lines are scaled by factors in Fq6, which the final exponentiation maps to one. The final
+ * exponentiation to (p^12 - 1) / r is split into (p^6 - 1) * (p^2 + 1), which only takes an
+ * inversion and Frobenius maps, and (p^4 - p^2 + 1) / r, which is computed from three
+ * exponentiations to the curve parameter u, as in Scott et al., "On the Final Exponentiation for
+ * Calculating Pairings on Ordinary Elliptic Curves". All arithmetic is in {@link MutableFq12}.
  */
 public class AltBn128Fq12Pairer {
 
-  private static final int LOG_ATE_LOOP_COUNT = 63;
-
+  // 6 * u + 2
   private static final BigInteger ATE_LOOP_COUNT = new BigInteger("29793968203157093288");
 
-  private static final BigInteger CURVE_ORDER =
-      new BigInteger(
-          "21888242871839275222246405745257275088548364400416034343698204186575808495617");
+  private static final BigInteger U = new BigInteger("4965661367192848881");
 
+  /**
+   * Computes the Miller loop of the pairing of p and q.
+   *
+   * @param p a point of G1
+   * @param q a point of G2
+   * @return the Miller loop of the pairing, which only {@link #finalize(Fq12)} makes unique
+   */
   public static Fq12 pair(final AltBn128Point p, final AltBn128Fq2Point q) {
-    return millerLoop(cast(p), twist(q));
+    return millerLoop(p, q).toFq12();
   }
 
-  private static AltBn128Fq12Point cast(final AltBn128Point p) {
-    final Fq[] newX = new Fq[Fq12.DEGREE];
-    Arrays.fill(newX, Fq.zero());
-    newX[0] = p.getX();
-    final Fq[] newY = new Fq[Fq12.DEGREE];
-    Arrays.fill(newY, Fq.zero());
-    newY[0] = p.getY();
+  public static Fq12 finalize(final Fq12 f) {
+    return finalExponentiation(MutableFq12.create(f)).toFq12();
+  }
 
-    return new AltBn128Fq12Point(new Fq12(newX), new Fq12(newY));
+  /**
+   * Checks whether the product of the pairings of the given points is one, as the alt_bn128
+   * pairing precompile does. Only a single final exponentiation is needed, for the product of the
+   * Miller loops.
+   *
+   * @param ps points of G1
+   * @param qs points of G2, each paired with the point of ps at the same index
+   * @return true if the product of the pairings is one
+   */
+  public static boolean pairingCheck(
+      final List<AltBn128Point> ps, final List<AltBn128Fq2Point> qs) {
+    final MutableFq12 f = MutableFq12.one();
+    for (int i = 0; i < ps.size(); ++i) {
+      f.multiply(millerLoop(ps.get(i), qs.get(i)));
+    }
+    return finalExponentiation(f).isOne();
   }
 
-  private static Fq12 millerLoop(final AltBn128Fq12Point p, final AltBn128Fq12Point q) {
+  private static MutableFq12 millerLoop(final AltBn128Point p, final AltBn128Fq2Point q) {
     if (p.isInfinity() || q.isInfinity()) {
-      return Fq12.one();
+      return MutableFq12.one();
     }
 
-    AltBn128Fq12Point r = q;
-    Fq12 f = Fq12.one();
-    for (int i = LOG_ATE_LOOP_COUNT; i >= 0; --i) {
-      f = f.multiply(f).multiply(lineFunc(r, r, p));
-      r = r.doub();
+    final MutableFq xP = MutableFq.create(p.getX());
+    final MutableFq2 negatedYP = MutableFq2.create(MutableFq.create(p.getY()).negate());
+    final MutableFq2 qx = MutableFq2.create(q.getX());
+    final MutableFq2 qy = MutableFq2.create(q.getY());
+
+    // r is kept in affine coordinates, as the slope of each line is needed anyway.
+    final MutableFq2 rx = qx.copy();
+    final MutableFq2 ry = qy.copy();
+    final MutableFq12 f = MutableFq12.one();
+    for (int i = ATE_LOOP_COUNT.bitLength() - 2; i >= 0; --i) {
+      f.square();
+      doublingStep(f, rx, ry, xP, negatedYP);
       if (ATE_LOOP_COUNT.testBit(i)) {
-        f = f.multiply(lineFunc(r, q, p));
-        r = r.add(q);
+        additionStep(f, rx, ry, qx, qy, xP, negatedYP);
       }
     }
 
-    final AltBn128Fq12Point q1 =
-        new AltBn128Fq12Point(
-            q.getX().power(FieldElement.FIELD_MODULUS), q.getY().power(FieldElement.FIELD_MODULUS));
-    final AltBn128Fq12Point nQ2 =
-        new AltBn128Fq12Point(
-            q1.getX().power(FieldElement.FIELD_MODULUS),
-            q1.getY().negate().power(FieldElement.FIELD_MODULUS));
-    f = f.multiply(lineFunc(r, q1, p));
-    r = r.add(q1);
-    f = f.multiply(lineFunc(r, nQ2, p));
+    // q1 = (q.x^p, q.y^p) and nQ2 = (q.x^(p^2), -q.y^(p^2)), on the twist.
+    final MutableFq2 q1x = qx.copy().conjugate().multiply(MutableFq12.frobeniusCoefficient(1, 2));
+    final MutableFq2 q1y = qy.copy().conjugate().multiply(MutableFq12.frobeniusCoefficient(1, 3));
+    final MutableFq2 nQ2x = qx.copy().multiply(MutableFq12.frobeniusCoefficient(2, 2));
+    final MutableFq2 nQ2y = qy.copy().multiply(MutableFq12.frobeniusCoefficient(2, 3)).negate();
+    additionStep(f, rx, ry, q1x, q1y, xP, negatedYP);
+    additionStep(f, rx, ry, nQ2x, nQ2y, xP, negatedYP);
 
     return f;
   }
 
-  public static Fq12 finalize(final Fq12 f) {
-    return f.power(FieldElement.FIELD_MODULUS.pow(12).subtract(BigInteger.ONE).divide(CURVE_ORDER));
+  private static void doublingStep(
+      final MutableFq12 f,
+      final MutableFq2 rx,
+      final MutableFq2 ry,
+      final MutableFq xP,
+      final MutableFq2 negatedYP) {
+    final MutableFq2 rxSquared = rx.copy().square();
+    final MutableFq2 slope =
+        rxSquared.copy().twice().add(rxSquared).multiply(ry.copy().twice().invert());
+    lineStep(f, rx, ry, rx, slope, xP, negatedYP);
   }
 
-  private static Fq12 lineFunc(
-      final AltBn128Fq12Point p1, final AltBn128Fq12Point p2, final AltBn128Fq12Point t) {
-    final Fq12 x1 = p1.getX();
-    final Fq12 y1 = p1.getY();
-    final Fq12 x2 = p2.getX();
-    final Fq12 y2 = p2.getY();
-    final Fq12 xT = t.getX();
-    final Fq12 yT = t.getY();
-
-    if (!x1.equals(x2)) {
-      final Fq12 m = y2.subtract(y1).divide(x2.subtract(x1));
-      final Fq12 result = m.multiply(xT.subtract(x1)).subtract(yT.subtract(y1));
-      return result;
-    } else if (y1.equals(y2)) {
-      final Fq12 m = x1.power(2).multiply(3).divide(y1.multiply(2));
-      final Fq12 result = m.multiply(xT.subtract(x1)).subtract(yT.subtract(y1));
-      return result;
-    } else {
-      return xT.subtract(x1);
+  private static void additionStep(
+      final MutableFq12 f,
+      final MutableFq2 rx,
+      final MutableFq2 ry,
+      final MutableFq2 qx,
+      final MutableFq2 qy,
+      final MutableFq xP,
+      final MutableFq2 negatedYP) {
+    if (rx.equals(qx)) {
+      if (ry.equals(qy)) {
+        doublingStep(f, rx, ry, xP, negatedYP);
+      }
+      // Otherwise the line is vertical, and its value at p is in Fq6.
+      return;
     }
+    final MutableFq2 slope = qy.copy().subtract(ry).multiply(qx.copy().subtract(rx).invert());
+    lineStep(f, rx, ry, qx, slope, xP, negatedYP);
+  }
+
+  /**
+   * Multiplies f by the line through r with the given slope, evaluated at p, and moves r to the
+   * other point where the line meets the curve, negated, which is r + q.
+   */
+  private static void lineStep(
+      final MutableFq12 f,
+      final MutableFq2 rx,
+      final MutableFq2 ry,
+      final MutableFq2 qx,
+      final MutableFq2 slope,
+      final MutableFq xP,
+      final MutableFq2 negatedYP) {
+    // With r and the slope mapped from the twist into Fq12 as (rx * w^2, ry * w^3) and slope * w,
+    // the line slope * (x - rx) - (y - ry) at p is -yP + slope * xP * w + (ry - slope * rx) * w^3.
+    f.multiplyByLine(
+        negatedYP, slope.copy().scale(xP), ry.copy().subtract(slope.copy().multiply(rx)));
+
+    final MutableFq2 x = slope.copy().square().subtract(rx).subtract(qx);
+    ry.set(rx.copy().subtract(x).multiply(slope).subtract(ry));
+    rx.set(x);
+  }
+
+  private static MutableFq12 finalExponentiation(final MutableFq12 f) {
+    // f^((p^6 - 1) * (p^2 + 1)), after which f^(p^6) = f^-1 is its conjugate.
+    final MutableFq12 t = f.copy().conjugate().multiply(f.copy().invert());
+    t.multiply(t.copy().frobenius(2));
+
+    // t^((p^4 - p^2 + 1) / r)
+    final MutableFq12 fu = t.copy().power(U);
+    final MutableFq12 fu2 = fu.copy().power(U);
+    final MutableFq12 fu3 = fu2.copy().power(U);
+    final MutableFq12 fp2 = t.copy().frobenius(2);
+    final MutableFq12 y0 = t.copy().frobenius(1).multiply(fp2).multiply(fp2.copy().frobenius(1));
+    final MutableFq12 y1 = t.copy().conjugate();
+    final MutableFq12 y2 = fu2.copy().frobenius(2);
+    final MutableFq12 y3 = fu.copy().frobenius(1).conjugate();
+    final MutableFq12 y4 = fu.copy().multiply(fu2.copy().frobenius(1)).conjugate();
+    final MutableFq12 y5 = fu2.copy().conjugate();
+    final MutableFq12 y6 = fu3.copy().multiply(fu3.copy().frobenius(1)).conjugate();
+
+    final MutableFq12 t0 = y6.square().multiply(y4).multiply(y5);
+    final MutableFq12 t1 = y3.multiply(y5).multiply(t0);
+    t0.multiply(y2);
+    t1.square().multiply(t0).square();
+    t0.set(t1).multiply(y1);
+    t1.multiply(y0);
+    return t0.square().multiply(t1);
   }
 }
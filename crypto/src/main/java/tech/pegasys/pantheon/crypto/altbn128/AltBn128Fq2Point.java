@@ -51,6 +51,28 @@ public class AltBn128Fq2Point extends AbstractFieldPoint<AltBn128Fq2Point> {
     return (Fq2) y;
   }
 
+  @Override
+  public AltBn128Fq2Point add(final AltBn128Fq2Point other) {
+    if (isInfinity() || other.isInfinity()) {
+      return isInfinity() ? other : this;
+    }
+    return fromJacobian(toJacobian().add(other.toJacobian()));
+  }
+
+  @Override
+  public AltBn128Fq2Point multiply(final BigInteger n) {
+    return fromJacobian(toJacobian().multiply(n));
+  }
+
+  private JacobianPoint<MutableFq2> toJacobian() {
+    return JacobianPoint.affine(MutableFq2.create(getX()), MutableFq2.create(getY()));
+  }
+
+  private static AltBn128Fq2Point fromJacobian(final JacobianPoint<MutableFq2> point) {
+    point.normalize();
+    return new AltBn128Fq2Point(point.x.toFq2(), point.y.toFq2());
+  }
+
   @Override
   protected AltBn128Fq2Point infinity() {
     return new AltBn128Fq2Point(Fq2.zero(), Fq2.zero());
@@ -12,6 +12,8 @@
  */
 package tech.pegasys.pantheon.crypto.altbn128;
 
+import java.math.BigInteger;
+
 /**
  * Adapted from the pc_ecc (Apache 2 License) implementation:
  * https://github.com/ethereum/py_ecc/blob/master/py_ecc/bn128/bn128_field_elements.py
@@ -49,6 +51,28 @@ public class AltBn128Point extends AbstractFieldPoint<AltBn128Point> {
     return y.power(2).subtract(x.power(3)).equals(B);
   }
 
+  @Override
+  public AltBn128Point add(final AltBn128Point other) {
+    if (isInfinity() || other.isInfinity()) {
+      return isInfinity() ? other : this;
+    }
+    return fromJacobian(toJacobian().add(other.toJacobian()));
+  }
+
+  @Override
+  public AltBn128Point multiply(final BigInteger n) {
+    return fromJacobian(toJacobian().multiply(n));
+  }
+
+  private JacobianPoint<MutableFq> toJacobian() {
+    return JacobianPoint.affine(MutableFq.create(getX()), MutableFq.create(getY()));
+  }
+
+  private static AltBn128Point fromJacobian(final JacobianPoint<MutableFq> point) {
+    point.normalize();
+    return new AltBn128Point(point.x.toFq(), point.y.toFq());
+  }
+
   @Override
   protected AltBn128Point infinity() {
     return new AltBn128Point(Fq.zero(), Fq.zero());
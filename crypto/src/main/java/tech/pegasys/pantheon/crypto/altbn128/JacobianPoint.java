@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import java.math.BigInteger;
+
+/**
+ * A point (x / z^2, y / z^3) of a curve y^2 = x^3 + b in Jacobian coordinates, updated in place.
+ * Adding and doubling in these coordinates takes no inversion, so a whole scalar multiplication
+ * takes a single one, to convert the result back to affine coordinates. The point at infinity has
+ * z = 0.
+ *
+ * <p>Used for both alt_bn128 over Fq and its twist over Fq2; neither formula depends on b.
+ */
+final class JacobianPoint<T extends MutableFieldElement<T>> {
+
+  final T x;
+  final T y;
+  final T z;
+
+  private JacobianPoint(final T x, final T y, final T z) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+  }
+
+  /** Creates a point from its affine coordinates, with (0, 0) as the point at infinity. */
+  static <F extends MutableFieldElement<F>> JacobianPoint<F> affine(final F x, final F y) {
+    final F z = x.copy().setOne();
+    if (x.isZero() && y.isZero()) {
+      z.setZero();
+    }
+    return new JacobianPoint<>(x, y, z);
+  }
+
+  boolean isInfinity() {
+    return z.isZero();
+  }
+
+  JacobianPoint<T> copy() {
+    return new JacobianPoint<>(x.copy(), y.copy(), z.copy());
+  }
+
+  private JacobianPoint<T> set(final JacobianPoint<T> other) {
+    x.set(other.x);
+    y.set(other.y);
+    z.set(other.z);
+    return this;
+  }
+
+  private JacobianPoint<T> setInfinity() {
+    x.setOne();
+    y.setOne();
+    z.setZero();
+    return this;
+  }
+
+  /** Doubles this point ("dbl-2009-l" from the Explicit-Formulas Database). */
+  JacobianPoint<T> twice() {
+    if (isInfinity()) {
+      return this;
+    }
+    final T a = x.copy().square();
+    final T b = y.copy().square();
+    final T c = b.copy().square();
+    final T d = x.copy().add(b).square().subtract(a).subtract(c).twice();
+    final T e = a.copy().twice().add(a);
+    final T f = e.copy().square();
+    z.multiply(y).twice();
+    x.set(f).subtract(d.copy().twice());
+    y.set(d).subtract(x).multiply(e).subtract(c.twice().twice().twice());
+    return this;
+  }
+
+  /** Adds another point to this one ("add-2007-bl" from the Explicit-Formulas Database). */
+  JacobianPoint<T> add(final JacobianPoint<T> other) {
+    if (other.isInfinity()) {
+      return this;
+    }
+    if (isInfinity()) {
+      return set(other);
+    }
+    final T z1z1 = z.copy().square();
+    final T z2z2 = other.z.copy().square();
+    final T u1 = x.copy().multiply(z2z2);
+    final T u2 = other.x.copy().multiply(z1z1);
+    final T s1 = y.copy().multiply(other.z).multiply(z2z2);
+    final T s2 = other.y.copy().multiply(z).multiply(z1z1);
+    final T h = u2.subtract(u1);
+    final T r = s2.subtract(s1).twice();
+    if (h.isZero()) {
+      return r.isZero() ? twice() : setInfinity();
+    }
+    final T i = h.copy().twice().square();
+    final T j = h.copy().multiply(i);
+    final T v = u1.multiply(i);
+    x.set(r).square().subtract(j).subtract(v.copy().twice());
+    y.set(v).subtract(x).multiply(r).subtract(s1.multiply(j).twice());
+    z.add(other.z).square().subtract(z1z1).subtract(z2z2).multiply(h);
+    return this;
+  }
+
+  /** @return a new point, this one multiplied by a non-negative scalar */
+  JacobianPoint<T> multiply(final BigInteger n) {
+    final JacobianPoint<T> result = copy().setInfinity();
+    for (int i = n.bitLength() - 1; i >= 0; i--) {
+      result.twice();
+      if (n.testBit(i)) {
+        result.add(this);
+      }
+    }
+    return result;
+  }
+
+  /** Scales this point to z = 1, or to (0, 0) if it is the point at infinity. */
+  JacobianPoint<T> normalize() {
+    if (isInfinity()) {
+      x.setZero();
+      y.setZero();
+      return this;
+    }
+    final T zInverse = z.copy().invert();
+    final T zInverseSquared = zInverse.copy().square();
+    x.multiply(zInverseSquared);
+    y.multiply(zInverseSquared).multiply(zInverse);
+    z.setOne();
+    return this;
+  }
+}
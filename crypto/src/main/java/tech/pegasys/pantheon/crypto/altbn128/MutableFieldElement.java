@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+/**
+ * A field element which is updated in place, so that arithmetic does not allocate a new element
+ * for every operation. Every operation returns the element itself, so that operations can be
+ * chained, and accepts the element itself as its operand.
+ */
+interface MutableFieldElement<T extends MutableFieldElement<T>> {
+
+  T copy();
+
+  T set(T other);
+
+  T setZero();
+
+  T setOne();
+
+  boolean isZero();
+
+  T add(T other);
+
+  T subtract(T other);
+
+  T negate();
+
+  T twice();
+
+  T multiply(T other);
+
+  T square();
+
+  T invert();
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * An element of the base field of alt_bn128, in Montgomery form: a is held as a * 2^256 mod p, in
+ * four unsigned 64-bit limbs, least significant first. Multiplying two elements in this form then
+ * only takes word multiplications and shifts, where {@link Fq} divides a {@link BigInteger}.
+ */
+final class MutableFq implements MutableFieldElement<MutableFq> {
+
+  private static final int LIMBS = 4;
+  private static final BigInteger MODULUS = FieldElement.FIELD_MODULUS;
+  private static final long[] P = limbs(MODULUS);
+  // -p^-1 mod 2^64
+  private static final long P_INVERSE =
+      MODULUS.negate().modInverse(BigInteger.ONE.shiftLeft(64)).longValue();
+  private static final long[] R = limbs(BigInteger.ONE.shiftLeft(64 * LIMBS).mod(MODULUS));
+  private static final long[] R_SQUARED =
+      limbs(BigInteger.ONE.shiftLeft(2 * 64 * LIMBS).mod(MODULUS));
+  private static final long[] ONE = {1, 0, 0, 0};
+
+  final long[] limbs;
+
+  private MutableFq(final long[] limbs) {
+    this.limbs = limbs;
+  }
+
+  static MutableFq zero() {
+    return new MutableFq(new long[LIMBS]);
+  }
+
+  static MutableFq one() {
+    return new MutableFq(R.clone());
+  }
+
+  static MutableFq create(final BigInteger value) {
+    final long[] limbs = limbs(value.mod(MODULUS));
+    multiply(limbs, R_SQUARED, limbs);
+    return new MutableFq(limbs);
+  }
+
+  static MutableFq create(final Fq value) {
+    return create(value.toBigInteger());
+  }
+
+  BigInteger toBigInteger() {
+    final long[] value = new long[LIMBS];
+    multiply(limbs, ONE, value);
+    final byte[] bytes = new byte[8 * LIMBS];
+    for (int i = 0; i < LIMBS; i++) {
+      for (int j = 0; j < 8; j++) {
+        bytes[bytes.length - 1 - 8 * i - j] = (byte) (value[i] >>> (8 * j));
+      }
+    }
+    return new BigInteger(1, bytes);
+  }
+
+  Fq toFq() {
+    return Fq.create(toBigInteger());
+  }
+
+  @Override
+  public MutableFq copy() {
+    return new MutableFq(limbs.clone());
+  }
+
+  @Override
+  public MutableFq set(final MutableFq other) {
+    System.arraycopy(other.limbs, 0, limbs, 0, LIMBS);
+    return this;
+  }
+
+  @Override
+  public MutableFq setZero() {
+    Arrays.fill(limbs, 0);
+    return this;
+  }
+
+  @Override
+  public MutableFq setOne() {
+    System.arraycopy(R, 0, limbs, 0, LIMBS);
+    return this;
+  }
+
+  @Override
+  public boolean isZero() {
+    return (limbs[0] | limbs[1] | limbs[2] | limbs[3]) == 0;
+  }
+
+  @Override
+  public MutableFq add(final MutableFq other) {
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long a = limbs[i];
+      final long b = other.limbs[i];
+      final long sum = a + b + carry;
+      carry = ((a & b) | ((a | b) & ~sum)) >>> 63;
+      limbs[i] = sum;
+    }
+    // Both are below p < 2^254, so the sum can't overflow.
+    if (compareToModulus(limbs) >= 0) {
+      subtractModulus(limbs);
+    }
+    return this;
+  }
+
+  @Override
+  public MutableFq subtract(final MutableFq other) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long a = limbs[i];
+      final long b = other.limbs[i];
+      final long difference = a - b - borrow;
+      borrow = ((~a & b) | (~(a ^ b) & difference)) >>> 63;
+      limbs[i] = difference;
+    }
+    if (borrow != 0) {
+      addModulus(limbs);
+    }
+    return this;
+  }
+
+  @Override
+  public MutableFq negate() {
+    if (!isZero()) {
+      long borrow = 0;
+      for (int i = 0; i < LIMBS; i++) {
+        final long a = P[i];
+        final long b = limbs[i];
+        final long difference = a - b - borrow;
+        borrow = ((~a & b) | (~(a ^ b) & difference)) >>> 63;
+        limbs[i] = difference;
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public MutableFq twice() {
+    return add(this);
+  }
+
+  @Override
+  public MutableFq multiply(final MutableFq other) {
+    multiply(limbs, other.limbs, limbs);
+    return this;
+  }
+
+  @Override
+  public MutableFq square() {
+    multiply(limbs, limbs, limbs);
+    return this;
+  }
+
+  /** Inverts this element, leaving zero as zero like {@link Fq#divide(Fq)} does. */
+  @Override
+  public MutableFq invert() {
+    if (!isZero()) {
+      set(create(toBigInteger().modInverse(MODULUS)));
+    }
+    return this;
+  }
+
+  /**
+   * Montgomery multiplication (CIOS): result = a * b / 2^256 mod p. The result may be one of the
+   * operands.
+   */
+  private static void multiply(final long[] a, final long[] b, final long[] result) {
+    // p < 2^254, so t stays below 2^320 and never needs a sixth limb.
+    final long[] t = new long[LIMBS + 1];
+    for (int i = 0; i < LIMBS; i++) {
+      final long bi = b[i];
+      long carry = 0;
+      for (int j = 0; j < LIMBS; j++) {
+        long low = a[j] * bi;
+        long high = unsignedMultiplyHigh(a[j], bi);
+        low += t[j];
+        high += carry(low, t[j]);
+        low += carry;
+        high += carry(low, carry);
+        t[j] = low;
+        carry = high;
+      }
+      t[LIMBS] += carry;
+
+      // Add m * p, with m chosen to clear the lowest limb, and shift down by a limb.
+      final long m = t[0] * P_INVERSE;
+      long low = m * P[0];
+      carry = unsignedMultiplyHigh(m, P[0]) + carry(low + t[0], t[0]);
+      for (int j = 1; j < LIMBS; j++) {
+        low = m * P[j];
+        long high = unsignedMultiplyHigh(m, P[j]);
+        low += t[j];
+        high += carry(low, t[j]);
+        low += carry;
+        high += carry(low, carry);
+        t[j - 1] = low;
+        carry = high;
+      }
+      t[LIMBS - 1] = t[LIMBS] + carry;
+      t[LIMBS] = carry(t[LIMBS - 1], carry);
+    }
+    if (t[LIMBS] != 0 || compareToModulus(t) >= 0) {
+      subtractModulus(t);
+    }
+    System.arraycopy(t, 0, result, 0, LIMBS);
+  }
+
+  private static long unsignedMultiplyHigh(final long a, final long b) {
+    return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+  }
+
+  // The carry out of sum = addend + something.
+  private static long carry(final long sum, final long addend) {
+    return Long.compareUnsigned(sum, addend) < 0 ? 1 : 0;
+  }
+
+  private static int compareToModulus(final long[] a) {
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final int comparison = Long.compareUnsigned(a[i], P[i]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  private static void subtractModulus(final long[] a) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long difference = a[i] - P[i] - borrow;
+      borrow = ((~a[i] & P[i]) | (~(a[i] ^ P[i]) & difference)) >>> 63;
+      a[i] = difference;
+    }
+  }
+
+  private static void addModulus(final long[] a) {
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long sum = a[i] + P[i] + carry;
+      carry = ((a[i] & P[i]) | ((a[i] | P[i]) & ~sum)) >>> 63;
+      a[i] = sum;
+    }
+  }
+
+  private static long[] limbs(final BigInteger value) {
+    final long[] limbs = new long[LIMBS];
+    for (int i = 0; i < LIMBS; i++) {
+      limbs[i] = value.shiftRight(64 * i).longValue();
+    }
+    return limbs;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(MutableFq.class).add("n", toBigInteger()).toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(limbs);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof MutableFq)) {
+      return false;
+    }
+    return Arrays.equals(limbs, ((MutableFq) obj).limbs);
+  }
+}
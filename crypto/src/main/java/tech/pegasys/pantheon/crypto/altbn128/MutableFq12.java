@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+/**
+ * An element c0 + c1 * w of Fq12 = Fq6[w] / (w^2 - v), the mutable counterpart of {@link Fq12}.
+ *
+ * <p>This tower of extensions is the same field as the single extension {@link Fq12} is built as,
+ * Fq[w] / (w^12 - 18 * w^6 + 82): in both w^6 = xi = 9 + u. The tower lets multiplication work
+ * through {@link MutableFq6} and {@link MutableFq2}, with the p-th power (Frobenius map) taking no
+ * more than a multiplication per coefficient. {@link #create(Fq12)} and {@link #toFq12()} convert
+ * between the two.
+ */
+final class MutableFq12 {
+
+  // FROBENIUS_COEFFICIENTS[i - 1][k] = xi^(k * (p^i - 1) / 6) = w^(k * (p^i - 1))
+  private static final MutableFq2[][] FROBENIUS_COEFFICIENTS = frobeniusCoefficients();
+
+  final MutableFq6 c0;
+  final MutableFq6 c1;
+
+  private MutableFq12(final MutableFq6 c0, final MutableFq6 c1) {
+    this.c0 = c0;
+    this.c1 = c1;
+  }
+
+  static MutableFq12 one() {
+    return new MutableFq12(MutableFq6.one(), MutableFq6.zero());
+  }
+
+  static MutableFq12 create(final Fq12 value) {
+    final MutableFq12 result = new MutableFq12(MutableFq6.zero(), MutableFq6.zero());
+    final Fq[] coefficients = value.getCoefficients();
+    for (int k = 0; k < 6; k++) {
+      // a * w^k + b * w^(k + 6) = (a + 9 * b + b * u) * w^k, as u = w^6 - 9
+      final BigInteger a = coefficients[k].toBigInteger();
+      final BigInteger b = coefficients[k + 6].toBigInteger();
+      result.coefficient(k).set(MutableFq2.create(a.add(b.multiply(BigInteger.valueOf(9))), b));
+    }
+    return result;
+  }
+
+  Fq12 toFq12() {
+    final Fq[] coefficients = new Fq[Fq12.DEGREE];
+    for (int k = 0; k < 6; k++) {
+      final MutableFq2 coefficient = coefficient(k);
+      final MutableFq nineB = coefficient.imaginary.copy().twice().twice().twice();
+      nineB.add(coefficient.imaginary);
+      coefficients[k] = coefficient.real.copy().subtract(nineB).toFq();
+      coefficients[k + 6] = coefficient.imaginary.toFq();
+    }
+    return new Fq12(coefficients);
+  }
+
+  /** @return the coefficient of w^k, for k from 0 to 5 */
+  private MutableFq2 coefficient(final int k) {
+    return (k % 2 == 0 ? c0 : c1).coefficient(k / 2);
+  }
+
+  /** @return xi^(k * (p^power - 1) / 6), for power from 1 to 3 and k from 0 to 5 */
+  static MutableFq2 frobeniusCoefficient(final int power, final int k) {
+    return FROBENIUS_COEFFICIENTS[power - 1][k].copy();
+  }
+
+  MutableFq12 copy() {
+    return new MutableFq12(c0.copy(), c1.copy());
+  }
+
+  MutableFq12 set(final MutableFq12 other) {
+    c0.set(other.c0);
+    c1.set(other.c1);
+    return this;
+  }
+
+  boolean isOne() {
+    return c0.isOne() && c1.isZero();
+  }
+
+  MutableFq12 multiply(final MutableFq12 other) {
+    final MutableFq6 a = c0.copy().multiply(other.c0);
+    final MutableFq6 b = c1.copy().multiply(other.c1);
+    final MutableFq6 otherSum = other.c0.copy().add(other.c1);
+    c1.add(c0).multiply(otherSum).subtract(a).subtract(b);
+    c0.set(b).multiplyByV().add(a);
+    return this;
+  }
+
+  MutableFq12 square() {
+    // (c0 + c1 * w)^2 = (c0 + c1) * (c0 + v * c1) - (1 + v) * c0 * c1 + 2 * c0 * c1 * w
+    final MutableFq6 product = c0.copy().multiply(c1);
+    final MutableFq6 sum = c1.copy().multiplyByV().add(c0);
+    c0.add(c1).multiply(sum).subtract(product).subtract(product.copy().multiplyByV());
+    c1.set(product).twice();
+    return this;
+  }
+
+  /**
+   * Multiplies by l0 + l1 * w + l3 * w^3, the form every line of the Miller loop takes, in fewer
+   * multiplications than a full {@link #multiply(MutableFq12)}.
+   */
+  MutableFq12 multiplyByLine(final MutableFq2 l0, final MutableFq2 l1, final MutableFq2 l3) {
+    // The line is (l0) + (l1 + l3 * v) * w.
+    final MutableFq6 a = c0.copy().scale(l0);
+    final MutableFq6 b = c1.copy().multiplyBy01(l1, l3);
+    c1.add(c0).multiplyBy01(l0.copy().add(l1), l3).subtract(a).subtract(b);
+    c0.set(b).multiplyByV().add(a);
+    return this;
+  }
+
+  /** Replaces c0 + c1 * w by c0 - c1 * w, which is also its p^6-th power. */
+  MutableFq12 conjugate() {
+    c1.negate();
+    return this;
+  }
+
+  MutableFq12 invert() {
+    // 1 / (c0 + c1 * w) = (c0 - c1 * w) / (c0^2 - v * c1^2)
+    final MutableFq6 normInverse =
+        c1.copy().square().multiplyByV().negate().add(c0.copy().square()).invert();
+    c0.multiply(normInverse);
+    c1.multiply(normInverse).negate();
+    return this;
+  }
+
+  /** Raises this to the power p^power, for power from 1 to 3. */
+  MutableFq12 frobenius(final int power) {
+    // (a * w^k)^(p^power) = a^(p^power) * w^k * w^(k * (p^power - 1))
+    for (int k = 0; k < 6; k++) {
+      final MutableFq2 coefficient = coefficient(k);
+      if (power % 2 == 1) {
+        coefficient.conjugate();
+      }
+      if (k > 0) {
+        coefficient.multiply(FROBENIUS_COEFFICIENTS[power - 1][k]);
+      }
+    }
+    return this;
+  }
+
+  MutableFq12 power(final BigInteger exponent) {
+    final MutableFq12 base = copy();
+    set(one());
+    for (int i = exponent.bitLength() - 1; i >= 0; i--) {
+      square();
+      if (exponent.testBit(i)) {
+        multiply(base);
+      }
+    }
+    return this;
+  }
+
+  private static MutableFq2[][] frobeniusCoefficients() {
+    final MutableFq2 xi = MutableFq2.create(BigInteger.valueOf(9), BigInteger.ONE);
+    final MutableFq2[][] coefficients = new MutableFq2[3][6];
+    BigInteger modulusPower = BigInteger.ONE;
+    for (int power = 1; power <= 3; power++) {
+      modulusPower = modulusPower.multiply(FieldElement.FIELD_MODULUS);
+      final BigInteger exponent =
+          modulusPower.subtract(BigInteger.ONE).divide(BigInteger.valueOf(6));
+      for (int k = 0; k < 6; k++) {
+        coefficients[power - 1][k] = xi.copy().power(exponent.multiply(BigInteger.valueOf(k)));
+      }
+    }
+    return coefficients;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(c0, c1);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof MutableFq12)) {
+      return false;
+    }
+    final MutableFq12 other = (MutableFq12) obj;
+    return c0.equals(other.c0) && c1.equals(other.c1);
+  }
+}
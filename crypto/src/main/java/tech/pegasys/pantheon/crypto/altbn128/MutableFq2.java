@@ -0,0 +1,202 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import java.math.BigInteger;
+import java.util.Objects;
+
+import com.google.common.base.MoreObjects;
+
+/** An element a + b * u of Fq2 = Fq[u] / (u^2 + 1), the mutable counterpart of {@link Fq2}. */
+final class MutableFq2 implements MutableFieldElement<MutableFq2> {
+
+  final MutableFq real;
+  final MutableFq imaginary;
+
+  private MutableFq2(final MutableFq real, final MutableFq imaginary) {
+    this.real = real;
+    this.imaginary = imaginary;
+  }
+
+  static MutableFq2 zero() {
+    return new MutableFq2(MutableFq.zero(), MutableFq.zero());
+  }
+
+  static MutableFq2 one() {
+    return new MutableFq2(MutableFq.one(), MutableFq.zero());
+  }
+
+  static MutableFq2 create(final BigInteger real, final BigInteger imaginary) {
+    return new MutableFq2(MutableFq.create(real), MutableFq.create(imaginary));
+  }
+
+  static MutableFq2 create(final MutableFq real) {
+    return new MutableFq2(real.copy(), MutableFq.zero());
+  }
+
+  static MutableFq2 create(final Fq2 value) {
+    final Fq[] coefficients = value.getCoefficients();
+    return new MutableFq2(MutableFq.create(coefficients[0]), MutableFq.create(coefficients[1]));
+  }
+
+  Fq2 toFq2() {
+    return Fq2.create(real.toBigInteger(), imaginary.toBigInteger());
+  }
+
+  @Override
+  public MutableFq2 copy() {
+    return new MutableFq2(real.copy(), imaginary.copy());
+  }
+
+  @Override
+  public MutableFq2 set(final MutableFq2 other) {
+    real.set(other.real);
+    imaginary.set(other.imaginary);
+    return this;
+  }
+
+  @Override
+  public MutableFq2 setZero() {
+    real.setZero();
+    imaginary.setZero();
+    return this;
+  }
+
+  @Override
+  public MutableFq2 setOne() {
+    real.setOne();
+    imaginary.setZero();
+    return this;
+  }
+
+  @Override
+  public boolean isZero() {
+    return real.isZero() && imaginary.isZero();
+  }
+
+  @Override
+  public MutableFq2 add(final MutableFq2 other) {
+    real.add(other.real);
+    imaginary.add(other.imaginary);
+    return this;
+  }
+
+  @Override
+  public MutableFq2 subtract(final MutableFq2 other) {
+    real.subtract(other.real);
+    imaginary.subtract(other.imaginary);
+    return this;
+  }
+
+  @Override
+  public MutableFq2 negate() {
+    real.negate();
+    imaginary.negate();
+    return this;
+  }
+
+  @Override
+  public MutableFq2 twice() {
+    real.twice();
+    imaginary.twice();
+    return this;
+  }
+
+  /** Replaces a + b * u by a - b * u, which is also its p-th power. */
+  MutableFq2 conjugate() {
+    imaginary.negate();
+    return this;
+  }
+
+  @Override
+  public MutableFq2 multiply(final MutableFq2 other) {
+    // Karatsuba: three multiplications in Fq instead of four.
+    final MutableFq realProduct = real.copy().multiply(other.real);
+    final MutableFq imaginaryProduct = imaginary.copy().multiply(other.imaginary);
+    final MutableFq otherSum = other.real.copy().add(other.imaginary);
+    imaginary.add(real).multiply(otherSum).subtract(realProduct).subtract(imaginaryProduct);
+    real.set(realProduct).subtract(imaginaryProduct);
+    return this;
+  }
+
+  MutableFq2 scale(final MutableFq factor) {
+    real.multiply(factor);
+    imaginary.multiply(factor);
+    return this;
+  }
+
+  @Override
+  public MutableFq2 square() {
+    // (a + b * u)^2 = (a + b) * (a - b) + 2 * a * b * u
+    final MutableFq product = real.copy().multiply(imaginary);
+    final MutableFq sum = real.copy().add(imaginary);
+    real.subtract(imaginary).multiply(sum);
+    imaginary.set(product).twice();
+    return this;
+  }
+
+  /** Multiplies by xi = 9 + u, the non-residue that Fq6 and Fq12 are built with. */
+  MutableFq2 multiplyByXi() {
+    final MutableFq a = real.copy();
+    final MutableFq b = imaginary.copy();
+    real.twice().twice().twice().add(a).subtract(b);
+    imaginary.twice().twice().twice().add(b).add(a);
+    return this;
+  }
+
+  @Override
+  public MutableFq2 invert() {
+    // 1 / (a + b * u) = (a - b * u) / (a^2 + b^2)
+    final MutableFq norm = real.copy().square().add(imaginary.copy().square()).invert();
+    real.multiply(norm);
+    imaginary.multiply(norm).negate();
+    return this;
+  }
+
+  MutableFq2 power(final BigInteger exponent) {
+    final MutableFq2 base = copy();
+    setOne();
+    for (int i = exponent.bitLength() - 1; i >= 0; i--) {
+      square();
+      if (exponent.testBit(i)) {
+        multiply(base);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(MutableFq2.class)
+        .add("real", real.toBigInteger())
+        .add("imaginary", imaginary.toBigInteger())
+        .toString();
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(real, imaginary);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof MutableFq2)) {
+      return false;
+    }
+    final MutableFq2 other = (MutableFq2) obj;
+    return real.equals(other.real) && imaginary.equals(other.imaginary);
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import java.util.Objects;
+
+/**
+ * An element c0 + c1 * v + c2 * v^2 of Fq6 = Fq2[v] / (v^3 - xi), with xi = 9 + u. Only used as
+ * half of a {@link MutableFq12}.
+ */
+final class MutableFq6 {
+
+  final MutableFq2 c0;
+  final MutableFq2 c1;
+  final MutableFq2 c2;
+
+  private MutableFq6(final MutableFq2 c0, final MutableFq2 c1, final MutableFq2 c2) {
+    this.c0 = c0;
+    this.c1 = c1;
+    this.c2 = c2;
+  }
+
+  static MutableFq6 zero() {
+    return new MutableFq6(MutableFq2.zero(), MutableFq2.zero(), MutableFq2.zero());
+  }
+
+  static MutableFq6 one() {
+    return new MutableFq6(MutableFq2.one(), MutableFq2.zero(), MutableFq2.zero());
+  }
+
+  MutableFq2 coefficient(final int index) {
+    switch (index) {
+      case 0:
+        return c0;
+      case 1:
+        return c1;
+      case 2:
+        return c2;
+      default:
+        throw new IllegalArgumentException("No coefficient " + index + " in Fq6");
+    }
+  }
+
+  MutableFq6 copy() {
+    return new MutableFq6(c0.copy(), c1.copy(), c2.copy());
+  }
+
+  MutableFq6 set(final MutableFq6 other) {
+    c0.set(other.c0);
+    c1.set(other.c1);
+    c2.set(other.c2);
+    return this;
+  }
+
+  boolean isZero() {
+    return c0.isZero() && c1.isZero() && c2.isZero();
+  }
+
+  boolean isOne() {
+    return c0.equals(MutableFq2.one()) && c1.isZero() && c2.isZero();
+  }
+
+  MutableFq6 add(final MutableFq6 other) {
+    c0.add(other.c0);
+    c1.add(other.c1);
+    c2.add(other.c2);
+    return this;
+  }
+
+  MutableFq6 subtract(final MutableFq6 other) {
+    c0.subtract(other.c0);
+    c1.subtract(other.c1);
+    c2.subtract(other.c2);
+    return this;
+  }
+
+  MutableFq6 negate() {
+    c0.negate();
+    c1.negate();
+    c2.negate();
+    return this;
+  }
+
+  MutableFq6 twice() {
+    c0.twice();
+    c1.twice();
+    c2.twice();
+    return this;
+  }
+
+  MutableFq6 multiply(final MutableFq6 other) {
+    // Karatsuba: six multiplications in Fq2 instead of nine.
+    final MutableFq2 t0 = c0.copy().multiply(other.c0);
+    final MutableFq2 t1 = c1.copy().multiply(other.c1);
+    final MutableFq2 t2 = c2.copy().multiply(other.c2);
+    final MutableFq2 n0 =
+        c1.copy()
+            .add(c2)
+            .multiply(other.c1.copy().add(other.c2))
+            .subtract(t1)
+            .subtract(t2)
+            .multiplyByXi()
+            .add(t0);
+    final MutableFq2 n1 =
+        c0.copy()
+            .add(c1)
+            .multiply(other.c0.copy().add(other.c1))
+            .subtract(t0)
+            .subtract(t1)
+            .add(t2.copy().multiplyByXi());
+    final MutableFq2 n2 =
+        c0.copy()
+            .add(c2)
+            .multiply(other.c0.copy().add(other.c2))
+            .subtract(t0)
+            .subtract(t2)
+            .add(t1);
+    c0.set(n0);
+    c1.set(n1);
+    c2.set(n2);
+    return this;
+  }
+
+  /** Multiplies by b0 + b1 * v, which is how lines of the Miller loop come in. */
+  MutableFq6 multiplyBy01(final MutableFq2 b0, final MutableFq2 b1) {
+    final MutableFq2 n0 = c2.copy().multiply(b1).multiplyByXi().add(c0.copy().multiply(b0));
+    final MutableFq2 n1 = c0.copy().multiply(b1).add(c1.copy().multiply(b0));
+    c2.multiply(b0).add(c1.multiply(b1));
+    c0.set(n0);
+    c1.set(n1);
+    return this;
+  }
+
+  MutableFq6 scale(final MutableFq2 factor) {
+    c0.multiply(factor);
+    c1.multiply(factor);
+    c2.multiply(factor);
+    return this;
+  }
+
+  MutableFq6 square() {
+    return multiply(this);
+  }
+
+  MutableFq6 multiplyByV() {
+    final MutableFq2 c2TimesXi = c2.copy().multiplyByXi();
+    c2.set(c1);
+    c1.set(c0);
+    c0.set(c2TimesXi);
+    return this;
+  }
+
+  MutableFq6 invert() {
+    final MutableFq2 a = c0.copy().square().subtract(c1.copy().multiply(c2).multiplyByXi());
+    final MutableFq2 b = c2.copy().square().multiplyByXi().subtract(c0.copy().multiply(c1));
+    final MutableFq2 c = c1.copy().square().subtract(c0.copy().multiply(c2));
+    final MutableFq2 normInverse =
+        c2.copy()
+            .multiply(b)
+            .add(c1.copy().multiply(c))
+            .multiplyByXi()
+            .add(c0.copy().multiply(a))
+            .invert();
+    c0.set(a).multiply(normInverse);
+    c1.set(b).multiply(normInverse);
+    c2.set(c).multiply(normInverse);
+    return this;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(c0, c1, c2);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof MutableFq6)) {
+      return false;
+    }
+    final MutableFq6 other = (MutableFq6) obj;
+    return c0.equals(other.c0) && c1.equals(other.c1) && c2.equals(other.c2);
+  }
+}
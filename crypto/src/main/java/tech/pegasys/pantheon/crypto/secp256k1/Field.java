@@ -0,0 +1,308 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.secp256k1;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic in the prime field of secp256k1, p = 2^256 - 2^32 - 977, on elements held as 8
+ * unsigned 32-bit limbs, least significant first.
+ *
+ * <p>Every operation takes fully reduced elements and writes a fully reduced element to its result
+ * array, which may be one of its operands.
+ */
+final class Field {
+  static final int LIMBS = 8;
+
+  private static final long MASK = 0xFFFFFFFFL;
+  // 2^256 = 2^32 + 977 (mod p).
+  private static final long REDUCTION = 977;
+  private static final int EXPONENT_WINDOW_BITS = 4;
+  private static final int[] P = {
+    0xFFFFFC2F, 0xFFFFFFFE, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF
+  };
+  static final BigInteger MODULUS = toBigInteger(P);
+
+  private Field() {}
+
+  static int[] create() {
+    return new int[LIMBS];
+  }
+
+  static int[] one() {
+    final int[] one = create();
+    one[0] = 1;
+    return one;
+  }
+
+  static int[] fromBigInteger(final BigInteger value) {
+    final int[] result = create();
+    for (int i = 0; i < LIMBS; i++) {
+      result[i] = value.shiftRight(32 * i).intValue();
+    }
+    return result;
+  }
+
+  static BigInteger toBigInteger(final int[] a) {
+    final byte[] bytes = new byte[32];
+    toBytes(a, bytes, 0);
+    return new BigInteger(1, bytes);
+  }
+
+  /** Reads a big-endian 32 byte value, returning null if it is not less than p. */
+  static int[] fromBytes(final byte[] bytes, final int offset) {
+    final int[] result = create();
+    for (int i = 0; i < LIMBS; i++) {
+      final int position = offset + 4 * (LIMBS - 1 - i);
+      result[i] =
+          ((bytes[position] & 0xFF) << 24)
+              | ((bytes[position + 1] & 0xFF) << 16)
+              | ((bytes[position + 2] & 0xFF) << 8)
+              | (bytes[position + 3] & 0xFF);
+    }
+    return compare(result, P) < 0 ? result : null;
+  }
+
+  /** Writes an element as a big-endian 32 byte value. */
+  static void toBytes(final int[] a, final byte[] bytes, final int offset) {
+    for (int i = 0; i < LIMBS; i++) {
+      final int position = offset + 4 * (LIMBS - 1 - i);
+      bytes[position] = (byte) (a[i] >>> 24);
+      bytes[position + 1] = (byte) (a[i] >>> 16);
+      bytes[position + 2] = (byte) (a[i] >>> 8);
+      bytes[position + 3] = (byte) a[i];
+    }
+  }
+
+  static int[] copy(final int[] a) {
+    return a.clone();
+  }
+
+  static boolean isZero(final int[] a) {
+    int bits = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      bits |= a[i];
+    }
+    return bits == 0;
+  }
+
+  static boolean isOdd(final int[] a) {
+    return (a[0] & 1) != 0;
+  }
+
+  static boolean equal(final int[] a, final int[] b) {
+    int bits = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      bits |= a[i] ^ b[i];
+    }
+    return bits == 0;
+  }
+
+  static void add(final int[] a, final int[] b, final int[] result) {
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      carry += (a[i] & MASK) + (b[i] & MASK);
+      result[i] = (int) carry;
+      carry >>>= 32;
+    }
+    if (carry != 0 || compare(result, P) >= 0) {
+      subtractP(result);
+    }
+  }
+
+  static void subtract(final int[] a, final int[] b, final int[] result) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      borrow += (a[i] & MASK) - (b[i] & MASK);
+      result[i] = (int) borrow;
+      borrow >>= 32;
+    }
+    if (borrow != 0) {
+      addP(result);
+    }
+  }
+
+  static void negate(final int[] a, final int[] result) {
+    if (isZero(a)) {
+      System.arraycopy(a, 0, result, 0, LIMBS);
+    } else {
+      subtract(P, a, result);
+    }
+  }
+
+  static void twice(final int[] a, final int[] result) {
+    add(a, a, result);
+  }
+
+  static void multiply(final int[] a, final int[] b, final int[] result) {
+    final int[] product = new int[2 * LIMBS];
+    for (int i = 0; i < LIMBS; i++) {
+      final long ai = a[i] & MASK;
+      long carry = 0;
+      for (int j = 0; j < LIMBS; j++) {
+        // At most (2^32 - 1)^2 + 2 * (2^32 - 1), which fits in 64 unsigned bits.
+        carry += ai * (b[j] & MASK) + (product[i + j] & MASK);
+        product[i + j] = (int) carry;
+        carry >>>= 32;
+      }
+      product[i + LIMBS] = (int) carry;
+    }
+    reduce(product, result);
+  }
+
+  static void square(final int[] a, final int[] result) {
+    // Each cross product a[i] * a[j] appears twice, so sum them once and double them.
+    final int[] product = new int[2 * LIMBS];
+    for (int i = 0; i < LIMBS - 1; i++) {
+      final long ai = a[i] & MASK;
+      long carry = 0;
+      for (int j = i + 1; j < LIMBS; j++) {
+        carry += ai * (a[j] & MASK) + (product[i + j] & MASK);
+        product[i + j] = (int) carry;
+        carry >>>= 32;
+      }
+      product[i + LIMBS] = (int) carry;
+    }
+    long carry = 0;
+    int previous = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long ai = a[i] & MASK;
+      final long square = ai * ai;
+      final int low = product[2 * i];
+      final int high = product[2 * i + 1];
+      carry += (square & MASK) + (((low << 1) | (previous >>> 31)) & MASK);
+      product[2 * i] = (int) carry;
+      carry >>>= 32;
+      carry += (square >>> 32) + (((high << 1) | (low >>> 31)) & MASK);
+      product[2 * i + 1] = (int) carry;
+      carry >>>= 32;
+      previous = high;
+    }
+    reduce(product, result);
+  }
+
+  /** Computes a^-1 as a^(p - 2), which is zero for zero. */
+  static void invert(final int[] a, final int[] result) {
+    exponentiate(a, MODULUS.subtract(BigInteger.TWO), result);
+  }
+
+  /**
+   * Computes a square root of a as a^((p + 1) / 4), which is valid as p = 3 (mod 4).
+   *
+   * @return false if a has no square root, in which case the result is meaningless
+   */
+  static boolean squareRoot(final int[] a, final int[] result) {
+    final int[] root = create();
+    exponentiate(a, MODULUS.add(BigInteger.ONE).shiftRight(2), root);
+    final int[] check = create();
+    square(root, check);
+    System.arraycopy(root, 0, result, 0, LIMBS);
+    return equal(check, a);
+  }
+
+  private static void exponentiate(final int[] a, final BigInteger exponent, final int[] result) {
+    // Fixed 4-bit windows: 4 squarings and at most one multiplication per window.
+    final int[][] powers = new int[1 << EXPONENT_WINDOW_BITS][];
+    powers[0] = one();
+    powers[1] = copy(a);
+    for (int i = 2; i < powers.length; i++) {
+      powers[i] = create();
+      multiply(powers[i - 1], a, powers[i]);
+    }
+    final int[] accumulator = one();
+    final int windows = (exponent.bitLength() + EXPONENT_WINDOW_BITS - 1) / EXPONENT_WINDOW_BITS;
+    for (int window = windows - 1; window >= 0; window--) {
+      int digit = 0;
+      for (int bit = EXPONENT_WINDOW_BITS - 1; bit >= 0; bit--) {
+        square(accumulator, accumulator);
+        digit = (digit << 1) | (exponent.testBit(window * EXPONENT_WINDOW_BITS + bit) ? 1 : 0);
+      }
+      if (digit != 0) {
+        multiply(accumulator, powers[digit], accumulator);
+      }
+    }
+    System.arraycopy(accumulator, 0, result, 0, LIMBS);
+  }
+
+  /** Reduces a 512-bit product, using 2^256 = 2^32 + 977 (mod p) twice. */
+  private static void reduce(final int[] product, final int[] result) {
+    // low + high * 977 + high * 2^32, which is less than 2^290.
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      final long high = product[LIMBS + i] & MASK;
+      carry += (product[i] & MASK) + high * REDUCTION;
+      if (i > 0) {
+        carry += product[LIMBS + i - 1] & MASK;
+      }
+      result[i] = (int) carry;
+      carry >>>= 32;
+    }
+    carry += product[2 * LIMBS - 1] & MASK;
+
+    // Fold the bits above 2^256 back in the same way, leaving less than 2^256 + 2^67.
+    final long top = carry;
+    carry = top * REDUCTION;
+    for (int i = 0; i < LIMBS; i++) {
+      carry += result[i] & MASK;
+      if (i == 1) {
+        carry += top;
+      }
+      result[i] = (int) carry;
+      carry >>>= 32;
+    }
+    if (carry != 0) {
+      // The remaining low value is tiny, so adding 2^32 + 977 once more can't overflow.
+      addSmall(result, (1L << 32) + REDUCTION);
+    }
+    if (compare(result, P) >= 0) {
+      subtractP(result);
+    }
+  }
+
+  private static void addSmall(final int[] a, final long value) {
+    long carry = value;
+    for (int i = 0; i < LIMBS && carry != 0; i++) {
+      carry += a[i] & MASK;
+      a[i] = (int) carry;
+      carry >>>= 32;
+    }
+  }
+
+  private static void subtractP(final int[] a) {
+    long borrow = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      borrow += (a[i] & MASK) - (P[i] & MASK);
+      a[i] = (int) borrow;
+      borrow >>= 32;
+    }
+  }
+
+  private static void addP(final int[] a) {
+    long carry = 0;
+    for (int i = 0; i < LIMBS; i++) {
+      carry += (a[i] & MASK) + (P[i] & MASK);
+      a[i] = (int) carry;
+      carry >>>= 32;
+    }
+  }
+
+  private static int compare(final int[] a, final int[] b) {
+    for (int i = LIMBS - 1; i >= 0; i--) {
+      final int comparison = Integer.compareUnsigned(a[i], b[i]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.secp256k1;
+
+/**
+ * A point on secp256k1 in Jacobian coordinates, where (X, Y, Z) stands for the affine point (X /
+ * Z^2, Y / Z^3), and Z is zero for the point at infinity. Points are immutable.
+ */
+final class Point {
+  private static final int[] B = {7, 0, 0, 0, 0, 0, 0, 0};
+
+  private static final Point INFINITY = new Point(Field.one(), Field.one(), Field.create(), false);
+
+  final int[] x;
+  final int[] y;
+  final int[] z;
+  // Whether Z is one, which saves several multiplications when adding the point.
+  private final boolean affine;
+
+  private Point(final int[] x, final int[] y, final int[] z, final boolean affine) {
+    this.x = x;
+    this.y = y;
+    this.z = z;
+    this.affine = affine;
+  }
+
+  static Point infinity() {
+    return INFINITY;
+  }
+
+  static Point affine(final int[] x, final int[] y) {
+    return new Point(x, y, Field.one(), true);
+  }
+
+  /**
+   * Returns the affine point with the given coordinates, or null if it is not on the curve.
+   *
+   * @param x the x coordinate
+   * @param y the y coordinate
+   * @return the point, or null if y^2 != x^3 + 7
+   */
+  static Point validatedAffine(final int[] x, final int[] y) {
+    final int[] left = Field.create();
+    Field.square(y, left);
+    return Field.equal(left, curveRight(x)) ? affine(x, y) : null;
+  }
+
+  /**
+   * Returns the affine point with the given x coordinate and y parity, or null if there is none.
+   *
+   * @param x the x coordinate
+   * @param odd whether the y coordinate is odd
+   * @return the point, or null if x^3 + 7 has no square root
+   */
+  static Point decompress(final int[] x, final boolean odd) {
+    final int[] y = Field.create();
+    if (!Field.squareRoot(curveRight(x), y)) {
+      return null;
+    }
+    if (Field.isOdd(y) != odd) {
+      Field.negate(y, y);
+    }
+    return affine(x, y);
+  }
+
+  private static int[] curveRight(final int[] x) {
+    final int[] result = Field.create();
+    Field.square(x, result);
+    Field.multiply(result, x, result);
+    Field.add(result, B, result);
+    return result;
+  }
+
+  boolean isInfinity() {
+    return Field.isZero(z);
+  }
+
+  boolean isAffine() {
+    return affine;
+  }
+
+  Point negate() {
+    if (isInfinity()) {
+      return this;
+    }
+    final int[] negatedY = Field.create();
+    Field.negate(y, negatedY);
+    return new Point(x, negatedY, z, affine);
+  }
+
+  /** Multiplies the x coordinate by the given factor, leaving y and z unchanged. */
+  Point scaleX(final int[] factor) {
+    final int[] scaledX = Field.create();
+    Field.multiply(x, factor, scaledX);
+    return new Point(scaledX, y, z, affine);
+  }
+
+  Point twice() {
+    if (isInfinity() || Field.isZero(y)) {
+      return INFINITY;
+    }
+    // dbl-2009-l, for curves with a = 0.
+    final int[] a = Field.create();
+    final int[] b = Field.create();
+    final int[] c = Field.create();
+    final int[] d = Field.create();
+    final int[] e = Field.create();
+    Field.square(x, a);
+    Field.square(y, b);
+    Field.square(b, c);
+    Field.add(x, b, d);
+    Field.square(d, d);
+    Field.subtract(d, a, d);
+    Field.subtract(d, c, d);
+    Field.twice(d, d);
+    Field.twice(a, e);
+    Field.add(e, a, e);
+
+    final int[] x3 = Field.create();
+    Field.square(e, x3);
+    Field.subtract(x3, d, x3);
+    Field.subtract(x3, d, x3);
+
+    final int[] y3 = Field.create();
+    Field.subtract(d, x3, y3);
+    Field.multiply(e, y3, y3);
+    Field.twice(c, c);
+    Field.twice(c, c);
+    Field.twice(c, c);
+    Field.subtract(y3, c, y3);
+
+    final int[] z3 = Field.create();
+    Field.multiply(y, z, z3);
+    Field.twice(z3, z3);
+    return new Point(x3, y3, z3, false);
+  }
+
+  Point add(final Point other) {
+    if (isInfinity()) {
+      return other;
+    }
+    if (other.isInfinity()) {
+      return this;
+    }
+    if (affine && !other.affine) {
+      return other.add(this);
+    }
+    // add-1998-cmo-2, skipping the multiplications by the other Z when it is one.
+    final int[] z1z1 = Field.create();
+    Field.square(z, z1z1);
+    final int[] u2 = Field.create();
+    Field.multiply(other.x, z1z1, u2);
+    final int[] s2 = Field.create();
+    Field.multiply(other.y, z, s2);
+    Field.multiply(s2, z1z1, s2);
+
+    final int[] u1;
+    final int[] s1;
+    if (other.affine) {
+      u1 = x;
+      s1 = y;
+    } else {
+      final int[] z2z2 = Field.create();
+      Field.square(other.z, z2z2);
+      u1 = Field.create();
+      Field.multiply(x, z2z2, u1);
+      s1 = Field.create();
+      Field.multiply(y, other.z, s1);
+      Field.multiply(s1, z2z2, s1);
+    }
+
+    final int[] h = Field.create();
+    Field.subtract(u2, u1, h);
+    final int[] r = Field.create();
+    Field.subtract(s2, s1, r);
+    if (Field.isZero(h)) {
+      return Field.isZero(r) ? twice() : INFINITY;
+    }
+
+    final int[] hh = Field.create();
+    Field.square(h, hh);
+    final int[] hhh = Field.create();
+    Field.multiply(h, hh, hhh);
+    final int[] v = Field.create();
+    Field.multiply(u1, hh, v);
+
+    final int[] x3 = Field.create();
+    Field.square(r, x3);
+    Field.subtract(x3, hhh, x3);
+    Field.subtract(x3, v, x3);
+    Field.subtract(x3, v, x3);
+
+    final int[] y3 = Field.create();
+    Field.subtract(v, x3, y3);
+    Field.multiply(r, y3, y3);
+    Field.multiply(s1, hhh, hhh);
+    Field.subtract(y3, hhh, y3);
+
+    final int[] z3 = Field.create();
+    Field.multiply(z, h, z3);
+    if (!other.affine) {
+      Field.multiply(z3, other.z, z3);
+    }
+    return new Point(x3, y3, z3, false);
+  }
+
+  /** Returns the same point with Z set to one. The point must not be the point at infinity. */
+  Point normalize() {
+    if (affine) {
+      return this;
+    }
+    final int[] zInverse = Field.create();
+    Field.invert(z, zInverse);
+    return withInverseZ(zInverse);
+  }
+
+  /**
+   * Normalizes all the given points with a single field inversion. None of the points may be the
+   * point at infinity.
+   */
+  static Point[] normalizeAll(final Point[] points) {
+    // Invert the product of all Zs, then peel the inverse of each Z off it in turn.
+    final int[][] products = new int[points.length][];
+    int[] product = Field.one();
+    for (int i = 0; i < points.length; i++) {
+      final int[] next = Field.create();
+      Field.multiply(product, points[i].z, next);
+      products[i] = next;
+      product = next;
+    }
+    final int[] inverse = Field.create();
+    Field.invert(product, inverse);
+
+    final Point[] normalized = new Point[points.length];
+    for (int i = points.length - 1; i >= 0; i--) {
+      final int[] zInverse = Field.create();
+      if (i > 0) {
+        Field.multiply(inverse, products[i - 1], zInverse);
+      } else {
+        System.arraycopy(inverse, 0, zInverse, 0, Field.LIMBS);
+      }
+      Field.multiply(inverse, points[i].z, inverse);
+      normalized[i] = points[i].withInverseZ(zInverse);
+    }
+    return normalized;
+  }
+
+  private Point withInverseZ(final int[] zInverse) {
+    final int[] zInverse2 = Field.create();
+    Field.square(zInverse, zInverse2);
+    final int[] affineX = Field.create();
+    Field.multiply(x, zInverse2, affineX);
+    final int[] affineY = Field.create();
+    Field.multiply(zInverse2, zInverse, zInverse2);
+    Field.multiply(y, zInverse2, affineY);
+    return affine(affineX, affineY);
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.secp256k1;
+
+import java.math.BigInteger;
+
+/**
+ * Specialized secp256k1 arithmetic for verifying signatures and recovering public keys, in place of
+ * the generic elliptic curve arithmetic of Bouncy Castle.
+ *
+ * <p>The time taken depends on the scalars, so they must only ever be public values. Signing and
+ * deriving public keys, which multiply by secret scalars, are left to Bouncy Castle.
+ *
+ * <p>Field elements are fixed-width (see {@link Field}). Multiples of the generator are summed from
+ * a precomputed table, without any doubling. Multiples of other points use the GLV endomorphism of
+ * the curve, (x, y) -> (beta * x, y) = lambda * (x, y), to split the scalar into two halves of
+ * about 128 bits, which are then multiplied together in a single pass of width-5 NAF (Shamir's
+ * trick).
+ *
+ * <p>Public keys and signature points are encoded as their 32 byte big-endian x and y coordinates.
+ */
+public final class SECP256K1Arithmetic {
+  public static final BigInteger CURVE_ORDER =
+      new BigInteger("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEBAAEDCE6AF48A03BBFD25E8CD0364141", 16);
+
+  static final Point GENERATOR =
+      Point.affine(
+          Field.fromBigInteger(
+              new BigInteger(
+                  "79BE667EF9DCBBAC55A06295CE870B07029BFCDB2DCE28D959F2815B16F81798", 16)),
+          Field.fromBigInteger(
+              new BigInteger(
+                  "483ADA7726A3C4655DA4FBFC0E1108A8FD17B448A68554199C47D08FFB10D4B8", 16)));
+
+  // A cube root of unity in the field, and the matching one modulo the curve order.
+  static final int[] BETA =
+      Field.fromBigInteger(
+          new BigInteger("7AE96A2B657C07106E64479EAC3434E99CF0497512F58995C1396C28719501EE", 16));
+  static final BigInteger LAMBDA =
+      new BigInteger("5363AD4CC05C30E0A5261C028812645A122E22EA20816678DF02967C1B23BD72", 16);
+
+  // A short basis (a1, b1), (a2, b2) of the lattice of (k1, k2) with k1 + k2 * lambda = 0 (mod n).
+  private static final BigInteger A1 = new BigInteger("3086D221A7D46BCDE86C90E49284EB15", 16);
+  private static final BigInteger B1 = new BigInteger("-E4437ED6010E88286F547FA90ABFE4C3", 16);
+  private static final BigInteger A2 = new BigInteger("114CA50F7A8E2F3F657C1108D9D44CFD8", 16);
+  private static final BigInteger B2 = A1;
+
+  private static final int WINDOW_BITS = 4;
+  private static final int WINDOWS = 256 / WINDOW_BITS;
+  private static final int NAF_WIDTH = 5;
+
+  // GENERATOR_TABLE[i][j - 1] is j * 16^i * G, for j from 1 to 15.
+  private static final Point[][] GENERATOR_TABLE = generatorTable();
+
+  private SECP256K1Arithmetic() {}
+
+  /**
+   * Recovers the public key of a signature according to SEC1v2 section 4.1.6, like the Bouncy
+   * Castle based implementation of {@code SECP256K1}.
+   *
+   * @param recId which of the possible keys to recover
+   * @param r the r component of the signature
+   * @param s the s component of the signature
+   * @param e the signed hash, as an unsigned integer
+   * @return the encoded public key, or null if none could be recovered
+   * @throws IllegalArgumentException if r doesn't give the x coordinate of a point on the curve
+   */
+  public static byte[] recoverPublicKey(
+      final int recId, final BigInteger r, final BigInteger s, final BigInteger e) {
+    final BigInteger x = r.add(CURVE_ORDER.multiply(BigInteger.valueOf(recId / 2)));
+    if (x.compareTo(Field.MODULUS) >= 0) {
+      return null;
+    }
+    final Point point = Point.decompress(Field.fromBigInteger(x), (recId & 1) == 1);
+    if (point == null) {
+      throw new IllegalArgumentException("Invalid point compression");
+    }
+    // As the cofactor of the curve is one, n * R is always the point at infinity.
+
+    // Q = r^-1 * (s * R - e * G)
+    final BigInteger rInverse = r.modInverse(CURVE_ORDER);
+    final BigInteger u1 = e.negate().multiply(rInverse).mod(CURVE_ORDER);
+    final BigInteger u2 = s.multiply(rInverse).mod(CURVE_ORDER);
+    final Point q = multiplyGeneratorPoint(u1).add(multiply(point, u2));
+    return q.isInfinity() ? null : encode(q.normalize());
+  }
+
+  /**
+   * Verifies an ECDSA signature, like the Bouncy Castle {@code ECDSASigner}.
+   *
+   * @param e the signed hash, as an unsigned integer
+   * @param r the r component of the signature
+   * @param s the s component of the signature
+   * @param publicKey the encoded public key
+   * @return true if the signature is valid
+   * @throws IllegalArgumentException if the public key isn't a point on the curve
+   */
+  public static boolean verify(
+      final BigInteger e, final BigInteger r, final BigInteger s, final byte[] publicKey) {
+    final Point q = decode(publicKey);
+    if (r.signum() <= 0
+        || r.compareTo(CURVE_ORDER) >= 0
+        || s.signum() <= 0
+        || s.compareTo(CURVE_ORDER) >= 0) {
+      return false;
+    }
+
+    final BigInteger sInverse = s.modInverse(CURVE_ORDER);
+    final BigInteger u1 = e.multiply(sInverse).mod(CURVE_ORDER);
+    final BigInteger u2 = r.multiply(sInverse).mod(CURVE_ORDER);
+    final Point point = multiplyGeneratorPoint(u1).add(multiply(q, u2));
+    if (point.isInfinity()) {
+      return false;
+    }
+
+    // Rather than normalizing the point, check whether X = x * Z^2 for the candidate x values
+    // which reduce to r, which are r and r + n when that is still a field element.
+    final int[] z2 = Field.create();
+    Field.square(point.z, z2);
+    final int[] candidate = Field.create();
+    Field.multiply(Field.fromBigInteger(r), z2, candidate);
+    if (Field.equal(candidate, point.x)) {
+      return true;
+    }
+    final BigInteger wrapped = r.add(CURVE_ORDER);
+    if (wrapped.compareTo(Field.MODULUS) >= 0) {
+      return false;
+    }
+    Field.multiply(Field.fromBigInteger(wrapped), z2, candidate);
+    return Field.equal(candidate, point.x);
+  }
+
+  /** Decodes a public key, as Bouncy Castle does for an uncompressed point. */
+  private static Point decode(final byte[] encoded) {
+    if (encoded.length != 64) {
+      throw new IllegalArgumentException("Incorrect length for uncompressed encoding");
+    }
+    final int[] x = Field.fromBytes(encoded, 0);
+    final int[] y = Field.fromBytes(encoded, 32);
+    final Point point = x == null || y == null ? null : Point.validatedAffine(x, y);
+    if (point == null) {
+      throw new IllegalArgumentException("Invalid point coordinates");
+    }
+    return point;
+  }
+
+  private static byte[] encode(final Point affine) {
+    final byte[] encoded = new byte[64];
+    Field.toBytes(affine.x, encoded, 0);
+    Field.toBytes(affine.y, encoded, 32);
+    return encoded;
+  }
+
+  static Point multiplyGeneratorPoint(final BigInteger k) {
+    Point result = Point.infinity();
+    for (int i = 0; i < WINDOWS; i++) {
+      int digit = 0;
+      for (int bit = WINDOW_BITS - 1; bit >= 0; bit--) {
+        digit = (digit << 1) | (k.testBit(i * WINDOW_BITS + bit) ? 1 : 0);
+      }
+      if (digit != 0) {
+        result = result.add(GENERATOR_TABLE[i][digit - 1]);
+      }
+    }
+    return result;
+  }
+
+  /** Multiplies any point by a scalar between 0 and the curve order. */
+  static Point multiply(final Point point, final BigInteger k) {
+    final BigInteger[] halves = decompose(k);
+    final int[] naf1 = naf(halves[0].abs());
+    final int[] naf2 = naf(halves[1].abs());
+
+    // Odd multiples of the point, and of its image under the endomorphism, each negated when its
+    // half is negative.
+    final Point[] multiples = new Point[1 << (NAF_WIDTH - 2)];
+    final Point[] images = new Point[multiples.length];
+    multiples[0] = point;
+    final Point twice = point.twice();
+    for (int i = 1; i < multiples.length; i++) {
+      multiples[i] = multiples[i - 1].add(twice);
+    }
+    for (int i = 0; i < multiples.length; i++) {
+      final Point image = multiples[i].scaleX(BETA);
+      images[i] = halves[1].signum() < 0 ? image.negate() : image;
+      if (halves[0].signum() < 0) {
+        multiples[i] = multiples[i].negate();
+      }
+    }
+
+    Point result = Point.infinity();
+    for (int i = Math.max(naf1.length, naf2.length) - 1; i >= 0; i--) {
+      result = result.twice();
+      result = addDigit(result, multiples, i < naf1.length ? naf1[i] : 0);
+      result = addDigit(result, images, i < naf2.length ? naf2[i] : 0);
+    }
+    return result;
+  }
+
+  private static Point addDigit(final Point point, final Point[] multiples, final int digit) {
+    if (digit > 0) {
+      return point.add(multiples[digit >> 1]);
+    } else if (digit < 0) {
+      return point.add(multiples[-digit >> 1].negate());
+    }
+    return point;
+  }
+
+  /**
+   * Splits a scalar k into k1 and k2 of about 128 bits each, with k = k1 + k2 * lambda (mod n).
+   */
+  static BigInteger[] decompose(final BigInteger k) {
+    final BigInteger c1 = roundedDivision(B2.multiply(k), CURVE_ORDER);
+    final BigInteger c2 = roundedDivision(B1.negate().multiply(k), CURVE_ORDER);
+    final BigInteger k1 = k.subtract(c1.multiply(A1)).subtract(c2.multiply(A2));
+    final BigInteger k2 = c1.multiply(B1).add(c2.multiply(B2)).negate();
+    return new BigInteger[] {k1, k2};
+  }
+
+  private static BigInteger roundedDivision(final BigInteger dividend, final BigInteger divisor) {
+    // Both are positive here.
+    return dividend.add(divisor.shiftRight(1)).divide(divisor);
+  }
+
+  /** Computes the width-5 non-adjacent form of a non-negative scalar, least significant first. */
+  static int[] naf(final BigInteger k) {
+    final int[] digits = new int[k.bitLength() + 1];
+    final int window = 1 << NAF_WIDTH;
+    BigInteger remaining = k;
+    int length = 0;
+    while (remaining.signum() > 0) {
+      if (remaining.testBit(0)) {
+        int digit = remaining.intValue() & (window - 1);
+        if (digit >= window / 2) {
+          digit -= window;
+        }
+        digits[length] = digit;
+        remaining = remaining.subtract(BigInteger.valueOf(digit));
+      }
+      remaining = remaining.shiftRight(1);
+      length++;
+    }
+    final int[] result = new int[length];
+    System.arraycopy(digits, 0, result, 0, length);
+    return result;
+  }
+
+  private static Point[][] generatorTable() {
+    final Point[][] table = new Point[WINDOWS][];
+    Point base = GENERATOR;
+    for (int i = 0; i < WINDOWS; i++) {
+      final Point[] row = new Point[(1 << WINDOW_BITS) - 1];
+      row[0] = base;
+      for (int j = 1; j < row.length; j++) {
+        row[j] = row[j - 1].add(base);
+      }
+      table[i] = Point.normalizeAll(row);
+      for (int bit = 0; bit < WINDOW_BITS; bit++) {
+        base = base.twice();
+      }
+    }
+    return table;
+  }
+}
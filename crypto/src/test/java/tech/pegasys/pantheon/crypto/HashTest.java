@@ -15,7 +15,12 @@ package tech.pegasys.pantheon.crypto;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.MutableBytes32;
+
+import java.util.Arrays;
+import java.util.List;
 
 import org.bouncycastle.util.encoders.Hex;
 import org.junit.Test;
@@ -43,6 +48,26 @@ public class HashTest {
     assertEquals(BytesValue.fromHexString(cowKeccak256), resultCow);
   }
 
+  /** Validate keccak256 hash written to an existing value. */
+  @Test
+  public void keccak256HashIntoResult() {
+    final MutableBytes32 result = MutableBytes32.create();
+    Hash.keccak256(BytesValue.wrap("horse".getBytes(UTF_8)), result);
+    assertEquals(BytesValue.fromHexString(horseKeccak256), result);
+  }
+
+  /** Validate keccak256 hashes of several inputs. */
+  @Test
+  public void keccak256HashAll() {
+    final List<Bytes32> results =
+        Hash.keccak256All(
+            Arrays.asList(
+                BytesValue.wrap("horse".getBytes(UTF_8)), BytesValue.wrap("cow".getBytes(UTF_8))));
+    assertEquals(
+        Arrays.asList(Bytes32.fromHexString(horseKeccak256), Bytes32.fromHexString(cowKeccak256)),
+        results);
+  }
+
   /** Validate blake2f compression digest. */
   @Test
   public void blake2bfCompression() {
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.util.bytes.MutableBytes32;
+
+import java.security.MessageDigest;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class Keccak256MessageDigestTest {
+
+  private static final int[] LENGTHS = {0, 1, 31, 32, 135, 136, 137, 271, 272, 273, 1000, 4096};
+
+  @Test
+  public void matchesJcaDigest() throws Exception {
+    final Random random = new Random(1);
+    final Keccak256MessageDigest digest = new Keccak256MessageDigest();
+    final MessageDigest expected = MessageDigestFactory.create(Hash.KECCAK256_ALG);
+    for (final int length : LENGTHS) {
+      final byte[] input = new byte[length];
+      random.nextBytes(input);
+
+      digest.update(input);
+      assertThat(digest.digest()).isEqualTo(expected.digest(input));
+    }
+  }
+
+  @Test
+  public void matchesJcaDigestWhenUpdatedInPieces() throws Exception {
+    final Random random = new Random(1);
+    final Keccak256MessageDigest digest = new Keccak256MessageDigest();
+    final MessageDigest expected = MessageDigestFactory.create(Hash.KECCAK256_ALG);
+    for (final int length : LENGTHS) {
+      final byte[] input = new byte[length];
+      random.nextBytes(input);
+
+      int position = 0;
+      while (position < length) {
+        final int count = Math.min(length - position, 1 + random.nextInt(50));
+        if (count == 1) {
+          digest.update(input[position]);
+        } else {
+          digest.update(input, position, count);
+        }
+        position += count;
+      }
+      assertThat(digest.digest()).isEqualTo(expected.digest(input));
+    }
+  }
+
+  @Test
+  public void digestsIntoMutableValue() throws Exception {
+    final byte[] input = new byte[300];
+    new Random(1).nextBytes(input);
+    final Keccak256MessageDigest digest = new Keccak256MessageDigest();
+    final MutableBytes32 result = MutableBytes32.create();
+
+    digest.update(input);
+    digest.digest(result);
+
+    assertThat(result.extractArray())
+        .isEqualTo(MessageDigestFactory.create(Hash.KECCAK256_ALG).digest(input));
+  }
+
+  @Test
+  public void resetsAfterDigest() {
+    final Keccak256MessageDigest digest = new Keccak256MessageDigest();
+    final byte[] empty = digest.digest();
+
+    digest.update(new byte[] {1, 2, 3});
+    digest.digest();
+
+    assertThat(digest.digest()).isEqualTo(empty);
+  }
+}
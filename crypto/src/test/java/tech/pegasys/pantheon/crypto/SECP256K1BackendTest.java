@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.Backend;
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.crypto.SECP256K1.PrivateKey;
+import tech.pegasys.pantheon.crypto.SECP256K1.PublicKey;
+import tech.pegasys.pantheon.crypto.SECP256K1.Signature;
+import tech.pegasys.pantheon.crypto.secp256k1.SECP256K1Arithmetic;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Test;
+
+/** Checks that the optimized backend gives the same results as the Bouncy Castle reference. */
+public class SECP256K1BackendTest {
+  private static final int ROUNDS = 50;
+
+  private final Random random = new Random(1);
+
+  @After
+  public void restoreBackend() {
+    SECP256K1.setBackend(Backend.OPTIMIZED);
+  }
+
+  @Test
+  public void derivesSamePublicKeys() {
+    for (int i = 0; i < ROUNDS; i++) {
+      final PrivateKey privateKey = PrivateKey.create(randomBytes32());
+      assertSameResult(() -> PublicKey.create(privateKey));
+    }
+    final PrivateKey smallest = PrivateKey.create(BigInteger.ONE);
+    assertSameResult(() -> PublicKey.create(smallest));
+    final PrivateKey largest = PrivateKey.create(SECP256K1.CURVE.getN().subtract(BigInteger.ONE));
+    assertSameResult(() -> PublicKey.create(largest));
+  }
+
+  @Test
+  public void createsSameSignatures() {
+    for (int i = 0; i < ROUNDS; i++) {
+      final KeyPair keyPair = KeyPair.create(PrivateKey.create(randomBytes32()));
+      final Bytes32 dataHash = randomBytes32();
+      assertSameResult(() -> SECP256K1.sign(dataHash, keyPair));
+    }
+  }
+
+  @Test
+  public void recoversSamePublicKeys() {
+    for (int i = 0; i < ROUNDS; i++) {
+      final KeyPair keyPair = KeyPair.create(PrivateKey.create(randomBytes32()));
+      final Bytes32 dataHash = randomBytes32();
+      final Signature signature = SECP256K1.sign(dataHash, keyPair);
+
+      final Optional<PublicKey> recovered =
+          assertSameResult(() -> PublicKey.recoverFromSignature(dataHash, signature));
+      assertThat(recovered).contains(keyPair.getPublicKey());
+
+      final Bytes32 otherHash = randomBytes32();
+      assertSameResult(() -> PublicKey.recoverFromSignature(otherHash, signature));
+    }
+  }
+
+  @Test
+  public void recoversSamePublicKeysWhenScalarIsNegatedLambda() {
+    // With s = (n - lambda) * r, recovery multiplies R by n - lambda, whose GLV decomposition
+    // has a zero first half and a negative second half.
+    final BigInteger n = SECP256K1.CURVE.getN();
+    final BigInteger u2 = n.subtract(SECP256K1Arithmetic.LAMBDA);
+    for (int i = 0; i < ROUNDS; i++) {
+      final KeyPair keyPair = KeyPair.create(PrivateKey.create(randomBytes32()));
+      final Bytes32 dataHash = randomBytes32();
+      final Signature genuine = SECP256K1.sign(dataHash, keyPair);
+      final BigInteger r = genuine.getR();
+      final Signature crafted = Signature.create(r, u2.multiply(r).mod(n), genuine.getRecId());
+
+      final Optional<PublicKey> recovered =
+          assertSameResult(() -> PublicKey.recoverFromSignature(dataHash, crafted));
+      assertThat(recovered).isPresent();
+      assertSameResult(() -> SECP256K1.verify(dataHash, crafted, recovered.get()));
+    }
+  }
+
+  @Test
+  public void verifiesSameSignaturesWhenScalarIsNegatedLambda() {
+    // With s = r / (n - lambda), verification multiplies the public key by n - lambda.
+    final BigInteger n = SECP256K1.CURVE.getN();
+    final BigInteger u2 = n.subtract(SECP256K1Arithmetic.LAMBDA);
+    for (int i = 0; i < ROUNDS; i++) {
+      final KeyPair keyPair = KeyPair.create(PrivateKey.create(randomBytes32()));
+      final Bytes32 dataHash = randomBytes32();
+      final BigInteger r = SECP256K1.sign(dataHash, keyPair).getR();
+      final Signature crafted = Signature.create(r, r.multiply(u2.modInverse(n)).mod(n), (byte) 0);
+
+      assertSameResult(() -> SECP256K1.verify(dataHash, crafted, keyPair.getPublicKey()));
+    }
+  }
+
+  @Test
+  public void rejectsSameInvalidRecoveries() {
+    // No point on the curve has an x coordinate of 5.
+    final Signature signature = Signature.create(BigInteger.valueOf(5), BigInteger.ONE, (byte) 0);
+    final Bytes32 dataHash = randomBytes32();
+    for (final Backend backend : Backend.values()) {
+      SECP256K1.setBackend(backend);
+      assertThatThrownBy(() -> PublicKey.recoverFromSignature(dataHash, signature))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  public void verifiesSameSignatures() {
+    for (int i = 0; i < ROUNDS; i++) {
+      final KeyPair keyPair = KeyPair.create(PrivateKey.create(randomBytes32()));
+      final Bytes32 dataHash = randomBytes32();
+      final Signature signature = SECP256K1.sign(dataHash, keyPair);
+      final PublicKey publicKey = keyPair.getPublicKey();
+      final PublicKey otherKey = KeyPair.create(PrivateKey.create(randomBytes32())).getPublicKey();
+      final Bytes32 otherHash = randomBytes32();
+
+      assertThat(assertSameResult(() -> SECP256K1.verify(dataHash, signature, publicKey))).isTrue();
+      assertSameResult(() -> SECP256K1.verify(otherHash, signature, publicKey));
+      assertSameResult(() -> SECP256K1.verify(dataHash, signature, otherKey));
+    }
+  }
+
+  @Test
+  public void verifiesLongDataLikeReference() {
+    final KeyPair keyPair = KeyPair.create(PrivateKey.create(randomBytes32()));
+    final Bytes32 dataHash = randomBytes32();
+    final Signature signature = SECP256K1.sign(dataHash, keyPair);
+    final BytesValue longData = BytesValue.wrap(dataHash, BytesValue.of(1, 2, 3));
+
+    assertSameResult(() -> SECP256K1.verify(longData, signature, keyPair.getPublicKey()));
+  }
+
+  private <T> T assertSameResult(final Supplier<T> operation) {
+    SECP256K1.setBackend(Backend.BOUNCY_CASTLE);
+    final T expected = operation.get();
+    SECP256K1.setBackend(Backend.OPTIMIZED);
+    final T actual = operation.get();
+    assertThat(actual).isEqualTo(expected);
+    return actual;
+  }
+
+  private Bytes32 randomBytes32() {
+    final byte[] bytes = new byte[Bytes32.SIZE];
+    random.nextBytes(bytes);
+    return Bytes32.wrap(bytes);
+  }
+}
@@ -15,6 +15,7 @@ package tech.pegasys.pantheon.crypto.altbn128;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 
 import org.junit.Test;
 
@@ -90,4 +91,74 @@ public class AltBn128Fq12PairerTest {
     assertThat(p1Finalized).isNotEqualTo(np1Finalized);
     assertThat(p2Finalized).isNotEqualTo(np1Finalized);
   }
+
+  @Test
+  public void shouldMatchKnownPairingOfGenerators() {
+    final String[] expected = {
+      "18443897754565973717256850119554731228214108935025491924036055734000366132575",
+      "10734401203193558706037776473742910696504851986739882094082017010340198538454",
+      "5985796159921227033560968606339653189163760772067273492369082490994528765680",
+      "4093294155816392700623820137842432921872230622290337094591654151434545306688",
+      "642121370160833232766181493494955044074321385528883791668868426879070103434",
+      "4527449849947601357037044178952942489926487071653896435602814872334098625391",
+      "3758435817766288188804561253838670030762970764366672594784247447067868088068",
+      "18059168546148152671857026372711724379319778306792011146784665080987064164612",
+      "14656606573936501743457633041048024656612227301473084805627390748872617280984",
+      "17918828665069491344039743589118342552553375221610735811112289083834142789347",
+      "19455424343576886430889849773367397946457449073528455097210946839000147698372",
+      "7484542354754424633621663080190936924481536615300815203692506276894207018007"
+    };
+    final Fq[] coefficients = new Fq[Fq12.DEGREE];
+    for (int i = 0; i < coefficients.length; i++) {
+      coefficients[i] = Fq.create(new BigInteger(expected[i]));
+    }
+
+    final Fq12 paired = AltBn128Fq12Pairer.pair(AltBn128Point.g1(), AltBn128Fq2Point.g2());
+    assertThat(AltBn128Fq12Pairer.finalize(paired)).isEqualTo(new Fq12(coefficients));
+  }
+
+  @Test
+  public void shouldFinalizeByRaisingToTheFinalExponent() {
+    final Fq12 f = Fq12.create(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+    final BigInteger curveOrder =
+        new BigInteger(
+            "21888242871839275222246405745257275088548364400416034343698204186575808495617");
+    final BigInteger finalExponent =
+        FieldElement.FIELD_MODULUS.pow(12).subtract(BigInteger.ONE).divide(curveOrder);
+
+    assertThat(AltBn128Fq12Pairer.finalize(f)).isEqualTo(f.power(finalExponent));
+  }
+
+  @Test
+  public void pairingCheckShouldPassWhenPairingsCancelOut() {
+    final AltBn128Point p1 = AltBn128Point.g1().multiply(BigInteger.valueOf(6));
+    final AltBn128Fq2Point q1 = AltBn128Fq2Point.g2().multiply(BigInteger.valueOf(7));
+    final AltBn128Point p2 = AltBn128Point.g1().multiply(BigInteger.valueOf(42)).negate();
+    final AltBn128Fq2Point q2 = AltBn128Fq2Point.g2();
+
+    assertThat(AltBn128Fq12Pairer.pairingCheck(Arrays.asList(p1, p2), Arrays.asList(q1, q2)))
+        .isTrue();
+  }
+
+  @Test
+  public void pairingCheckShouldFailWhenPairingsDoNotCancelOut() {
+    final AltBn128Point p1 = AltBn128Point.g1().multiply(BigInteger.valueOf(6));
+    final AltBn128Fq2Point q1 = AltBn128Fq2Point.g2().multiply(BigInteger.valueOf(7));
+    final AltBn128Point p2 = AltBn128Point.g1().multiply(BigInteger.valueOf(41)).negate();
+    final AltBn128Fq2Point q2 = AltBn128Fq2Point.g2();
+
+    assertThat(AltBn128Fq12Pairer.pairingCheck(Arrays.asList(p1, p2), Arrays.asList(q1, q2)))
+        .isFalse();
+  }
+
+  @Test
+  public void pairingCheckShouldIgnorePointsAtInfinity() {
+    final AltBn128Fq2Point q2 = AltBn128Fq2Point.g2().multiply(BigInteger.ZERO);
+
+    assertThat(
+            AltBn128Fq12Pairer.pairingCheck(
+                Arrays.asList(AltBn128Point.INFINITY, AltBn128Point.g1()),
+                Arrays.asList(AltBn128Fq2Point.g2(), q2)))
+        .isTrue();
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MutableFq12Test {
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void shouldConvertToAndFromFq12() {
+    final Fq12 value = randomFq12();
+    assertThat(MutableFq12.create(value).toFq12()).isEqualTo(value);
+  }
+
+  @Test
+  public void shouldMultiplyLikeFq12() {
+    final Fq12 a = randomFq12();
+    final Fq12 b = randomFq12();
+
+    assertThat(MutableFq12.create(a).multiply(MutableFq12.create(b)).toFq12())
+        .isEqualTo(a.multiply(b));
+    assertThat(MutableFq12.create(a).square().toFq12()).isEqualTo(a.multiply(a));
+  }
+
+  @Test
+  public void shouldInvertLikeFq12() {
+    final Fq12 a = randomFq12();
+
+    assertThat(MutableFq12.create(a).invert().toFq12()).isEqualTo(Fq12.one().divide(a));
+  }
+
+  @Test
+  public void shouldMultiplyByLineLikeFq12() {
+    final Fq12 a = randomFq12();
+    final MutableFq2 l0 = randomFq2();
+    final MutableFq2 l1 = randomFq2();
+    final MutableFq2 l3 = randomFq2();
+    final MutableFq12 line = MutableFq12.one();
+    line.c0.c0.set(l0);
+    line.c1.c0.set(l1);
+    line.c1.c1.set(l3);
+
+    assertThat(MutableFq12.create(a).multiplyByLine(l0, l1, l3).toFq12())
+        .isEqualTo(a.multiply(line.toFq12()));
+  }
+
+  @Test
+  public void shouldRaiseToPowersOfTheModulusWithFrobenius() {
+    final Fq12 a = randomFq12();
+    final BigInteger p = FieldElement.FIELD_MODULUS;
+
+    assertThat(MutableFq12.create(a).frobenius(1).toFq12()).isEqualTo(a.power(p));
+    assertThat(MutableFq12.create(a).frobenius(2).toFq12()).isEqualTo(a.power(p.pow(2)));
+    assertThat(MutableFq12.create(a).frobenius(3).toFq12()).isEqualTo(a.power(p.pow(3)));
+  }
+
+  private Fq12 randomFq12() {
+    final Fq[] coefficients = new Fq[Fq12.DEGREE];
+    for (int i = 0; i < coefficients.length; i++) {
+      coefficients[i] = Fq.create(randomElement());
+    }
+    return new Fq12(coefficients);
+  }
+
+  private MutableFq2 randomFq2() {
+    return MutableFq2.create(randomElement(), randomElement());
+  }
+
+  private BigInteger randomElement() {
+    return new BigInteger(256, random).mod(FieldElement.FIELD_MODULUS);
+  }
+}
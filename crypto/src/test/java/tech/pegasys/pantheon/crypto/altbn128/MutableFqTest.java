@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.altbn128;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MutableFqTest {
+
+  private static final BigInteger P = FieldElement.FIELD_MODULUS;
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void shouldRoundTripThroughMontgomeryForm() {
+    for (int i = 0; i < 100; i++) {
+      final BigInteger value = randomElement();
+      assertThat(MutableFq.create(value).toBigInteger()).isEqualTo(value);
+    }
+    assertThat(MutableFq.create(P).isZero()).isTrue();
+    assertThat(MutableFq.create(BigInteger.ONE.negate()).toBigInteger())
+        .isEqualTo(P.subtract(BigInteger.ONE));
+  }
+
+  @Test
+  public void shouldMatchBigIntegerArithmetic() {
+    final BigInteger largest = P.subtract(BigInteger.ONE);
+    checkArithmetic(largest, largest);
+    checkArithmetic(BigInteger.ZERO, largest);
+    for (int i = 0; i < 1000; i++) {
+      checkArithmetic(randomElement(), randomElement());
+    }
+  }
+
+  @Test
+  public void shouldAcceptItselfAsOperand() {
+    final BigInteger a = randomElement();
+    final MutableFq x = MutableFq.create(a);
+
+    assertThat(x.copy().multiply(x).toBigInteger()).isEqualTo(a.multiply(a).mod(P));
+    assertThat(x.copy().add(x).toBigInteger()).isEqualTo(a.shiftLeft(1).mod(P));
+    assertThat(x.copy().subtract(x).isZero()).isTrue();
+  }
+
+  @Test
+  public void shouldLeaveZeroWhenInverted() {
+    assertThat(MutableFq.zero().invert().isZero()).isTrue();
+  }
+
+  private void checkArithmetic(final BigInteger a, final BigInteger b) {
+    final MutableFq x = MutableFq.create(a);
+    final MutableFq y = MutableFq.create(b);
+
+    assertThat(x.copy().add(y).toBigInteger()).isEqualTo(a.add(b).mod(P));
+    assertThat(x.copy().subtract(y).toBigInteger()).isEqualTo(a.subtract(b).mod(P));
+    assertThat(x.copy().multiply(y).toBigInteger()).isEqualTo(a.multiply(b).mod(P));
+    assertThat(x.copy().square().toBigInteger()).isEqualTo(a.multiply(a).mod(P));
+    assertThat(x.copy().negate().toBigInteger()).isEqualTo(a.negate().mod(P));
+    if (b.signum() != 0) {
+      assertThat(y.copy().invert().toBigInteger()).isEqualTo(b.modInverse(P));
+    }
+  }
+
+  private BigInteger randomElement() {
+    return new BigInteger(256, random).mod(P);
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.secp256k1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FieldTest {
+  private static final BigInteger P = Field.MODULUS;
+
+  @Test
+  public void matchesBigIntegerArithmetic() {
+    final List<BigInteger> values = values();
+    for (int i = 0; i < values.size(); i++) {
+      final BigInteger a = values.get(i);
+      final BigInteger b = values.get((7 * i + 3) % values.size());
+      final int[] result = Field.create();
+
+      Field.add(element(a), element(b), result);
+      assertThat(Field.toBigInteger(result)).isEqualTo(a.add(b).mod(P));
+      Field.subtract(element(a), element(b), result);
+      assertThat(Field.toBigInteger(result)).isEqualTo(a.subtract(b).mod(P));
+      Field.negate(element(a), result);
+      assertThat(Field.toBigInteger(result)).isEqualTo(a.negate().mod(P));
+      Field.multiply(element(a), element(b), result);
+      assertThat(Field.toBigInteger(result)).isEqualTo(a.multiply(b).mod(P));
+      Field.square(element(a), result);
+      assertThat(Field.toBigInteger(result)).isEqualTo(a.multiply(a).mod(P));
+    }
+  }
+
+  @Test
+  public void allowsResultToBeAnOperand() {
+    final BigInteger a = BigInteger.ONE.shiftLeft(255).add(BigInteger.TEN);
+    final int[] element = element(a);
+    Field.multiply(element, element, element);
+    assertThat(Field.toBigInteger(element)).isEqualTo(a.multiply(a).mod(P));
+  }
+
+  @Test
+  public void inverts() {
+    for (final BigInteger a : values().subList(1, 50)) {
+      final int[] result = Field.create();
+      Field.invert(element(a), result);
+      assertThat(Field.toBigInteger(result)).isEqualTo(a.modInverse(P));
+    }
+  }
+
+  @Test
+  public void findsSquareRoots() {
+    for (final BigInteger a : values().subList(0, 50)) {
+      final BigInteger square = a.multiply(a).mod(P);
+      final int[] root = Field.create();
+
+      assertThat(Field.squareRoot(element(square), root)).isTrue();
+      assertThat(Field.toBigInteger(root).modPow(BigInteger.TWO, P)).isEqualTo(square);
+    }
+    // -1 isn't a square, as p = 3 (mod 4).
+    assertThat(Field.squareRoot(element(P.subtract(BigInteger.ONE)), Field.create())).isFalse();
+  }
+
+  @Test
+  public void rejectsUnreducedBytes() {
+    final byte[] bytes = new byte[32];
+    Field.toBytes(element(P.subtract(BigInteger.ONE)), bytes, 0);
+    assertThat(Field.fromBytes(bytes, 0)).isNotNull();
+    bytes[31]++;
+    assertThat(Field.fromBytes(bytes, 0)).isNull();
+  }
+
+  private static int[] element(final BigInteger value) {
+    return Field.fromBigInteger(value);
+  }
+
+  private static List<BigInteger> values() {
+    final List<BigInteger> values = new ArrayList<>();
+    values.add(BigInteger.ZERO);
+    values.add(BigInteger.ONE);
+    values.add(P.subtract(BigInteger.ONE));
+    values.add(P.subtract(BigInteger.TWO));
+    values.add(BigInteger.ONE.shiftLeft(32));
+    values.add(BigInteger.ONE.shiftLeft(255));
+    final Random random = new Random(1);
+    for (int i = 0; i < 500; i++) {
+      values.add(new BigInteger(256, random).mod(P));
+    }
+    return values;
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.crypto.secp256k1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.crypto.SECP256K1;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.bouncycastle.math.ec.ECPoint;
+import org.junit.Test;
+
+public class SECP256K1ArithmeticTest {
+  private static final BigInteger N = SECP256K1Arithmetic.CURVE_ORDER;
+
+  private final Random random = new Random(1);
+
+  @Test
+  public void matchesCurveParameters() {
+    assertThat(N).isEqualTo(SECP256K1.CURVE.getN());
+    assertThat(encode(SECP256K1Arithmetic.GENERATOR)).isEqualTo(encode(SECP256K1.CURVE.getG()));
+  }
+
+  @Test
+  public void endomorphismMultipliesByLambda() {
+    final Point image = SECP256K1Arithmetic.GENERATOR.scaleX(SECP256K1Arithmetic.BETA);
+    assertThat(encode(image))
+        .isEqualTo(encode(SECP256K1.CURVE.getG().multiply(SECP256K1Arithmetic.LAMBDA)));
+  }
+
+  @Test
+  public void decomposesIntoShortHalves() {
+    for (int i = 0; i < 1000; i++) {
+      final BigInteger k = randomScalar();
+      final BigInteger[] halves = SECP256K1Arithmetic.decompose(k);
+
+      assertThat(halves[0].add(halves[1].multiply(SECP256K1Arithmetic.LAMBDA)).mod(N))
+          .isEqualTo(k);
+      assertThat(halves[0].abs().bitLength()).isLessThanOrEqualTo(129);
+      assertThat(halves[1].abs().bitLength()).isLessThanOrEqualTo(129);
+    }
+  }
+
+  @Test
+  public void nafSumsToScalar() {
+    for (int i = 0; i < 1000; i++) {
+      final BigInteger k = randomScalar();
+      final int[] naf = SECP256K1Arithmetic.naf(k);
+
+      BigInteger sum = BigInteger.ZERO;
+      for (int j = naf.length - 1; j >= 0; j--) {
+        assertThat(naf[j] == 0 || (naf[j] & 1) != 0).isTrue();
+        sum = sum.shiftLeft(1).add(BigInteger.valueOf(naf[j]));
+      }
+      assertThat(sum).isEqualTo(k);
+    }
+  }
+
+  @Test
+  public void multipliesGeneratorLikeReference() {
+    for (final BigInteger k : scalars()) {
+      assertThat(encode(SECP256K1Arithmetic.multiplyGeneratorPoint(k)))
+          .isEqualTo(encode(SECP256K1.CURVE.getG().multiply(k)));
+    }
+  }
+
+  @Test
+  public void multipliesPointsLikeReference() {
+    for (final BigInteger k : scalars()) {
+      final ECPoint reference = SECP256K1.CURVE.getG().multiply(randomScalar()).normalize();
+      final Point point =
+          Point.affine(
+              Field.fromBigInteger(reference.getAffineXCoord().toBigInteger()),
+              Field.fromBigInteger(reference.getAffineYCoord().toBigInteger()));
+
+      assertThat(encode(SECP256K1Arithmetic.multiply(point, k)))
+          .isEqualTo(encode(reference.multiply(k)));
+    }
+  }
+
+  @Test
+  public void multipliesPointsByNegatedLambdaMultiplesLikeReference() {
+    // These scalars split into k1 = 0 and a negative k2.
+    for (final BigInteger k : negatedLambdaMultiples()) {
+      final BigInteger[] halves = SECP256K1Arithmetic.decompose(k);
+      assertThat(halves[0]).isEqualTo(BigInteger.ZERO);
+      assertThat(halves[1].signum()).isNegative();
+
+      final ECPoint reference = SECP256K1.CURVE.getG().multiply(randomScalar()).normalize();
+      final Point point =
+          Point.affine(
+              Field.fromBigInteger(reference.getAffineXCoord().toBigInteger()),
+              Field.fromBigInteger(reference.getAffineYCoord().toBigInteger()));
+
+      assertThat(encode(SECP256K1Arithmetic.multiply(point, k)))
+          .isEqualTo(encode(reference.multiply(k)));
+      assertThat(encode(SECP256K1Arithmetic.multiply(SECP256K1Arithmetic.GENERATOR, k)))
+          .isEqualTo(encode(SECP256K1.CURVE.getG().multiply(k)));
+    }
+  }
+
+  @Test
+  public void multiplyingByZeroGivesInfinity() {
+    assertThat(SECP256K1Arithmetic.multiplyGeneratorPoint(BigInteger.ZERO).isInfinity()).isTrue();
+    assertThat(SECP256K1Arithmetic.multiply(SECP256K1Arithmetic.GENERATOR, BigInteger.ZERO))
+        .matches(Point::isInfinity);
+  }
+
+  private BigInteger[] scalars() {
+    final BigInteger[] scalars = new BigInteger[50];
+    scalars[0] = BigInteger.ONE;
+    scalars[1] = BigInteger.valueOf(15);
+    scalars[2] = BigInteger.valueOf(16);
+    scalars[3] = N.subtract(BigInteger.ONE);
+    scalars[4] = BigInteger.ONE.shiftLeft(255);
+    for (int i = 5; i < scalars.length; i++) {
+      scalars[i] = randomScalar();
+    }
+    return scalars;
+  }
+
+  private static BigInteger[] negatedLambdaMultiples() {
+    return new BigInteger[] {
+      N.subtract(SECP256K1Arithmetic.LAMBDA),
+      SECP256K1Arithmetic.LAMBDA.multiply(BigInteger.valueOf(-2)).mod(N),
+      SECP256K1Arithmetic.LAMBDA.multiply(BigInteger.valueOf(-12345)).mod(N)
+    };
+  }
+
+  private BigInteger randomScalar() {
+    return new BigInteger(256, random).mod(N);
+  }
+
+  private static byte[] encode(final Point point) {
+    final Point affine = point.normalize();
+    final byte[] encoded = new byte[64];
+    Field.toBytes(affine.x, encoded, 0);
+    Field.toBytes(affine.y, encoded, 32);
+    return encoded;
+  }
+
+  private static byte[] encode(final ECPoint point) {
+    final byte[] encoded = point.normalize().getEncoded(false);
+    return Arrays.copyOfRange(encoded, 1, encoded.length);
+  }
+}
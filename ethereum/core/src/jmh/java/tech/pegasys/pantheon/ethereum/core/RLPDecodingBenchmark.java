@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.core;
+
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator.BlockOptions;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares decoding block headers, block bodies and node data with {@link RLP#input(BytesValue)}
+ * and {@link RLP#input(ByteBuffer)}. Run with -prof gc to compare allocation.
+ */
+@State(Scope.Benchmark)
+public class RLPDecodingBenchmark {
+
+  private static final BlockHeaderFunctions BLOCK_HEADER_FUNCTIONS =
+      new MainnetBlockHeaderFunctions();
+
+  @Param({"10", "200"})
+  public int transactionCount;
+
+  // The largest number of nodes a peer is asked for in one request
+  @Param({"384"})
+  public int nodeCount;
+
+  private BytesValue header;
+  private ByteBuffer headerBuffer;
+  private BytesValue body;
+  private ByteBuffer bodyBuffer;
+  private BytesValue nodeData;
+  private ByteBuffer nodeDataBuffer;
+
+  @Setup
+  public void prepare() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final BlockOptions options = BlockOptions.create();
+    for (int i = 0; i < transactionCount; i++) {
+      options.addTransaction(gen.transaction());
+    }
+    final Block block = gen.block(options);
+    header = RLP.encode(block.getHeader()::writeTo);
+    headerBuffer = directBuffer(header);
+    body = RLP.encode(block.getBody()::writeTo);
+    bodyBuffer = directBuffer(body);
+
+    final List<BytesValue> nodes = new ArrayList<>(nodeCount);
+    for (int i = 0; i < nodeCount; i++) {
+      // Between the size of a small leaf and that of a full branch node
+      nodes.add(gen.bytesValue(70, 532));
+    }
+    nodeData =
+        RLP.encode(out -> out.writeList(nodes, (node, nodeOut) -> nodeOut.writeBytesValue(node)));
+    nodeDataBuffer = directBuffer(nodeData);
+  }
+
+  private static ByteBuffer directBuffer(final BytesValue value) {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(value.size());
+    buffer.put(value.getArrayUnsafe());
+    buffer.flip();
+    return buffer;
+  }
+
+  @Benchmark
+  public BlockHeader decodeHeader() {
+    return BlockHeader.readFrom(RLP.input(header), BLOCK_HEADER_FUNCTIONS);
+  }
+
+  @Benchmark
+  public BlockHeader decodeHeaderFromBuffer() {
+    return BlockHeader.readFrom(RLP.input(headerBuffer.duplicate()), BLOCK_HEADER_FUNCTIONS);
+  }
+
+  @Benchmark
+  public BlockBody decodeBody() {
+    return BlockBody.readFrom(RLP.input(body), BLOCK_HEADER_FUNCTIONS);
+  }
+
+  @Benchmark
+  public BlockBody decodeBodyFromBuffer() {
+    return BlockBody.readFrom(RLP.input(bodyBuffer.duplicate()), BLOCK_HEADER_FUNCTIONS);
+  }
+
+  @Benchmark
+  public List<BytesValue> decodeNodeData() {
+    return readNodeData(RLP.input(nodeData));
+  }
+
+  @Benchmark
+  public List<BytesValue> decodeNodeDataFromBuffer() {
+    return readNodeData(RLP.input(nodeDataBuffer.duplicate()));
+  }
+
+  // Reads node data the same way as NodeDataMessage
+  private static List<BytesValue> readNodeData(final RLPInput input) {
+    input.enterList();
+    final List<BytesValue> nodes = new ArrayList<>();
+    while (!input.isEndOfCurrentList()) {
+      nodes.add(input.readBytesValue());
+    }
+    input.leaveList();
+    return nodes;
+  }
+}
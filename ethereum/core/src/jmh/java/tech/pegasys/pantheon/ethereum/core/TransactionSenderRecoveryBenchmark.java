@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.core;
+
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransactionSenderRecoveryBenchmark {
+
+  @Param({"200", "5000"})
+  public int batchSize;
+
+  private final List<BytesValue> encodedTransactions = new ArrayList<>();
+  private TransactionSenderRecovery senderRecovery;
+  private List<Transaction> transactions;
+
+  @Setup
+  public void prepare() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    for (int i = 0; i < batchSize; i++) {
+      encodedTransactions.add(RLP.encode(gen.transaction()::writeTo));
+    }
+    senderRecovery = new TransactionSenderRecovery(Runtime.getRuntime().availableProcessors());
+  }
+
+  @Setup(Level.Invocation)
+  public void decodeTransactions() {
+    // Decoded transactions have not recovered their sender yet
+    transactions = new ArrayList<>(batchSize);
+    for (final BytesValue encoded : encodedTransactions) {
+      transactions.add(Transaction.readFrom(RLP.input(encoded)));
+    }
+  }
+
+  @Benchmark
+  public List<Transaction> sequential() {
+    transactions.forEach(Transaction::getSender);
+    return transactions;
+  }
+
+  @Benchmark
+  public List<Transaction> batch() {
+    senderRecovery.recoverSenders(transactions);
+    return transactions;
+  }
+}
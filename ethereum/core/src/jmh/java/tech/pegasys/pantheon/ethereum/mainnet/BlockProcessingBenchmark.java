@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet;
+
+import static java.util.Collections.emptyList;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
+import tech.pegasys.pantheon.ethereum.core.ExecutionContextTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.WorldStatePreimageKeyValueStorage;
+import tech.pegasys.pantheon.ethereum.trie.TrieNodeCache;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
+import tech.pegasys.pantheon.services.kvstore.RocksDbConfiguration;
+import tech.pegasys.pantheon.services.kvstore.RocksDbKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.common.primitives.Longs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Processes blocks of value transfers between accounts of a large world state, starting from a
+ * fresh world state each time as happens when importing consecutive blocks.
+ */
+@State(Scope.Thread)
+public class BlockProcessingBenchmark {
+  private static final int ACCOUNT_COUNT = 100_000;
+  private static final int BLOCK_COUNT = 8;
+  private static final int TRANSACTIONS_PER_BLOCK = 150;
+  private static final long TRANSFER_GAS = 21_000;
+  private static final Wei INITIAL_BALANCE = Wei.fromEth(1_000);
+
+  @Param({"true", "false"})
+  public boolean trieNodeCacheEnabled;
+
+  private Path storageDirectory;
+  private KeyValueStorage keyValueStorage;
+  private WorldStateArchive worldStateArchive;
+  private Blockchain blockchain;
+  private BlockProcessor blockProcessor;
+  private Hash rootHash;
+  private final List<BlockHeader> headers = new ArrayList<>();
+  private final List<List<Transaction>> blockTransactions = new ArrayList<>();
+  private int nextBlock;
+
+  @Setup
+  public void prepare() throws Exception {
+    storageDirectory = Files.createTempDirectory("benchmark");
+    keyValueStorage =
+        RocksDbKeyValueStorage.create(
+            RocksDbConfiguration.builder().databaseDir(storageDirectory).build(),
+            new NoOpMetricsSystem());
+    final Optional<TrieNodeCache<BytesValue>> trieNodeCache =
+        trieNodeCacheEnabled
+            ? Optional.of(new TrieNodeCache<>(TrieNodeCache.DEFAULT_MAX_WEIGHT))
+            : Optional.empty();
+    worldStateArchive =
+        new WorldStateArchive(
+            new WorldStateKeyValueStorage(keyValueStorage, trieNodeCache),
+            new WorldStatePreimageKeyValueStorage(new InMemoryKeyValueStorage()));
+
+    final ExecutionContextTestFixture executionContext = ExecutionContextTestFixture.create();
+    blockchain = executionContext.getBlockchain();
+    blockProcessor = executionContext.getProtocolSchedule().getByBlockNumber(1).getBlockProcessor();
+
+    final Random random = new Random(1);
+    final List<Address> accounts = new ArrayList<>(ACCOUNT_COUNT);
+    final MutableWorldState worldState = worldStateArchive.getMutable();
+    final WorldUpdater updater = worldState.updater();
+    for (int i = 0; i < ACCOUNT_COUNT; i++) {
+      final Address address = Address.extract(Hash.hash(BytesValue.wrap(Longs.toByteArray(i))));
+      updater.createAccount(address, 0, INITIAL_BALANCE);
+      accounts.add(address);
+    }
+
+    for (int block = 0; block < BLOCK_COUNT; block++) {
+      final List<Transaction> transactions = new ArrayList<>(TRANSACTIONS_PER_BLOCK);
+      for (int i = 0; i < TRANSACTIONS_PER_BLOCK; i++) {
+        final KeyPair sender = KeyPair.generate();
+        updater.createAccount(Address.extract(sender.getPublicKey()), 0, INITIAL_BALANCE);
+        transactions.add(
+            Transaction.builder()
+                .chainId(BigInteger.valueOf(42))
+                .nonce(0)
+                .gasPrice(Wei.of(1))
+                .gasLimit(TRANSFER_GAS)
+                .to(accounts.get(random.nextInt(accounts.size())))
+                .value(Wei.of(1))
+                .payload(BytesValue.EMPTY)
+                .signAndBuild(sender));
+      }
+      blockTransactions.add(transactions);
+      headers.add(
+          new BlockHeaderTestFixture()
+              .number(1)
+              .gasLimit(TRANSFER_GAS * TRANSACTIONS_PER_BLOCK)
+              .coinbase(accounts.get(random.nextInt(accounts.size())))
+              .buildHeader());
+    }
+    updater.commit();
+    worldState.persist();
+    rootHash = worldState.rootHash();
+  }
+
+  @TearDown
+  public void cleanUp() throws Exception {
+    keyValueStorage.close();
+    MoreFiles.deleteRecursively(storageDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public BlockProcessor.Result processBlock() {
+    final int block = nextBlock;
+    nextBlock = (nextBlock + 1) % BLOCK_COUNT;
+    final MutableWorldState worldState = worldStateArchive.getMutable(rootHash).get();
+    return blockProcessor.processBlock(
+        blockchain, worldState, headers.get(block), blockTransactions.get(block), emptyList());
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.mainnet.precompiles;
+
+import tech.pegasys.pantheon.ethereum.mainnet.IstanbulGasCalculator;
+import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Runs each of the alt_bn128 precompiles on valid input. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AltBN128PrecompiledContractBenchmark {
+
+  private static final BytesValue G1 =
+      BytesValue.fromHexString(
+          "0x0000000000000000000000000000000000000000000000000000000000000001"
+              + "0000000000000000000000000000000000000000000000000000000000000002");
+  private static final BytesValue TWICE_G1 =
+      BytesValue.fromHexString(
+          "0x030644e72e131a029b85045b68181585d97816a916871ca8d3c208c16d87cfd3"
+              + "15ed738c0e0a7c92e7845f96b2ae9c0a68a6a449e3538fc7ff3ebf7a5a18a2c4");
+  private static final BytesValue NEGATED_G1 =
+      BytesValue.fromHexString(
+          "0x0000000000000000000000000000000000000000000000000000000000000001"
+              + "30644e72e131a029b85045b68181585d97816a916871ca8d3c208c16d87cfd45");
+  private static final BytesValue SCALAR =
+      BytesValue.fromHexString(
+          "0x2bd3e6d0f3b142924f5ca7b49ce5b9d54c4703d7ae5648e61d02268b1a0a9fb7");
+  private static final BytesValue G2 =
+      BytesValue.fromHexString(
+          "0x198e9393920d483a7260bfb731fb5d25f1aa493335a9e71297e485b7aef312c2"
+              + "1800deef121f1e76426a00665e5c4479674322d4f75edadd46debd5cd992f6ed"
+              + "090689d0585ff075ec9e99ad690c3395bc4b313370b38ef355acdadcd122975b"
+              + "12c85ea5db8c6deb4aab71808dcb408fe3d1e7690c43d37b4ce6cc0166fa7daa");
+
+  private AltBN128AddPrecompiledContract addContract;
+  private AltBN128MulPrecompiledContract mulContract;
+  private AltBN128PairingPrecompiledContract pairingContract;
+  private BytesValue addInput;
+  private BytesValue mulInput;
+  private BytesValue pairingInput;
+
+  @Setup
+  public void prepare() {
+    final GasCalculator gasCalculator = new IstanbulGasCalculator();
+    addContract = AltBN128AddPrecompiledContract.istanbul(gasCalculator);
+    mulContract = AltBN128MulPrecompiledContract.istanbul(gasCalculator);
+    pairingContract = AltBN128PairingPrecompiledContract.istanbul(gasCalculator);
+
+    addInput = BytesValues.concatenate(G1, TWICE_G1);
+    mulInput = BytesValues.concatenate(TWICE_G1, SCALAR);
+    // e(g1, g2) * e(-g1, g2) = 1
+    pairingInput = BytesValues.concatenate(G1, G2, NEGATED_G1, G2);
+  }
+
+  @Benchmark
+  public BytesValue add() {
+    return addContract.compute(addInput, null);
+  }
+
+  @Benchmark
+  public BytesValue mul() {
+    return mulContract.compute(mulInput, null);
+  }
+
+  @Benchmark
+  public BytesValue pairing() {
+    return pairingContract.compute(pairingInput, null);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Exercises the memory access patterns of memory-heavy operations: copying input into memory as
+ * CALLDATACOPY does, copying memory onto itself as copy loops do, and reading ranges back out as
+ * SHA3 and RETURN do.
+ */
+@State(Scope.Thread)
+public class MemoryBenchmark {
+  // Deliberately not word aligned, as is common for copies.
+  private static final UInt256 SOURCE_OFFSET = UInt256.of(7);
+
+  @Param({"32", "1024", "65536"})
+  public int size;
+
+  private BytesValue data;
+  private UInt256 length;
+  private UInt256 destinationOffset;
+  private Memory populatedMemory;
+
+  @Setup
+  public void prepare() {
+    final byte[] bytes = new byte[size];
+    new Random(1).nextBytes(bytes);
+    data = BytesValue.wrap(bytes);
+    length = UInt256.of(size);
+    destinationOffset = UInt256.of(size + 13);
+    populatedMemory = new Memory();
+    populatedMemory.setBytes(SOURCE_OFFSET, length, data);
+  }
+
+  @Benchmark
+  public Memory copyIntoNewMemory() {
+    final Memory memory = new Memory();
+    memory.setBytes(SOURCE_OFFSET, length, data);
+    return memory;
+  }
+
+  @Benchmark
+  public Memory copyWithinMemory() {
+    populatedMemory.setBytes(
+        destinationOffset, length, populatedMemory.getBytes(SOURCE_OFFSET, length));
+    return populatedMemory;
+  }
+
+  @Benchmark
+  public BytesValue readRange() {
+    return populatedMemory.getBytes(SOURCE_OFFSET, length);
+  }
+
+  @Benchmark
+  public Bytes32 readWords() {
+    Bytes32 last = Bytes32.ZERO;
+    for (int offset = 0; offset < size; offset += Bytes32.SIZE) {
+      last = populatedMemory.getWord(UInt256.of(offset));
+    }
+    return last;
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm.operations;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.MutableBytes32;
+import tech.pegasys.pantheon.util.uint.UInt256Word;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the arithmetic and comparison opcodes computed on {@link UInt256Word} limbs against
+ * the {@code UInt256}/{@code Int256} implementations they used before, on operands read from the
+ * stack as plain bytes.
+ */
+@State(Scope.Thread)
+public class ArithmeticOperationBenchmark {
+
+  public enum Opcode {
+    ADD {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asUInt256().plus(b.asUInt256()).getBytes();
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).add(UInt256Word.of(b));
+      }
+    },
+    SUB {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asUInt256().minus(b.asUInt256()).getBytes();
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).subtract(UInt256Word.of(b));
+      }
+    },
+    MUL {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asUInt256().times(b.asUInt256()).getBytes();
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).multiply(UInt256Word.of(b));
+      }
+    },
+    DIV {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asUInt256().dividedBy(c.asUInt256()).getBytes();
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).divide(UInt256Word.of(c));
+      }
+    },
+    MOD {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asUInt256().mod(c.asUInt256()).getBytes();
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).mod(UInt256Word.of(c));
+      }
+    },
+    SDIV {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asInt256().dividedBy(c.asInt256()).getBytes();
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).signedDivide(UInt256Word.of(c));
+      }
+    },
+    SMOD {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asInt256().mod(c.asInt256()).getBytes();
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).signedMod(UInt256Word.of(c));
+      }
+    },
+    ADDMOD {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asUInt256().plusModulo(b.asUInt256(), c.asUInt256()).getBytes();
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).addMod(UInt256Word.of(b), UInt256Word.of(c));
+      }
+    },
+    MULMOD {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asUInt256().timesModulo(b.asUInt256(), c.asUInt256()).getBytes();
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).multiplyMod(UInt256Word.of(b), UInt256Word.of(c));
+      }
+    },
+    EXP {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asUInt256().pow(b.asUInt256()).getBytes();
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).pow(UInt256Word.of(b));
+      }
+    },
+    LT {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asUInt256().compareTo(b.asUInt256()) < 0 ? Bytes32.TRUE : Bytes32.FALSE;
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).compareTo(UInt256Word.of(b)) < 0 ? Bytes32.TRUE : Bytes32.FALSE;
+      }
+    },
+    SLT {
+      @Override
+      Bytes32 bytes(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return a.asInt256().compareTo(b.asInt256()) < 0 ? Bytes32.TRUE : Bytes32.FALSE;
+      }
+
+      @Override
+      Bytes32 limbs(final Bytes32 a, final Bytes32 b, final Bytes32 c) {
+        return UInt256Word.of(a).compareSigned(UInt256Word.of(b)) < 0
+            ? Bytes32.TRUE
+            : Bytes32.FALSE;
+      }
+    };
+
+    abstract Bytes32 bytes(Bytes32 a, Bytes32 b, Bytes32 c);
+
+    abstract Bytes32 limbs(Bytes32 a, Bytes32 b, Bytes32 c);
+  }
+
+  @Param
+  public Opcode opcode;
+
+  @Param({"8", "32"})
+  public int operandSize;
+
+  private Bytes32 a;
+  private Bytes32 b;
+  // Divisor and modulus, half the size of the other operands so the results are not trivial.
+  private Bytes32 c;
+
+  @Setup
+  public void prepare() {
+    final Random random = new Random(1);
+    a = randomValue(random, operandSize);
+    b = randomValue(random, operandSize);
+    c = randomValue(random, Math.max(1, operandSize / 2));
+  }
+
+  private static Bytes32 randomValue(final Random random, final int size) {
+    final MutableBytes32 value = MutableBytes32.create();
+    for (int i = Bytes32.SIZE - size; i < Bytes32.SIZE; i++) {
+      value.set(i, (byte) random.nextInt(256));
+    }
+    return value;
+  }
+
+  @Benchmark
+  public Bytes32 uint256() {
+    return opcode.bytes(a, b, c);
+  }
+
+  @Benchmark
+  public Bytes32 uint256Word() {
+    return opcode.limbs(a, b, c);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm.operations;
+
+import tech.pegasys.pantheon.ethereum.core.ExecutionContextTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Gas;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.vm.Code;
+import tech.pegasys.pantheon.ethereum.vm.EVM;
+import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
+import tech.pegasys.pantheon.ethereum.vm.OperationTracer;
+import tech.pegasys.pantheon.ethereum.vm.ehalt.ExceptionalHaltException;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayDeque;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/** Runs a whole contract through the EVM, rather than a single operation. */
+@State(Scope.Thread)
+public class ContractExecutionBenchmark {
+  // Counts down from 10000 to zero:
+  // PUSH2 0x2710, JUMPDEST, PUSH1 0x01, SWAP1, SUB, DUP1, PUSH1 0x03, JUMPI, STOP
+  private static final BytesValue LOOP_CODE =
+      BytesValue.fromHexString("0x6127105b600190038060035700");
+  private static final Hash LOOP_CODE_HASH = Hash.hash(LOOP_CODE);
+  private static final Gas INITIAL_GAS = Gas.of(10_000_000);
+
+  @Param({"false", "true"})
+  public boolean tracing;
+
+  private OperationBenchmarkHelper operationBenchmarkHelper;
+  private EVM evm;
+  private OperationTracer operationTracer;
+
+  @Setup
+  public void prepare() throws Exception {
+    operationBenchmarkHelper = OperationBenchmarkHelper.create();
+    evm = ExecutionContextTestFixture.create().getProtocolSchedule().getByBlockNumber(0).getEvm();
+    // Any tracer other than NO_TRACING takes the general execution path.
+    operationTracer =
+        tracing
+            ? (frame, currentGasCost, executeOperation) -> executeOperation.execute()
+            : OperationTracer.NO_TRACING;
+  }
+
+  @TearDown
+  public void cleanUp() throws Exception {
+    operationBenchmarkHelper.cleanUp();
+  }
+
+  @Benchmark
+  public MessageFrame executeContract() throws ExceptionalHaltException {
+    final MessageFrame frame =
+        operationBenchmarkHelper
+            .createMessageFrameBuilder()
+            .messageFrameStack(new ArrayDeque<>())
+            .initialGas(INITIAL_GAS)
+            .code(new Code(LOOP_CODE, LOOP_CODE_HASH))
+            .build();
+    frame.setState(MessageFrame.State.CODE_EXECUTING);
+    evm.runToHalt(frame, operationTracer);
+    return frame;
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import tech.pegasys.pantheon.ethereum.trie.KeyValueMerkleStorage;
+import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.trie.MerkleStorage;
+import tech.pegasys.pantheon.ethereum.trie.StoredMerklePatriciaTrie;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Computes the root hash of, and commits, an account trie after a block updating 10,000 accounts
+ * of a larger world state, hashing the changed subtries either on a single thread or on the common
+ * fork-join pool.
+ */
+@State(Scope.Thread)
+public class AccountTrieRootBenchmark {
+  private static final int ACCOUNT_COUNT = 100_000;
+  private static final int UPDATED_ACCOUNT_COUNT = 10_000;
+  // About the size of an account with storage and code.
+  private static final int ACCOUNT_VALUE_SIZE = 104;
+
+  @Param({"false", "true"})
+  public boolean concurrent;
+
+  private final Random random = new Random(1);
+  private final ForkJoinPool pool = ForkJoinPool.commonPool();
+  private final Bytes32[] accounts = new Bytes32[ACCOUNT_COUNT];
+  private MerkleStorage storage;
+  private Bytes32 rootHash;
+  private MerklePatriciaTrie<Bytes32, BytesValue> trie;
+
+  @Setup
+  public void prepare() {
+    storage = new KeyValueMerkleStorage(new InMemoryKeyValueStorage());
+    final MerklePatriciaTrie<Bytes32, BytesValue> initialTrie =
+        new StoredMerklePatriciaTrie<>(storage::get, Function.identity(), Function.identity());
+    for (int i = 0; i < ACCOUNT_COUNT; i++) {
+      accounts[i] = Bytes32.wrap(randomBytes(Bytes32.SIZE));
+      initialTrie.put(accounts[i], BytesValue.wrap(randomBytes(ACCOUNT_VALUE_SIZE)));
+    }
+    initialTrie.commit(storage::put);
+    storage.commit();
+    rootHash = initialTrie.getRootHash();
+  }
+
+  @Setup(Level.Invocation)
+  public void prepareBlock() {
+    trie =
+        new StoredMerklePatriciaTrie<>(
+            storage::get, rootHash, Function.identity(), Function.identity());
+    for (int i = 0; i < UPDATED_ACCOUNT_COUNT; i++) {
+      trie.put(
+          accounts[random.nextInt(ACCOUNT_COUNT)],
+          BytesValue.wrap(randomBytes(ACCOUNT_VALUE_SIZE)));
+    }
+  }
+
+  private byte[] randomBytes(final int size) {
+    final byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+
+  @Benchmark
+  public Bytes32 rootHash() {
+    return concurrent ? trie.getRootHash(pool) : trie.getRootHash();
+  }
+
+  @Benchmark
+  public Bytes32 commit() {
+    // Nodes are discarded rather than stored, so that only hashing and encoding is measured.
+    if (concurrent) {
+      trie.commit((hash, value) -> {}, pool);
+    } else {
+      trie.commit((hash, value) -> {});
+    }
+    return trie.getRootHash();
+  }
+}
@@ -13,6 +13,7 @@
 package tech.pegasys.pantheon.ethereum;
 
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.chain.BlockchainCacheConfiguration;
 import tech.pegasys.pantheon.ethereum.chain.BlockchainStorage;
 import tech.pegasys.pantheon.ethereum.chain.DefaultBlockchain;
 import tech.pegasys.pantheon.ethereum.chain.GenesisState;
@@ -52,6 +53,7 @@ public class ProtocolContext<C> {
       final GenesisState genesisState,
       final ProtocolSchedule<T> protocolSchedule,
       final MetricsSystem metricsSystem,
+      final BlockchainCacheConfiguration blockchainCacheConfiguration,
       final BiFunction<Blockchain, WorldStateArchive, T> consensusContextFactory) {
     final BlockchainStorage blockchainStorage =
         storageProvider.createBlockchainStorage(protocolSchedule);
@@ -60,7 +62,11 @@ public class ProtocolContext<C> {
         storageProvider.createWorldStatePreimageStorage();
 
     final MutableBlockchain blockchain =
-        DefaultBlockchain.createMutable(genesisState.getBlock(), blockchainStorage, metricsSystem);
+        DefaultBlockchain.createMutable(
+            genesisState.getBlock(),
+            blockchainStorage,
+            metricsSystem,
+            blockchainCacheConfiguration);
 
     final WorldStateArchive worldStateArchive =
         new WorldStateArchive(worldStateStorage, preimageStorage);
@@ -18,6 +18,8 @@ import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.List;
@@ -139,6 +141,40 @@ public interface Blockchain {
    */
   Optional<List<TransactionReceipt>> getTxReceipts(Hash blockHeaderHash);
 
+  /**
+   * Returns the RLP encoding of the block header corresponding to the given block hash, as it is
+   * sent to peers. Implementations backed by storage may return the stored encoding as is.
+   *
+   * @param blockHeaderHash The hash of the block whose header we want to retrieve.
+   * @return The RLP-encoded block header corresponding to this block hash.
+   */
+  default Optional<BytesValue> getBlockHeaderRlp(final Hash blockHeaderHash) {
+    return getBlockHeader(blockHeaderHash).map(header -> RLP.encode(header::writeTo));
+  }
+
+  /**
+   * Returns the RLP encoding of the block body corresponding to the given block hash, as it is
+   * sent to peers. Implementations backed by storage may return the stored encoding as is.
+   *
+   * @param blockHeaderHash The hash of the block whose body should be returned.
+   * @return The RLP-encoded block body corresponding to this block hash.
+   */
+  default Optional<BytesValue> getBlockBodyRlp(final Hash blockHeaderHash) {
+    return getBlockBody(blockHeaderHash).map(body -> RLP.encode(body::writeTo));
+  }
+
+  /**
+   * Returns the RLP list of the transaction receipts of the block corresponding to the given block
+   * hash, as it is sent to peers, so without revert reasons.
+   *
+   * @param blockHeaderHash The header hash of the block we're querying.
+   * @return The RLP-encoded transaction receipts corresponding to this block hash.
+   */
+  default Optional<BytesValue> getTxReceiptsRlp(final Hash blockHeaderHash) {
+    return getTxReceipts(blockHeaderHash)
+        .map(receipts -> RLP.encode(out -> out.writeList(receipts, TransactionReceipt::writeTo)));
+  }
+
   /**
    * Retrieves the header hash of the block at the given height in the canonical chain.
    *
@@ -172,6 +208,16 @@ public interface Blockchain {
    */
   Optional<TransactionLocation> getTransactionLocation(Hash transactionHash);
 
+  /**
+   * Returns the bit-sliced index of logs blooms on the canonical chain, if this blockchain
+   * maintains one.
+   *
+   * @return The logs bloom index.
+   */
+  default Optional<LogsBloomIndex> getLogsBloomIndex() {
+    return Optional.empty();
+  }
+
   /**
    * Adds an observer that will get called when a new block is added.
    *
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.chain;
+
+public class BlockchainCacheConfiguration {
+  public static final long DEFAULT_CACHE_CAPACITY = 64 * 1024 * 1024;
+  public static final int DEFAULT_BLOCK_HASH_CACHE_SIZE = 4096;
+
+  public static final BlockchainCacheConfiguration DEFAULT = builder().build();
+
+  private final long cacheCapacity;
+  private final int blockHashCacheSize;
+
+  private BlockchainCacheConfiguration(final long cacheCapacity, final int blockHashCacheSize) {
+    this.cacheCapacity = cacheCapacity;
+    this.blockHashCacheSize = blockHashCacheSize;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** @return the approximate number of bytes of decoded blocks and receipts to keep in memory */
+  public long getCacheCapacity() {
+    return cacheCapacity;
+  }
+
+  /** @return the number of block number to hash mappings and total difficulties to keep */
+  public int getBlockHashCacheSize() {
+    return blockHashCacheSize;
+  }
+
+  public boolean isEnabled() {
+    return cacheCapacity > 0 || blockHashCacheSize > 0;
+  }
+
+  public static class Builder {
+    private long cacheCapacity = DEFAULT_CACHE_CAPACITY;
+    private int blockHashCacheSize = DEFAULT_BLOCK_HASH_CACHE_SIZE;
+
+    private Builder() {}
+
+    public Builder cacheCapacity(final long cacheCapacity) {
+      this.cacheCapacity = cacheCapacity;
+      return this;
+    }
+
+    public Builder blockHashCacheSize(final int blockHashCacheSize) {
+      this.blockHashCacheSize = blockHashCacheSize;
+      return this;
+    }
+
+    public BlockchainCacheConfiguration build() {
+      return new BlockchainCacheConfiguration(cacheCapacity, blockHashCacheSize);
+    }
+  }
+}
@@ -16,6 +16,7 @@ import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.Collection;
@@ -34,12 +35,43 @@ public interface BlockchainStorage {
 
   Optional<List<TransactionReceipt>> getTransactionReceipts(Hash blockHash);
 
+  /**
+   * Returns the block header RLP exactly as it is stored, without decoding it.
+   *
+   * @param blockHash the hash of the block
+   * @return the RLP-encoded block header
+   */
+  Optional<BytesValue> getBlockHeaderRlp(Hash blockHash);
+
+  /**
+   * Returns the block body RLP exactly as it is stored, without decoding it.
+   *
+   * @param blockHash the hash of the block
+   * @return the RLP-encoded block body
+   */
+  Optional<BytesValue> getBlockBodyRlp(Hash blockHash);
+
+  /**
+   * Returns the RLP list of transaction receipts exactly as it is stored, without decoding it. The
+   * receipts are encoded with {@link TransactionReceipt#writeToWithRevertReason}.
+   *
+   * @param blockHash the hash of the block
+   * @return the RLP-encoded list of transaction receipts
+   */
+  Optional<BytesValue> getTransactionReceiptsRlp(Hash blockHash);
+
   Optional<Hash> getBlockHash(long blockNumber);
 
   Optional<UInt256> getTotalDifficulty(Hash blockHash);
 
   Optional<TransactionLocation> getTransactionLocation(Hash transactionHash);
 
+  Optional<BytesValue> getLogsBloomBits(long sectionNumber, int bitIndex);
+
+  Optional<Hash> getLogsBloomSectionHead(long sectionNumber);
+
+  long getLogsBloomSectionCount();
+
   Updater updater();
 
   interface Updater {
@@ -64,6 +96,14 @@ public interface BlockchainStorage {
 
     void removeTransactionLocation(Hash transactionHash);
 
+    void putLogsBloomBits(long sectionNumber, int bitIndex, BytesValue bits);
+
+    void removeLogsBloomBits(long sectionNumber, int bitIndex);
+
+    void putLogsBloomSectionHead(long sectionNumber, Hash sectionHead);
+
+    void setLogsBloomSectionCount(long sectionCount);
+
     void commit();
 
     void rollback();
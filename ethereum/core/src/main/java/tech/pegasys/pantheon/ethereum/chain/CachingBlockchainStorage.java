@@ -0,0 +1,380 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.chain;
+
+import tech.pegasys.pantheon.ethereum.core.BlockBody;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.LabelledMetric;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.PantheonMetricCategory;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps recently used decoded headers, bodies, receipts and total difficulties in memory in front
+ * of another {@link BlockchainStorage}.
+ *
+ * <p>Entries keyed by block hash never change once written, so they only need to be bounded. The
+ * block number to hash mapping does change when the canonical chain is reorganised or rewound, so
+ * every change made through an {@link Updater} is applied to the cache once the update has been
+ * committed to the underlying storage.
+ */
+public class CachingBlockchainStorage implements BlockchainStorage {
+
+  private static final int HEADER_WEIGHT = 512;
+  private static final int TRANSACTION_WEIGHT = 256;
+  private static final int RECEIPT_WEIGHT = 384;
+  private static final int LOG_WEIGHT = 128;
+  private static final int LOG_TOPIC_WEIGHT = 32;
+
+  private final BlockchainStorage storage;
+
+  private final Cache<Hash, BlockHeader> headers;
+  private final Cache<Hash, BlockBody> bodies;
+  private final Cache<Hash, List<TransactionReceipt>> receipts;
+  private final Cache<Hash, UInt256> totalDifficulties;
+  private final Cache<Long, Optional<Hash>> blockHashes;
+
+  private final Counter headerHits;
+  private final Counter headerMisses;
+  private final Counter bodyHits;
+  private final Counter bodyMisses;
+  private final Counter receiptHits;
+  private final Counter receiptMisses;
+  private final Counter totalDifficultyHits;
+  private final Counter totalDifficultyMisses;
+  private final Counter blockHashHits;
+  private final Counter blockHashMisses;
+
+  public CachingBlockchainStorage(
+      final BlockchainStorage storage,
+      final BlockchainCacheConfiguration configuration,
+      final MetricsSystem metricsSystem) {
+    this.storage = storage;
+
+    // Bodies dominate the size of a block so they get half of the capacity.
+    final long capacity = configuration.getCacheCapacity();
+    this.headers =
+        CacheBuilder.newBuilder()
+            .maximumWeight(capacity / 4)
+            .<Hash, BlockHeader>weigher((hash, header) -> weigh(header))
+            .build();
+    this.bodies =
+        CacheBuilder.newBuilder()
+            .maximumWeight(capacity / 2)
+            .<Hash, BlockBody>weigher((hash, body) -> weigh(body))
+            .build();
+    this.receipts =
+        CacheBuilder.newBuilder()
+            .maximumWeight(capacity / 4)
+            .<Hash, List<TransactionReceipt>>weigher((hash, blockReceipts) -> weigh(blockReceipts))
+            .build();
+    this.totalDifficulties =
+        CacheBuilder.newBuilder().maximumSize(configuration.getBlockHashCacheSize()).build();
+    this.blockHashes =
+        CacheBuilder.newBuilder().maximumSize(configuration.getBlockHashCacheSize()).build();
+
+    final LabelledMetric<Counter> hits =
+        metricsSystem.createLabelledCounter(
+            PantheonMetricCategory.BLOCKCHAIN,
+            "cache_hits_total",
+            "Number of blockchain lookups answered from the in-memory cache",
+            "cache");
+    final LabelledMetric<Counter> misses =
+        metricsSystem.createLabelledCounter(
+            PantheonMetricCategory.BLOCKCHAIN,
+            "cache_misses_total",
+            "Number of blockchain lookups which had to be read from storage",
+            "cache");
+    headerHits = hits.labels("header");
+    headerMisses = misses.labels("header");
+    bodyHits = hits.labels("body");
+    bodyMisses = misses.labels("body");
+    receiptHits = hits.labels("receipts");
+    receiptMisses = misses.labels("receipts");
+    totalDifficultyHits = hits.labels("total_difficulty");
+    totalDifficultyMisses = misses.labels("total_difficulty");
+    blockHashHits = hits.labels("block_hash");
+    blockHashMisses = misses.labels("block_hash");
+  }
+
+  @Override
+  public Optional<Hash> getChainHead() {
+    return storage.getChainHead();
+  }
+
+  @Override
+  public Collection<Hash> getForkHeads() {
+    return storage.getForkHeads();
+  }
+
+  @Override
+  public Optional<BlockHeader> getBlockHeader(final Hash blockHash) {
+    return get(headers, blockHash, storage::getBlockHeader, headerHits, headerMisses);
+  }
+
+  @Override
+  public Optional<BlockBody> getBlockBody(final Hash blockHash) {
+    return get(bodies, blockHash, storage::getBlockBody, bodyHits, bodyMisses);
+  }
+
+  @Override
+  public Optional<List<TransactionReceipt>> getTransactionReceipts(final Hash blockHash) {
+    return get(receipts, blockHash, storage::getTransactionReceipts, receiptHits, receiptMisses);
+  }
+
+  // Encoded data is read straight from storage, as caching it as well would double the memory used.
+  @Override
+  public Optional<BytesValue> getBlockHeaderRlp(final Hash blockHash) {
+    return storage.getBlockHeaderRlp(blockHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getBlockBodyRlp(final Hash blockHash) {
+    return storage.getBlockBodyRlp(blockHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getTransactionReceiptsRlp(final Hash blockHash) {
+    return storage.getTransactionReceiptsRlp(blockHash);
+  }
+
+  @Override
+  public Optional<Hash> getBlockHash(final long blockNumber) {
+    final Optional<Hash> cached = blockHashes.getIfPresent(blockNumber);
+    if (cached != null) {
+      blockHashHits.inc();
+      return cached;
+    }
+    blockHashMisses.inc();
+    try {
+      // Loading through the cache means a concurrent commit replaces rather than races the load.
+      return blockHashes.get(blockNumber, () -> storage.getBlockHash(blockNumber));
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  @Override
+  public Optional<UInt256> getTotalDifficulty(final Hash blockHash) {
+    return get(
+        totalDifficulties,
+        blockHash,
+        storage::getTotalDifficulty,
+        totalDifficultyHits,
+        totalDifficultyMisses);
+  }
+
+  @Override
+  public Optional<TransactionLocation> getTransactionLocation(final Hash transactionHash) {
+    return storage.getTransactionLocation(transactionHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getLogsBloomBits(final long sectionNumber, final int bitIndex) {
+    return storage.getLogsBloomBits(sectionNumber, bitIndex);
+  }
+
+  @Override
+  public Optional<Hash> getLogsBloomSectionHead(final long sectionNumber) {
+    return storage.getLogsBloomSectionHead(sectionNumber);
+  }
+
+  @Override
+  public long getLogsBloomSectionCount() {
+    return storage.getLogsBloomSectionCount();
+  }
+
+  @Override
+  public Updater updater() {
+    return new CachingUpdater(storage.updater());
+  }
+
+  private static <V> Optional<V> get(
+      final Cache<Hash, V> cache,
+      final Hash blockHash,
+      final Function<Hash, Optional<V>> loader,
+      final Counter hits,
+      final Counter misses) {
+    final V cached = cache.getIfPresent(blockHash);
+    if (cached != null) {
+      hits.inc();
+      return Optional.of(cached);
+    }
+    misses.inc();
+    final Optional<V> value = loader.apply(blockHash);
+    value.ifPresent(v -> cache.put(blockHash, v));
+    return value;
+  }
+
+  private static int weigh(final BlockHeader header) {
+    return HEADER_WEIGHT + header.getExtraData().size();
+  }
+
+  private static int weigh(final BlockBody body) {
+    int weight = 0;
+    for (final Transaction transaction : body.getTransactions()) {
+      weight += TRANSACTION_WEIGHT + transaction.getPayload().size();
+    }
+    for (final BlockHeader ommer : body.getOmmers()) {
+      weight += weigh(ommer);
+    }
+    return weight;
+  }
+
+  private static int weigh(final List<TransactionReceipt> receipts) {
+    int weight = 0;
+    for (final TransactionReceipt receipt : receipts) {
+      weight += RECEIPT_WEIGHT;
+      for (final Log log : receipt.getLogs()) {
+        weight += LOG_WEIGHT + log.getData().size() + LOG_TOPIC_WEIGHT * log.getTopics().size();
+      }
+    }
+    return weight;
+  }
+
+  private class CachingUpdater implements Updater {
+
+    private final Updater updater;
+    private final Map<Hash, BlockHeader> newHeaders = new HashMap<>();
+    private final Map<Hash, BlockBody> newBodies = new HashMap<>();
+    private final Map<Hash, List<TransactionReceipt>> newReceipts = new HashMap<>();
+    private final Map<Hash, UInt256> newTotalDifficulties = new HashMap<>();
+    private final Map<Long, Optional<Hash>> blockHashChanges = new HashMap<>();
+
+    private CachingUpdater(final Updater updater) {
+      this.updater = updater;
+    }
+
+    @Override
+    public void putBlockHeader(final Hash blockHash, final BlockHeader blockHeader) {
+      updater.putBlockHeader(blockHash, blockHeader);
+      newHeaders.put(blockHash, blockHeader);
+    }
+
+    @Override
+    public void putBlockBody(final Hash blockHash, final BlockBody blockBody) {
+      updater.putBlockBody(blockHash, blockBody);
+      newBodies.put(blockHash, blockBody);
+    }
+
+    @Override
+    public void putTransactionLocation(
+        final Hash transactionHash, final TransactionLocation transactionLocation) {
+      updater.putTransactionLocation(transactionHash, transactionLocation);
+    }
+
+    @Override
+    public void putTransactionReceipts(
+        final Hash blockHash, final List<TransactionReceipt> transactionReceipts) {
+      updater.putTransactionReceipts(blockHash, transactionReceipts);
+      newReceipts.put(blockHash, new ArrayList<>(transactionReceipts));
+    }
+
+    @Override
+    public void putBlockHash(final long blockNumber, final Hash blockHash) {
+      updater.putBlockHash(blockNumber, blockHash);
+      blockHashChanges.put(blockNumber, Optional.of(blockHash));
+    }
+
+    @Override
+    public void putTotalDifficulty(final Hash blockHash, final UInt256 totalDifficulty) {
+      updater.putTotalDifficulty(blockHash, totalDifficulty);
+      newTotalDifficulties.put(blockHash, totalDifficulty);
+    }
+
+    @Override
+    public void setChainHead(final Hash blockHash) {
+      updater.setChainHead(blockHash);
+    }
+
+    @Override
+    public void setForkHeads(final Collection<Hash> forkHeadHashes) {
+      updater.setForkHeads(forkHeadHashes);
+    }
+
+    @Override
+    public void removeBlockHash(final long blockNumber) {
+      updater.removeBlockHash(blockNumber);
+      blockHashChanges.put(blockNumber, Optional.empty());
+    }
+
+    @Override
+    public void removeTransactionLocation(final Hash transactionHash) {
+      updater.removeTransactionLocation(transactionHash);
+    }
+
+    @Override
+    public void putLogsBloomBits(
+        final long sectionNumber, final int bitIndex, final BytesValue bits) {
+      updater.putLogsBloomBits(sectionNumber, bitIndex, bits);
+    }
+
+    @Override
+    public void removeLogsBloomBits(final long sectionNumber, final int bitIndex) {
+      updater.removeLogsBloomBits(sectionNumber, bitIndex);
+    }
+
+    @Override
+    public void putLogsBloomSectionHead(final long sectionNumber, final Hash sectionHead) {
+      updater.putLogsBloomSectionHead(sectionNumber, sectionHead);
+    }
+
+    @Override
+    public void setLogsBloomSectionCount(final long sectionCount) {
+      updater.setLogsBloomSectionCount(sectionCount);
+    }
+
+    @Override
+    public void commit() {
+      updater.commit();
+      headers.putAll(newHeaders);
+      bodies.putAll(newBodies);
+      receipts.putAll(newReceipts);
+      totalDifficulties.putAll(newTotalDifficulties);
+      blockHashes.putAll(blockHashChanges);
+      clear();
+    }
+
+    @Override
+    public void rollback() {
+      updater.rollback();
+      clear();
+    }
+
+    private void clear() {
+      newHeaders.clear();
+      newBodies.clear();
+      newReceipts.clear();
+      newTotalDifficulties.clear();
+      blockHashChanges.clear();
+    }
+  }
+}
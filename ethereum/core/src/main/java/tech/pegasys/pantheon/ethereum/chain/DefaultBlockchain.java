@@ -27,6 +27,7 @@ import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.PantheonMetricCategory;
 import tech.pegasys.pantheon.util.InvalidConfigurationException;
 import tech.pegasys.pantheon.util.Subscribers;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.bytes.BytesValues;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
@@ -45,6 +46,7 @@ import com.google.common.annotations.VisibleForTesting;
 public class DefaultBlockchain implements MutableBlockchain {
 
   protected final BlockchainStorage blockchainStorage;
+  private final LogsBloomIndex logsBloomIndex;
 
   private final Subscribers<BlockAddedObserver> blockAddedObservers = Subscribers.create();
 
@@ -62,6 +64,7 @@ public class DefaultBlockchain implements MutableBlockchain {
     checkNotNull(metricsSystem);
 
     this.blockchainStorage = blockchainStorage;
+    this.logsBloomIndex = new LogsBloomIndex(blockchainStorage);
     genesisBlock.ifPresent(this::setGenesis);
 
     final Hash chainHead = blockchainStorage.getChainHead().get();
@@ -123,6 +126,18 @@ public class DefaultBlockchain implements MutableBlockchain {
     return new DefaultBlockchain(Optional.of(genesisBlock), blockchainStorage, metricsSystem);
   }
 
+  public static MutableBlockchain createMutable(
+      final Block genesisBlock,
+      final BlockchainStorage blockchainStorage,
+      final MetricsSystem metricsSystem,
+      final BlockchainCacheConfiguration cacheConfiguration) {
+    final BlockchainStorage storage =
+        cacheConfiguration.isEnabled()
+            ? new CachingBlockchainStorage(blockchainStorage, cacheConfiguration, metricsSystem)
+            : blockchainStorage;
+    return createMutable(genesisBlock, storage, metricsSystem);
+  }
+
   public static Blockchain create(
       final BlockchainStorage blockchainStorage, final MetricsSystem metricsSystem) {
     checkArgument(
@@ -189,6 +204,23 @@ public class DefaultBlockchain implements MutableBlockchain {
     return blockchainStorage.getTransactionReceipts(blockHeaderHash);
   }
 
+  @Override
+  public Optional<BytesValue> getBlockHeaderRlp(final Hash blockHeaderHash) {
+    return blockchainStorage.getBlockHeaderRlp(blockHeaderHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getBlockBodyRlp(final Hash blockHeaderHash) {
+    return blockchainStorage.getBlockBodyRlp(blockHeaderHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getTxReceiptsRlp(final Hash blockHeaderHash) {
+    return blockchainStorage
+        .getTransactionReceiptsRlp(blockHeaderHash)
+        .map(TransactionReceipt::withoutRevertReasons);
+  }
+
   @Override
   public Optional<Hash> getBlockHashByNumber(final long number) {
     return blockchainStorage.getBlockHash(number);
@@ -215,6 +247,11 @@ public class DefaultBlockchain implements MutableBlockchain {
     return blockchainStorage.getTransactionLocation(transactionHash);
   }
 
+  @Override
+  public Optional<LogsBloomIndex> getLogsBloomIndex() {
+    return Optional.of(logsBloomIndex);
+  }
+
   @Override
   public synchronized void appendBlock(final Block block, final List<TransactionReceipt> receipts) {
     checkArgument(
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.chain;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A bit-sliced index over the logs blooms of the canonical chain.
+ *
+ * <p>The chain is split into sections of {@link #SECTION_SIZE} blocks. For each section and each
+ * of the 2048 bloom bits a row is stored holding one bit per block in the section, so checking a
+ * whole section against a log query only needs the rows for the bits the query sets instead of
+ * every header in the section. Rows that would be all zeros are not stored.
+ */
+public class LogsBloomIndex {
+
+  public static final int SECTION_SIZE = 4096;
+
+  private final BlockchainStorage blockchainStorage;
+
+  public LogsBloomIndex(final BlockchainStorage blockchainStorage) {
+    this.blockchainStorage = blockchainStorage;
+  }
+
+  public static long sectionNumber(final long blockNumber) {
+    return blockNumber / SECTION_SIZE;
+  }
+
+  public static long sectionStart(final long sectionNumber) {
+    return sectionNumber * SECTION_SIZE;
+  }
+
+  public static long sectionEnd(final long sectionNumber) {
+    return sectionStart(sectionNumber) + SECTION_SIZE - 1;
+  }
+
+  /** @return the number of sections, starting at section 0, that have been written to the index */
+  public long getIndexedSectionCount() {
+    return blockchainStorage.getLogsBloomSectionCount();
+  }
+
+  /**
+   * Checks whether the given section was indexed from the blocks which are currently on the
+   * canonical chain. Because each block commits to its parent, it is enough to compare the last
+   * block of the section.
+   *
+   * @param sectionNumber the section to check
+   * @return true if the section is indexed and can be used to answer queries
+   */
+  public boolean isSectionCanonical(final long sectionNumber) {
+    final Optional<Hash> sectionHead = blockchainStorage.getLogsBloomSectionHead(sectionNumber);
+    return sectionHead.isPresent()
+        && sectionHead.equals(blockchainStorage.getBlockHash(sectionEnd(sectionNumber)));
+  }
+
+  /**
+   * Finds the blocks in a section whose logs bloom could match the given criteria. Each entry of
+   * {@code criteria} is a list of alternatives of which at least one must be contained in a
+   * block's bloom, and all entries must be satisfied for the block to be a candidate.
+   *
+   * @param sectionNumber the section to search
+   * @param criteria the bloom filters to match, grouped by the query position they represent
+   * @return the offsets within the section of the candidate blocks, or empty if the section is not
+   *     usable from the index and each block has to be checked individually
+   */
+  public Optional<BitSet> findCandidateBlocks(
+      final long sectionNumber, final List<List<LogsBloomFilter>> criteria) {
+    if (sectionNumber >= getIndexedSectionCount() || !isSectionCanonical(sectionNumber)) {
+      return Optional.empty();
+    }
+
+    final BitSet candidates = new BitSet(SECTION_SIZE);
+    candidates.set(0, SECTION_SIZE);
+    for (final List<LogsBloomFilter> alternatives : criteria) {
+      final BitSet positionMatches = new BitSet(SECTION_SIZE);
+      for (final LogsBloomFilter alternative : alternatives) {
+        positionMatches.or(blocksContaining(sectionNumber, alternative));
+      }
+      candidates.and(positionMatches);
+      if (candidates.isEmpty()) {
+        break;
+      }
+    }
+    return Optional.of(candidates);
+  }
+
+  /**
+   * Writes the rows for a complete section of canonical headers.
+   *
+   * @param sectionNumber the section being indexed
+   * @param headers the {@link #SECTION_SIZE} headers making up the section, in block number order
+   */
+  public void indexSection(final long sectionNumber, final List<BlockHeader> headers) {
+    checkArgument(
+        headers.size() == SECTION_SIZE,
+        "Expected %s headers for section %s but got %s",
+        SECTION_SIZE,
+        sectionNumber,
+        headers.size());
+
+    final BitSet[] rows = new BitSet[LogsBloomFilter.BIT_SIZE];
+    for (int offset = 0; offset < headers.size(); offset++) {
+      final LogsBloomFilter bloom = headers.get(offset).getLogsBloom();
+      for (int bit = 0; bit < LogsBloomFilter.BIT_SIZE; bit++) {
+        if (bloom.isBitSet(bit)) {
+          if (rows[bit] == null) {
+            rows[bit] = new BitSet(SECTION_SIZE);
+          }
+          rows[bit].set(offset);
+        }
+      }
+    }
+
+    final BlockchainStorage.Updater updater = blockchainStorage.updater();
+    for (int bit = 0; bit < rows.length; bit++) {
+      if (rows[bit] == null) {
+        updater.removeLogsBloomBits(sectionNumber, bit);
+      } else {
+        updater.putLogsBloomBits(sectionNumber, bit, BytesValue.wrap(rows[bit].toByteArray()));
+      }
+    }
+    updater.putLogsBloomSectionHead(sectionNumber, headers.get(headers.size() - 1).getHash());
+    if (sectionNumber >= getIndexedSectionCount()) {
+      updater.setLogsBloomSectionCount(sectionNumber + 1);
+    }
+    updater.commit();
+  }
+
+  private BitSet blocksContaining(final long sectionNumber, final LogsBloomFilter bloom) {
+    BitSet result = null;
+    for (int bit = 0; bit < LogsBloomFilter.BIT_SIZE; bit++) {
+      if (!bloom.isBitSet(bit)) {
+        continue;
+      }
+      final BitSet row = readRow(sectionNumber, bit);
+      if (result == null) {
+        result = row;
+      } else {
+        result.and(row);
+      }
+      if (result.isEmpty()) {
+        return result;
+      }
+    }
+    if (result == null) {
+      result = new BitSet(SECTION_SIZE);
+      result.set(0, SECTION_SIZE);
+    }
+    return result;
+  }
+
+  private BitSet readRow(final long sectionNumber, final int bit) {
+    return blockchainStorage
+        .getLogsBloomBits(sectionNumber, bit)
+        .map(bits -> BitSet.valueOf(bits.getArrayUnsafe()))
+        .orElseGet(BitSet::new);
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.chain;
+
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Builds the {@link LogsBloomIndex} in the background as the canonical chain grows. A section is
+ * only indexed once it is {@link #SECTION_CONFIRMATIONS} blocks behind the chain head, and sections
+ * which are no longer canonical after a reorg are indexed again.
+ */
+public class LogsBloomIndexer {
+  private static final Logger LOG = LogManager.getLogger();
+
+  static final long SECTION_CONFIRMATIONS = 128;
+
+  private final Blockchain blockchain;
+  private final LogsBloomIndex logsBloomIndex;
+  private final ExecutorService executorService;
+  private final AtomicBoolean indexing = new AtomicBoolean(false);
+  private OptionalLong blockAddedObserverId = OptionalLong.empty();
+
+  public LogsBloomIndexer(
+      final Blockchain blockchain,
+      final LogsBloomIndex logsBloomIndex,
+      final ExecutorService executorService) {
+    this.blockchain = blockchain;
+    this.logsBloomIndex = logsBloomIndex;
+    this.executorService = executorService;
+  }
+
+  public void start() {
+    blockAddedObserverId =
+        OptionalLong.of(blockchain.observeBlockAdded((event, blockchain) -> handleNewBlock(event)));
+    scheduleIndexing();
+  }
+
+  public void stop() {
+    blockAddedObserverId.ifPresent(blockchain::removeObserver);
+    executorService.shutdownNow();
+    try {
+      executorService.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void handleNewBlock(final BlockAddedEvent event) {
+    if (event.isNewCanonicalHead()) {
+      scheduleIndexing();
+    }
+  }
+
+  private void scheduleIndexing() {
+    if (!indexing.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      executorService.execute(this::indexPendingSections);
+    } catch (final RejectedExecutionException e) {
+      indexing.set(false);
+    }
+  }
+
+  private void indexPendingSections() {
+    try {
+      long sectionNumber = firstSectionToIndex();
+      while (isReadyToIndex(sectionNumber) && !Thread.currentThread().isInterrupted()) {
+        final Optional<List<BlockHeader>> headers = sectionHeaders(sectionNumber);
+        if (headers.isEmpty()) {
+          LOG.debug("Missing headers for logs bloom section {}", sectionNumber);
+          return;
+        }
+        logsBloomIndex.indexSection(sectionNumber, headers.get());
+        LOG.debug("Indexed logs bloom section {}", sectionNumber);
+        sectionNumber++;
+      }
+    } catch (final Throwable t) {
+      LOG.error("Failed to index logs blooms", t);
+    } finally {
+      indexing.set(false);
+    }
+  }
+
+  private long firstSectionToIndex() {
+    long sectionNumber = logsBloomIndex.getIndexedSectionCount();
+    while (sectionNumber > 0 && !logsBloomIndex.isSectionCanonical(sectionNumber - 1)) {
+      sectionNumber--;
+    }
+    return sectionNumber;
+  }
+
+  private boolean isReadyToIndex(final long sectionNumber) {
+    return LogsBloomIndex.sectionEnd(sectionNumber) + SECTION_CONFIRMATIONS
+        <= blockchain.getChainHeadBlockNumber();
+  }
+
+  private Optional<List<BlockHeader>> sectionHeaders(final long sectionNumber) {
+    final List<BlockHeader> headers = new ArrayList<>(LogsBloomIndex.SECTION_SIZE);
+    final long end = LogsBloomIndex.sectionEnd(sectionNumber);
+    for (long number = LogsBloomIndex.sectionStart(sectionNumber); number <= end; number++) {
+      final Optional<BlockHeader> header = blockchain.getBlockHeader(number);
+      if (header.isEmpty()) {
+        return Optional.empty();
+      }
+      headers.add(header.get());
+    }
+    return Optional.of(headers);
+  }
+}
@@ -35,6 +35,7 @@ import java.util.Collection;
 public class LogsBloomFilter implements UnformattedData {
 
   public static final int BYTE_SIZE = 256;
+  public static final int BIT_SIZE = BYTE_SIZE * 8;
   private static final int LEAST_SIGNIFICANT_BYTE = 0xFF;
   private static final int LEAST_SIGNIFICANT_THREE_BITS = 0x7;
   private static final int BITS_IN_BYTE = 8;
@@ -74,6 +75,19 @@ public class LogsBloomFilter implements UnformattedData {
     return bloom;
   }
 
+  /**
+   * Creates a bloom filter that only has the bits set which correspond to the given log item, such
+   * as a logger address or a log topic.
+   *
+   * @param value the log item to populate the bloom filter with.
+   * @return the newly created bloom filter populated with {@code value}.
+   */
+  public static LogsBloomFilter forValue(final BytesValue value) {
+    final LogsBloomFilter bloom = new LogsBloomFilter();
+    bloom.setBits(keccak256(value));
+    return bloom;
+  }
+
   /**
    * Creates a bloom filter from the given RLP-encoded input.
    *
@@ -140,6 +154,29 @@ public class LogsBloomFilter implements UnformattedData {
     data.set(byteIndex, (byte) (data.get(byteIndex) | (1 << bitIndex)));
   }
 
+  public boolean isBitSet(final int index) {
+    final int byteIndex = BYTE_SIZE - 1 - index / 8;
+    final int bitIndex = index % 8;
+    return (data.get(byteIndex) & (1 << bitIndex)) != 0;
+  }
+
+  /**
+   * Checks whether every bit set in {@code other} is also set in this filter. A {@code false}
+   * result means that none of the items {@code other} was populated with can be contained here.
+   *
+   * @param other the bloom filter whose bits should be checked.
+   * @return true if this filter could contain everything {@code other} contains.
+   */
+  public boolean couldContain(final LogsBloomFilter other) {
+    for (int i = 0; i < data.size(); ++i) {
+      final byte otherByte = other.data.get(i);
+      if ((data.get(i) & otherByte) != otherByte) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public void digest(final LogsBloomFilter other) {
     for (int i = 0; i < data.size(); ++i) {
       data.set(i, (byte) ((data.get(i) | other.data.get(i)) & 0xff));
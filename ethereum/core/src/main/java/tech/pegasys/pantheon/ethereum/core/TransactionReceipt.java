@@ -13,11 +13,13 @@
 package tech.pegasys.pantheon.ethereum.core;
 
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionReceiptType;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
 import tech.pegasys.pantheon.ethereum.rlp.RLPException;
 import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
 import tech.pegasys.pantheon.ethereum.rlp.RLPOutput;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -38,6 +40,8 @@ import com.google.common.base.MoreObjects;
 public class TransactionReceipt {
 
   private static final int NONEXISTENT = -1;
+  // The status or state root, cumulative gas used, logs bloom and logs.
+  private static final int FIELDS_WITHOUT_REVERT_REASON = 4;
 
   private final Hash stateRoot;
   private final long cumulativeGasUsed;
@@ -152,6 +156,43 @@ public class TransactionReceipt {
     out.endList();
   }
 
+  /**
+   * Re-encodes an RLP list of receipts written with {@link #writeToWithRevertReason(RLPOutput)} as
+   * if they had been written with {@link #writeTo(RLPOutput)}, without decoding the receipts.
+   *
+   * @param encodedReceipts the RLP-encoded list of transaction receipts
+   * @return the list of receipts without revert reasons, which is {@code encodedReceipts} itself if
+   *     none of the receipts has a revert reason
+   */
+  public static BytesValue withoutRevertReasons(final BytesValue encodedReceipts) {
+    final RLPInput input = RLP.input(encodedReceipts);
+    final int receiptCount = input.enterList();
+    final List<BytesValue> receipts = new ArrayList<>(receiptCount);
+    boolean revertReasonRemoved = false;
+    for (int i = 0; i < receiptCount; i++) {
+      final RLPInput receipt = input.readAsRlp();
+      if (receipt.enterList() > FIELDS_WITHOUT_REVERT_REASON) {
+        receipts.add(
+            RLP.encode(
+                out -> {
+                  out.startList();
+                  for (int field = 0; field < FIELDS_WITHOUT_REVERT_REASON; field++) {
+                    out.writeRLPUnsafe(receipt.readAsRlp().raw());
+                  }
+                  out.endList();
+                }));
+        revertReasonRemoved = true;
+      } else {
+        receipts.add(receipt.raw());
+      }
+    }
+    input.leaveList();
+    if (!revertReasonRemoved) {
+      return encodedReceipts;
+    }
+    return RLP.encode(out -> out.writeList(receipts, (receipt, o) -> o.writeRLPUnsafe(receipt)));
+  }
+
   /**
    * Creates a transaction receipt for the given RLP
    *
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Recovers the senders of batches of transactions in parallel on a dedicated work-stealing pool.
+ *
+ * <p>Sender recovery is the most expensive part of handling a transaction before it is executed.
+ * Recovering the senders of a whole batch up front, rather than lazily on whichever thread first
+ * calls {@link Transaction#getSender()}, spreads the work across all available cores. Callers
+ * block until every sender in the batch has been recovered.
+ *
+ * <p>Recovery is best-effort: a transaction whose sender cannot be recovered is left without one,
+ * so that it is rejected by transaction validation rather than failing the whole batch.
+ *
+ * <p>The pool's threads are daemon threads which stop once idle, so it never needs shutting down.
+ */
+public class TransactionSenderRecovery {
+
+  // Below this many transactions the cost of handing work to the pool outweighs the gain.
+  private static final int SEQUENTIAL_THRESHOLD = 8;
+
+  private final ForkJoinPool pool;
+
+  public TransactionSenderRecovery(final int parallelism) {
+    this.pool =
+        new ForkJoinPool(
+            parallelism,
+            forkJoinPool -> {
+              final ForkJoinWorkerThread thread =
+                  ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+              thread.setName("TransactionSenderRecovery-" + thread.getPoolIndex());
+              thread.setDaemon(true);
+              return thread;
+            },
+            null,
+            false);
+  }
+
+  /** @return the instance shared by every component recovering transaction senders */
+  public static TransactionSenderRecovery getInstance() {
+    return SharedInstanceHolder.INSTANCE;
+  }
+
+  public void recoverSenders(final List<Transaction> transactions) {
+    if (transactions.size() <= SEQUENTIAL_THRESHOLD) {
+      transactions.forEach(TransactionSenderRecovery::recoverSender);
+      return;
+    }
+    final RecoverSendersTask task = new RecoverSendersTask(transactions, 0, transactions.size());
+    if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == pool) {
+      task.invoke();
+    } else {
+      pool.invoke(task);
+    }
+  }
+
+  public void recoverSendersForBlocks(final Collection<Block> blocks) {
+    final List<Transaction> transactions = new ArrayList<>();
+    blocks.forEach(block -> transactions.addAll(block.getBody().getTransactions()));
+    recoverSenders(transactions);
+  }
+
+  private static void recoverSender(final Transaction transaction) {
+    try {
+      transaction.getSender();
+    } catch (final IllegalArgumentException | IllegalStateException e) {
+      // Leave the sender unset; validation reports the invalid signature.
+    }
+  }
+
+  private static class RecoverSendersTask extends RecursiveAction {
+    private final List<Transaction> transactions;
+    private final int start;
+    private final int end;
+
+    private RecoverSendersTask(
+        final List<Transaction> transactions, final int start, final int end) {
+      this.transactions = transactions;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= SEQUENTIAL_THRESHOLD) {
+        for (int i = start; i < end; i++) {
+          recoverSender(transactions.get(i));
+        }
+        return;
+      }
+      final int middle = (start + end) >>> 1;
+      invokeAll(
+          new RecoverSendersTask(transactions, start, middle),
+          new RecoverSendersTask(transactions, middle, end));
+    }
+  }
+
+  private static class SharedInstanceHolder {
+    private static final TransactionSenderRecovery INSTANCE =
+        new TransactionSenderRecovery(Runtime.getRuntime().availableProcessors());
+  }
+}
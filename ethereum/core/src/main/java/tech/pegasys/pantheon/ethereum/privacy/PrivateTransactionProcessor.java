@@ -267,7 +267,10 @@ public class PrivateTransactionProcessor {
               .sender(senderAddress)
               .value(transaction.getValue())
               .apparentValue(transaction.getValue())
-              .code(new Code(contract != null ? contract.getCode() : BytesValue.EMPTY))
+              .code(
+                  contract != null
+                      ? new Code(contract.getCode(), contract.getCodeHash())
+                      : new Code())
               .blockHeader(blockHeader)
               .depth(0)
               .completer(c -> {})
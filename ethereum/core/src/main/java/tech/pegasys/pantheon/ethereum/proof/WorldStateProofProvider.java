@@ -41,13 +41,24 @@ public class WorldStateProofProvider {
       final Hash worldStateRoot,
       final Address accountAddress,
       final List<UInt256> accountStorageKeys) {
+    // Read every proof from the same snapshot, so nodes pruned meanwhile can't break a proof.
+    try (final WorldStateStorage.Snapshot snapshot = worldStateStorage.snapshot(true)) {
+      return getAccountProof(snapshot, worldStateRoot, accountAddress, accountStorageKeys);
+    }
+  }
 
-    if (!worldStateStorage.isWorldStateAvailable(worldStateRoot)) {
+  private Optional<WorldStateProof> getAccountProof(
+      final WorldStateStorage storage,
+      final Hash worldStateRoot,
+      final Address accountAddress,
+      final List<UInt256> accountStorageKeys) {
+
+    if (!storage.isWorldStateAvailable(worldStateRoot)) {
       return Optional.empty();
     } else {
       final Hash addressHash = Hash.hash(accountAddress);
       final Proof<BytesValue> accountProof =
-          newAccountStateTrie(worldStateRoot).getValueWithProof(addressHash);
+          newAccountStateTrie(storage, worldStateRoot).getValueWithProof(addressHash);
 
       return accountProof
           .getValue()
@@ -56,29 +67,33 @@ public class WorldStateProofProvider {
           .map(
               account -> {
                 final SortedMap<UInt256, Proof<BytesValue>> storageProofs =
-                    getStorageProofs(account, accountStorageKeys);
+                    getStorageProofs(storage, account, accountStorageKeys);
                 return new WorldStateProof(account, accountProof, storageProofs);
               });
     }
   }
 
   private SortedMap<UInt256, Proof<BytesValue>> getStorageProofs(
-      final StateTrieAccountValue account, final List<UInt256> accountStorageKeys) {
+      final WorldStateStorage storage,
+      final StateTrieAccountValue account,
+      final List<UInt256> accountStorageKeys) {
     final MerklePatriciaTrie<Bytes32, BytesValue> storageTrie =
-        newAccountStorageTrie(account.getStorageRoot());
+        newAccountStorageTrie(storage, account.getStorageRoot());
     final SortedMap<UInt256, Proof<BytesValue>> storageProofs = new TreeMap<>();
     accountStorageKeys.forEach(
         key -> storageProofs.put(key, storageTrie.getValueWithProof(Hash.hash(key.getBytes()))));
     return storageProofs;
   }
 
-  private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStateTrie(final Bytes32 rootHash) {
+  private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStateTrie(
+      final WorldStateStorage storage, final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        storage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
   }
 
-  private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStorageTrie(final Bytes32 rootHash) {
+  private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStorageTrie(
+      final WorldStateStorage storage, final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStorageTrieNode, rootHash, b -> b, b -> b);
+        storage::getAccountStorageTrieNode, rootHash, b -> b, b -> b);
   }
 }
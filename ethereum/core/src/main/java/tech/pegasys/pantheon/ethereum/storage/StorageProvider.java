@@ -37,4 +37,10 @@ public interface StorageProvider extends Closeable {
   KeyValueStorage createPruningStorage();
 
   boolean isWorldStateIterable();
+
+  /**
+   * Called once the node has completed its initial sync, after which writes that were relaxed to
+   * speed up the sync must be made durable.
+   */
+  default void onSyncCompleted() {}
 }
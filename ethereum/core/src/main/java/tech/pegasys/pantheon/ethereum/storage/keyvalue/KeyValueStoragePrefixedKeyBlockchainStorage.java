@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.Optional;
 
 import com.google.common.collect.Lists;
+import com.google.common.primitives.Longs;
 
 public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainStorage {
 
@@ -40,6 +41,8 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
       BytesValue.wrap("chainHeadHash".getBytes(StandardCharsets.UTF_8));
   private static final BytesValue FORK_HEADS_KEY =
       BytesValue.wrap("forkHeads".getBytes(StandardCharsets.UTF_8));
+  private static final BytesValue LOGS_BLOOM_SECTION_COUNT_KEY =
+      BytesValue.wrap("logsBloomSectionCount".getBytes(StandardCharsets.UTF_8));
 
   private static final BytesValue CONSTANTS_PREFIX = BytesValue.of(1);
   private static final BytesValue BLOCK_HEADER_PREFIX = BytesValue.of(2);
@@ -48,6 +51,8 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
   private static final BytesValue BLOCK_HASH_PREFIX = BytesValue.of(5);
   private static final BytesValue TOTAL_DIFFICULTY_PREFIX = BytesValue.of(6);
   private static final BytesValue TRANSACTION_LOCATION_PREFIX = BytesValue.of(7);
+  private static final BytesValue LOGS_BLOOM_BITS_PREFIX = BytesValue.of(8);
+  private static final BytesValue LOGS_BLOOM_SECTION_HEAD_PREFIX = BytesValue.of(9);
 
   private final KeyValueStorage storage;
   private final BlockHeaderFunctions blockHeaderFunctions;
@@ -87,6 +92,21 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     return get(TRANSACTION_RECEIPTS_PREFIX, blockHash).map(this::rlpDecodeTransactionReceipts);
   }
 
+  @Override
+  public Optional<BytesValue> getBlockHeaderRlp(final Hash blockHash) {
+    return get(BLOCK_HEADER_PREFIX, blockHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getBlockBodyRlp(final Hash blockHash) {
+    return get(BLOCK_BODY_PREFIX, blockHash);
+  }
+
+  @Override
+  public Optional<BytesValue> getTransactionReceiptsRlp(final Hash blockHash) {
+    return get(TRANSACTION_RECEIPTS_PREFIX, blockHash);
+  }
+
   @Override
   public Optional<Hash> getBlockHash(final long blockNumber) {
     return get(BLOCK_HASH_PREFIX, UInt256Bytes.of(blockNumber)).map(this::bytesToHash);
@@ -103,6 +123,24 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
         .map(bytesValue -> TransactionLocation.readFrom(RLP.input(bytesValue)));
   }
 
+  @Override
+  public Optional<BytesValue> getLogsBloomBits(final long sectionNumber, final int bitIndex) {
+    return get(LOGS_BLOOM_BITS_PREFIX, logsBloomBitsKey(sectionNumber, bitIndex));
+  }
+
+  @Override
+  public Optional<Hash> getLogsBloomSectionHead(final long sectionNumber) {
+    return get(LOGS_BLOOM_SECTION_HEAD_PREFIX, UInt256Bytes.of(sectionNumber))
+        .map(this::bytesToHash);
+  }
+
+  @Override
+  public long getLogsBloomSectionCount() {
+    return get(CONSTANTS_PREFIX, LOGS_BLOOM_SECTION_COUNT_KEY)
+        .map(BytesValues::extractLong)
+        .orElse(0L);
+  }
+
   @Override
   public Updater updater() {
     return new Updater(storage.startTransaction());
@@ -120,6 +158,12 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
     return storage.get(BytesValues.concatenate(prefix, key));
   }
 
+  // The bit index comes first so that the rows for a given bloom bit are stored next to each other
+  private static BytesValue logsBloomBitsKey(final long sectionNumber, final int bitIndex) {
+    return BytesValues.concatenate(
+        BytesValues.ofUnsignedShort(bitIndex), BytesValue.wrap(Longs.toByteArray(sectionNumber)));
+  }
+
   public static class Updater implements BlockchainStorage.Updater {
 
     private final KeyValueStorage.Transaction transaction;
@@ -182,6 +226,30 @@ public class KeyValueStoragePrefixedKeyBlockchainStorage implements BlockchainSt
       remove(TRANSACTION_LOCATION_PREFIX, transactionHash);
     }
 
+    @Override
+    public void putLogsBloomBits(
+        final long sectionNumber, final int bitIndex, final BytesValue bits) {
+      set(LOGS_BLOOM_BITS_PREFIX, logsBloomBitsKey(sectionNumber, bitIndex), bits);
+    }
+
+    @Override
+    public void removeLogsBloomBits(final long sectionNumber, final int bitIndex) {
+      remove(LOGS_BLOOM_BITS_PREFIX, logsBloomBitsKey(sectionNumber, bitIndex));
+    }
+
+    @Override
+    public void putLogsBloomSectionHead(final long sectionNumber, final Hash sectionHead) {
+      set(LOGS_BLOOM_SECTION_HEAD_PREFIX, UInt256Bytes.of(sectionNumber), sectionHead);
+    }
+
+    @Override
+    public void setLogsBloomSectionCount(final long sectionCount) {
+      set(
+          CONSTANTS_PREFIX,
+          LOGS_BLOOM_SECTION_COUNT_KEY,
+          BytesValue.wrap(Longs.toByteArray(sectionCount)));
+    }
+
     @Override
     public void commit() {
       transaction.commit();
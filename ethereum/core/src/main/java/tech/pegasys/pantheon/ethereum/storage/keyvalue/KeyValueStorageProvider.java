@@ -20,11 +20,14 @@ import tech.pegasys.pantheon.ethereum.privacy.PrivateStateStorage;
 import tech.pegasys.pantheon.ethereum.privacy.PrivateTransactionKeyValueStorage;
 import tech.pegasys.pantheon.ethereum.privacy.PrivateTransactionStorage;
 import tech.pegasys.pantheon.ethereum.storage.StorageProvider;
+import tech.pegasys.pantheon.ethereum.trie.TrieNodeCache;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStatePreimageStorage;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
 import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.IOException;
+import java.util.Optional;
 
 public class KeyValueStorageProvider implements StorageProvider {
 
@@ -35,6 +38,8 @@ public class KeyValueStorageProvider implements StorageProvider {
   private final KeyValueStorage privateStateStorage;
   private final KeyValueStorage pruningStorage;
   private final boolean isWorldStateIterable;
+  private final long trieNodeCacheCapacity;
+  private final Runnable syncCompletedAction;
 
   public KeyValueStorageProvider(
       final KeyValueStorage blockchainStorage,
@@ -43,7 +48,30 @@ public class KeyValueStorageProvider implements StorageProvider {
       final KeyValueStorage privateTransactionStorage,
       final KeyValueStorage privateStateStorage,
       final KeyValueStorage pruningStorage,
-      final boolean isWorldStateIterable) {
+      final boolean isWorldStateIterable,
+      final long trieNodeCacheCapacity) {
+    this(
+        blockchainStorage,
+        worldStateStorage,
+        worldStatePreimageStorage,
+        privateTransactionStorage,
+        privateStateStorage,
+        pruningStorage,
+        isWorldStateIterable,
+        trieNodeCacheCapacity,
+        () -> {});
+  }
+
+  public KeyValueStorageProvider(
+      final KeyValueStorage blockchainStorage,
+      final KeyValueStorage worldStateStorage,
+      final KeyValueStorage worldStatePreimageStorage,
+      final KeyValueStorage privateTransactionStorage,
+      final KeyValueStorage privateStateStorage,
+      final KeyValueStorage pruningStorage,
+      final boolean isWorldStateIterable,
+      final long trieNodeCacheCapacity,
+      final Runnable syncCompletedAction) {
     this.blockchainStorage = blockchainStorage;
     this.worldStateStorage = worldStateStorage;
     this.worldStatePreimageStorage = worldStatePreimageStorage;
@@ -51,6 +79,8 @@ public class KeyValueStorageProvider implements StorageProvider {
     this.privateStateStorage = privateStateStorage;
     this.pruningStorage = pruningStorage;
     this.isWorldStateIterable = isWorldStateIterable;
+    this.trieNodeCacheCapacity = trieNodeCacheCapacity;
+    this.syncCompletedAction = syncCompletedAction;
   }
 
   @Override
@@ -61,7 +91,11 @@ public class KeyValueStorageProvider implements StorageProvider {
 
   @Override
   public WorldStateStorage createWorldStateStorage() {
-    return new WorldStateKeyValueStorage(worldStateStorage);
+    final Optional<TrieNodeCache<BytesValue>> trieNodeCache =
+        trieNodeCacheCapacity > 0
+            ? Optional.of(new TrieNodeCache<>(trieNodeCacheCapacity))
+            : Optional.empty();
+    return new WorldStateKeyValueStorage(worldStateStorage, trieNodeCache);
   }
 
   @Override
@@ -89,6 +123,11 @@ public class KeyValueStorageProvider implements StorageProvider {
     return isWorldStateIterable;
   }
 
+  @Override
+  public void onSyncCompleted() {
+    syncCompletedAction.run();
+  }
+
   @Override
   public void close() throws IOException {
     blockchainStorage.close();
@@ -20,9 +20,9 @@ import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.services.kvstore.ColumnarRocksDbKeyValueStorage;
 import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
 import tech.pegasys.pantheon.services.kvstore.LimitedInMemoryKeyValueStorage;
+import tech.pegasys.pantheon.services.kvstore.RocksDbColumnProfile;
 import tech.pegasys.pantheon.services.kvstore.RocksDbConfiguration;
 import tech.pegasys.pantheon.services.kvstore.RocksDbKeyValueStorage;
-import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage;
 import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorage.Segment;
 import tech.pegasys.pantheon.services.kvstore.SegmentedKeyValueStorageAdapter;
 
@@ -91,10 +91,20 @@ public class RocksDbStorageProvider {
       final RocksDbConfiguration rocksDbConfiguration,
       final MetricsSystem metricsSystem,
       final long worldStatePreimageCacheSize) {
-    final KeyValueStorage kv = RocksDbKeyValueStorage.create(rocksDbConfiguration, metricsSystem);
+    final RocksDbKeyValueStorage kv =
+        RocksDbKeyValueStorage.create(rocksDbConfiguration, metricsSystem);
     final KeyValueStorage preimageKv =
         new LimitedInMemoryKeyValueStorage(worldStatePreimageCacheSize);
-    return new KeyValueStorageProvider(kv, kv, preimageKv, kv, kv, kv, false);
+    return new KeyValueStorageProvider(
+        kv,
+        kv,
+        preimageKv,
+        kv,
+        kv,
+        kv,
+        false,
+        rocksDbConfiguration.getTrieNodeCacheCapacity(),
+        kv::enableWriteAheadLog);
   }
 
   private static StorageProvider ofSegmented(
@@ -102,9 +112,12 @@ public class RocksDbStorageProvider {
       final MetricsSystem metricsSystem,
       final long worldStatePreimageCacheSize) {
 
-    final SegmentedKeyValueStorage<?> columnarStorage =
+    final ColumnarRocksDbKeyValueStorage columnarStorage =
         ColumnarRocksDbKeyValueStorage.create(
-            rocksDbConfiguration, asList(RocksDbSegment.values()), metricsSystem);
+            rocksDbConfiguration,
+            asList(RocksDbSegment.values()),
+            segment -> ((RocksDbSegment) segment).getColumnProfile(rocksDbConfiguration),
+            metricsSystem);
     final KeyValueStorage preimageStorage =
         new LimitedInMemoryKeyValueStorage(worldStatePreimageCacheSize);
 
@@ -115,7 +128,9 @@ public class RocksDbStorageProvider {
         new SegmentedKeyValueStorageAdapter<>(RocksDbSegment.PRIVATE_TRANSACTIONS, columnarStorage),
         new SegmentedKeyValueStorageAdapter<>(RocksDbSegment.PRIVATE_STATE, columnarStorage),
         new SegmentedKeyValueStorageAdapter<>(RocksDbSegment.PRUNING_STATE, columnarStorage),
-        true);
+        true,
+        rocksDbConfiguration.getTrieNodeCacheCapacity(),
+        columnarStorage::enableWriteAheadLog);
   }
 
   private enum RocksDbSegment implements Segment {
@@ -140,6 +155,18 @@ public class RocksDbStorageProvider {
     public byte[] getId() {
       return id;
     }
+
+    RocksDbColumnProfile getColumnProfile(final RocksDbConfiguration rocksDbConfiguration) {
+      switch (this) {
+        case BLOCKCHAIN:
+          return rocksDbConfiguration.getBlockchainColumnProfile();
+        case WORLD_STATE:
+        case PRIVATE_STATE:
+          return rocksDbConfiguration.getWorldStateColumnProfile();
+        default:
+          return RocksDbColumnProfile.DEFAULT;
+      }
+    }
   }
 
   private interface StorageProviderFunction {
@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.ethereum.storage.keyvalue;
 
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.trie.TrieNodeCache;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
 import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
 import tech.pegasys.pantheon.util.Subscribers;
@@ -29,9 +30,17 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
 
   private final Subscribers<NodesAddedListener> nodeAddedListeners = Subscribers.create();
   private final KeyValueStorage keyValueStorage;
+  private final Optional<TrieNodeCache<BytesValue>> trieNodeCache;
 
   public WorldStateKeyValueStorage(final KeyValueStorage keyValueStorage) {
+    this(keyValueStorage, Optional.empty());
+  }
+
+  public WorldStateKeyValueStorage(
+      final KeyValueStorage keyValueStorage,
+      final Optional<TrieNodeCache<BytesValue>> trieNodeCache) {
     this.keyValueStorage = keyValueStorage;
+    this.trieNodeCache = trieNodeCache;
   }
 
   @Override
@@ -77,14 +86,29 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
     return getAccountStateTrieNode(rootHash).isPresent();
   }
 
+  @Override
+  public Optional<TrieNodeCache<BytesValue>> getTrieNodeCache() {
+    return trieNodeCache;
+  }
+
   @Override
   public Updater updater() {
-    return new Updater(keyValueStorage.startTransaction(), nodeAddedListeners);
+    return new Updater(keyValueStorage.startTransaction(), nodeAddedListeners, trieNodeCache);
+  }
+
+  @Override
+  public Snapshot snapshot(final boolean fillCache) {
+    // The trie node cache isn't shared with snapshots. A decoded node refers to its children
+    // through the storage it was read from, so a node read through a snapshot would keep reading
+    // from it after it is closed, and a node read through this storage would bypass the snapshot.
+    return new KeyValueSnapshot(keyValueStorage.snapshot(fillCache), Optional.empty());
   }
 
   @Override
   public long prune(final Predicate<BytesValue> inUseCheck) {
-    return keyValueStorage.removeUnless(inUseCheck);
+    final long prunedCount = keyValueStorage.removeUnless(inUseCheck);
+    trieNodeCache.ifPresent(cache -> cache.invalidateUnless(inUseCheck));
+    return prunedCount;
   }
 
   @Override
@@ -97,21 +121,48 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
     nodeAddedListeners.unsubscribe(id);
   }
 
+  private static class KeyValueSnapshot extends WorldStateKeyValueStorage implements Snapshot {
+    private final KeyValueStorage.Snapshot snapshot;
+
+    private KeyValueSnapshot(
+        final KeyValueStorage.Snapshot snapshot,
+        final Optional<TrieNodeCache<BytesValue>> trieNodeCache) {
+      super(snapshot, trieNodeCache);
+      this.snapshot = snapshot;
+    }
+
+    @Override
+    public void close() {
+      snapshot.close();
+    }
+  }
+
   public static class Updater implements WorldStateStorage.Updater {
 
     private final KeyValueStorage.Transaction transaction;
     private final Subscribers<NodesAddedListener> nodeAddedListeners;
+    private final Optional<TrieNodeCache<BytesValue>> trieNodeCache;
     private final List<Bytes32> addedNodes = new ArrayList<>();
+    private final List<Bytes32> removedNodes = new ArrayList<>();
 
     public Updater(
         final KeyValueStorage.Transaction transaction,
         final Subscribers<NodesAddedListener> nodeAddedListeners) {
+      this(transaction, nodeAddedListeners, Optional.empty());
+    }
+
+    public Updater(
+        final KeyValueStorage.Transaction transaction,
+        final Subscribers<NodesAddedListener> nodeAddedListeners,
+        final Optional<TrieNodeCache<BytesValue>> trieNodeCache) {
       this.transaction = transaction;
       this.nodeAddedListeners = nodeAddedListeners;
+      this.trieNodeCache = trieNodeCache;
     }
 
     @Override
     public Updater removeAccountStateTrieNode(final Bytes32 nodeHash) {
+      removedNodes.add(nodeHash);
       transaction.remove(nodeHash);
       return this;
     }
@@ -154,6 +205,7 @@ public class WorldStateKeyValueStorage implements WorldStateStorage {
     public void commit() {
       nodeAddedListeners.forEach(listener -> listener.onNodesAdded(addedNodes));
       transaction.commit();
+      trieNodeCache.ifPresent(cache -> removedNodes.forEach(cache::invalidate));
     }
 
     @Override
@@ -25,10 +25,14 @@ import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpec;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionValidationParams;
+import tech.pegasys.pantheon.ethereum.proof.WorldStateProof;
 import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
+import tech.pegasys.pantheon.ethereum.vm.OperationTracer;
+import tech.pegasys.pantheon.ethereum.worldstate.StateTrieAccountValue;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.Collections;
 import java.util.Optional;
 
 /*
@@ -79,6 +83,13 @@ public class TransactionSimulator {
 
   private Optional<TransactionSimulatorResult> process(
       final CallParameter callParams, final BlockHeader header) {
+    return process(callParams, OperationTracer.NO_TRACING, header);
+  }
+
+  public Optional<TransactionSimulatorResult> process(
+      final CallParameter callParams,
+      final OperationTracer operationTracer,
+      final BlockHeader header) {
     if (header == null) {
       return Optional.empty();
     }
@@ -122,6 +133,7 @@ public class TransactionSimulator {
             header,
             transaction,
             protocolSpec.getMiningBeneficiaryCalculator().calculateBeneficiary(header),
+            operationTracer,
             new BlockHashLookup(header, blockchain),
             false,
             TransactionValidationParams.transactionSimulator());
@@ -156,4 +168,26 @@ public class TransactionSimulator {
 
     return Optional.of(worldState.get(address) != null);
   }
+
+  public BlockHeader getChainHeadHeader() {
+    return blockchain.getChainHeadHeader();
+  }
+
+  /**
+   * Returns the state of an account as held in the world state trie, which unlike {@link Account}
+   * includes the root of its storage.
+   *
+   * @param address the address of the account
+   * @param header the header of the block whose world state is read
+   * @return the state of the account, or empty if either the account or the world state don't exist
+   */
+  public Optional<StateTrieAccountValue> getAccountState(
+      final Address address, final BlockHeader header) {
+    if (header == null) {
+      return Optional.empty();
+    }
+    return worldStateArchive
+        .getAccountProof(header.getStateRoot(), address, Collections.emptyList())
+        .map(WorldStateProof::getStateTrieAccountValue);
+  }
 }
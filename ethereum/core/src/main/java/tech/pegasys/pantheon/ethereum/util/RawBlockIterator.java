@@ -16,7 +16,6 @@ import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
-import tech.pegasys.pantheon.ethereum.rlp.BytesValueRLPInput;
 import tech.pegasys.pantheon.ethereum.rlp.RLP;
 import tech.pegasys.pantheon.ethereum.rlp.RLPInput;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
@@ -24,36 +23,50 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
 
+/**
+ * Reads blocks stored as concatenated RLP items from a file.
+ *
+ * <p>The file is mapped in memory a window at a time, and blocks are decoded straight from the
+ * mapped window, so their data is never copied into the heap unless it is needed as an array. The
+ * decoded blocks refer to the mapped file, so it must not be changed while they are in use.
+ */
 public final class RawBlockIterator implements Iterator<Block>, Closeable {
-  private static final int DEFAULT_INIT_BUFFER_CAPACITY = 1 << 16;
+  private static final int DEFAULT_WINDOW_SIZE = 1 << 28;
+  // The prefix of an RLP item is at most 9 bytes, which is enough to know its size.
+  private static final int MAX_RLP_PREFIX_SIZE = 9;
 
   private final FileChannel fileChannel;
   private final Function<RLPInput, BlockHeader> headerReader;
+  private final long fileSize;
+  private final int windowSize;
 
-  private ByteBuffer readBuffer;
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long position;
 
   private Block next;
 
   RawBlockIterator(
-      final Path file,
-      final Function<RLPInput, BlockHeader> headerReader,
-      final int initialCapacity)
+      final Path file, final Function<RLPInput, BlockHeader> headerReader, final int windowSize)
       throws IOException {
     fileChannel = FileChannel.open(file);
     this.headerReader = headerReader;
-    readBuffer = ByteBuffer.allocate(initialCapacity);
+    this.fileSize = fileChannel.size();
+    this.windowSize = windowSize;
     nextBlock();
   }
 
   public RawBlockIterator(final Path file, final Function<RLPInput, BlockHeader> headerReader)
       throws IOException {
-    this(file, headerReader, DEFAULT_INIT_BUFFER_CAPACITY);
+    this(file, headerReader, DEFAULT_WINDOW_SIZE);
   }
 
   @Override
@@ -81,35 +94,36 @@ public final class RawBlockIterator implements Iterator<Block>, Closeable {
   }
 
   private void nextBlock() throws IOException {
-    fillReadBuffer();
-    int initial = readBuffer.position();
-    if (initial > 0) {
-      final int length = RLP.calculateSize(BytesValue.wrapBuffer(readBuffer));
-      if (length > readBuffer.capacity()) {
-        readBuffer.flip();
-        final ByteBuffer newBuffer = ByteBuffer.allocate(2 * length);
-        newBuffer.put(readBuffer);
-        readBuffer = newBuffer;
-        fillReadBuffer();
-        initial = readBuffer.position();
-      }
-
-      final BytesValue rlpBytes = BytesValue.wrapBuffer(readBuffer, 0, length).copy();
-      final RLPInput rlp = new BytesValueRLPInput(rlpBytes, false);
-      rlp.enterList();
-      final BlockHeader header = headerReader.apply(rlp);
-      final BlockBody body =
-          new BlockBody(rlp.readList(Transaction::readFrom), rlp.readList(headerReader));
-      next = new Block(header, body);
-      readBuffer.position(length);
-      readBuffer.compact();
-      readBuffer.position(initial - length);
-    } else {
+    if (position >= fileSize) {
       next = null;
+      return;
     }
+    final ByteBuffer prefix = map(position, Math.min(MAX_RLP_PREFIX_SIZE, fileSize - position));
+    final int length = RLP.calculateSize(BytesValue.wrapBuffer(prefix.slice()));
+    if (position + length > fileSize) {
+      throw new IOException("Block at offset " + position + " is truncated");
+    }
+
+    final RLPInput rlp = RLP.input(map(position, length));
+    rlp.enterList();
+    final BlockHeader header = headerReader.apply(rlp);
+    final BlockBody body =
+        new BlockBody(rlp.readList(Transaction::readFrom), rlp.readList(headerReader));
+    next = new Block(header, body);
+    position += length;
   }
 
-  private void fillReadBuffer() throws IOException {
-    fileChannel.read(readBuffer);
+  /**
+   * Returns a buffer over the given range of the file, from the current window if it holds the
+   * range, otherwise from a new window starting at the range.
+   */
+  private ByteBuffer map(final long start, final long length) throws IOException {
+    if (window == null || start + length > windowStart + window.capacity()) {
+      final long size = Math.min(Math.max(windowSize, length), fileSize - start);
+      window = fileChannel.map(MapMode.READ_ONLY, start, size);
+      windowStart = start;
+    }
+    final int offset = Math.toIntExact(start - windowStart);
+    return window.duplicate().position(offset).limit(offset + Math.toIntExact(length));
   }
 }
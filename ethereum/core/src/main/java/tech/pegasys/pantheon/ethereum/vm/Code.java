@@ -12,11 +12,12 @@
  */
 package tech.pegasys.pantheon.ethereum.vm;
 
-import tech.pegasys.pantheon.ethereum.vm.operations.JumpDestOperation;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
-import java.util.BitSet;
+import java.util.Optional;
 
 import com.google.common.base.MoreObjects;
 
@@ -26,8 +27,13 @@ public class Code {
   /** The bytes representing the code. */
   private final BytesValue bytes;
 
-  /** Used to cache valid jump destinations. */
-  private BitSet validJumpDestinations;
+  /** The hash of the code, if known, used to share its analysis with other instances. */
+  private final Optional<Hash> codeHash;
+
+  /** Used to cache the analysis of the code and the EVM which performed it. */
+  private CodeAnalysis analysis;
+
+  private EVM analysedBy;
 
   /**
    * Public constructor.
@@ -36,6 +42,18 @@ public class Code {
    */
   public Code(final BytesValue bytes) {
     this.bytes = bytes;
+    this.codeHash = Optional.empty();
+  }
+
+  /**
+   * Public constructor.
+   *
+   * @param bytes The byte representation of the code.
+   * @param codeHash The hash of the code.
+   */
+  public Code(final BytesValue bytes, final Hash codeHash) {
+    this.bytes = bytes;
+    this.codeHash = Optional.of(codeHash);
   }
 
   public Code() {
@@ -83,25 +101,45 @@ public class Code {
     final int jumpDestination = destination.toInt();
     if (jumpDestination > getSize()) return false;
 
-    if (validJumpDestinations == null) {
-      // Calculate valid jump destinations
-      validJumpDestinations = new BitSet(getSize());
-      evm.forEachOperation(
-          this,
-          frame.getContractAccountVersion(),
-          (final Operation op, final Integer offset) -> {
-            if (op.getOpcode() == JumpDestOperation.OPCODE) {
-              validJumpDestinations.set(offset);
-            }
-          });
+    return getAnalysis(evm, frame.getContractAccountVersion())
+        .isValidJumpDestination(jumpDestination);
+  }
+
+  /**
+   * Returns the analysis of this code, performing it on first use.
+   *
+   * @param evm the EVM executing this code
+   * @param contractAccountVersion the version of the contract account holding this code
+   * @return the analysis of this code
+   */
+  public CodeAnalysis getAnalysis(final EVM evm, final int contractAccountVersion) {
+    if (analysis == null
+        || analysedBy != evm
+        || analysis.getContractAccountVersion() != contractAccountVersion) {
+      analysis = evm.analyze(this, contractAccountVersion);
+      analysedBy = evm;
     }
-    return validJumpDestinations.get(jumpDestination);
+    return analysis;
+  }
+
+  /**
+   * Returns the value pushed by the PUSH operation at the given offset, if it is already known.
+   *
+   * @param offset the offset of a PUSH operation in the code
+   * @return the pushed value, or null if the code has not been analysed
+   */
+  public Bytes32 getPushValue(final int offset) {
+    return analysis == null ? null : analysis.pushValueAt(offset);
   }
 
   public BytesValue getBytes() {
     return bytes;
   }
 
+  public Optional<Hash> getCodeHash() {
+    return codeHash;
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this).add("bytes", bytes).toString();
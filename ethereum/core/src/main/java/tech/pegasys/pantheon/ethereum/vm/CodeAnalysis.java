@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+
+import java.util.BitSet;
+
+/**
+ * The result of decoding EVM code for a given contract account version: the operation at every
+ * offset, the valid jump destinations and the values pushed by each PUSH operation.
+ *
+ * <p>Instances are immutable once created and may be shared by every frame executing the same code.
+ */
+public class CodeAnalysis {
+  // Rough heap cost per byte of code of the operation and push value arrays.
+  private static final int BYTES_PER_CODE_BYTE = 8;
+  private static final int BYTES_PER_PUSH_VALUE = 64;
+  private static final int OVERHEAD = 128;
+
+  private final int contractAccountVersion;
+  private final Operation[] operations;
+  private final Operation stopOperation;
+  private final BitSet validJumpDestinations;
+  private final Bytes32[] pushValues;
+  private final int weight;
+
+  CodeAnalysis(
+      final int contractAccountVersion,
+      final Operation[] operations,
+      final Operation stopOperation,
+      final BitSet validJumpDestinations,
+      final Bytes32[] pushValues,
+      final int pushCount) {
+    this.contractAccountVersion = contractAccountVersion;
+    this.operations = operations;
+    this.stopOperation = stopOperation;
+    this.validJumpDestinations = validJumpDestinations;
+    this.pushValues = pushValues;
+    this.weight =
+        OVERHEAD + BYTES_PER_CODE_BYTE * operations.length + BYTES_PER_PUSH_VALUE * pushCount;
+  }
+
+  public int getContractAccountVersion() {
+    return contractAccountVersion;
+  }
+
+  /**
+   * Returns the operation at the given offset, which is STOP past the end of the code.
+   *
+   * @param offset the offset in the code
+   * @return the operation at the given offset
+   */
+  public Operation operationAt(final int offset) {
+    return offset < operations.length ? operations[offset] : stopOperation;
+  }
+
+  public boolean isValidJumpDestination(final int offset) {
+    return validJumpDestinations.get(offset);
+  }
+
+  /**
+   * Returns the value pushed onto the stack by the PUSH operation at the given offset.
+   *
+   * @param offset the offset of a PUSH operation in the code
+   * @return the pushed value, or null if there is no PUSH operation at the given offset
+   */
+  public Bytes32 pushValueAt(final int offset) {
+    return offset < pushValues.length ? pushValues[offset] : null;
+  }
+
+  int getWeight() {
+    return weight;
+  }
+}
@@ -13,26 +13,44 @@
 package tech.pegasys.pantheon.ethereum.vm;
 
 import static org.apache.logging.log4j.LogManager.getLogger;
+import static tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason.INSUFFICIENT_GAS;
 import static tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason.INSUFFICIENT_STACK_ITEMS;
+import static tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason.INVALID_OPERATION;
+import static tech.pegasys.pantheon.ethereum.vm.ExceptionalHaltReason.TOO_MANY_STACK_ITEMS;
 
 import tech.pegasys.pantheon.ethereum.core.Gas;
+import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.vm.MessageFrame.State;
 import tech.pegasys.pantheon.ethereum.vm.ehalt.ExceptionalHaltException;
 import tech.pegasys.pantheon.ethereum.vm.ehalt.ExceptionalHaltManager;
+import tech.pegasys.pantheon.ethereum.vm.operations.JumpDestOperation;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.MutableBytesValue;
 
+import java.util.BitSet;
 import java.util.EnumSet;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.logging.log4j.Logger;
 
 public class EVM {
   private static final Logger LOG = getLogger();
 
   private static final int STOP_OPCODE = 0x00;
+  private static final int INVALID_OPCODE = 0xfe;
+  private static final long CODE_ANALYSIS_CACHE_WEIGHT = 32 * 1024 * 1024;
+
   private final OperationRegistry operations;
   private final Operation invalidOperation;
+  private final Cache<Hash, CodeAnalysis> codeAnalysisCache =
+      CacheBuilder.newBuilder()
+          .maximumWeight(CODE_ANALYSIS_CACHE_WEIGHT)
+          .<Hash, CodeAnalysis>weigher((hash, analysis) -> analysis.getWeight())
+          .build();
 
   public EVM(final OperationRegistry operations, final Operation invalidOperation) {
     this.operations = operations;
@@ -41,9 +59,80 @@ public class EVM {
 
   public void runToHalt(final MessageFrame frame, final OperationTracer operationTracer)
       throws ExceptionalHaltException {
-    while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
-      executeNextOperation(frame, operationTracer);
+    final CodeAnalysis analysis =
+        frame.getCode().getAnalysis(this, frame.getContractAccountVersion());
+    if (operationTracer == OperationTracer.NO_TRACING) {
+      while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+        executeNextOperation(frame, analysis);
+      }
+    } else {
+      while (frame.getState() == MessageFrame.State.CODE_EXECUTING) {
+        executeNextOperation(frame, analysis, operationTracer);
+      }
+    }
+  }
+
+  /**
+   * Decodes the given code, reusing the analysis of code with the same hash where possible.
+   *
+   * @param code the code to analyse
+   * @param contractAccountVersion the version of the contract account holding the code
+   * @return the analysis of the code
+   */
+  CodeAnalysis analyze(final Code code, final int contractAccountVersion) {
+    final Optional<Hash> codeHash = code.getCodeHash();
+    if (codeHash.isEmpty()) {
+      return decode(code, contractAccountVersion);
+    }
+    final CodeAnalysis cached = codeAnalysisCache.getIfPresent(codeHash.get());
+    if (cached != null && cached.getContractAccountVersion() == contractAccountVersion) {
+      return cached;
+    }
+    final CodeAnalysis analysis = decode(code, contractAccountVersion);
+    codeAnalysisCache.put(codeHash.get(), analysis);
+    return analysis;
+  }
+
+  private CodeAnalysis decode(final Code code, final int contractAccountVersion) {
+    final BytesValue bytecode = code.getBytes();
+    final int size = bytecode.size();
+    final Operation[] decoded = new Operation[size];
+    for (int offset = 0; offset < size; offset++) {
+      decoded[offset] =
+          operations.getOrDefault(bytecode.get(offset), contractAccountVersion, invalidOperation);
+    }
+
+    final BitSet validJumpDestinations = new BitSet(size);
+    final Bytes32[] pushValues = new Bytes32[size];
+    int pushCount = 0;
+    int pc = 0;
+    while (pc < size) {
+      final Operation operation = decoded[pc];
+      if (operation.getOpcode() == JumpDestOperation.OPCODE) {
+        validJumpDestinations.set(pc);
+      } else if (operation.getOpSize() > 1) {
+        // PUSH operations are the only ones with immediate data, which is zero-padded if the
+        // code ends before the full value. The values are shared by every execution of the code,
+        // so they are pushed as immutable values.
+        final int length = operation.getOpSize() - 1;
+        final int copyLength = Math.min(length, size - pc - 1);
+        final byte[] value = new byte[Bytes32.SIZE];
+        bytecode
+            .slice(pc + 1, copyLength)
+            .copyTo(MutableBytesValue.wrap(value), Bytes32.SIZE - length);
+        pushValues[pc] = Bytes32.wrap(value);
+        pushCount++;
+      }
+      pc += operation.getOpSize();
     }
+
+    return new CodeAnalysis(
+        contractAccountVersion,
+        decoded,
+        operations.get(STOP_OPCODE, contractAccountVersion),
+        validJumpDestinations,
+        pushValues,
+        pushCount);
   }
 
   public void forEachOperation(
@@ -60,10 +149,12 @@ public class EVM {
     }
   }
 
-  private void executeNextOperation(final MessageFrame frame, final OperationTracer operationTracer)
+  private void executeNextOperation(
+      final MessageFrame frame,
+      final CodeAnalysis analysis,
+      final OperationTracer operationTracer)
       throws ExceptionalHaltException {
-    frame.setCurrentOperation(
-        operationAtOffset(frame.getCode(), frame.getContractAccountVersion(), frame.getPC()));
+    frame.setCurrentOperation(analysis.operationAt(frame.getPC()));
     evaluateExceptionalHaltReasons(frame);
     final Optional<Gas> currentGasCost = calculateGasCost(frame);
     operationTracer.traceExecution(
@@ -78,6 +169,54 @@ public class EVM {
         });
   }
 
+  /**
+   * Executes the next operation without tracing. Evaluates the same exceptional halt conditions as
+   * {@link ExceptionalHaltManager}, but directly into the frame and computing the gas cost only
+   * once, so that no objects are allocated on behalf of the operation.
+   */
+  private void executeNextOperation(final MessageFrame frame, final CodeAnalysis analysis)
+      throws ExceptionalHaltException {
+    final Operation operation = analysis.operationAt(frame.getPC());
+    frame.setCurrentOperation(operation);
+
+    final EnumSet<ExceptionalHaltReason> haltReasons = frame.getExceptionalHaltReasons();
+    if (operation.getOpcode() == INVALID_OPCODE) {
+      haltReasons.add(INVALID_OPERATION);
+    }
+    if (frame.stackSize() + operation.getStackSizeChange() > frame.getMaxStackSize()) {
+      haltReasons.add(TOO_MANY_STACK_ITEMS);
+    }
+    Gas cost = null;
+    if (frame.stackSize() < operation.getStackItemsConsumed()) {
+      haltReasons.add(INSUFFICIENT_STACK_ITEMS);
+    } else {
+      try {
+        cost = operation.cost(frame);
+        if (cost != null && frame.getRemainingGas().compareTo(cost) < 0) {
+          haltReasons.add(INSUFFICIENT_GAS);
+        }
+      } catch (final IllegalArgumentException e) {
+        haltReasons.add(INSUFFICIENT_GAS);
+      }
+      final Optional<ExceptionalHaltReason> operationHaltReason =
+          operation.exceptionalHaltCondition(frame, haltReasons, this);
+      if (operationHaltReason.isPresent()) {
+        haltReasons.add(operationHaltReason.get());
+      }
+    }
+
+    if (LOG.isTraceEnabled()) {
+      logState(frame, Optional.ofNullable(cost));
+    }
+    checkForExceptionalHalt(frame);
+    if (cost == null) {
+      throw new IllegalStateException("Gas overflow detected");
+    }
+    frame.decrementRemainingGas(cost);
+    operation.execute(frame);
+    incrementProgramCounter(frame);
+  }
+
   private void evaluateExceptionalHaltReasons(final MessageFrame frame) {
     final EnumSet<ExceptionalHaltReason> haltReasons =
         ExceptionalHaltManager.evaluateAll(frame, this);
@@ -16,7 +16,7 @@ import tech.pegasys.pantheon.ethereum.core.Gas;
 import tech.pegasys.pantheon.ethereum.vm.AbstractOperation;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
 import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
-import tech.pegasys.pantheon.util.uint.UInt256;
+import tech.pegasys.pantheon.util.uint.UInt256Word;
 
 public class AddOperation extends AbstractOperation {
 
@@ -31,11 +31,9 @@ public class AddOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = frame.popStackItem().asUInt256();
-    final UInt256 value1 = frame.popStackItem().asUInt256();
+    final UInt256Word value0 = UInt256Word.of(frame.popStackItem());
+    final UInt256Word value1 = UInt256Word.of(frame.popStackItem());
 
-    final UInt256 result = value0.plus(value1);
-
-    frame.pushStackItem(result.getBytes());
+    frame.pushStackItem(value0.add(value1));
   }
 }
@@ -17,7 +17,7 @@ import tech.pegasys.pantheon.ethereum.vm.AbstractOperation;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
 import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
-import tech.pegasys.pantheon.util.uint.UInt256;
+import tech.pegasys.pantheon.util.uint.UInt256Word;
 
 public class EqOperation extends AbstractOperation {
 
@@ -32,11 +32,9 @@ public class EqOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = frame.popStackItem().asUInt256();
-    final UInt256 value1 = frame.popStackItem().asUInt256();
+    final UInt256Word value0 = UInt256Word.of(frame.popStackItem());
+    final UInt256Word value1 = UInt256Word.of(frame.popStackItem());
 
-    final Bytes32 result = value0.equals(value1) ? Bytes32.TRUE : Bytes32.FALSE;
-
-    frame.pushStackItem(result);
+    frame.pushStackItem(value0.equals(value1) ? Bytes32.TRUE : Bytes32.FALSE);
   }
 }
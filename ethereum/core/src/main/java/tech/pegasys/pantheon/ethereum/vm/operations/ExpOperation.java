@@ -16,7 +16,7 @@ import tech.pegasys.pantheon.ethereum.core.Gas;
 import tech.pegasys.pantheon.ethereum.vm.AbstractOperation;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
 import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
-import tech.pegasys.pantheon.util.uint.UInt256;
+import tech.pegasys.pantheon.util.uint.UInt256Word;
 
 public class ExpOperation extends AbstractOperation {
 
@@ -26,7 +26,7 @@ public class ExpOperation extends AbstractOperation {
 
   @Override
   public Gas cost(final MessageFrame frame) {
-    final UInt256 power = frame.getStackItem(1).asUInt256();
+    final UInt256Word power = UInt256Word.of(frame.getStackItem(1));
 
     final int numBytes = (power.bitLength() + 7) / 8;
     return gasCalculator().expOperationGasCost(numBytes);
@@ -35,11 +35,9 @@ public class ExpOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final UInt256 value0 = frame.popStackItem().asUInt256();
-    final UInt256 value1 = frame.popStackItem().asUInt256();
+    final UInt256Word value0 = UInt256Word.of(frame.popStackItem());
+    final UInt256Word value1 = UInt256Word.of(frame.popStackItem());
 
-    final UInt256 result = value0.pow(value1);
-
-    frame.pushStackItem(result.getBytes());
+    frame.pushStackItem(value0.pow(value1));
   }
 }
@@ -18,6 +18,7 @@ import tech.pegasys.pantheon.ethereum.core.Gas;
 import tech.pegasys.pantheon.ethereum.vm.AbstractOperation;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
 import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.bytes.MutableBytes32;
 
@@ -38,6 +39,12 @@ public class PushOperation extends AbstractOperation {
   @Override
   public void execute(final MessageFrame frame) {
     final int pc = frame.getPC();
+    final Bytes32 value = frame.getCode().getPushValue(pc);
+    if (value != null) {
+      frame.pushStackItem(value);
+      return;
+    }
+
     final BytesValue code = frame.getCode().getBytes();
 
     final int copyLength = min(length, code.size() - pc - 1);
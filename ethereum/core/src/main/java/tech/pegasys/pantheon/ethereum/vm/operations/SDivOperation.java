@@ -16,7 +16,7 @@ import tech.pegasys.pantheon.ethereum.core.Gas;
 import tech.pegasys.pantheon.ethereum.vm.AbstractOperation;
 import tech.pegasys.pantheon.ethereum.vm.GasCalculator;
 import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
-import tech.pegasys.pantheon.util.uint.Int256;
+import tech.pegasys.pantheon.util.uint.UInt256Word;
 
 public class SDivOperation extends AbstractOperation {
 
@@ -31,11 +31,9 @@ public class SDivOperation extends AbstractOperation {
 
   @Override
   public void execute(final MessageFrame frame) {
-    final Int256 value0 = frame.popStackItem().asInt256();
-    final Int256 value1 = frame.popStackItem().asInt256();
+    final UInt256Word value0 = UInt256Word.of(frame.popStackItem());
+    final UInt256Word value1 = UInt256Word.of(frame.popStackItem());
 
-    final Int256 result = value0.dividedBy(value1);
-
-    frame.pushStackItem(result.getBytes());
+    frame.pushStackItem(value0.signedDivide(value1));
   }
 }
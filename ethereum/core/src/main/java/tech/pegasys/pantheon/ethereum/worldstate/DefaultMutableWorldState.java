@@ -34,15 +34,19 @@ import tech.pegasys.pantheon.util.uint.UInt256;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 public class DefaultMutableWorldState implements MutableWorldState {
+  // Hashing never reads from storage, so it can share the common pool.
+  private static final ForkJoinPool HASHING_POOL = ForkJoinPool.commonPool();
 
   private final WorldStateStorage worldStateStorage;
   private final WorldStatePreimageStorage preimageStorage;
@@ -82,24 +86,49 @@ public class DefaultMutableWorldState implements MutableWorldState {
     this.accountStateTrie = newAccountStateTrie(other.accountStateTrie.getRootHash());
   }
 
+  private DefaultMutableWorldState(
+      final MerklePatriciaTrie<Bytes32, BytesValue> accountStateTrie,
+      final WorldStateStorage worldStateStorage,
+      final WorldStatePreimageStorage preimageStorage) {
+    this.worldStateStorage = worldStateStorage;
+    this.accountStateTrie = accountStateTrie;
+    this.preimageStorage = preimageStorage;
+  }
+
   private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStateTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStateTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStateTrieNode,
+        rootHash,
+        b -> b,
+        b -> b,
+        worldStateStorage.getTrieNodeCache());
   }
 
   private MerklePatriciaTrie<Bytes32, BytesValue> newAccountStorageTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
-        worldStateStorage::getAccountStorageTrieNode, rootHash, b -> b, b -> b);
+        worldStateStorage::getAccountStorageTrieNode,
+        rootHash,
+        b -> b,
+        b -> b,
+        worldStateStorage.getTrieNodeCache());
   }
 
   @Override
   public Hash rootHash() {
-    return Hash.wrap(accountStateTrie.getRootHash());
+    return Hash.wrap(accountStateTrie.getRootHash(HASHING_POOL));
   }
 
   @Override
   public MutableWorldState copy() {
-    return new DefaultMutableWorldState(rootHash(), worldStateStorage, preimageStorage);
+    // The tries share their nodes with ours, so this is cheap even with many pending changes.
+    final DefaultMutableWorldState copy =
+        new DefaultMutableWorldState(accountStateTrie.copy(), worldStateStorage, preimageStorage);
+    updatedStorageTries.forEach(
+        (address, storageTrie) -> copy.updatedStorageTries.put(address, storageTrie.copy()));
+    copy.updatedAccountCode.putAll(updatedAccountCode);
+    copy.newStorageKeyPreimages.putAll(newStorageKeyPreimages);
+    copy.newAccountKeyPreimages.putAll(newAccountKeyPreimages);
+    return copy;
   }
 
   @Override
@@ -175,7 +204,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
       updatedStorage.commit(stateUpdater::putAccountStorageTrieNode);
     }
     // Commit account updates
-    accountStateTrie.commit(stateUpdater::putAccountStateTrieNode);
+    accountStateTrie.commit(stateUpdater::putAccountStateTrieNode, HASHING_POOL);
 
     // Persist preimages
     final WorldStatePreimageStorage.Updater preimageUpdater = preimageStorage.updater();
@@ -377,18 +406,13 @@ public class DefaultMutableWorldState implements MutableWorldState {
         wrapped.updatedAccountCode.remove(address);
       }
 
+      // Apply the storage updates of each account first, so that the storage tries can be hashed
+      // concurrently before the accounts are saved.
+      final Map<Address, MerklePatriciaTrie<Bytes32, BytesValue>> changedStorageTries =
+          new LinkedHashMap<>();
       for (final UpdateTrackingAccount<WorldStateAccount> updated : updatedAccounts()) {
         final WorldStateAccount origin = updated.getWrappedAccount();
-
-        // Save the code in key-value storage ...
-        Hash codeHash = origin == null ? Hash.EMPTY : origin.getCodeHash();
-        if (updated.codeWasUpdated()) {
-          codeHash = Hash.hash(updated.getCode());
-          wrapped.updatedAccountCode.put(updated.getAddress(), updated.getCode());
-        }
-        // ...and storage in the account trie first.
         final boolean freshState = origin == null || updated.getStorageWasCleared();
-        Hash storageRoot = freshState ? Hash.EMPTY_TRIE_HASH : origin.getStorageRoot();
         if (freshState) {
           wrapped.updatedStorageTries.remove(updated.getAddress());
         }
@@ -400,6 +424,7 @@ public class DefaultMutableWorldState implements MutableWorldState {
                   ? wrapped.newAccountStorageTrie(Hash.EMPTY_TRIE_HASH)
                   : origin.storageTrie();
           wrapped.updatedStorageTries.put(updated.getAddress(), storageTrie);
+          changedStorageTries.put(updated.getAddress(), storageTrie);
           for (final Map.Entry<UInt256, UInt256> entry : updatedStorage.entrySet()) {
             final UInt256 value = entry.getValue();
             final Hash keyHash = Hash.hash(entry.getKey().getBytes());
@@ -410,6 +435,28 @@ public class DefaultMutableWorldState implements MutableWorldState {
               storageTrie.put(keyHash, RLP.encode(out -> out.writeUInt256Scalar(entry.getValue())));
             }
           }
+        }
+      }
+
+      // Each storage trie is hashed on a single thread of the common pool, and tries keep their
+      // root hash once computed, so the loop below only reads it back.
+      changedStorageTries.values().parallelStream().forEach(MerklePatriciaTrie::getRootHash);
+
+      for (final UpdateTrackingAccount<WorldStateAccount> updated : updatedAccounts()) {
+        final WorldStateAccount origin = updated.getWrappedAccount();
+
+        // Save the code in key-value storage ...
+        Hash codeHash = origin == null ? Hash.EMPTY : origin.getCodeHash();
+        if (updated.codeWasUpdated()) {
+          codeHash = Hash.hash(updated.getCode());
+          wrapped.updatedAccountCode.put(updated.getAddress(), updated.getCode());
+        }
+        // ...and storage in the account trie first.
+        final boolean freshState = origin == null || updated.getStorageWasCleared();
+        Hash storageRoot = freshState ? Hash.EMPTY_TRIE_HASH : origin.getStorageRoot();
+        final MerklePatriciaTrie<Bytes32, BytesValue> storageTrie =
+            changedStorageTries.get(updated.getAddress());
+        if (storageTrie != null) {
           storageRoot = Hash.wrap(storageTrie.getRootHash());
         }
 
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+
+/**
+ * The set of nodes marked as in use by the {@link MarkSweepPruner}, held in memory as bloom
+ * filters.
+ *
+ * <p>The size of the world state isn't known up front, so a filter twice the size of the last one
+ * is added whenever the last one holds its expected number of nodes. The false positive probability
+ * of the set is then bounded by the number of filters times the probability of a single filter.
+ *
+ * <p>A false positive only means an unused node is kept by a sweep. Nodes are hashed with a salt
+ * chosen for each set, so a node kept by a false positive is very likely to be swept in the next
+ * pruning cycle.
+ *
+ * <p>This class is safe for use across multiple threads.
+ */
+class MarkSet {
+  private final double falsePositiveProbability;
+  private final Funnel<BytesValue> funnel;
+  private final List<BloomFilter<BytesValue>> filters = new CopyOnWriteArrayList<>();
+  private volatile BloomFilter<BytesValue> currentFilter;
+  private volatile long currentFilterCapacity;
+
+  MarkSet(final long expectedNodes, final double falsePositiveProbability) {
+    this.falsePositiveProbability = falsePositiveProbability;
+    final long salt = ThreadLocalRandom.current().nextLong();
+    this.funnel = (node, sink) -> sink.putLong(salt).putBytes(node.getArrayUnsafe());
+    addFilter(expectedNodes);
+  }
+
+  void mark(final BytesValue node) {
+    final BloomFilter<BytesValue> filter = currentFilter;
+    filter.put(node);
+    if (filter.approximateElementCount() >= currentFilterCapacity) {
+      growIfFull(filter);
+    }
+  }
+
+  boolean isMarked(final BytesValue node) {
+    for (final BloomFilter<BytesValue> filter : filters) {
+      if (filter.mightContain(node)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** @return the approximate number of distinct nodes marked so far. */
+  long approximateSize() {
+    return filters.stream().mapToLong(BloomFilter::approximateElementCount).sum();
+  }
+
+  private synchronized void growIfFull(final BloomFilter<BytesValue> fullFilter) {
+    // Another thread may have already grown the set.
+    if (currentFilter == fullFilter) {
+      addFilter(2 * currentFilterCapacity);
+    }
+  }
+
+  private synchronized void addFilter(final long capacity) {
+    final BloomFilter<BytesValue> filter =
+        BloomFilter.create(funnel, capacity, falsePositiveProbability);
+    filters.add(filter);
+    currentFilterCapacity = capacity;
+    currentFilter = filter;
+  }
+}
@@ -19,58 +19,82 @@ import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
 import tech.pegasys.pantheon.ethereum.trie.StoredMerklePatriciaTrie;
 import tech.pegasys.pantheon.metrics.Counter;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.OperationTimer;
 import tech.pegasys.pantheon.metrics.PantheonMetricCategory;
-import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
-import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Transaction;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.Function;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Removes the world state nodes which are not reachable from recent state roots.
+ *
+ * <p>The mark phase walks the state trie of a recent block on a pool of marking threads, with the
+ * subtrees below its top levels visited in parallel, and marks the storage trie of each account
+ * from the task that finds the account. Marked nodes are kept in an in-memory {@link MarkSet}. The
+ * sweep phase then removes every node which wasn't marked, starting with the state roots of the
+ * blocks before the marked block.
+ */
 public class MarkSweepPruner {
   private static final int DEFAULT_OPS_PER_TRANSACTION = 1000;
+  private static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.001;
+  private static final long MINIMUM_EXPECTED_MARKED_NODES = 1_000_000;
   private static final Logger LOG = LogManager.getLogger();
-  private static final BytesValue IN_USE = BytesValue.of(1);
 
   private final int operationsPerTransaction;
+  private final double markSetFalsePositiveProbability;
   private final WorldStateStorage worldStateStorage;
   private final MutableBlockchain blockchain;
-  private final KeyValueStorage markStorage;
+  private final ForkJoinPool markingPool;
   private final Counter markedNodesCounter;
   private final Counter markOperationCounter;
   private final Counter sweepOperationCounter;
   private final Counter sweptNodesCounter;
+  private final Counter sweepCheckedNodesCounter;
+  private final OperationTimer markTimer;
+  private final OperationTimer sweepTimer;
   private volatile long nodeAddedListenerId;
-  private final ReentrantLock markLock = new ReentrantLock(true);
-  private final Set<BytesValue> pendingMarks = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private volatile MarkSet markSet;
+  private volatile boolean markingAborted;
+  // Used to size the mark set of the next cycle.
+  private volatile long lastMarkedNodeCount;
 
   public MarkSweepPruner(
       final WorldStateStorage worldStateStorage,
       final MutableBlockchain blockchain,
-      final KeyValueStorage markStorage,
       final MetricsSystem metricsSystem) {
-    this(worldStateStorage, blockchain, markStorage, metricsSystem, DEFAULT_OPS_PER_TRANSACTION);
+    this(
+        worldStateStorage,
+        blockchain,
+        metricsSystem,
+        DEFAULT_OPS_PER_TRANSACTION,
+        DEFAULT_FALSE_POSITIVE_PROBABILITY,
+        Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
   }
 
   public MarkSweepPruner(
       final WorldStateStorage worldStateStorage,
       final MutableBlockchain blockchain,
-      final KeyValueStorage markStorage,
       final MetricsSystem metricsSystem,
-      final int operationsPerTransaction) {
+      final int operationsPerTransaction,
+      final double markSetFalsePositiveProbability,
+      final int markingThreads) {
     this.worldStateStorage = worldStateStorage;
-    this.markStorage = markStorage;
     this.blockchain = blockchain;
     this.operationsPerTransaction = operationsPerTransaction;
+    this.markSetFalsePositiveProbability = markSetFalsePositiveProbability;
+    this.markingPool =
+        new ForkJoinPool(markingThreads, MarkSweepPruner::newMarkingThread, null, false);
+    this.markSet = createMarkSet();
 
     markedNodesCounter =
         metricsSystem.createCounter(
@@ -82,6 +106,16 @@ public class MarkSweepPruner {
             PantheonMetricCategory.PRUNER,
             "mark_operations_total",
             "Total number of mark operations performed");
+    markTimer =
+        metricsSystem.createTimer(
+            PantheonMetricCategory.PRUNER,
+            "mark_duration_seconds",
+            "Time taken to mark the nodes in use");
+    metricsSystem.createLongGauge(
+        PantheonMetricCategory.PRUNER,
+        "mark_set_nodes",
+        "Approximate number of distinct nodes marked as in use in the current pruning cycle",
+        () -> markSet.approximateSize());
 
     sweptNodesCounter =
         metricsSystem.createCounter(
@@ -93,10 +127,29 @@ public class MarkSweepPruner {
             PantheonMetricCategory.PRUNER,
             "sweep_operations_total",
             "Total number of sweep operations performed");
+    sweepCheckedNodesCounter =
+        metricsSystem.createCounter(
+            PantheonMetricCategory.PRUNER,
+            "sweep_checked_nodes_total",
+            "Total number of nodes checked for use while sweeping");
+    sweepTimer =
+        metricsSystem.createTimer(
+            PantheonMetricCategory.PRUNER,
+            "sweep_duration_seconds",
+            "Time taken to sweep unused nodes");
+  }
+
+  private static ForkJoinWorkerThread newMarkingThread(final ForkJoinPool pool) {
+    final ForkJoinWorkerThread thread =
+        ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    thread.setName("StatePruningMark-" + thread.getPoolIndex());
+    thread.setPriority(Thread.MIN_PRIORITY);
+    return thread;
   }
 
   public void prepare() {
     worldStateStorage.removeNodeAddedListener(nodeAddedListenerId); // Just in case.
+    markSet = createMarkSet();
     nodeAddedListenerId = worldStateStorage.addNodeAddedListener(this::markNewNodes);
   }
 
@@ -106,55 +159,83 @@ public class MarkSweepPruner {
 
   public void mark(final Hash rootHash) {
     markOperationCounter.inc();
-    markStorage.clear();
-    createStateTrie(rootHash)
-        .visitAll(
-            node -> {
-              if (Thread.interrupted()) {
-                // Since we don't expect to abort marking ourselves,
-                // our abort process consists only of handling interrupts
-                throw new RuntimeException("Interrupted while marking");
-              }
-              markNode(node.getHash());
-              node.getValue().ifPresent(this::processAccountState);
-            });
+    markingAborted = false;
+    try (final OperationTimer.TimingContext ignored = markTimer.startTimer()) {
+      awaitMarking(
+          createStateTrie(rootHash)
+              .visitAll(
+                  node -> {
+                    markNode(node.getHash());
+                    node.getValue().ifPresent(this::processAccountState);
+                  },
+                  markingPool));
+    }
+    lastMarkedNodeCount = markSet.approximateSize();
     LOG.info("Completed marking used nodes for pruning");
   }
 
+  private void awaitMarking(final CompletableFuture<Void> visits) {
+    try {
+      visits.get();
+    } catch (final InterruptedException e) {
+      // Since we don't expect to abort marking ourselves,
+      // our abort process consists only of handling interrupts
+      markingAborted = true;
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while marking", e);
+    } catch (final ExecutionException e) {
+      markingAborted = true;
+      throw new RuntimeException("Marking failed", e.getCause());
+    }
+  }
+
   public void sweepBefore(final long markedBlockNumber) {
-    flushPendingMarks();
     sweepOperationCounter.inc();
     LOG.info("Sweeping unused nodes");
-    // Sweep state roots first, walking backwards until we get to a state root that isn't in the
-    // storage
-    long prunedNodeCount = 0;
-    WorldStateStorage.Updater updater = worldStateStorage.updater();
-    for (long blockNumber = markedBlockNumber - 1; blockNumber >= 0; blockNumber--) {
-      final Hash candidateStateRootHash =
-          blockchain.getBlockHeader(blockNumber).get().getStateRoot();
-
-      if (!worldStateStorage.isWorldStateAvailable(candidateStateRootHash)) {
-        break;
-      }
+    try (final OperationTimer.TimingContext ignored = sweepTimer.startTimer()) {
+      // Sweep state roots first, walking backwards until we get to a state root that isn't in the
+      // storage
+      long prunedNodeCount = 0;
+      WorldStateStorage.Updater updater = worldStateStorage.updater();
+      for (long blockNumber = markedBlockNumber - 1; blockNumber >= 0; blockNumber--) {
+        final Hash candidateStateRootHash =
+            blockchain.getBlockHeader(blockNumber).get().getStateRoot();
+
+        if (!worldStateStorage.isWorldStateAvailable(candidateStateRootHash)) {
+          break;
+        }
 
-      if (!markStorage.containsKey(candidateStateRootHash)) {
-        updater.removeAccountStateTrieNode(candidateStateRootHash);
-        prunedNodeCount++;
-        if (prunedNodeCount % operationsPerTransaction == 0) {
-          updater.commit();
-          updater = worldStateStorage.updater();
+        if (!markSet.isMarked(candidateStateRootHash)) {
+          updater.removeAccountStateTrieNode(candidateStateRootHash);
+          prunedNodeCount++;
+          if (prunedNodeCount % operationsPerTransaction == 0) {
+            updater.commit();
+            updater = worldStateStorage.updater();
+          }
         }
       }
+      updater.commit();
+      // Sweep non-state-root nodes
+      prunedNodeCount +=
+          worldStateStorage.prune(
+              node -> {
+                sweepCheckedNodesCounter.inc();
+                return markSet.isMarked(node);
+              });
+      sweptNodesCounter.inc(prunedNodeCount);
     }
-    updater.commit();
-    // Sweep non-state-root nodes
-    prunedNodeCount += worldStateStorage.prune(markStorage::containsKey);
-    sweptNodesCounter.inc(prunedNodeCount);
     worldStateStorage.removeNodeAddedListener(nodeAddedListenerId);
-    markStorage.clear();
     LOG.info("Completed sweeping unused nodes");
   }
 
+  private MarkSet createMarkSet() {
+    // Leave some room for growth of the state since the last cycle, so a single filter is usually
+    // enough.
+    final long expectedNodes =
+        Math.max(MINIMUM_EXPECTED_MARKED_NODES, lastMarkedNodeCount + lastMarkedNodeCount / 4);
+    return new MarkSet(expectedNodes, markSetFalsePositiveProbability);
+  }
+
   private MerklePatriciaTrie<Bytes32, BytesValue> createStateTrie(final Bytes32 rootHash) {
     return new StoredMerklePatriciaTrie<>(
         worldStateStorage::getAccountStateTrieNode,
@@ -175,48 +256,26 @@ public class MarkSweepPruner {
     final StateTrieAccountValue accountValue = StateTrieAccountValue.readFrom(RLP.input(value));
     markNode(accountValue.getCodeHash());
 
-    createStorageTrie(accountValue.getStorageRoot())
-        .visitAll(storageNode -> markNode(storageNode.getHash()));
+    // Storage tries are marked by the task which finds them, so no more work is queued than there
+    // are subtrees of the state trie.
+    if (!accountValue.getStorageRoot().equals(Hash.EMPTY_TRIE_HASH)) {
+      createStorageTrie(accountValue.getStorageRoot())
+          .visitAll(storageNode -> markNode(storageNode.getHash()));
+    }
   }
 
   @VisibleForTesting
   void markNode(final Bytes32 hash) {
-    markedNodesCounter.inc();
-    markLock.lock();
-    try {
-      pendingMarks.add(hash);
-      maybeFlushPendingMarks();
-    } finally {
-      markLock.unlock();
-    }
-  }
-
-  private void maybeFlushPendingMarks() {
-    if (pendingMarks.size() > operationsPerTransaction) {
-      flushPendingMarks();
-    }
-  }
-
-  void flushPendingMarks() {
-    markLock.lock();
-    try {
-      final Transaction transaction = markStorage.startTransaction();
-      pendingMarks.forEach(node -> transaction.put(node, IN_USE));
-      transaction.commit();
-      pendingMarks.clear();
-    } finally {
-      markLock.unlock();
+    if (markingAborted) {
+      throw new RuntimeException("Marking aborted");
     }
+    markedNodesCounter.inc();
+    markSet.mark(hash);
   }
 
   private void markNewNodes(final Collection<Bytes32> nodeHashes) {
     markedNodesCounter.inc(nodeHashes.size());
-    markLock.lock();
-    try {
-      pendingMarks.addAll(nodeHashes);
-      maybeFlushPendingMarks();
-    } finally {
-      markLock.unlock();
-    }
+    final MarkSet currentMarkSet = markSet;
+    nodeHashes.forEach(currentMarkSet::mark);
   }
 }
@@ -24,6 +24,7 @@ import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 public class WorldStateArchive {
   private final WorldStateStorage worldStateStorage;
@@ -62,6 +63,29 @@ public class WorldStateArchive {
     return getMutable(EMPTY_ROOT_HASH).get();
   }
 
+  /**
+   * Reads the world state with the given root from a snapshot of the world state storage, so that
+   * none of the nodes read can be pruned while the reader runs. The reader must not keep the world
+   * state, or anything lazily reading from it, once it returns.
+   *
+   * @param rootHash the root hash of the world state to read
+   * @param fillCache whether nodes read should be added to the storage caches, which should not be
+   *     done when reading through large parts of the world state
+   * @param reader reads what is needed from the world state
+   * @param <T> the type of value read
+   * @return the value read, or empty if the world state is not available
+   */
+  public <T> Optional<T> readSnapshot(
+      final Hash rootHash, final boolean fillCache, final Function<WorldState, T> reader) {
+    try (final WorldStateStorage.Snapshot snapshot = worldStateStorage.snapshot(fillCache)) {
+      if (!snapshot.isWorldStateAvailable(rootHash)) {
+        return Optional.empty();
+      }
+      return Optional.ofNullable(
+          reader.apply(new DefaultMutableWorldState(rootHash, snapshot, preimageStorage)));
+    }
+  }
+
   public Optional<BytesValue> getNodeData(final Hash hash) {
     return worldStateStorage.getNodeData(hash);
   }
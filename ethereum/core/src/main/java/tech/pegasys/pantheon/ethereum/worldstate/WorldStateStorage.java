@@ -13,6 +13,7 @@
 package tech.pegasys.pantheon.ethereum.worldstate;
 
 import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.trie.TrieNodeCache;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
@@ -36,8 +37,30 @@ public interface WorldStateStorage {
     return getNodeData(hash).isPresent();
   }
 
+  /**
+   * The cache of decoded trie nodes shared by every world state reading from this storage. It is
+   * kept consistent with nodes removed from this storage.
+   *
+   * @return the trie node cache, or empty if decoded nodes are not cached
+   */
+  default Optional<TrieNodeCache<BytesValue>> getTrieNodeCache() {
+    return Optional.empty();
+  }
+
   Updater updater();
 
+  /**
+   * Opens a read-only view of this storage as it is now, so that an operation reading many nodes
+   * sees every node it needs even if they are pruned while it runs. The view must be closed once
+   * finished with.
+   *
+   * @param fillCache whether nodes read through the view should be added to the caches of this
+   *     storage. Operations reading through large parts of the world state should not fill the
+   *     caches, so that they don't evict the nodes used to process blocks.
+   * @return A read-only view of this storage.
+   */
+  Snapshot snapshot(boolean fillCache);
+
   long prune(Predicate<BytesValue> inUseCheck);
 
   long addNodeAddedListener(NodesAddedListener listener);
@@ -65,6 +88,16 @@ public interface WorldStateStorage {
     void rollback();
   }
 
+  /**
+   * A read-only view of a world state storage. Attempting to update or prune the storage through
+   * the view throws {@link UnsupportedOperationException}.
+   */
+  interface Snapshot extends WorldStateStorage, AutoCloseable {
+
+    @Override
+    void close();
+  }
+
   interface NodesAddedListener {
     void onNodesAdded(Collection<Bytes32> nodeHash);
   }
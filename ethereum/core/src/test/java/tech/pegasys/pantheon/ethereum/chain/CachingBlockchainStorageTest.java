@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.chain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class CachingBlockchainStorageTest {
+
+  private final BlockDataGenerator gen = new BlockDataGenerator();
+  private final BlockchainStorage storage =
+      spy(
+          new KeyValueStoragePrefixedKeyBlockchainStorage(
+              new InMemoryKeyValueStorage(), new MainnetBlockHeaderFunctions()));
+  private final CachingBlockchainStorage cachingStorage =
+      new CachingBlockchainStorage(
+          storage, BlockchainCacheConfiguration.DEFAULT, new NoOpMetricsSystem());
+
+  @Test
+  public void readsFromStorageOnlyOnce() {
+    final Block block = gen.block();
+    final BlockchainStorage.Updater updater = storage.updater();
+    updater.putBlockHeader(block.getHash(), block.getHeader());
+    updater.putBlockBody(block.getHash(), block.getBody());
+    updater.putBlockHash(block.getHeader().getNumber(), block.getHash());
+    updater.commit();
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(cachingStorage.getBlockHeader(block.getHash())).contains(block.getHeader());
+      assertThat(cachingStorage.getBlockBody(block.getHash())).contains(block.getBody());
+      assertThat(cachingStorage.getBlockHash(block.getHeader().getNumber()))
+          .contains(block.getHash());
+    }
+
+    verify(storage, times(1)).getBlockHeader(block.getHash());
+    verify(storage, times(1)).getBlockBody(block.getHash());
+    verify(storage, times(1)).getBlockHash(block.getHeader().getNumber());
+  }
+
+  @Test
+  public void missingValuesAreNotCached() {
+    final Block block = gen.block();
+    assertThat(cachingStorage.getBlockHeader(block.getHash())).isEmpty();
+
+    final BlockchainStorage.Updater updater = storage.updater();
+    updater.putBlockHeader(block.getHash(), block.getHeader());
+    updater.commit();
+
+    assertThat(cachingStorage.getBlockHeader(block.getHash())).contains(block.getHeader());
+  }
+
+  @Test
+  public void committedUpdatesAreVisible() {
+    final Block block = gen.block();
+    final BlockchainStorage.Updater updater = cachingStorage.updater();
+    updater.putBlockHeader(block.getHash(), block.getHeader());
+    updater.putBlockHash(1L, block.getHash());
+    updater.commit();
+
+    assertThat(cachingStorage.getBlockHeader(block.getHash())).contains(block.getHeader());
+    assertThat(cachingStorage.getBlockHash(1L)).contains(block.getHash());
+    verify(storage, times(0)).getBlockHeader(block.getHash());
+    verify(storage, times(0)).getBlockHash(1L);
+  }
+
+  @Test
+  public void blockHashChangesReplaceCachedValues() {
+    final Hash original = gen.hash();
+    final Hash replacement = gen.hash();
+    final BlockchainStorage.Updater setup = cachingStorage.updater();
+    setup.putBlockHash(1L, original);
+    setup.putBlockHash(2L, original);
+    setup.commit();
+    assertThat(cachingStorage.getBlockHash(1L)).contains(original);
+    assertThat(cachingStorage.getBlockHash(2L)).contains(original);
+
+    final BlockchainStorage.Updater reorg = cachingStorage.updater();
+    reorg.putBlockHash(1L, replacement);
+    reorg.removeBlockHash(2L);
+    reorg.commit();
+
+    assertThat(cachingStorage.getBlockHash(1L)).contains(replacement);
+    assertThat(cachingStorage.getBlockHash(2L)).isEmpty();
+  }
+
+  @Test
+  public void rolledBackUpdatesAreNotCached() {
+    final BlockchainStorage.Updater updater = cachingStorage.updater();
+    updater.putBlockHash(1L, gen.hash());
+    updater.rollback();
+
+    assertThat(cachingStorage.getBlockHash(1L)).isEqualTo(Optional.empty());
+  }
+}
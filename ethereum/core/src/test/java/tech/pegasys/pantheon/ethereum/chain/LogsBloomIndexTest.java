@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.chain;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
+import tech.pegasys.pantheon.ethereum.mainnet.MainnetBlockHeaderFunctions;
+import tech.pegasys.pantheon.ethereum.storage.keyvalue.KeyValueStoragePrefixedKeyBlockchainStorage;
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class LogsBloomIndexTest {
+
+  private static final Address ADDRESS_A = Address.fromHexString("0x01");
+  private static final Address ADDRESS_B = Address.fromHexString("0x02");
+  private static final Address ADDRESS_C = Address.fromHexString("0x03");
+
+  private final BlockchainStorage blockchainStorage =
+      new KeyValueStoragePrefixedKeyBlockchainStorage(
+          new InMemoryKeyValueStorage(), new MainnetBlockHeaderFunctions());
+  private final LogsBloomIndex index = new LogsBloomIndex(blockchainStorage);
+
+  @Test
+  public void sectionIsNotUsableBeforeItIsIndexed() {
+    assertThat(index.getIndexedSectionCount()).isZero();
+    assertThat(index.findCandidateBlocks(0, Collections.emptyList())).isEmpty();
+  }
+
+  @Test
+  public void findsBlocksContainingQueriedValue() {
+    final List<BlockHeader> headers = sectionHeaders(0, 5, 4000);
+    makeCanonical(headers);
+    index.indexSection(0, headers);
+
+    assertThat(index.getIndexedSectionCount()).isEqualTo(1);
+    assertThat(candidates(singletonList(singletonList(LogsBloomFilter.forValue(ADDRESS_A)))))
+        .containsExactly(5, 4000);
+  }
+
+  @Test
+  public void combinesAlternativesAndPositions() {
+    final List<BlockHeader> headers = sectionHeaders(0, 5, 4000);
+    makeCanonical(headers);
+    index.indexSection(0, headers);
+
+    final List<List<LogsBloomFilter>> eitherAddress =
+        singletonList(
+            Arrays.asList(
+                LogsBloomFilter.forValue(ADDRESS_A), LogsBloomFilter.forValue(ADDRESS_C)));
+    assertThat(candidates(eitherAddress)).containsExactly(5, 4000);
+
+    final List<List<LogsBloomFilter>> bothAddresses =
+        Arrays.asList(
+            singletonList(LogsBloomFilter.forValue(ADDRESS_A)),
+            singletonList(LogsBloomFilter.forValue(ADDRESS_B)));
+    assertThat(candidates(bothAddresses)).isEmpty();
+  }
+
+  @Test
+  public void emptyCriteriaMatchesEveryBlock() {
+    final List<BlockHeader> headers = sectionHeaders(0, 5);
+    makeCanonical(headers);
+    index.indexSection(0, headers);
+
+    assertThat(index.findCandidateBlocks(0, Collections.emptyList()).get().cardinality())
+        .isEqualTo(LogsBloomIndex.SECTION_SIZE);
+  }
+
+  @Test
+  public void sectionIsNotUsableWhenNoLongerCanonical() {
+    final List<BlockHeader> headers = sectionHeaders(0, 5);
+    makeCanonical(headers);
+    index.indexSection(0, headers);
+
+    final BlockchainStorage.Updater updater = blockchainStorage.updater();
+    updater.putBlockHash(LogsBloomIndex.sectionEnd(0), Hash.ZERO);
+    updater.commit();
+
+    assertThat(index.isSectionCanonical(0)).isFalse();
+    assertThat(index.findCandidateBlocks(0, Collections.emptyList())).isEmpty();
+  }
+
+  @Test
+  public void reindexingSectionReplacesPreviousRows() {
+    final List<BlockHeader> original = sectionHeaders(0, 5);
+    makeCanonical(original);
+    index.indexSection(0, original);
+
+    final List<BlockHeader> replacement = sectionHeaders(0, 7);
+    makeCanonical(replacement);
+    index.indexSection(0, replacement);
+
+    assertThat(index.getIndexedSectionCount()).isEqualTo(1);
+    assertThat(candidates(singletonList(singletonList(LogsBloomFilter.forValue(ADDRESS_A)))))
+        .containsExactly(7);
+  }
+
+  private List<Integer> candidates(final List<List<LogsBloomFilter>> criteria) {
+    final Optional<BitSet> candidates = index.findCandidateBlocks(0, criteria);
+    assertThat(candidates).isPresent();
+    final List<Integer> offsets = new ArrayList<>();
+    candidates.get().stream().forEach(offsets::add);
+    return offsets;
+  }
+
+  private List<BlockHeader> sectionHeaders(final long sectionNumber, final int... blocksWithA) {
+    final List<BlockHeader> headers = new ArrayList<>(LogsBloomIndex.SECTION_SIZE);
+    final BlockHeaderTestFixture fixture = new BlockHeaderTestFixture();
+    final long start = LogsBloomIndex.sectionStart(sectionNumber);
+    for (int offset = 0; offset < LogsBloomIndex.SECTION_SIZE; offset++) {
+      final int currentOffset = offset;
+      final boolean containsA = Arrays.stream(blocksWithA).anyMatch(o -> o == currentOffset);
+      final LogsBloomFilter bloom =
+          containsA ? LogsBloomFilter.forValue(ADDRESS_A) : new LogsBloomFilter();
+      headers.add(fixture.number(start + offset).logsBloom(bloom).buildHeader());
+    }
+    return headers;
+  }
+
+  private void makeCanonical(final List<BlockHeader> headers) {
+    final BlockchainStorage.Updater updater = blockchainStorage.updater();
+    headers.forEach(header -> updater.putBlockHash(header.getNumber(), header.getHash()));
+    updater.commit();
+  }
+}
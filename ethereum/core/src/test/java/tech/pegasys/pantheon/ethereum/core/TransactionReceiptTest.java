@@ -13,10 +13,14 @@
 package tech.pegasys.pantheon.ethereum.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import tech.pegasys.pantheon.ethereum.rlp.RLP;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
 
 public class TransactionReceiptTest {
@@ -38,4 +42,30 @@ public class TransactionReceiptTest {
         TransactionReceipt.readFrom(RLP.input(RLP.encode(receipt::writeToWithRevertReason)));
     assertEquals(receipt, copy);
   }
+
+  @Test
+  public void withoutRevertReasonsMatchesEncodingWithoutRevertReasons() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final List<TransactionReceipt> receipts =
+        Arrays.asList(
+            gen.receipt(),
+            gen.receipt(BytesValue.fromHexString("0x1122334455667788")),
+            gen.receipt());
+    final BytesValue stored =
+        RLP.encode(out -> out.writeList(receipts, TransactionReceipt::writeToWithRevertReason));
+
+    assertEquals(
+        RLP.encode(out -> out.writeList(receipts, TransactionReceipt::writeTo)),
+        TransactionReceipt.withoutRevertReasons(stored));
+  }
+
+  @Test
+  public void withoutRevertReasonsReturnsInputWhenNoReceiptHasRevertReason() {
+    final BlockDataGenerator gen = new BlockDataGenerator();
+    final List<TransactionReceipt> receipts = Arrays.asList(gen.receipt(), gen.receipt());
+    final BytesValue stored =
+        RLP.encode(out -> out.writeList(receipts, TransactionReceipt::writeToWithRevertReason));
+
+    assertSame(stored, TransactionReceipt.withoutRevertReasons(stored));
+  }
 }
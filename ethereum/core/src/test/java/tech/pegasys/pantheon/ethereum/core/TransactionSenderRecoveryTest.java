@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.crypto.SECP256K1.Signature;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class TransactionSenderRecoveryTest {
+
+  private final TransactionSenderRecovery senderRecovery = new TransactionSenderRecovery(4);
+
+  @Test
+  public void recoversSendersOfLargeBatch() {
+    final List<KeyPair> keyPairs = new ArrayList<>();
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      final KeyPair keyPair = KeyPair.generate();
+      keyPairs.add(keyPair);
+      transactions.add(decodedTransaction(keyPair, i));
+    }
+
+    senderRecovery.recoverSenders(transactions);
+
+    for (int i = 0; i < transactions.size(); i++) {
+      assertThat(transactions.get(i).sender)
+          .isEqualTo(Util.publicKeyToAddress(keyPairs.get(i).getPublicKey()));
+    }
+  }
+
+  @Test
+  public void recoversSendersOfSmallBatch() {
+    final KeyPair keyPair = KeyPair.generate();
+    final Transaction transaction = decodedTransaction(keyPair, 0);
+
+    senderRecovery.recoverSenders(Collections.singletonList(transaction));
+
+    assertThat(transaction.sender).isEqualTo(Util.publicKeyToAddress(keyPair.getPublicKey()));
+  }
+
+  @Test
+  public void leavesSenderUnsetForInvalidSignatureInLargeBatch() {
+    final KeyPair keyPair = KeyPair.generate();
+    final List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      transactions.add(i == 25 ? invalidSignatureTransaction() : decodedTransaction(keyPair, i));
+    }
+
+    senderRecovery.recoverSenders(transactions);
+
+    for (int i = 0; i < transactions.size(); i++) {
+      if (i == 25) {
+        assertThat(transactions.get(i).sender).isNull();
+      } else {
+        assertThat(transactions.get(i).sender)
+            .isEqualTo(Util.publicKeyToAddress(keyPair.getPublicKey()));
+      }
+    }
+  }
+
+  @Test
+  public void leavesSenderUnsetForInvalidSignatureInSmallBatch() {
+    final KeyPair keyPair = KeyPair.generate();
+    final Transaction valid = decodedTransaction(keyPair, 0);
+    final Transaction invalid = invalidSignatureTransaction();
+
+    senderRecovery.recoverSenders(Arrays.asList(invalid, valid));
+
+    assertThat(invalid.sender).isNull();
+    assertThat(valid.sender).isEqualTo(Util.publicKeyToAddress(keyPair.getPublicKey()));
+  }
+
+  private Transaction invalidSignatureTransaction() {
+    // No point on the curve has an x coordinate of 5, so no public key can be recovered
+    return Transaction.builder()
+        .nonce(0)
+        .gasPrice(Wei.of(1))
+        .gasLimit(21_000)
+        .to(Address.fromHexString("0x01"))
+        .value(Wei.ZERO)
+        .payload(BytesValue.EMPTY)
+        .signature(Signature.create(BigInteger.valueOf(5), BigInteger.ONE, (byte) 0))
+        .build();
+  }
+
+  private Transaction decodedTransaction(final KeyPair keyPair, final long nonce) {
+    final Transaction transaction =
+        Transaction.builder()
+            .chainId(BigInteger.ONE)
+            .nonce(nonce)
+            .gasPrice(Wei.of(1))
+            .gasLimit(21_000)
+            .to(Address.fromHexString("0x01"))
+            .value(Wei.ZERO)
+            .payload(BytesValue.EMPTY)
+            .signAndBuild(keyPair);
+    // Decoding drops the sender that was known when signing
+    final Transaction decoded = Transaction.readFrom(RLP.input(RLP.encode(transaction::writeTo)));
+    assertThat(decoded.sender).isNull();
+    return decoded;
+  }
+}
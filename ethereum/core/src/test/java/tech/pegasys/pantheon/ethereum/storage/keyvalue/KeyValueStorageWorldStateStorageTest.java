@@ -17,14 +17,28 @@ import static org.assertj.core.api.Assertions.assertThat;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.storage.keyvalue.WorldStateKeyValueStorage.Updater;
 import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.trie.StoredMerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.trie.TrieNodeCache;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage;
+import tech.pegasys.pantheon.ethereum.worldstate.WorldStateStorage.Snapshot;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
+import tech.pegasys.pantheon.services.kvstore.RocksDbConfiguration;
+import tech.pegasys.pantheon.services.kvstore.RocksDbKeyValueStorage;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.Optional;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class KeyValueStorageWorldStateStorageTest {
 
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
   @Test
   public void getCode_returnsEmpty() {
     final WorldStateKeyValueStorage storage = emptyStorage();
@@ -186,6 +200,49 @@ public class KeyValueStorageWorldStateStorageTest {
     assertThat(emptyStorage().isWorldStateAvailable(Hash.EMPTY_TRIE_HASH)).isTrue();
   }
 
+  @Test
+  public void snapshot_doesNotShareTrieNodeCache() throws Exception {
+    try (final KeyValueStorage keyValueStorage =
+        RocksDbKeyValueStorage.create(
+            RocksDbConfiguration.builder().databaseDir(folder.newFolder().toPath()).build(),
+            new NoOpMetricsSystem())) {
+      final WorldStateKeyValueStorage storage =
+          new WorldStateKeyValueStorage(
+              keyValueStorage, Optional.of(new TrieNodeCache<>(TrieNodeCache.DEFAULT_MAX_WEIGHT)));
+      final MerklePatriciaTrie<Bytes32, BytesValue> trie =
+          accountStateTrie(storage, Hash.EMPTY_TRIE_HASH);
+      for (int i = 0; i < 100; i++) {
+        trie.put(Hash.hash(BytesValue.of(i)), BytesValue.of(i));
+      }
+      final Updater updater = storage.updater();
+      trie.commit(updater::putAccountStateTrieNode);
+      updater.commit();
+      final Bytes32 rootHash = trie.getRootHash();
+
+      try (final Snapshot snapshot = storage.snapshot(true)) {
+        assertThat(snapshot.getTrieNodeCache()).isEmpty();
+        assertAllValuesPresent(accountStateTrie(snapshot, rootHash));
+      }
+      assertThat(storage.getTrieNodeCache().get().size()).isZero();
+
+      // Reading the same nodes must not reach the closed snapshot
+      assertAllValuesPresent(accountStateTrie(storage, rootHash));
+      assertAllValuesPresent(accountStateTrie(storage, rootHash));
+    }
+  }
+
+  private MerklePatriciaTrie<Bytes32, BytesValue> accountStateTrie(
+      final WorldStateStorage storage, final Bytes32 rootHash) {
+    return new StoredMerklePatriciaTrie<>(
+        storage::getAccountStateTrieNode, rootHash, b -> b, b -> b, storage.getTrieNodeCache());
+  }
+
+  private void assertAllValuesPresent(final MerklePatriciaTrie<Bytes32, BytesValue> trie) {
+    for (int i = 0; i < 100; i++) {
+      assertThat(trie.get(Hash.hash(BytesValue.of(i)))).contains(BytesValue.of(i));
+    }
+  }
+
   private WorldStateKeyValueStorage emptyStorage() {
     return new WorldStateKeyValueStorage(new InMemoryKeyValueStorage());
   }
@@ -13,6 +13,7 @@
 package tech.pegasys.pantheon.ethereum.util;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
@@ -25,6 +26,7 @@ import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 
@@ -95,6 +97,49 @@ public class RawBlockIteratorTest {
     assertThat(iterator.hasNext()).isFalse();
   }
 
+  @Test
+  public void throwsWhenLastBlockIsTruncated() throws IOException {
+    final List<Block> blocks = gen.blockSequence(2);
+    final byte[] firstSerializedBlock = serializeBlock(blocks.get(0));
+    final byte[] secondSerializedBlock = serializeBlock(blocks.get(1));
+
+    final File blocksFile = tmp.newFolder().toPath().resolve("blocks").toFile();
+    try (final DataOutputStream writer = new DataOutputStream(new FileOutputStream(blocksFile))) {
+      writer.write(firstSerializedBlock);
+      writer.write(Arrays.copyOf(secondSerializedBlock, secondSerializedBlock.length - 1));
+    }
+
+    final RawBlockIterator iterator =
+        new RawBlockIterator(
+            blocksFile.toPath(),
+            rlp -> BlockHeader.readFrom(rlp, new MainnetBlockHeaderFunctions()));
+
+    assertThat(iterator.hasNext()).isTrue();
+    assertThatThrownBy(iterator::next)
+        .isInstanceOf(IllegalStateException.class)
+        .hasCauseInstanceOf(IOException.class)
+        .hasMessageContaining("Block at offset " + firstSerializedBlock.length + " is truncated");
+    iterator.close();
+  }
+
+  @Test
+  public void throwsWhenOnlyBlockIsTruncated() throws IOException {
+    final byte[] serializedBlock = serializeBlock(gen.block());
+
+    final File blocksFile = tmp.newFolder().toPath().resolve("blocks").toFile();
+    try (final DataOutputStream writer = new DataOutputStream(new FileOutputStream(blocksFile))) {
+      writer.write(Arrays.copyOf(serializedBlock, serializedBlock.length - 1));
+    }
+
+    assertThatThrownBy(
+            () ->
+                new RawBlockIterator(
+                    blocksFile.toPath(),
+                    rlp -> BlockHeader.readFrom(rlp, new MainnetBlockHeaderFunctions())))
+        .isInstanceOf(IOException.class)
+        .hasMessage("Block at offset 0 is truncated");
+  }
+
   private byte[] serializeBlock(final Block block) {
     final BytesValueRLPOutput out = new BytesValueRLPOutput();
     out.startList();
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.vm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Account;
+import tech.pegasys.pantheon.ethereum.core.ExecutionContextTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.MutableBytesValue;
+
+import org.junit.Test;
+
+public class CodeAnalysisTest {
+  private static final int VERSION = Account.DEFAULT_VERSION;
+
+  private final EVM evm =
+      ExecutionContextTestFixture.create().getProtocolSchedule().getByBlockNumber(0).getEvm();
+
+  @Test
+  public void decodesOperationsAndStopsPastTheEnd() {
+    // PUSH1 0x01, JUMPDEST, ADD
+    final CodeAnalysis analysis =
+        new Code(BytesValue.fromHexString("0x60015b01")).getAnalysis(evm, VERSION);
+
+    assertThat(analysis.operationAt(0).getName()).isEqualTo("PUSH1");
+    assertThat(analysis.operationAt(2).getName()).isEqualTo("JUMPDEST");
+    assertThat(analysis.operationAt(3).getName()).isEqualTo("ADD");
+    assertThat(analysis.operationAt(4).getName()).isEqualTo("STOP");
+  }
+
+  @Test
+  public void jumpDestinationsInsidePushDataAreNotValid() {
+    // PUSH2 0x5b5b, JUMPDEST
+    final CodeAnalysis analysis =
+        new Code(BytesValue.fromHexString("0x615b5b5b")).getAnalysis(evm, VERSION);
+
+    assertThat(analysis.isValidJumpDestination(1)).isFalse();
+    assertThat(analysis.isValidJumpDestination(2)).isFalse();
+    assertThat(analysis.isValidJumpDestination(3)).isTrue();
+  }
+
+  @Test
+  public void precomputesPushValues() {
+    // PUSH2 0x1234, PUSH3 0x56 truncated by the end of the code
+    final CodeAnalysis analysis =
+        new Code(BytesValue.fromHexString("0x6112346256")).getAnalysis(evm, VERSION);
+
+    assertThat(analysis.pushValueAt(0)).isEqualTo(Bytes32.fromHexString("0x1234"));
+    assertThat(analysis.pushValueAt(1)).isNull();
+    assertThat(analysis.pushValueAt(3)).isEqualTo(Bytes32.fromHexString("0x560000"));
+    // The values are shared by every execution of the code, so they must not be mutable.
+    assertThat(analysis.pushValueAt(0)).isNotInstanceOf(MutableBytesValue.class);
+  }
+
+  @Test
+  public void sharesAnalysisOfCodeWithTheSameHash() {
+    final BytesValue bytes = BytesValue.fromHexString("0x60015b01");
+    final Hash codeHash = Hash.hash(bytes);
+
+    final CodeAnalysis first = new Code(bytes, codeHash).getAnalysis(evm, VERSION);
+    final CodeAnalysis second = new Code(bytes, codeHash).getAnalysis(evm, VERSION);
+    final CodeAnalysis unhashed = new Code(bytes).getAnalysis(evm, VERSION);
+
+    assertThat(second).isSameAs(first);
+    assertThat(unhashed).isNotSameAs(first);
+  }
+}
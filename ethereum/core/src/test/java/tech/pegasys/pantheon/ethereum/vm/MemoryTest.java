@@ -147,6 +147,39 @@ public class MemoryTest {
     assertThat(memory.getWord(UInt256.of(64))).isEqualTo(Bytes32.ZERO);
   }
 
+  @Test
+  public void shouldGetBytesSpanningSeveralWords() {
+    final BytesValue value = BytesValues.concatenate(WORD1, WORD2, WORD3);
+    memory.setBytes(UInt256.of(5), UInt256.of(value.size()), value);
+
+    assertThat(memory.getBytes(UInt256.of(5), UInt256.of(value.size()))).isEqualTo(value);
+    assertThat(memory.getBytes(UInt256.of(30), UInt256.of(40))).isEqualTo(value.slice(25, 40));
+    assertThat(memory.getActiveWords()).isEqualTo(UInt256.of(4));
+  }
+
+  @Test
+  public void shouldKeepMemoryContentWhenExpanding() {
+    memory.setWord(UInt256.ZERO, WORD1);
+    memory.setByte(UInt256.of(10_000), (byte) 1);
+
+    assertThat(memory.getWord(UInt256.ZERO)).isEqualTo(WORD1);
+    assertThat(memory.getWord(UInt256.of(32))).isEqualTo(Bytes32.ZERO);
+    assertThat(memory.getBytes(UInt256.of(10_000), UInt256.ONE)).isEqualTo(BytesValue.of(1));
+    assertThat(memory.getActiveBytes()).isEqualTo(10_016);
+  }
+
+  @Test
+  public void shouldOnlyCompareActiveMemory() {
+    final Memory other = new Memory();
+    memory.setWord(UInt256.ZERO, WORD1);
+    other.setWord(UInt256.ZERO, WORD1);
+    assertThat(memory).isEqualTo(other);
+    assertThat(memory.hashCode()).isEqualTo(other.hashCode());
+
+    other.clearBytes(64, 1);
+    assertThat(memory).isNotEqualTo(other);
+  }
+
   private static Bytes32 fillBytes32(final long value) {
     return Bytes32.fromHexString(Strings.repeat(Long.toString(value), 64));
   }
@@ -579,6 +579,31 @@ public class DefaultMutableWorldStateTest {
         worldState.rootHash());
   }
 
+  @Test
+  public void copyIncludesUncommittedChangesAndIsIndependent() {
+    final MutableWorldState worldState = createEmpty();
+    final UInt256 storageKey = UInt256.ONE;
+    WorldUpdater updater = worldState.updater();
+    final MutableAccount account = updater.createAccount(ADDRESS);
+    account.setBalance(Wei.of(100000));
+    account.setCode(BytesValue.of(1, 2, 3));
+    account.setStorageValue(storageKey, UInt256.of(2));
+    updater.commit();
+
+    final MutableWorldState copy = worldState.copy();
+    assertEquals(worldState.rootHash(), copy.rootHash());
+    assertEquals(BytesValue.of(1, 2, 3), copy.get(ADDRESS).getCode());
+    assertEquals(UInt256.of(2), copy.get(ADDRESS).getStorageValue(storageKey));
+
+    updater = copy.updater();
+    updater.getMutable(ADDRESS).setStorageValue(storageKey, UInt256.of(3));
+    updater.commit();
+
+    assertEquals(UInt256.of(2), worldState.get(ADDRESS).getStorageValue(storageKey));
+    assertEquals(UInt256.of(3), copy.get(ADDRESS).getStorageValue(storageKey));
+    assertNotEquals(worldState.rootHash(), copy.rootHash());
+  }
+
   @Test
   public void revert() {
     final MutableWorldState worldState = createEmpty();
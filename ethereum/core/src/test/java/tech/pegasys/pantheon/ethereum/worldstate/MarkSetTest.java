@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.worldstate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+
+import org.junit.Test;
+
+public class MarkSetTest {
+
+  @Test
+  public void marksNodes() {
+    final MarkSet markSet = new MarkSet(100, 1e-9);
+    final Hash node = hash(1);
+
+    assertThat(markSet.isMarked(node)).isFalse();
+    markSet.mark(node);
+    assertThat(markSet.isMarked(node)).isTrue();
+  }
+
+  @Test
+  public void growsBeyondExpectedNodes() {
+    final MarkSet markSet = new MarkSet(100, 1e-9);
+    for (int i = 0; i < 1000; i++) {
+      markSet.mark(hash(i));
+    }
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(markSet.isMarked(hash(i))).isTrue();
+    }
+    for (int i = 1000; i < 2000; i++) {
+      assertThat(markSet.isMarked(hash(i))).isFalse();
+    }
+    assertThat(markSet.approximateSize()).isBetween(900L, 1100L);
+  }
+
+  private static Hash hash(final int value) {
+    final BytesValue bytes = BytesValues.toMinimalBytes(value);
+    return Hash.hash(bytes);
+  }
+}
@@ -13,6 +13,7 @@
 package tech.pegasys.pantheon.ethereum.worldstate;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.spy;
@@ -31,6 +32,7 @@ import tech.pegasys.pantheon.ethereum.rlp.RLP;
 import tech.pegasys.pantheon.ethereum.storage.keyvalue.WorldStateKeyValueStorage;
 import tech.pegasys.pantheon.ethereum.storage.keyvalue.WorldStatePreimageKeyValueStorage;
 import tech.pegasys.pantheon.ethereum.trie.MerklePatriciaTrie;
+import tech.pegasys.pantheon.ethereum.trie.MerkleTrieException;
 import tech.pegasys.pantheon.ethereum.trie.StoredMerklePatriciaTrie;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
@@ -49,6 +51,9 @@ import org.junit.Test;
 import org.mockito.InOrder;
 
 public class MarkSweepPrunerTest {
+  // Small enough that no unused node is kept by a false positive of the mark set.
+  private static final double FALSE_POSITIVE_PROBABILITY = 1e-15;
+  private static final int MARKING_THREADS = 4;
 
   private final BlockDataGenerator gen = new BlockDataGenerator();
   private final NoOpMetricsSystem metricsSystem = new NoOpMetricsSystem();
@@ -58,7 +63,6 @@ public class MarkSweepPrunerTest {
   private final WorldStateArchive worldStateArchive =
       new WorldStateArchive(
           worldStateStorage, new WorldStatePreimageKeyValueStorage(new InMemoryKeyValueStorage()));
-  private final InMemoryKeyValueStorage markStorage = new InMemoryKeyValueStorage();
   private final Block genesisBlock = gen.genesisBlock();
   private final MutableBlockchain blockchain = createInMemoryBlockchain(genesisBlock);
 
@@ -100,7 +104,12 @@ public class MarkSweepPrunerTest {
       final int opsPerTransaction) {
     final MarkSweepPruner pruner =
         new MarkSweepPruner(
-            worldStateStorage, blockchain, markStorage, metricsSystem, opsPerTransaction);
+            worldStateStorage,
+            blockchain,
+            metricsSystem,
+            opsPerTransaction,
+            FALSE_POSITIVE_PROBABILITY,
+            MARKING_THREADS);
     final int chainHeight = (int) blockchain.getChainHead().getHeight();
     // Generate blocks up to markBlockNumber
     final int blockCountBeforeMarkedBlock = markBlockNumber - chainHeight;
@@ -162,7 +171,13 @@ public class MarkSweepPrunerTest {
   @Test
   public void mark_marksAllExpectedNodes() {
     final MarkSweepPruner pruner =
-        new MarkSweepPruner(worldStateStorage, blockchain, markStorage, metricsSystem);
+        new MarkSweepPruner(
+            worldStateStorage,
+            blockchain,
+            metricsSystem,
+            1000,
+            FALSE_POSITIVE_PROBABILITY,
+            MARKING_THREADS);
 
     // Generate accounts and save corresponding state root
     final int numBlocks = 15;
@@ -205,10 +220,46 @@ public class MarkSweepPrunerTest {
     assertThat(hashValueStore.values()).containsExactlyInAnyOrderElementsOf(expectedNodes);
   }
 
+  @Test
+  public void mark_failsWhenStorageTrieNodeIsMissing() {
+    final MarkSweepPruner pruner =
+        new MarkSweepPruner(
+            worldStateStorage,
+            blockchain,
+            metricsSystem,
+            1000,
+            FALSE_POSITIVE_PROBABILITY,
+            MARKING_THREADS);
+    generateBlockchainData(1, 10);
+    final Hash stateRoot = blockchain.getChainHeadHeader().getStateRoot();
+
+    // Remove the root of one of the storage tries
+    final Hash storageRoot =
+        createStateTrie(stateRoot)
+            .entriesFrom(Bytes32.ZERO, 1000)
+            .values()
+            .stream()
+            .map(value -> StateTrieAccountValue.readFrom(RLP.input(value)).getStorageRoot())
+            .filter(root -> !root.equals(Hash.EMPTY_TRIE_HASH))
+            .findFirst()
+            .get();
+    hashValueStore.remove(storageRoot);
+
+    assertThatThrownBy(() -> pruner.mark(stateRoot))
+        .hasMessage("Marking failed")
+        .hasCauseInstanceOf(MerkleTrieException.class);
+  }
+
   @Test
   public void sweepBefore_shouldSweepStateRootFirst() {
     final MarkSweepPruner pruner =
-        new MarkSweepPruner(worldStateStorage, blockchain, markStorage, metricsSystem, 1);
+        new MarkSweepPruner(
+            worldStateStorage,
+            blockchain,
+            metricsSystem,
+            1,
+            FALSE_POSITIVE_PROBABILITY,
+            MARKING_THREADS);
 
     // Generate accounts and save corresponding state root
     final int numBlocks = 15;
@@ -239,7 +290,13 @@ public class MarkSweepPrunerTest {
   @Test
   public void sweepBefore_shouldNotRemoveMarkedStateRoots() {
     final MarkSweepPruner pruner =
-        new MarkSweepPruner(worldStateStorage, blockchain, markStorage, metricsSystem, 1);
+        new MarkSweepPruner(
+            worldStateStorage,
+            blockchain,
+            metricsSystem,
+            1,
+            FALSE_POSITIVE_PROBABILITY,
+            MARKING_THREADS);
 
     // Generate accounts and save corresponding state root
     final int numBlocks = 15;
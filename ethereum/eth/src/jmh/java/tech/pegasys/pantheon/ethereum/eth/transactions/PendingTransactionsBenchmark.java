@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.eth.transactions;
+
+import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionTestFixture;
+import tech.pegasys.pantheon.ethereum.eth.transactions.PendingTransactions.TransactionSelectionResult;
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Adds transactions to a full pool from several threads, so that every addition also evicts the
+ * lowest priority transaction, both on its own and while another thread selects transactions the
+ * way block creation does.
+ */
+@State(Scope.Benchmark)
+public class PendingTransactionsBenchmark {
+  private static final int MAX_PENDING_TRANSACTIONS = 4096;
+  private static final int SENDERS = 64;
+  // Twice the pool size, so a transaction has always been evicted by the time it is added again.
+  private static final int TRANSACTIONS = 2 * MAX_PENDING_TRANSACTIONS;
+
+  private final Transaction[] transactions = new Transaction[TRANSACTIONS];
+  private final AtomicInteger nextTransaction = new AtomicInteger();
+  private PendingTransactions pendingTransactions;
+
+  @Setup
+  public void prepare() {
+    final KeyPair[] senders = new KeyPair[SENDERS];
+    for (int i = 0; i < SENDERS; i++) {
+      senders[i] = KeyPair.generate();
+    }
+    for (int i = 0; i < TRANSACTIONS; i++) {
+      transactions[i] =
+          new TransactionTestFixture().nonce(i / SENDERS).createTransaction(senders[i % SENDERS]);
+      // Recover the sender and compute the hash up front rather than in the benchmark.
+      transactions[i].getSender();
+      transactions[i].hash();
+    }
+
+    pendingTransactions =
+        new PendingTransactions(
+            TransactionPoolConfiguration.DEFAULT_TX_RETENTION_HOURS,
+            MAX_PENDING_TRANSACTIONS,
+            Clock.systemUTC(),
+            new NoOpMetricsSystem());
+    while (pendingTransactions.size() < MAX_PENDING_TRANSACTIONS) {
+      addNextTransaction();
+    }
+  }
+
+  private boolean addNextTransaction() {
+    final int index = Math.floorMod(nextTransaction.getAndIncrement(), TRANSACTIONS);
+    return pendingTransactions.addRemoteTransaction(transactions[index]);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean addAndEvict() {
+    return addNextTransaction();
+  }
+
+  @Benchmark
+  @Group("addWhileSelecting")
+  @GroupThreads(3)
+  public boolean add() {
+    return addNextTransaction();
+  }
+
+  @Benchmark
+  @Group("addWhileSelecting")
+  @GroupThreads(1)
+  public long select() {
+    final AtomicLong selected = new AtomicLong();
+    pendingTransactions.selectTransactions(
+        transaction -> {
+          selected.incrementAndGet();
+          return TransactionSelectionResult.CONTINUE;
+        });
+    return selected.get();
+  }
+}
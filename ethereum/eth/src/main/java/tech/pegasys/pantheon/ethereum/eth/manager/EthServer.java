@@ -13,10 +13,8 @@
 package tech.pegasys.pantheon.ethereum.eth.manager;
 
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
-import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
-import tech.pegasys.pantheon.ethereum.core.TransactionReceipt;
 import tech.pegasys.pantheon.ethereum.eth.EthProtocolConfiguration;
 import tech.pegasys.pantheon.ethereum.eth.messages.BlockBodiesMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.BlockHeadersMessage;
@@ -36,17 +34,17 @@ import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
-import com.google.common.collect.Lists;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 class EthServer {
   private static final Logger LOG = LogManager.getLogger();
+  // Responses stop growing once they reach this many bytes, in addition to the limits on the number
+  // of items, so a single request can't make us build and send an arbitrarily large message.
+  static final int MAX_RESPONSE_SIZE = 2 * 1024 * 1024;
 
   private final Blockchain blockchain;
   private final WorldStateArchive worldStateArchive;
@@ -141,34 +139,35 @@ class EthServer {
     final int skip = getHeaders.skip();
     final int maxHeaders = Math.min(requestLimit, getHeaders.maxHeaders());
     final boolean reversed = getHeaders.reverse();
-    final BlockHeader firstHeader;
+    final Optional<Hash> firstHash;
+    final long firstNumber;
     if (hash.isPresent()) {
-      final Hash startHash = hash.get();
-      firstHeader = blockchain.getBlockHeader(startHash).orElse(null);
+      firstHash = hash;
+      firstNumber = blockchain.getBlockHeader(hash.get()).map(BlockHeader::getNumber).orElse(-1L);
     } else {
-      final long firstNumber = getHeaders.blockNumber().getAsLong();
-      firstHeader = blockchain.getBlockHeader(firstNumber).orElse(null);
+      firstNumber = getHeaders.blockNumber().getAsLong();
+      firstHash = blockchain.getBlockHashByNumber(firstNumber);
     }
-    final Collection<BlockHeader> resp;
-    if (firstHeader == null) {
-      resp = Collections.emptyList();
-    } else {
-      resp = Lists.newArrayList(firstHeader);
+    final List<BytesValue> headers = new ArrayList<>();
+    if (firstNumber >= BlockHeader.GENESIS_BLOCK_NUMBER) {
       final long numberDelta = reversed ? -(skip + 1) : (skip + 1);
-      for (int i = 1; i < maxHeaders; i++) {
-        final long blockNumber = firstHeader.getNumber() + i * numberDelta;
+      int responseSize = 0;
+      for (int i = 0; i < maxHeaders && responseSize < MAX_RESPONSE_SIZE; i++) {
+        final long blockNumber = firstNumber + i * numberDelta;
         if (blockNumber < BlockHeader.GENESIS_BLOCK_NUMBER) {
           break;
         }
-        final Optional<BlockHeader> maybeHeader = blockchain.getBlockHeader(blockNumber);
-        if (maybeHeader.isPresent()) {
-          resp.add(maybeHeader.get());
-        } else {
+        final Optional<BytesValue> maybeHeader =
+            (i == 0 ? firstHash : blockchain.getBlockHashByNumber(blockNumber))
+                .flatMap(blockchain::getBlockHeaderRlp);
+        if (!maybeHeader.isPresent()) {
           break;
         }
+        headers.add(maybeHeader.get());
+        responseSize += maybeHeader.get().size();
       }
     }
-    return BlockHeadersMessage.create(resp);
+    return BlockHeadersMessage.createUnsafe(headers);
   }
 
   static MessageData constructGetBodiesResponse(
@@ -176,20 +175,22 @@ class EthServer {
     final GetBlockBodiesMessage getBlockBodiesMessage = GetBlockBodiesMessage.readFrom(message);
     final Iterable<Hash> hashes = getBlockBodiesMessage.hashes();
 
-    final Collection<BlockBody> bodies = new ArrayList<>();
+    final List<BytesValue> bodies = new ArrayList<>();
     int count = 0;
+    int responseSize = 0;
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (count >= requestLimit || responseSize >= MAX_RESPONSE_SIZE) {
         break;
       }
       count++;
-      final Optional<BlockBody> maybeBody = blockchain.getBlockBody(hash);
+      final Optional<BytesValue> maybeBody = blockchain.getBlockBodyRlp(hash);
       if (!maybeBody.isPresent()) {
         continue;
       }
       bodies.add(maybeBody.get());
+      responseSize += maybeBody.get().size();
     }
-    return BlockBodiesMessage.create(bodies);
+    return BlockBodiesMessage.createUnsafe(bodies);
   }
 
   static MessageData constructGetReceiptsResponse(
@@ -197,20 +198,22 @@ class EthServer {
     final GetReceiptsMessage getReceipts = GetReceiptsMessage.readFrom(message);
     final Iterable<Hash> hashes = getReceipts.hashes();
 
-    final List<List<TransactionReceipt>> receipts = new ArrayList<>();
+    final List<BytesValue> receipts = new ArrayList<>();
     int count = 0;
+    int responseSize = 0;
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (count >= requestLimit || responseSize >= MAX_RESPONSE_SIZE) {
         break;
       }
       count++;
-      final Optional<List<TransactionReceipt>> maybeReceipts = blockchain.getTxReceipts(hash);
+      final Optional<BytesValue> maybeReceipts = blockchain.getTxReceiptsRlp(hash);
       if (!maybeReceipts.isPresent()) {
         continue;
       }
       receipts.add(maybeReceipts.get());
+      responseSize += maybeReceipts.get().size();
     }
-    return ReceiptsMessage.create(receipts);
+    return ReceiptsMessage.createUnsafe(receipts);
   }
 
   static MessageData constructGetNodeDataResponse(
@@ -222,13 +225,18 @@ class EthServer {
 
     final List<BytesValue> nodeData = new ArrayList<>();
     int count = 0;
+    int responseSize = 0;
     for (final Hash hash : hashes) {
-      if (count >= requestLimit) {
+      if (count >= requestLimit || responseSize >= MAX_RESPONSE_SIZE) {
         break;
       }
       count++;
 
-      worldStateArchive.getNodeData(hash).ifPresent(nodeData::add);
+      final Optional<BytesValue> maybeNodeData = worldStateArchive.getNodeData(hash);
+      if (maybeNodeData.isPresent()) {
+        nodeData.add(maybeNodeData.get());
+        responseSize += maybeNodeData.get().size();
+      }
     }
     return NodeDataMessage.create(nodeData);
   }
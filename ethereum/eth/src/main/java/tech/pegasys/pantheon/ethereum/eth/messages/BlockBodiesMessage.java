@@ -46,6 +46,21 @@ public final class BlockBodiesMessage extends AbstractMessageData {
     return new BlockBodiesMessage(tmp.encoded());
   }
 
+  /**
+   * Creates a message from block bodies which are already RLP-encoded, such as those read from
+   * storage. The encoded bodies are copied into the message as is, without being validated.
+   *
+   * @param encodedBodies the RLP-encoded block bodies
+   * @return the message
+   */
+  public static BlockBodiesMessage createUnsafe(final Iterable<BytesValue> encodedBodies) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    encodedBodies.forEach(tmp::writeRLPUnsafe);
+    tmp.endList();
+    return new BlockBodiesMessage(tmp.encoded());
+  }
+
   private BlockBodiesMessage(final BytesValue data) {
     super(data);
   }
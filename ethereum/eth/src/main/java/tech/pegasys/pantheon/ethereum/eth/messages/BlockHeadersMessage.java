@@ -53,6 +53,21 @@ public final class BlockHeadersMessage extends AbstractMessageData {
     return new BlockHeadersMessage(tmp.encoded());
   }
 
+  /**
+   * Creates a message from block headers which are already RLP-encoded, such as those read from
+   * storage. The encoded headers are copied into the message as is, without being validated.
+   *
+   * @param encodedHeaders the RLP-encoded block headers
+   * @return the message
+   */
+  public static BlockHeadersMessage createUnsafe(final Iterable<BytesValue> encodedHeaders) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    encodedHeaders.forEach(tmp::writeRLPUnsafe);
+    tmp.endList();
+    return new BlockHeadersMessage(tmp.encoded());
+  }
+
   private BlockHeadersMessage(final BytesValue data) {
     super(data);
   }
@@ -50,6 +50,22 @@ public final class ReceiptsMessage extends AbstractMessageData {
     return new ReceiptsMessage(tmp.encoded());
   }
 
+  /**
+   * Creates a message from the receipts of blocks which are already RLP-encoded, each as the list
+   * of receipts of a block without revert reasons. The encoded lists are copied into the message as
+   * is, without being validated.
+   *
+   * @param encodedReceipts the RLP-encoded lists of receipts of each block
+   * @return the message
+   */
+  public static ReceiptsMessage createUnsafe(final Iterable<BytesValue> encodedReceipts) {
+    final BytesValueRLPOutput tmp = new BytesValueRLPOutput();
+    tmp.startList();
+    encodedReceipts.forEach(tmp::writeRLPUnsafe);
+    tmp.endList();
+    return new ReceiptsMessage(tmp.encoded());
+  }
+
   private ReceiptsMessage(final BytesValue data) {
     super(data);
   }
@@ -19,6 +19,7 @@ import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthMessage;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
@@ -316,6 +317,7 @@ public class BlockPropagationManager<C> {
   }
 
   private CompletableFuture<Block> runImportTask(final Block block) {
+    TransactionSenderRecovery.getInstance().recoverSenders(block.getBody().getTransactions());
     final PersistBlockTask<C> importTask =
         PersistBlockTask.create(
             protocolSchedule, protocolContext, block, HeaderValidationMode.NONE, metricsSystem);
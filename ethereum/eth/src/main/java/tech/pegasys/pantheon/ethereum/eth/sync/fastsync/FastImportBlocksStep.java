@@ -14,12 +14,14 @@ package tech.pegasys.pantheon.ethereum.eth.sync.fastsync;
 
 import tech.pegasys.pantheon.ethereum.ProtocolContext;
 import tech.pegasys.pantheon.ethereum.core.BlockImporter;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.sync.ValidationPolicy;
 import tech.pegasys.pantheon.ethereum.eth.sync.tasks.exceptions.InvalidBlockException;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -44,6 +46,11 @@ public class FastImportBlocksStep<C> implements Consumer<List<BlockWithReceipts>
 
   @Override
   public void accept(final List<BlockWithReceipts> blocksWithReceipts) {
+    TransactionSenderRecovery.getInstance()
+        .recoverSendersForBlocks(
+            blocksWithReceipts.stream()
+                .map(BlockWithReceipts::getBlock)
+                .collect(Collectors.toList()));
     for (final BlockWithReceipts blockWithReceipts : blocksWithReceipts) {
       if (!importBlock(blockWithReceipts)) {
         throw new InvalidBlockException(
@@ -13,7 +13,7 @@
 package tech.pegasys.pantheon.ethereum.eth.sync.fullsync;
 
 import tech.pegasys.pantheon.ethereum.core.Block;
-import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 
 import java.util.List;
 import java.util.function.Function;
@@ -21,13 +21,19 @@ import java.util.stream.Stream;
 
 public class ExtractTxSignaturesStep implements Function<List<Block>, Stream<Block>> {
 
-  @Override
-  public Stream<Block> apply(final List<Block> blocks) {
-    return blocks.stream().map(this::extractSignatures);
+  private final TransactionSenderRecovery senderRecovery;
+
+  public ExtractTxSignaturesStep() {
+    this(TransactionSenderRecovery.getInstance());
   }
 
-  private Block extractSignatures(final Block block) {
-    block.getBody().getTransactions().forEach(Transaction::getSender);
-    return block;
+  public ExtractTxSignaturesStep(final TransactionSenderRecovery senderRecovery) {
+    this.senderRecovery = senderRecovery;
+  }
+
+  @Override
+  public Stream<Block> apply(final List<Block> blocks) {
+    senderRecovery.recoverSendersForBlocks(blocks);
+    return blocks.stream();
   }
 }
@@ -14,14 +14,20 @@ package tech.pegasys.pantheon.ethereum.eth.sync.worldstate;
 
 import tech.pegasys.pantheon.services.tasks.Task;
 
+import java.util.ArrayDeque;
 import java.util.Iterator;
+import java.util.Queue;
 
 class TaskQueueIterator implements Iterator<Task<NodeDataRequest>> {
 
   private final WorldDownloadState downloadState;
+  private final int batchSize;
+  // Tasks dequeued together, which are handed out one at a time.
+  private final Queue<Task<NodeDataRequest>> batch = new ArrayDeque<>();
 
-  public TaskQueueIterator(final WorldDownloadState downloadState) {
+  public TaskQueueIterator(final WorldDownloadState downloadState, final int batchSize) {
     this.downloadState = downloadState;
+    this.batchSize = batchSize;
   }
 
   @Override
@@ -31,6 +37,9 @@ class TaskQueueIterator implements Iterator<Task<NodeDataRequest>> {
 
   @Override
   public Task<NodeDataRequest> next() {
-    return downloadState.dequeueRequestBlocking();
+    if (batch.isEmpty()) {
+      batch.addAll(downloadState.dequeueRequestsBlocking(batchSize));
+    }
+    return batch.poll();
   }
 }
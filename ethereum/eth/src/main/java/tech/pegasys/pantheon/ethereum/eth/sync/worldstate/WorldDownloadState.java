@@ -24,10 +24,12 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.time.Clock;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.logging.log4j.LogManager;
@@ -128,25 +130,25 @@ class WorldDownloadState {
 
   public synchronized void enqueueRequests(final Stream<NodeDataRequest> requests) {
     if (!internalFuture.isDone()) {
-      requests.forEach(pendingRequests::add);
+      pendingRequests.addAll(requests.collect(Collectors.toList()));
       notifyAll();
     }
   }
 
-  public synchronized Task<NodeDataRequest> dequeueRequestBlocking() {
+  public synchronized List<Task<NodeDataRequest>> dequeueRequestsBlocking(final int maxRequests) {
     while (!internalFuture.isDone()) {
-      final Task<NodeDataRequest> task = pendingRequests.remove();
-      if (task != null) {
-        return task;
+      final List<Task<NodeDataRequest>> tasks = pendingRequests.removeBatch(maxRequests);
+      if (!tasks.isEmpty()) {
+        return tasks;
       }
       try {
         wait();
       } catch (final InterruptedException e) {
         Thread.currentThread().interrupt();
-        return null;
+        return Collections.emptyList();
       }
     }
-    return null;
+    return Collections.emptyList();
   }
 
   public synchronized void setRootNodeData(final BytesValue rootNodeData) {
@@ -215,7 +215,7 @@ public class WorldStateDownloadProcess {
       final Pipeline<Task<NodeDataRequest>> fetchDataPipeline =
           createPipelineFrom(
                   "requestDequeued",
-                  new TaskQueueIterator(downloadState),
+                  new TaskQueueIterator(downloadState, hashCountPerRequest),
                   bufferCapacity,
                   outputCounter)
               .thenFlatMapInParallel(
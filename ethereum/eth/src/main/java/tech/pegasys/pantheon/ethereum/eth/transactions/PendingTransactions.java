@@ -32,36 +32,47 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.SortedSet;
-import java.util.TreeMap;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.util.concurrent.Striped;
 
 /**
  * Holds the current set of pending transactions with the ability to iterate them based on priority
  * for mining or look-up by hash.
  *
- * <p>This class is safe for use across multiple threads.
+ * <p>This class is safe for use across multiple threads. Changes are made while holding a lock
+ * for the sender of the transaction, so transactions from different senders can be added and
+ * removed concurrently. Reads, including the iteration done when selecting transactions for a
+ * block, never take a lock and see a weakly consistent view of the pool.
  */
 public class PendingTransactions {
+  private static final int SENDER_LOCK_STRIPES = 128;
 
   private final int maxTransactionRetentionHours;
   private final Clock clock;
 
   private final Map<Hash, TransactionInfo> pendingTransactions = new ConcurrentHashMap<>();
-  private final SortedSet<TransactionInfo> prioritizedTransactions =
-      new TreeSet<>(
+  private final NavigableSet<TransactionInfo> prioritizedTransactions =
+      new ConcurrentSkipListSet<>(
           comparing(TransactionInfo::isReceivedFromLocalSource)
               .thenComparing(TransactionInfo::getSequence)
               .reversed());
-  private final Map<Address, SortedMap<Long, TransactionInfo>> transactionsBySender =
-      new HashMap<>();
+  private final Map<Address, NavigableMap<Long, TransactionInfo>> transactionsBySender =
+      new ConcurrentHashMap<>();
+  private final Striped<Lock> senderLocks = Striped.lock(SENDER_LOCK_STRIPES);
+  private final Lock evictionLock = new ReentrantLock();
 
   private final Subscribers<PendingTransactionListener> pendingTransactionSubscribers =
       Subscribers.create();
@@ -145,22 +156,28 @@ public class PendingTransactions {
     doRemoveTransaction(transaction, true);
   }
 
-  private void doRemoveTransaction(final Transaction transaction, final boolean addedToBlock) {
-    synchronized (pendingTransactions) {
+  private boolean doRemoveTransaction(final Transaction transaction, final boolean addedToBlock) {
+    final Lock senderLock = senderLocks.get(transaction.getSender());
+    senderLock.lock();
+    try {
       final TransactionInfo removedTransactionInfo = pendingTransactions.remove(transaction.hash());
-      if (removedTransactionInfo != null) {
-        prioritizedTransactions.remove(removedTransactionInfo);
-        Optional.ofNullable(transactionsBySender.get(transaction.getSender()))
-            .ifPresent(
-                transactionsForSender -> {
-                  transactionsForSender.remove(transaction.getNonce());
-                  if (transactionsForSender.isEmpty()) {
-                    transactionsBySender.remove(transaction.getSender());
-                  }
-                });
-        incrementTransactionRemovedCounter(
-            removedTransactionInfo.isReceivedFromLocalSource(), addedToBlock);
+      if (removedTransactionInfo == null) {
+        return false;
       }
+      prioritizedTransactions.remove(removedTransactionInfo);
+      Optional.ofNullable(transactionsBySender.get(transaction.getSender()))
+          .ifPresent(
+              transactionsForSender -> {
+                transactionsForSender.remove(transaction.getNonce(), removedTransactionInfo);
+                if (transactionsForSender.isEmpty()) {
+                  transactionsBySender.remove(transaction.getSender());
+                }
+              });
+      incrementTransactionRemovedCounter(
+          removedTransactionInfo.isReceivedFromLocalSource(), addedToBlock);
+      return true;
+    } finally {
+      senderLock.unlock();
     }
   }
 
@@ -172,84 +189,108 @@ public class PendingTransactions {
   }
 
   /*
-   * The BlockTransaction selection process (part of block mining) requires synchronised access to
-   * all pendingTransactions - this allows it to iterate over the available transactions without
-   * releasing the lock in between items.
-   *
+   * The BlockTransaction selection process (part of block mining) iterates over the prioritized
+   * transactions without holding any lock, so transactions can keep arriving while a block is being
+   * created. Transactions added during the iteration may or may not be offered to the selector, but
+   * a transaction is never offered before the transactions from the same sender with lower nonces.
    */
   public void selectTransactions(final TransactionSelector selector) {
-    synchronized (pendingTransactions) {
-      final List<Transaction> transactionsToRemove = new ArrayList<>();
-      final Map<Address, AccountTransactionOrder> accountTransactions = new HashMap<>();
-      for (final TransactionInfo transactionInfo : prioritizedTransactions) {
-        final AccountTransactionOrder accountTransactionOrder =
-            accountTransactions.computeIfAbsent(
-                transactionInfo.getSender(), this::createSenderTransactionOrder);
-
-        for (final Transaction transactionToProcess :
-            accountTransactionOrder.transactionsToProcess(transactionInfo.getTransaction())) {
-          final TransactionSelectionResult result =
-              selector.evaluateTransaction(transactionToProcess);
-          switch (result) {
-            case DELETE_TRANSACTION_AND_CONTINUE:
-              transactionsToRemove.add(transactionToProcess);
-              break;
-            case CONTINUE:
-              break;
-            case COMPLETE_OPERATION:
-              transactionsToRemove.forEach(this::removeTransaction);
-              return;
-            default:
-              throw new RuntimeException("Illegal value for TransactionSelectionResult.");
-          }
+    final List<Transaction> transactionsToRemove = new ArrayList<>();
+    final Map<Address, AccountTransactionOrder> accountTransactions = new HashMap<>();
+    for (final TransactionInfo transactionInfo : prioritizedTransactions) {
+      final AccountTransactionOrder accountTransactionOrder =
+          accountTransactions.computeIfAbsent(
+              transactionInfo.getSender(), this::createSenderTransactionOrder);
+
+      for (final Transaction transactionToProcess :
+          accountTransactionOrder.transactionsToProcess(transactionInfo.getTransaction())) {
+        final TransactionSelectionResult result =
+            selector.evaluateTransaction(transactionToProcess);
+        switch (result) {
+          case DELETE_TRANSACTION_AND_CONTINUE:
+            transactionsToRemove.add(transactionToProcess);
+            break;
+          case CONTINUE:
+            break;
+          case COMPLETE_OPERATION:
+            transactionsToRemove.forEach(this::removeTransaction);
+            return;
+          default:
+            throw new RuntimeException("Illegal value for TransactionSelectionResult.");
         }
       }
-      transactionsToRemove.forEach(this::removeTransaction);
     }
+    transactionsToRemove.forEach(this::removeTransaction);
   }
 
   private AccountTransactionOrder createSenderTransactionOrder(final Address address) {
+    final NavigableMap<Long, TransactionInfo> transactionsForSender =
+        transactionsBySender.get(address);
     return new AccountTransactionOrder(
-        transactionsBySender.get(address).values().stream().map(TransactionInfo::getTransaction));
+        transactionsForSender == null
+            ? Stream.empty()
+            : transactionsForSender.values().stream().map(TransactionInfo::getTransaction));
   }
 
   private boolean addTransaction(final TransactionInfo transactionInfo) {
-    Optional<Transaction> droppedTransaction = Optional.empty();
-    synchronized (pendingTransactions) {
+    final Optional<TransactionInfo> replacedTransaction;
+    final Lock senderLock = senderLocks.get(transactionInfo.getSender());
+    senderLock.lock();
+    try {
       if (pendingTransactions.containsKey(transactionInfo.getHash())) {
         return false;
       }
 
-      if (!addTransactionForSenderAndNonce(transactionInfo)) {
-        return false;
+      replacedTransaction =
+          Optional.ofNullable(transactionsBySender.get(transactionInfo.getSender()))
+              .map(transactionsForSender -> transactionsForSender.get(transactionInfo.getNonce()));
+      if (replacedTransaction.isPresent()) {
+        if (!shouldReplace(replacedTransaction.get(), transactionInfo)) {
+          return false;
+        }
+        doRemoveTransaction(replacedTransaction.get().getTransaction(), false);
       }
-      prioritizedTransactions.add(transactionInfo);
+      transactionsBySender
+          .computeIfAbsent(transactionInfo.getSender(), key -> new ConcurrentSkipListMap<>())
+          .put(transactionInfo.getNonce(), transactionInfo);
       pendingTransactions.put(transactionInfo.getHash(), transactionInfo);
-
-      if (pendingTransactions.size() > maxPendingTransactions) {
-        final TransactionInfo toRemove = prioritizedTransactions.last();
-        doRemoveTransaction(toRemove.getTransaction(), false);
-        droppedTransaction = Optional.of(toRemove.getTransaction());
-      }
+      prioritizedTransactions.add(transactionInfo);
+    } finally {
+      senderLock.unlock();
     }
+
     notifyTransactionAdded(transactionInfo.getTransaction());
-    droppedTransaction.ifPresent(this::notifyTransactionDropped);
+    replacedTransaction
+        .map(TransactionInfo::getTransaction)
+        .ifPresent(this::notifyTransactionDropped);
+    evictLowestPriorityTransactions().forEach(this::notifyTransactionDropped);
     return true;
   }
 
-  private boolean addTransactionForSenderAndNonce(final TransactionInfo transactionInfo) {
-    final Map<Long, TransactionInfo> transactionsForSender =
-        transactionsBySender.computeIfAbsent(transactionInfo.getSender(), key -> new TreeMap<>());
-    final TransactionInfo existingTransaction =
-        transactionsForSender.get(transactionInfo.getNonce());
-    if (existingTransaction != null) {
-      if (!shouldReplace(existingTransaction, transactionInfo)) {
-        return false;
+  /*
+   * Drops the lowest priority transactions until the pool is back within its size limit. Each
+   * eviction is a removal from the end of the prioritized set, which takes logarithmic time.
+   * Concurrent additions may briefly take the pool over the limit. Evictions are made one at a time
+   * under the eviction lock, each after checking the pool is still over the limit, so concurrent
+   * evictions never take the pool below it.
+   */
+  private List<Transaction> evictLowestPriorityTransactions() {
+    final List<Transaction> evictedTransactions = new ArrayList<>();
+    evictionLock.lock();
+    try {
+      while (pendingTransactions.size() > maxPendingTransactions) {
+        final TransactionInfo lowestPriority = prioritizedTransactions.pollLast();
+        if (lowestPriority == null) {
+          break;
+        }
+        if (doRemoveTransaction(lowestPriority.getTransaction(), false)) {
+          evictedTransactions.add(lowestPriority.getTransaction());
+        }
       }
-      removeTransaction(existingTransaction.getTransaction());
+    } finally {
+      evictionLock.unlock();
     }
-    transactionsForSender.put(transactionInfo.getNonce(), transactionInfo);
-    return true;
+    return evictedTransactions;
   }
 
   private boolean shouldReplace(
@@ -307,14 +348,17 @@ public class PendingTransactions {
   }
 
   public OptionalLong getNextNonceForSender(final Address sender) {
-    synchronized (pendingTransactions) {
-      final SortedMap<Long, TransactionInfo> transactionsForSender =
-          transactionsBySender.get(sender);
-      if (transactionsForSender == null) {
-        return OptionalLong.empty();
-      }
-      return OptionalLong.of(transactionsForSender.lastKey() + 1);
+    final NavigableMap<Long, TransactionInfo> transactionsForSender =
+        transactionsBySender.get(sender);
+    if (transactionsForSender == null) {
+      return OptionalLong.empty();
+    }
+    // The map may be emptied by a concurrent removal before it is removed itself.
+    final Map.Entry<Long, TransactionInfo> highestNonce = transactionsForSender.lastEntry();
+    if (highestNonce == null) {
+      return OptionalLong.empty();
     }
+    return OptionalLong.of(highestNonce.getKey() + 1);
   }
 
   /**
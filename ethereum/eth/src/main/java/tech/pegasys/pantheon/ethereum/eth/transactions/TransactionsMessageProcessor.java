@@ -16,6 +16,7 @@ import static java.time.Instant.now;
 import static org.apache.logging.log4j.LogManager.getLogger;
 
 import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
 import tech.pegasys.pantheon.ethereum.eth.messages.TransactionsMessage;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.DisconnectReason;
@@ -25,6 +26,7 @@ import tech.pegasys.pantheon.metrics.RunnableCounter;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Set;
 
@@ -76,6 +78,7 @@ class TransactionsMessageProcessor {
       final Iterator<Transaction> readTransactions =
           transactionsMessage.transactions(Transaction::readFrom);
       final Set<Transaction> transactions = Sets.newHashSet(readTransactions);
+      TransactionSenderRecovery.getInstance().recoverSenders(new ArrayList<>(transactions));
       transactionTracker.markTransactionsAsSeen(peer, transactions);
       transactionPool.addRemoteTransactions(transactions);
     } catch (final RLPException ex) {
@@ -21,8 +21,11 @@ import static org.mockito.Mockito.when;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.eth.EthProtocolConfiguration;
+import tech.pegasys.pantheon.ethereum.eth.messages.BlockBodiesMessage;
+import tech.pegasys.pantheon.ethereum.eth.messages.GetBlockBodiesMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.GetNodeDataMessage;
 import tech.pegasys.pantheon.ethereum.eth.messages.NodeDataMessage;
+import tech.pegasys.pantheon.ethereum.rlp.RLP;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
@@ -89,4 +92,23 @@ public class EthServerTest {
 
     verify(ethPeer).send(NodeDataMessage.create(singletonList(VALUE1)));
   }
+
+  @Test
+  public void shouldRespondToBlockBodiesRequestsWithStoredRlp() throws Exception {
+    when(blockchain.getBlockBodyRlp(HASH1)).thenReturn(Optional.of(RLP.EMPTY_LIST));
+    when(blockchain.getBlockBodyRlp(HASH2)).thenReturn(Optional.empty());
+    ethMessages.dispatch(
+        new EthMessage(ethPeer, GetBlockBodiesMessage.create(asList(HASH1, HASH2))));
+
+    verify(ethPeer).send(BlockBodiesMessage.createUnsafe(singletonList(RLP.EMPTY_LIST)));
+  }
+
+  @Test
+  public void shouldLimitTheSizeOfNodeDataResponses() throws Exception {
+    final BytesValue largeValue = BytesValue.wrap(new byte[EthServer.MAX_RESPONSE_SIZE]);
+    when(worldStateArchive.getNodeData(HASH1)).thenReturn(Optional.of(largeValue));
+    ethMessages.dispatch(new EthMessage(ethPeer, GetNodeDataMessage.create(asList(HASH1, HASH2))));
+
+    verify(ethPeer).send(NodeDataMessage.create(singletonList(largeValue)));
+  }
 }
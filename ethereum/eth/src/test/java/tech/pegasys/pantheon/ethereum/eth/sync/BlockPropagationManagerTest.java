@@ -23,14 +23,19 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import tech.pegasys.pantheon.crypto.SECP256K1.Signature;
 import tech.pegasys.pantheon.ethereum.ProtocolContext;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
 import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator.BlockOptions;
 import tech.pegasys.pantheon.ethereum.core.BlockImporter;
 import tech.pegasys.pantheon.ethereum.core.BlockchainSetupUtil;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthContext;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthMessages;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeers;
@@ -49,9 +54,13 @@ import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpec;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 import tech.pegasys.pantheon.testutil.TestClock;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
@@ -623,4 +632,35 @@ public class BlockPropagationManagerTest {
 
     verify(blockBroadcaster, times(1)).propagate(block, totalDifficulty);
   }
+
+  @Test
+  public void rejectsBlockContainingTransactionWithInvalidSignature() {
+    blockchainUtil.importFirstBlocks(2);
+    final Block block = blockchainUtil.getBlock(2);
+    // No point on the curve has an x coordinate of 5, so no sender can be recovered
+    final Transaction invalidTransaction =
+        Transaction.builder()
+            .nonce(0)
+            .gasPrice(Wei.of(1))
+            .gasLimit(21_000)
+            .to(Address.fromHexString("0x01"))
+            .value(Wei.ZERO)
+            .payload(BytesValue.EMPTY)
+            .signature(Signature.create(BigInteger.valueOf(5), BigInteger.ONE, (byte) 0))
+            .build();
+    final List<Transaction> transactions = new ArrayList<>(block.getBody().getTransactions());
+    transactions.add(invalidTransaction);
+    final Block invalidBlock =
+        new Block(block.getHeader(), new BlockBody(transactions, block.getBody().getOmmers()));
+
+    final CompletableFuture<Block> result =
+        blockPropagationManager.importOrSavePendingBlock(invalidBlock);
+
+    assertThat(result).isDone();
+    assertThat(blockchain.contains(block.getHash())).isFalse();
+
+    // The failed import must not leave the block marked as being imported
+    blockPropagationManager.importOrSavePendingBlock(block);
+    assertThat(blockchain.contains(block.getHash())).isTrue();
+  }
 }
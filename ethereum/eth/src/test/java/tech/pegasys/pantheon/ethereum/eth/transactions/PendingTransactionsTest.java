@@ -431,6 +431,41 @@ public class PendingTransactionsTest {
         .containsExactly(transaction4, transaction1, transaction2, transaction3);
   }
 
+  @Test
+  public void shouldStayWithinLimitWhenTransactionsAreAddedConcurrently() throws Exception {
+    final int threadCount = 4;
+    final int transactionsPerSender = 50;
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      final KeyPair keyPair = KeyPair.generate();
+      threads.add(
+          new Thread(
+              () -> {
+                for (int nonce = 0; nonce < transactionsPerSender; nonce++) {
+                  transactions.addRemoteTransaction(transactionWithNonceAndSender(nonce, keyPair));
+                }
+              }));
+    }
+    threads.forEach(Thread::start);
+    for (final Thread thread : threads) {
+      thread.join();
+    }
+
+    // Only the bounds are checked, as the exact size depends on how additions and evictions
+    // interleave.
+    final int size = transactions.size();
+    assertThat(size).isBetween(MAX_TRANSACTIONS - threadCount, MAX_TRANSACTIONS);
+
+    final List<Transaction> selectedTransactions = new ArrayList<>();
+    transactions.selectTransactions(
+        transaction -> {
+          selectedTransactions.add(transaction);
+          return TransactionSelectionResult.CONTINUE;
+        });
+    assertThat(selectedTransactions).hasSize(size);
+    selectedTransactions.forEach(this::assertTransactionPending);
+  }
+
   private void assertMaximumNonceForSender(final Address sender1, final int i) {
     assertThat(transactions.getNextNonceForSender(sender1)).isEqualTo(OptionalLong.of(i));
   }
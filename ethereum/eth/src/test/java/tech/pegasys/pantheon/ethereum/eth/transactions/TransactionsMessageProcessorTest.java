@@ -16,14 +16,22 @@ import static java.time.Duration.ofMillis;
 import static java.time.Duration.ofMinutes;
 import static java.time.Instant.now;
 import static java.util.Arrays.asList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
+import tech.pegasys.pantheon.crypto.SECP256K1.Signature;
+import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.eth.manager.EthPeer;
 import tech.pegasys.pantheon.ethereum.eth.messages.TransactionsMessage;
 import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.math.BigInteger;
 
 import com.google.common.collect.ImmutableSet;
 import org.junit.Test;
@@ -90,4 +98,29 @@ public class TransactionsMessageProcessorTest {
     verifyZeroInteractions(transactionPool);
     verify(totalSkippedTransactionsMessageCounter).inc(1);
   }
+
+  @Test
+  public void shouldAddBatchContainingTransactionWithInvalidSignature() {
+    // No point on the curve has an x coordinate of 5, so no sender can be recovered
+    final Transaction invalidTransaction =
+        Transaction.builder()
+            .nonce(0)
+            .gasPrice(Wei.of(1))
+            .gasLimit(21_000)
+            .to(Address.fromHexString("0x01"))
+            .value(Wei.ZERO)
+            .payload(BytesValue.EMPTY)
+            .signature(Signature.create(BigInteger.valueOf(5), BigInteger.ONE, (byte) 0))
+            .build();
+
+    messageHandler.processTransactionsMessage(
+        peer1,
+        TransactionsMessage.create(asList(transaction1, invalidTransaction, transaction3)),
+        now(),
+        ofMinutes(1));
+
+    verify(transactionPool)
+        .addRemoteTransactions(ImmutableSet.of(transaction1, invalidTransaction, transaction3));
+    verify(peer1, never()).disconnect(any());
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries;
+
+import static java.util.Collections.emptyList;
+
+import tech.pegasys.pantheon.ethereum.chain.LogsBloomIndex;
+import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockBody;
+import tech.pegasys.pantheon.ethereum.core.BlockDataGenerator;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
+import tech.pegasys.pantheon.ethereum.core.InMemoryStorageProvider;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter.LogsQuery;
+import tech.pegasys.pantheon.util.uint.UInt256;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares range log queries which have to check every header in the range against queries that
+ * can skip whole sections using the logs bloom index.
+ */
+@State(Scope.Benchmark)
+public class MatchingLogsBenchmark {
+
+  private static final int SECTIONS = 4;
+  private static final int ADDRESSES_PER_BLOCK = 10;
+
+  @Param({"false", "true"})
+  public boolean indexed;
+
+  private BlockchainQueries blockchainQueries;
+  private LogsQuery query;
+  private long toBlockNumber;
+
+  @Setup
+  public void prepare() {
+    final BlockDataGenerator gen = new BlockDataGenerator(1);
+    final MutableBlockchain blockchain =
+        InMemoryStorageProvider.createInMemoryBlockchain(gen.genesisBlock());
+
+    final long chainLength = (long) SECTIONS * LogsBloomIndex.SECTION_SIZE;
+    for (long number = 1; number < chainLength; number++) {
+      final LogsBloomFilter bloom = new LogsBloomFilter();
+      for (int i = 0; i < ADDRESSES_PER_BLOCK; i++) {
+        bloom.digest(LogsBloomFilter.forValue(gen.address()));
+      }
+      final BlockHeader header =
+          new BlockHeaderTestFixture()
+              .parentHash(blockchain.getChainHeadHash())
+              .number(number)
+              .difficulty(UInt256.ONE)
+              .logsBloom(bloom)
+              .buildHeader();
+      blockchain.appendBlock(
+          new Block(header, new BlockBody(emptyList(), emptyList())), emptyList());
+    }
+
+    if (indexed) {
+      final LogsBloomIndex logsBloomIndex = blockchain.getLogsBloomIndex().get();
+      for (long section = 0; section < SECTIONS; section++) {
+        final List<BlockHeader> headers = new ArrayList<>(LogsBloomIndex.SECTION_SIZE);
+        for (long number = LogsBloomIndex.sectionStart(section);
+            number <= LogsBloomIndex.sectionEnd(section);
+            number++) {
+          headers.add(blockchain.getBlockHeader(number).get());
+        }
+        logsBloomIndex.indexSection(section, headers);
+      }
+    }
+
+    blockchainQueries =
+        new BlockchainQueries(
+            blockchain, InMemoryStorageProvider.createInMemoryWorldStateArchive());
+    query = new LogsQuery.Builder().address(Address.fromHexString("0x01")).build();
+    toBlockNumber = blockchain.getChainHeadBlockNumber();
+  }
+
+  @Benchmark
+  public List<LogWithMetadata> matchingLogs() {
+    return blockchainQueries.matchingLogs(0, toBlockNumber, query);
+  }
+}
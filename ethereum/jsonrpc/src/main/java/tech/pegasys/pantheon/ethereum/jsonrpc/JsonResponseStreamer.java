@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+
+/**
+ * Streams a response body to an {@link HttpServerResponse} as it is serialized, so that large
+ * responses are never held in memory as a whole.
+ *
+ * <p>Bytes are collected into chunks. A response which fits in a single chunk is sent with a
+ * content length when {@link #end()} is called, as if it had been sent at once. Larger responses
+ * are sent chunked, and writing blocks while the write queue of the response is full, so this must
+ * not be used from an event loop thread.
+ */
+class JsonResponseStreamer extends OutputStream {
+  static final int CHUNK_SIZE = 64 * 1024;
+
+  private final HttpServerResponse response;
+  private final long maxResponseBytes;
+  private Buffer chunk = Buffer.buffer(CHUNK_SIZE);
+  private long bytesWritten;
+  private boolean streaming;
+  private boolean limitExceeded;
+  private volatile boolean closed;
+
+  JsonResponseStreamer(final HttpServerResponse response, final long maxResponseBytes) {
+    this.response = response;
+    this.maxResponseBytes = maxResponseBytes;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    checkLimit(1);
+    chunk.appendByte((byte) b);
+    if (chunk.length() >= CHUNK_SIZE) {
+      writeChunk();
+    }
+  }
+
+  @Override
+  public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+    checkLimit(length);
+    chunk.appendBytes(bytes, offset, length);
+    if (chunk.length() >= CHUNK_SIZE) {
+      writeChunk();
+    }
+  }
+
+  /**
+   * Whether any of the response has been sent. Until then, the response can still be replaced, for
+   * example by an error.
+   *
+   * @return true if the response is being sent in chunks
+   */
+  boolean isStreaming() {
+    return streaming;
+  }
+
+  /** @return true if writing failed because the response exceeded the maximum size */
+  boolean isLimitExceeded() {
+    return limitExceeded;
+  }
+
+  /** Sends whatever remains of the response and ends it. */
+  void end() {
+    response.end(chunk);
+  }
+
+  private void checkLimit(final int length) throws IOException {
+    bytesWritten += length;
+    if (bytesWritten > maxResponseBytes) {
+      limitExceeded = true;
+      throw new IOException("Response exceeds the maximum size of " + maxResponseBytes + " bytes");
+    }
+  }
+
+  private void writeChunk() throws IOException {
+    if (!streaming) {
+      response.setChunked(true);
+      response.closeHandler(event -> closed = true);
+      streaming = true;
+    }
+    awaitDrain();
+    response.write(chunk);
+    chunk = Buffer.buffer(CHUNK_SIZE);
+  }
+
+  private void awaitDrain() throws IOException {
+    if (!response.writeQueueFull()) {
+      return;
+    }
+    final CountDownLatch drained = new CountDownLatch(1);
+    response.drainHandler(event -> drained.countDown());
+    response.closeHandler(
+        event -> {
+          closed = true;
+          drained.countDown();
+        });
+    try {
+      // The queue may have drained before the handlers were set.
+      while (response.writeQueueFull() && !closed) {
+        drained.await();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting to write the response", e);
+    }
+    if (closed) {
+      throw new IOException("Connection closed while writing the response");
+    }
+  }
+}
@@ -24,6 +24,7 @@ import com.google.common.base.MoreObjects;
 public class JsonRpcConfiguration {
   private static final String DEFAULT_JSON_RPC_HOST = "127.0.0.1";
   public static final int DEFAULT_JSON_RPC_PORT = 8545;
+  public static final long DEFAULT_MAX_RESPONSE_BYTES = 256L * 1024 * 1024;
 
   private boolean enabled;
   private int port;
@@ -33,6 +34,7 @@ public class JsonRpcConfiguration {
   private List<String> hostsWhitelist = Arrays.asList("localhost", "127.0.0.1");
   private boolean authenticationEnabled = false;
   private String authenticationCredentialsFile;
+  private long maxResponseBytes = DEFAULT_MAX_RESPONSE_BYTES;
 
   public static JsonRpcConfiguration createDefault() {
     final JsonRpcConfiguration config = new JsonRpcConfiguration();
@@ -111,6 +113,7 @@ public class JsonRpcConfiguration {
         .add("rpcApis", rpcApis)
         .add("authenticationEnabled", authenticationEnabled)
         .add("authenticationCredentialsFile", authenticationCredentialsFile)
+        .add("maxResponseBytes", maxResponseBytes)
         .toString();
   }
 
@@ -151,4 +154,12 @@ public class JsonRpcConfiguration {
   public String getAuthenticationCredentialsFile() {
     return authenticationCredentialsFile;
   }
+
+  public long getMaxResponseBytes() {
+    return maxResponseBytes;
+  }
+
+  public void setMaxResponseBytes(final long maxResponseBytes) {
+    this.maxResponseBytes = maxResponseBytes;
+  }
 }
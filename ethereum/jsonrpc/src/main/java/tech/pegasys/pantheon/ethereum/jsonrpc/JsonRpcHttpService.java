@@ -38,6 +38,7 @@ import tech.pegasys.pantheon.metrics.PantheonMetricCategory;
 import tech.pegasys.pantheon.nat.upnp.UpnpNatManager;
 import tech.pegasys.pantheon.util.NetworkUtility;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.nio.file.Path;
@@ -47,6 +48,7 @@ import java.util.Optional;
 import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
@@ -369,22 +371,32 @@ public class JsonRpcHttpService {
   private void handleJsonSingleRequest(
       final RoutingContext routingContext, final JsonObject request, final Optional<User> user) {
     final HttpServerResponse response = routingContext.response();
+    final JsonResponseStreamer streamer =
+        new JsonResponseStreamer(response, config.getMaxResponseBytes());
     vertx.executeBlocking(
         future -> {
           final JsonRpcResponse jsonRpcResponse = process(request, user);
-          future.complete(jsonRpcResponse);
+          response.setStatusCode(status(jsonRpcResponse).code());
+          response.putHeader("Content-Type", APPLICATION_JSON);
+          if (jsonRpcResponse.getType() == JsonRpcResponseType.NONE) {
+            response.end(EMPTY_RESPONSE);
+          } else {
+            // Serialise on this worker thread, straight into the response.
+            try {
+              Json.prettyMapper.writeValue(streamer, jsonRpcResponse);
+              streamer.end();
+            } catch (final IOException e) {
+              future.fail(e);
+              return;
+            }
+          }
+          future.complete();
         },
         false,
         (res) -> {
           if (res.failed()) {
-            response.setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code()).end();
-            return;
+            handleResponseFailure(routingContext, streamer, request.getValue("id"), res.cause());
           }
-
-          final JsonRpcResponse jsonRpcResponse = (JsonRpcResponse) res.result();
-          response.setStatusCode(status(jsonRpcResponse).code());
-          response.putHeader("Content-Type", APPLICATION_JSON);
-          response.end(serialise(jsonRpcResponse));
         });
   }
 
@@ -402,13 +414,25 @@ public class JsonRpcHttpService {
     }
   }
 
-  private String serialise(final JsonRpcResponse response) {
-
-    if (response.getType() == JsonRpcResponseType.NONE) {
-      return EMPTY_RESPONSE;
+  private void handleResponseFailure(
+      final RoutingContext routingContext,
+      final JsonResponseStreamer streamer,
+      final Object id,
+      final Throwable cause) {
+    if (streamer.isStreaming()) {
+      // Part of the response has already been sent, so the only way left to report the failure is
+      // to drop the connection.
+      LOG.debug("Failed to send JSON-RPC response, closing the connection", cause);
+      routingContext.response().close();
+    } else if (streamer.isLimitExceeded()) {
+      LOG.debug("JSON-RPC response exceeds the maximum size", cause);
+      handleJsonRpcError(routingContext, id, JsonRpcError.RESPONSE_TOO_LARGE);
+    } else {
+      routingContext
+          .response()
+          .setStatusCode(HttpResponseStatus.INTERNAL_SERVER_ERROR.code())
+          .end();
     }
-
-    return Json.encodePrettily(response);
   }
 
   @SuppressWarnings("rawtypes")
@@ -456,10 +480,38 @@ public class JsonRpcHttpService {
                       .filter(this::isNonEmptyResponses)
                       .toArray(JsonRpcResponse[]::new);
 
-              routingContext.response().end(Json.encode(completed));
+              streamBatchResponse(routingContext, completed);
             });
   }
 
+  private void streamBatchResponse(
+      final RoutingContext routingContext, final JsonRpcResponse[] responses) {
+    final JsonResponseStreamer streamer =
+        new JsonResponseStreamer(routingContext.response(), config.getMaxResponseBytes());
+    vertx.executeBlocking(
+        future -> {
+          // Serialise the elements one at a time, so only the current chunk is held in memory.
+          try (final JsonGenerator generator = Json.mapper.getFactory().createGenerator(streamer)) {
+            generator.writeStartArray();
+            for (final JsonRpcResponse response : responses) {
+              Json.mapper.writeValue(generator, response);
+            }
+            generator.writeEndArray();
+          } catch (final IOException e) {
+            future.fail(e);
+            return;
+          }
+          streamer.end();
+          future.complete();
+        },
+        false,
+        (res) -> {
+          if (res.failed()) {
+            handleResponseFailure(routingContext, streamer, null, res.cause());
+          }
+        });
+  }
+
   private boolean isNonEmptyResponses(final JsonRpcResponse result) {
     return result.getType() != JsonRpcResponseType.NONE;
   }
@@ -15,10 +15,13 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Log;
 import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.TopicsParameter;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 
@@ -26,16 +29,64 @@ public class LogsQuery {
 
   private final List<Address> queryAddresses;
   private final List<List<LogTopic>> queryTopics;
+  private final List<List<LogsBloomFilter>> bloomFilterCriteria;
 
   private LogsQuery(final List<Address> addresses, final List<List<LogTopic>> topics) {
     this.queryAddresses = addresses;
     this.queryTopics = topics;
+    this.bloomFilterCriteria = createBloomFilterCriteria(addresses, topics);
   }
 
   public boolean matches(final Log log) {
     return matchesAddresses(log.getLogger()) && matchesTopics(log.getTopics());
   }
 
+  /** @return the addresses a log must be from to match, or an empty list if any address matches */
+  public List<Address> getAddresses() {
+    return queryAddresses;
+  }
+
+  /**
+   * Returns the topics a log must have to match. A log matches if for each position, its topic at
+   * that position is one of the listed topics. A null topic matches any topic.
+   *
+   * @return the topics to match, by position
+   */
+  public List<List<LogTopic>> getTopics() {
+    return queryTopics;
+  }
+
+  /**
+   * Returns the bloom filters a block's logs bloom must contain for the block to hold a matching
+   * log. At least one filter out of each list must be contained.
+   *
+   * @return the bloom filters for this query, grouped by address and topic position
+   */
+  public List<List<LogsBloomFilter>> getBloomFilterCriteria() {
+    return bloomFilterCriteria;
+  }
+
+  public boolean couldMatch(final LogsBloomFilter bloom) {
+    return bloomFilterCriteria.stream()
+        .allMatch(alternatives -> alternatives.stream().anyMatch(bloom::couldContain));
+  }
+
+  private static List<List<LogsBloomFilter>> createBloomFilterCriteria(
+      final List<Address> addresses, final List<List<LogTopic>> topics) {
+    final List<List<LogsBloomFilter>> criteria = Lists.newArrayList();
+    if (!addresses.isEmpty()) {
+      criteria.add(addresses.stream().map(LogsBloomFilter::forValue).collect(Collectors.toList()));
+    }
+    for (final List<LogTopic> topicAlternatives : topics) {
+      // A null topic is a wildcard, so any block could match this position
+      if (topicAlternatives.stream().noneMatch(Objects::isNull)) {
+        criteria.add(
+            topicAlternatives.stream().map(LogsBloomFilter::forValue).collect(Collectors.toList()));
+      }
+    }
+    return criteria;
+  }
+
   private boolean matchesAddresses(final Address address) {
     return queryAddresses.isEmpty() || queryAddresses.contains(address);
   }
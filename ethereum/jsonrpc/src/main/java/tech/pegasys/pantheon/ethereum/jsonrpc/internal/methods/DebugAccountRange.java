@@ -15,7 +15,6 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
-import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
 import tech.pegasys.pantheon.ethereum.core.WorldState.StreamableAccount;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.JsonRpcRequest;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.BlockParameterOrBlockHash;
@@ -79,17 +78,20 @@ public class DebugAccountRange implements JsonRpcMethod {
 
     // TODO deal with mid-block locations
 
-    final Optional<MutableWorldState> state =
-        blockchainQueries.get().getWorldState(blockHeaderOptional.get().getNumber());
-
-    if (state.isEmpty()) {
+    final Optional<List<StreamableAccount>> maybeAccounts =
+        blockchainQueries
+            .get()
+            .scanWorldState(
+                blockHeaderOptional.get().getNumber(),
+                worldState ->
+                    worldState
+                        .streamAccounts(Bytes32.fromHexStringLenient(addressHash), maxResults + 1)
+                        .collect(Collectors.toList()));
+
+    if (maybeAccounts.isEmpty()) {
       return emptyResponse(request);
     } else {
-      final List<StreamableAccount> accounts =
-          state
-              .get()
-              .streamAccounts(Bytes32.fromHexStringLenient(addressHash), maxResults + 1)
-              .collect(Collectors.toList());
+      final List<StreamableAccount> accounts = maybeAccounts.get();
       Bytes32 nextKey = Bytes32.ZERO;
       if (accounts.size() == maxResults + 1) {
         nextKey = accounts.get(maxResults).getAddressHash();
@@ -12,13 +12,17 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc.internal.processor;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockBody;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Hash;
 import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpec;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor;
@@ -27,22 +31,58 @@ import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Replays blocks on top of the world state of their parent, so that their transactions can be
+ * traced.
+ *
+ * <p>Replaying up to a transaction means executing every earlier transaction in the block, so the
+ * world state is saved as a checkpoint every {@code checkpointInterval} transactions along the
+ * way. A later replay within the same block starts from the nearest checkpoint before its
+ * transaction instead of from the start of the block. Checkpoints are copies of the world state
+ * which share their trie nodes with it, so each one only holds what its transactions changed.
+ */
 public class BlockReplay {
+  public static final int DEFAULT_CHECKPOINT_INTERVAL = 16;
+  public static final int DEFAULT_MAX_CHECKPOINTS = 64;
 
   private final ProtocolSchedule<?> protocolSchedule;
   private final Blockchain blockchain;
   private final WorldStateArchive worldStateArchive;
+  private final int checkpointInterval;
+  // Checkpoints are never modified, replays start from a copy of them.
+  private final Cache<CheckpointKey, MutableWorldState> checkpoints;
 
   public BlockReplay(
       final ProtocolSchedule<?> protocolSchedule,
       final Blockchain blockchain,
       final WorldStateArchive worldStateArchive) {
+    this(
+        protocolSchedule,
+        blockchain,
+        worldStateArchive,
+        DEFAULT_CHECKPOINT_INTERVAL,
+        DEFAULT_MAX_CHECKPOINTS);
+  }
+
+  public BlockReplay(
+      final ProtocolSchedule<?> protocolSchedule,
+      final Blockchain blockchain,
+      final WorldStateArchive worldStateArchive,
+      final int checkpointInterval,
+      final int maxCheckpoints) {
+    checkArgument(checkpointInterval > 0, "Checkpoint interval must be positive");
     this.protocolSchedule = protocolSchedule;
     this.blockchain = blockchain;
     this.worldStateArchive = worldStateArchive;
+    this.checkpointInterval = checkpointInterval;
+    this.checkpoints = CacheBuilder.newBuilder().maximumSize(maxCheckpoints).build();
   }
 
   public Optional<BlockTrace> block(
@@ -76,26 +116,53 @@ public class BlockReplay {
     return performActionWithBlock(
         blockHash,
         (body, header, blockchain, mutableWorldState, transactionProcessor) -> {
+          final List<Transaction> transactions = body.getTransactions();
+          final int transactionIndex = indexOf(transactions, transactionHash);
+          if (transactionIndex < 0) {
+            return Optional.empty();
+          }
+
+          int index = 0;
+          MutableWorldState worldState = mutableWorldState;
+          for (int checkpointIndex = transactionIndex - transactionIndex % checkpointInterval;
+              checkpointIndex > 0;
+              checkpointIndex -= checkpointInterval) {
+            final MutableWorldState checkpoint =
+                checkpoints.getIfPresent(new CheckpointKey(header.getHash(), checkpointIndex));
+            if (checkpoint != null) {
+              worldState = checkpoint.copy();
+              index = checkpointIndex;
+              break;
+            }
+          }
+
+          final ProtocolSpec<?> spec = protocolSchedule.getByBlockNumber(header.getNumber());
+          final Address miningBeneficiary =
+              spec.getMiningBeneficiaryCalculator().calculateBeneficiary(header);
           final BlockHashLookup blockHashLookup = new BlockHashLookup(header, blockchain);
-          for (final Transaction transaction : body.getTransactions()) {
-            if (transaction.hash().equals(transactionHash)) {
-              return Optional.of(
-                  action.performAction(
-                      transaction, header, blockchain, mutableWorldState, transactionProcessor));
-            } else {
-              final ProtocolSpec<?> spec = protocolSchedule.getByBlockNumber(header.getNumber());
-              transactionProcessor.processTransaction(
-                  blockchain,
-                  mutableWorldState.updater(),
-                  header,
-                  transaction,
-                  spec.getMiningBeneficiaryCalculator().calculateBeneficiary(header),
-                  blockHashLookup,
-                  false,
-                  TransactionValidationParams.blockReplay());
+          for (; index < transactionIndex; index++) {
+            final WorldUpdater updater = worldState.updater();
+            transactionProcessor.processTransaction(
+                blockchain,
+                updater,
+                header,
+                transactions.get(index),
+                miningBeneficiary,
+                blockHashLookup,
+                false,
+                TransactionValidationParams.blockReplay());
+            updater.commit();
+            if ((index + 1) % checkpointInterval == 0) {
+              checkpoints.put(new CheckpointKey(header.getHash(), index + 1), worldState.copy());
             }
           }
-          return Optional.empty();
+          return Optional.of(
+              action.performAction(
+                  transactions.get(transactionIndex),
+                  header,
+                  blockchain,
+                  worldState,
+                  transactionProcessor));
         });
   }
 
@@ -148,6 +215,15 @@ public class BlockReplay {
     return action.perform(body, header, blockchain, mutableWorldState, transactionProcessor);
   }
 
+  private static int indexOf(final List<Transaction> transactions, final Hash transactionHash) {
+    for (int i = 0; i < transactions.size(); i++) {
+      if (transactions.get(i).hash().equals(transactionHash)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   private Optional<Block> getBlock(final Hash blockHash) {
     final BlockHeader blockHeader = blockchain.getBlockHeader(blockHash).orElse(null);
     if (blockHeader != null) {
@@ -159,6 +235,34 @@ public class BlockReplay {
     return Optional.empty();
   }
 
+  /** Identifies the world state of a block before the transaction at an index. */
+  private static class CheckpointKey {
+    private final Hash blockHash;
+    private final int transactionIndex;
+
+    private CheckpointKey(final Hash blockHash, final int transactionIndex) {
+      this.blockHash = blockHash;
+      this.transactionIndex = transactionIndex;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final CheckpointKey that = (CheckpointKey) o;
+      return transactionIndex == that.transactionIndex && blockHash.equals(that.blockHash);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(blockHash, transactionIndex);
+    }
+  }
+
   @FunctionalInterface
   private interface BlockAction<T> {
     Optional<T> perform(
@@ -15,6 +15,7 @@ package tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.chain.LogsBloomIndex;
 import tech.pegasys.pantheon.ethereum.chain.TransactionLocation;
 import tech.pegasys.pantheon.ethereum.core.Account;
 import tech.pegasys.pantheon.ethereum.core.Address;
@@ -33,6 +34,7 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -485,26 +487,47 @@ public class BlockchainQueries {
     if (fromBlockNumber > toBlockNumber || toBlockNumber > headBlockNumber()) {
       return Lists.newArrayList();
     }
+    final Optional<LogsBloomIndex> logsBloomIndex = blockchain.getLogsBloomIndex();
     List<LogWithMetadata> matchingLogs = Lists.newArrayList();
-    for (long blockNumber = fromBlockNumber; blockNumber <= toBlockNumber; blockNumber++) {
-      final Hash blockhash = blockchain.getBlockHashByNumber(blockNumber).get();
-      final boolean logHasBeenRemoved = !blockchain.blockIsOnCanonicalChain(blockhash);
-      final List<TransactionReceipt> receipts = blockchain.getTxReceipts(blockhash).get();
-      final List<Transaction> transaction =
-          blockchain.getBlockBody(blockhash).get().getTransactions();
-      matchingLogs =
-          generateLogWithMetadata(
-              receipts,
-              blockNumber,
-              query,
-              blockhash,
-              matchingLogs,
-              transaction,
-              logHasBeenRemoved);
+    long sectionFrom = fromBlockNumber;
+    while (sectionFrom <= toBlockNumber) {
+      final long sectionNumber = LogsBloomIndex.sectionNumber(sectionFrom);
+      final long sectionStart = LogsBloomIndex.sectionStart(sectionNumber);
+      final long sectionTo = Math.min(LogsBloomIndex.sectionEnd(sectionNumber), toBlockNumber);
+      final Optional<BitSet> candidates =
+          logsBloomIndex.flatMap(
+              index -> index.findCandidateBlocks(sectionNumber, query.getBloomFilterCriteria()));
+      if (candidates.isPresent()) {
+        final BitSet candidateOffsets = candidates.get();
+        for (int offset = candidateOffsets.nextSetBit((int) (sectionFrom - sectionStart));
+            offset >= 0 && sectionStart + offset <= sectionTo;
+            offset = candidateOffsets.nextSetBit(offset + 1)) {
+          matchingLogs = matchingLogs(sectionStart + offset, query, matchingLogs);
+        }
+      } else {
+        for (long blockNumber = sectionFrom; blockNumber <= sectionTo; blockNumber++) {
+          final BlockHeader header = blockchain.getBlockHeader(blockNumber).get();
+          if (query.couldMatch(header.getLogsBloom())) {
+            matchingLogs = matchingLogs(blockNumber, query, matchingLogs);
+          }
+        }
+      }
+      sectionFrom = sectionTo + 1;
     }
     return matchingLogs;
   }
 
+  private List<LogWithMetadata> matchingLogs(
+      final long blockNumber, final LogsQuery query, final List<LogWithMetadata> matchingLogs) {
+    final Hash blockhash = blockchain.getBlockHashByNumber(blockNumber).get();
+    final boolean logHasBeenRemoved = !blockchain.blockIsOnCanonicalChain(blockhash);
+    final List<TransactionReceipt> receipts = blockchain.getTxReceipts(blockhash).get();
+    final List<Transaction> transaction =
+        blockchain.getBlockBody(blockhash).get().getTransactions();
+    return generateLogWithMetadata(
+        receipts, blockNumber, query, blockhash, matchingLogs, transaction, logHasBeenRemoved);
+  }
+
   public List<LogWithMetadata> matchingLogs(final Hash blockhash, final LogsQuery query) {
     final List<LogWithMetadata> matchingLogs = Lists.newArrayList();
     Optional<BlockHeader> blockHeader = blockchain.getBlockHeader(blockhash);
@@ -561,6 +584,26 @@ public class BlockchainQueries {
     return header.map(BlockHeader::getStateRoot).flatMap(worldStateArchive::getMutable);
   }
 
+  /**
+   * Reads the world state of the given block from a consistent snapshot of the storage, without
+   * adding the nodes read to the storage caches, for reads going through large parts of the world
+   * state. The reader must not keep the world state once it returns.
+   *
+   * @param blockNumber the block number
+   * @param reader reads what is needed from the world state
+   * @param <T> the type of value read
+   * @return the value read, or empty if the block or its world state is not available
+   */
+  public <T> Optional<T> scanWorldState(
+      final long blockNumber, final Function<WorldState, T> reader) {
+    if (!withinValidRange(blockNumber)) {
+      return Optional.empty();
+    }
+    return blockchain
+        .getBlockHeader(blockNumber)
+        .flatMap(header -> worldStateArchive.readSnapshot(header.getStateRoot(), false, reader));
+  }
+
   private <T> Optional<T> fromWorldState(
       final long blockNumber, final Function<WorldState, T> getter) {
     if (!withinValidRange(blockNumber)) {
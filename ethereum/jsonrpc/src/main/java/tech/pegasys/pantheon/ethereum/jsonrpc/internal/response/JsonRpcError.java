@@ -26,6 +26,7 @@ public enum JsonRpcError {
   INVALID_PARAMS(-32602, "Invalid params"),
   INTERNAL_ERROR(-32603, "Internal error"),
   METHOD_NOT_ENABLED(-32604, "Method not enabled"),
+  RESPONSE_TOO_LARGE(-32605, "Response exceeds the maximum size"),
 
   // eth_sendTransaction specific error message
   ETH_SEND_TX_NOT_AVAILABLE(
@@ -26,6 +26,7 @@ import com.google.common.base.MoreObjects;
 public class WebSocketConfiguration {
   public static final String DEFAULT_WEBSOCKET_HOST = "127.0.0.1";
   public static final int DEFAULT_WEBSOCKET_PORT = 8546;
+  public static final long DEFAULT_MAX_RESPONSE_BYTES = 64L * 1024 * 1024;
   public static final List<RpcApi> DEFAULT_WEBSOCKET_APIS =
       Arrays.asList(RpcApis.ETH, RpcApis.NET, RpcApis.WEB3);
 
@@ -35,6 +36,7 @@ public class WebSocketConfiguration {
   private List<RpcApi> rpcApis;
   private boolean authenticationEnabled = false;
   private String authenticationCredentialsFile;
+  private long maxResponseBytes = DEFAULT_MAX_RESPONSE_BYTES;
   private Collection<String> hostsWhitelist = Collections.singletonList("localhost");
 
   public static WebSocketConfiguration createDefault() {
@@ -89,6 +91,7 @@ public class WebSocketConfiguration {
         .add("rpcApis", rpcApis)
         .add("authenticationEnabled", authenticationEnabled)
         .add("authenticationCredentialsFile", authenticationCredentialsFile)
+        .add("maxResponseBytes", maxResponseBytes)
         .toString();
   }
 
@@ -135,4 +138,12 @@ public class WebSocketConfiguration {
   public Collection<String> getHostsWhitelist() {
     return Collections.unmodifiableCollection(this.hostsWhitelist);
   }
+
+  public long getMaxResponseBytes() {
+    return maxResponseBytes;
+  }
+
+  public void setMaxResponseBytes(final long maxResponseBytes) {
+    this.maxResponseBytes = maxResponseBytes;
+  }
 }
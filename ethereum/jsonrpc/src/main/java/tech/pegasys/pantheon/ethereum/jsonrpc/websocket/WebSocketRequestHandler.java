@@ -17,9 +17,13 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.authentication.AuthenticationUtils
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.JsonRpcMethod;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcError;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcErrorResponse;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcResponse;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcSuccessResponse;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcUnauthorizedResponse;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.methods.WebSocketRpcRequest;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 import java.util.Optional;
 
@@ -37,10 +41,17 @@ public class WebSocketRequestHandler {
 
   private final Vertx vertx;
   private final Map<String, JsonRpcMethod> methods;
+  private final long maxResponseBytes;
 
   public WebSocketRequestHandler(final Vertx vertx, final Map<String, JsonRpcMethod> methods) {
+    this(vertx, methods, WebSocketConfiguration.DEFAULT_MAX_RESPONSE_BYTES);
+  }
+
+  public WebSocketRequestHandler(
+      final Vertx vertx, final Map<String, JsonRpcMethod> methods, final long maxResponseBytes) {
     this.vertx = vertx;
     this.methods = methods;
+    this.maxResponseBytes = maxResponseBytes;
   }
 
   public void handle(final String id, final Buffer buffer) {
@@ -53,49 +64,103 @@ public class WebSocketRequestHandler {
       final Buffer buffer,
       final Optional<User> user) {
     vertx.executeBlocking(
-        future -> {
-          final WebSocketRpcRequest request;
-          try {
-            request = buffer.toJsonObject().mapTo(WebSocketRpcRequest.class);
-          } catch (final IllegalArgumentException | DecodeException e) {
-            LOG.debug("Error mapping json to WebSocketRpcRequest", e);
-            future.complete(new JsonRpcErrorResponse(null, JsonRpcError.INVALID_REQUEST));
-            return;
-          }
-
-          if (!methods.containsKey(request.getMethod())) {
-            future.complete(
-                new JsonRpcErrorResponse(request.getId(), JsonRpcError.METHOD_NOT_FOUND));
-            LOG.debug("Can't find method {}", request.getMethod());
-            return;
-          }
-          final JsonRpcMethod method = methods.get(request.getMethod());
-          try {
-            LOG.debug("WS-RPC request -> {}", request.getMethod());
-            request.setConnectionId(id);
-            if (AuthenticationUtils.isPermitted(authenticationService, user, method)) {
-              future.complete(method.response(request));
-            } else {
-              future.complete(
-                  new JsonRpcUnauthorizedResponse(request.getId(), JsonRpcError.UNAUTHORIZED));
-            }
-          } catch (final Exception e) {
-            LOG.error(JsonRpcError.INTERNAL_ERROR.getMessage(), e);
-            future.complete(new JsonRpcErrorResponse(request.getId(), JsonRpcError.INTERNAL_ERROR));
-          }
-        },
+        future -> future.complete(encode(process(authenticationService, id, buffer, user))),
         result -> {
           if (result.succeeded()) {
-            replyToClient(id, Json.encodeToBuffer(result.result()));
+            replyToClient(id, (String) result.result());
           } else {
             replyToClient(
-                id,
-                Json.encodeToBuffer(new JsonRpcErrorResponse(null, JsonRpcError.INTERNAL_ERROR)));
+                id, Json.encode(new JsonRpcErrorResponse(null, JsonRpcError.INTERNAL_ERROR)));
           }
         });
   }
 
-  private void replyToClient(final String id, final Buffer request) {
-    vertx.eventBus().send(id, request.toString());
+  private JsonRpcResponse process(
+      final Optional<AuthenticationService> authenticationService,
+      final String id,
+      final Buffer buffer,
+      final Optional<User> user) {
+    final WebSocketRpcRequest request;
+    try {
+      request = buffer.toJsonObject().mapTo(WebSocketRpcRequest.class);
+    } catch (final IllegalArgumentException | DecodeException e) {
+      LOG.debug("Error mapping json to WebSocketRpcRequest", e);
+      return new JsonRpcErrorResponse(null, JsonRpcError.INVALID_REQUEST);
+    }
+
+    if (!methods.containsKey(request.getMethod())) {
+      LOG.debug("Can't find method {}", request.getMethod());
+      return new JsonRpcErrorResponse(request.getId(), JsonRpcError.METHOD_NOT_FOUND);
+    }
+    final JsonRpcMethod method = methods.get(request.getMethod());
+    try {
+      LOG.debug("WS-RPC request -> {}", request.getMethod());
+      request.setConnectionId(id);
+      if (AuthenticationUtils.isPermitted(authenticationService, user, method)) {
+        return method.response(request);
+      } else {
+        return new JsonRpcUnauthorizedResponse(request.getId(), JsonRpcError.UNAUTHORIZED);
+      }
+    } catch (final Exception e) {
+      LOG.error(JsonRpcError.INTERNAL_ERROR.getMessage(), e);
+      return new JsonRpcErrorResponse(request.getId(), JsonRpcError.INTERNAL_ERROR);
+    }
+  }
+
+  /*
+   * A websocket message is sent whole, so the response is serialised on the worker thread and
+   * serialisation stops as soon as it exceeds the maximum response size, rather than after the
+   * whole response has been built.
+   */
+  private String encode(final JsonRpcResponse response) {
+    final LimitedBufferOutputStream output = new LimitedBufferOutputStream(maxResponseBytes);
+    try {
+      Json.mapper.writeValue(output, response);
+      return output.buffer.toString();
+    } catch (final IOException e) {
+      final Object requestId =
+          response instanceof JsonRpcSuccessResponse
+              ? ((JsonRpcSuccessResponse) response).getId()
+              : null;
+      if (output.limitExceeded) {
+        LOG.debug("WS-RPC response exceeds the maximum size of {} bytes", maxResponseBytes);
+        return Json.encode(new JsonRpcErrorResponse(requestId, JsonRpcError.RESPONSE_TOO_LARGE));
+      }
+      LOG.error(JsonRpcError.INTERNAL_ERROR.getMessage(), e);
+      return Json.encode(new JsonRpcErrorResponse(requestId, JsonRpcError.INTERNAL_ERROR));
+    }
+  }
+
+  private void replyToClient(final String id, final String response) {
+    vertx.eventBus().send(id, response);
+  }
+
+  private static class LimitedBufferOutputStream extends OutputStream {
+    private final Buffer buffer = Buffer.buffer();
+    private final long limit;
+    private boolean limitExceeded;
+
+    private LimitedBufferOutputStream(final long limit) {
+      this.limit = limit;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      checkLimit(1);
+      buffer.appendByte((byte) b);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+      checkLimit(length);
+      buffer.appendBytes(bytes, offset, length);
+    }
+
+    private void checkLimit(final int length) throws IOException {
+      if (buffer.length() + (long) length > limit) {
+        limitExceeded = true;
+        throw new IOException("Response exceeds the maximum size of " + limit + " bytes");
+      }
+    }
   }
 }
@@ -140,11 +140,32 @@ public class SubscriptionManager extends AbstractVerticle {
     }
   }
 
+  /**
+   * Sends the same result to each of the given subscriptions. The result is only encoded once, and
+   * each subscription's response is built around it.
+   *
+   * @param subscriptionIds the ids of the subscriptions to send the result to
+   * @param msg the result to send
+   */
+  public void sendMessageToSubscriptions(
+      final List<Long> subscriptionIds, final JsonRpcResult msg) {
+    final String encodedResult = Json.encode(msg);
+    for (final Long subscriptionId : subscriptionIds) {
+      final Subscription subscription = subscriptions.get(subscriptionId);
+      if (subscription != null) {
+        final String response = SubscriptionResponse.encode(subscriptionId, encodedResult);
+        vertx.eventBus().send(subscription.getConnectionId(), response);
+      }
+    }
+  }
+
   public <T> void notifySubscribersOnWorkerThread(
       final SubscriptionType subscriptionType,
       final Class<T> clazz,
       final Consumer<List<T>> runnable) {
-    vertx.executeBlocking(
+    // Run on this verticle's context rather than a new one, so that notifications are sent in the
+    // order they were made.
+    context.executeBlocking(
         future -> {
           final List<T> syncingSubscriptions = subscriptionsOfType(subscriptionType, clazz);
           runnable.accept(syncingSubscriptions);
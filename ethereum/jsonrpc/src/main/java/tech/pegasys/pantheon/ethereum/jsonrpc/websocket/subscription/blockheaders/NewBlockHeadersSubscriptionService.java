@@ -22,6 +22,9 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.BlockResultFactor
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.SubscriptionManager;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.SubscriptionType;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class NewBlockHeadersSubscriptionService implements BlockAddedObserver {
 
   private final SubscriptionManager subscriptionManager;
@@ -43,13 +46,24 @@ public class NewBlockHeadersSubscriptionService implements BlockAddedObserver {
           subscribers -> {
             final Hash newBlockHash = event.getBlock().getHash();
 
+            // Each form of the block is built and encoded once, however many subscribers want it
+            final List<Long> completeTransactionSubscriptions = new ArrayList<>();
+            final List<Long> transactionHashSubscriptions = new ArrayList<>();
             for (final NewBlockHeadersSubscription subscription : subscribers) {
-              final BlockResult newBlock =
-                  subscription.getIncludeTransactions()
-                      ? blockWithCompleteTransaction(newBlockHash)
-                      : blockWithTransactionHash(newBlockHash);
+              if (subscription.getIncludeTransactions()) {
+                completeTransactionSubscriptions.add(subscription.getSubscriptionId());
+              } else {
+                transactionHashSubscriptions.add(subscription.getSubscriptionId());
+              }
+            }
 
-              subscriptionManager.sendMessage(subscription.getSubscriptionId(), newBlock);
+            if (!completeTransactionSubscriptions.isEmpty()) {
+              subscriptionManager.sendMessageToSubscriptions(
+                  completeTransactionSubscriptions, blockWithCompleteTransaction(newBlockHash));
+            }
+            if (!transactionHashSubscriptions.isEmpty()) {
+              subscriptionManager.sendMessageToSubscriptions(
+                  transactionHashSubscriptions, blockWithTransactionHash(newBlockHash));
             }
           });
     }
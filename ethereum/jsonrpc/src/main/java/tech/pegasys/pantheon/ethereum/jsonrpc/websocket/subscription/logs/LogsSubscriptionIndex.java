@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.logs;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter.LogsQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Indexes logs subscriptions by the address, or else the first topic, a log must have to match
+ * them. The subscriptions a log could match are then looked up rather than every subscription being
+ * checked against every log.
+ */
+class LogsSubscriptionIndex {
+
+  private final Map<Address, List<IndexedSubscription>> byAddress = new HashMap<>();
+  private final Map<LogTopic, List<IndexedSubscription>> byFirstTopic = new HashMap<>();
+  private final List<IndexedSubscription> unindexed = new ArrayList<>();
+
+  LogsSubscriptionIndex(final List<LogsSubscription> subscriptions) {
+    for (final LogsSubscription subscription : subscriptions) {
+      final IndexedSubscription indexed = new IndexedSubscription(subscription);
+      final LogsQuery query = indexed.query;
+      if (!query.getAddresses().isEmpty()) {
+        for (final Address address : new LinkedHashSet<>(query.getAddresses())) {
+          byAddress.computeIfAbsent(address, key -> new ArrayList<>()).add(indexed);
+        }
+      } else if (isIndexable(query.getTopics())) {
+        for (final LogTopic topic : new LinkedHashSet<>(query.getTopics().get(0))) {
+          byFirstTopic.computeIfAbsent(topic, key -> new ArrayList<>()).add(indexed);
+        }
+      } else {
+        unindexed.add(indexed);
+      }
+    }
+  }
+
+  /**
+   * Finds the subscriptions a log matches.
+   *
+   * @param log the log to match
+   * @return the ids of the subscriptions matching the log
+   */
+  List<Long> matchingSubscriptionIds(final Log log) {
+    final List<Long> subscriptionIds = new ArrayList<>();
+    addMatching(
+        log, byAddress.getOrDefault(log.getLogger(), Collections.emptyList()), subscriptionIds);
+    if (!log.getTopics().isEmpty()) {
+      addMatching(
+          log,
+          byFirstTopic.getOrDefault(log.getTopics().get(0), Collections.emptyList()),
+          subscriptionIds);
+    }
+    addMatching(log, unindexed, subscriptionIds);
+    return subscriptionIds;
+  }
+
+  private static void addMatching(
+      final Log log, final List<IndexedSubscription> candidates, final List<Long> subscriptionIds) {
+    for (final IndexedSubscription candidate : candidates) {
+      if (candidate.query.matches(log)) {
+        subscriptionIds.add(candidate.subscriptionId);
+      }
+    }
+  }
+
+  // A subscription can be indexed by its first topic if that topic has no wildcard
+  private static boolean isIndexable(final List<List<LogTopic>> topics) {
+    return !topics.isEmpty()
+        && !topics.get(0).isEmpty()
+        && topics.get(0).stream().noneMatch(Objects::isNull);
+  }
+
+  private static class IndexedSubscription {
+    private final Long subscriptionId;
+    private final LogsQuery query;
+
+    private IndexedSubscription(final LogsSubscription subscription) {
+      this.subscriptionId = subscription.getSubscriptionId();
+      // Building a query isn't cheap, so it's only done once for each subscription
+      this.query = subscription.getLogsQuery();
+    }
+  }
+}
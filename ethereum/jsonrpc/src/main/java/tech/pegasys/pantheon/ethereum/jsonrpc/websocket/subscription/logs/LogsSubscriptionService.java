@@ -16,6 +16,7 @@ import tech.pegasys.pantheon.ethereum.chain.BlockAddedEvent;
 import tech.pegasys.pantheon.ethereum.chain.BlockAddedObserver;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
 import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.LogWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.TransactionReceiptWithMetadata;
@@ -25,6 +26,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.Sub
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class LogsSubscriptionService implements BlockAddedObserver {
 
@@ -46,51 +48,47 @@ public class LogsSubscriptionService implements BlockAddedObserver {
       return;
     }
 
-    event.getAddedTransactions().stream()
-        .map(tx -> blockchainQueries.transactionReceiptByTransactionHash(tx.hash()))
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .forEachOrdered(
-            receiptWithMetadata -> {
-              final List<Log> logs = receiptWithMetadata.getReceipt().getLogs();
-              sendLogsToMatchingSubscriptions(logs, logsSubscriptions, receiptWithMetadata, false);
-            });
+    // Receipts are read now, while they still match the event. Their logs are matched and sent to
+    // subscribers on a worker thread.
+    final List<TransactionReceiptWithMetadata> addedReceipts =
+        receipts(event.getAddedTransactions());
+    final List<TransactionReceiptWithMetadata> removedReceipts =
+        receipts(event.getRemovedTransactions());
+
+    subscriptionManager.notifySubscribersOnWorkerThread(
+        SubscriptionType.LOGS,
+        LogsSubscription.class,
+        subscriptions -> {
+          final LogsSubscriptionIndex index = new LogsSubscriptionIndex(subscriptions);
+          addedReceipts.forEach(receipt -> sendLogsToMatchingSubscriptions(receipt, index, false));
+          removedReceipts.forEach(receipt -> sendLogsToMatchingSubscriptions(receipt, index, true));
+        });
+  }
 
-    event.getRemovedTransactions().stream()
+  private List<TransactionReceiptWithMetadata> receipts(final List<Transaction> transactions) {
+    return transactions.stream()
         .map(tx -> blockchainQueries.transactionReceiptByTransactionHash(tx.hash()))
         .filter(Optional::isPresent)
         .map(Optional::get)
-        .forEachOrdered(
-            receiptWithMetadata -> {
-              final List<Log> logs = receiptWithMetadata.getReceipt().getLogs();
-              sendLogsToMatchingSubscriptions(logs, logsSubscriptions, receiptWithMetadata, true);
-            });
+        .collect(Collectors.toList());
   }
 
   private void sendLogsToMatchingSubscriptions(
-      final List<Log> logs,
-      final List<LogsSubscription> logsSubscriptions,
       final TransactionReceiptWithMetadata receiptWithMetadata,
+      final LogsSubscriptionIndex index,
       final boolean removed) {
+    final List<Log> logs = receiptWithMetadata.getReceipt().getLogs();
     for (int logIndex = 0; logIndex < logs.size(); logIndex++) {
-      for (final LogsSubscription subscription : logsSubscriptions) {
-        if (subscription.getLogsQuery().matches(logs.get(logIndex))) {
-          sendLogToSubscription(receiptWithMetadata, removed, logIndex, subscription);
-        }
+      final List<Long> subscriptionIds = index.matchingSubscriptionIds(logs.get(logIndex));
+      if (!subscriptionIds.isEmpty()) {
+        final LogWithMetadata logWithMetaData =
+            logWithMetadata(logIndex, receiptWithMetadata, removed);
+        subscriptionManager.sendMessageToSubscriptions(
+            subscriptionIds, new LogResult(logWithMetaData));
       }
     }
   }
 
-  private void sendLogToSubscription(
-      final TransactionReceiptWithMetadata receiptWithMetadata,
-      final boolean removed,
-      final int logIndex,
-      final LogsSubscription subscription) {
-    final LogWithMetadata logWithMetaData = logWithMetadata(logIndex, receiptWithMetadata, removed);
-    subscriptionManager.sendMessage(
-        subscription.getSubscriptionId(), new LogResult(logWithMetaData));
-  }
-
   // @formatter:off
   private LogWithMetadata logWithMetadata(
       final int logIndex,
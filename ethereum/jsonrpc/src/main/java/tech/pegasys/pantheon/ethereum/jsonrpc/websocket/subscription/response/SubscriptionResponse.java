@@ -23,6 +23,13 @@ public class SubscriptionResponse {
 
   private static final String JSON_RPC_VERSION = "2.0";
   private static final String METHOD_NAME = "eth_subscription";
+  // The start of an encoded response, up to the subscription id
+  private static final String ENCODED_PREFIX =
+      "{\"jsonrpc\":\""
+          + JSON_RPC_VERSION
+          + "\",\"method\":\""
+          + METHOD_NAME
+          + "\",\"params\":{\"subscription\":\"";
 
   private final SubscriptionResponseResult params;
 
@@ -30,6 +37,23 @@ public class SubscriptionResponse {
     this.params = new SubscriptionResponseResult(Quantity.create(subscriptionId), result);
   }
 
+  /**
+   * Encodes a response around a result which has already been encoded, giving the same JSON as
+   * encoding the whole response. A result sent to many subscriptions then only needs to be encoded
+   * once.
+   *
+   * @param subscriptionId the id of the subscription the response is sent to
+   * @param encodedResult the JSON encoded result
+   * @return the JSON encoded response
+   */
+  public static String encode(final long subscriptionId, final String encodedResult) {
+    return ENCODED_PREFIX
+        + Quantity.create(subscriptionId)
+        + "\",\"result\":"
+        + encodedResult
+        + "}}";
+  }
+
   @JsonGetter("jsonrpc")
   public String getJsonrpc() {
     return JSON_RPC_VERSION;
@@ -12,7 +12,9 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -35,12 +37,14 @@ import tech.pegasys.pantheon.ethereum.core.Wei;
 import tech.pegasys.pantheon.ethereum.eth.EthProtocol;
 import tech.pegasys.pantheon.ethereum.eth.transactions.TransactionPool;
 import tech.pegasys.pantheon.ethereum.jsonrpc.health.HealthService;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.JsonRpcRequest;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.filter.FilterManager;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.methods.JsonRpcMethod;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.TransactionWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcError;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.response.JsonRpcSuccessResponse;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.WebSocketConfiguration;
 import tech.pegasys.pantheon.ethereum.mainnet.MainnetProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.p2p.network.P2PNetwork;
@@ -53,6 +57,7 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.bytes.BytesValues;
 import tech.pegasys.pantheon.util.uint.UInt256;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
@@ -65,12 +70,21 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.google.common.base.Strings;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import okhttp3.Call;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -2058,6 +2072,139 @@ public class JsonRpcHttpServiceTest {
     }
   }
 
+  @Test
+  public void largeSingleResponseIsSentChunked() throws Exception {
+    final String result = Strings.repeat("a", 3 * JsonResponseStreamer.CHUNK_SIZE);
+    stubMethod("test_largeResult", result);
+    final RequestBody body =
+        RequestBody.create(
+            JSON, "{\"jsonrpc\":\"2.0\",\"id\":\"123\",\"method\":\"test_largeResult\"}");
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      assertThat(resp.code()).isEqualTo(200);
+      assertThat(resp.header("Transfer-Encoding")).isEqualTo("chunked");
+      final JsonObject json = new JsonObject(resp.body().string());
+      testHelper.assertValidJsonRpcResult(json, "123");
+      assertThat(json.getString("result")).isEqualTo(result);
+    }
+  }
+
+  @Test
+  public void smallSingleResponseIsSentWithContentLength() throws Exception {
+    final RequestBody body =
+        RequestBody.create(JSON, "{\"jsonrpc\":\"2.0\",\"id\":\"123\",\"method\":\"net_version\"}");
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      assertThat(resp.code()).isEqualTo(200);
+      assertThat(resp.header("Transfer-Encoding")).isNull();
+      final String responseBody = resp.body().string();
+      assertThat(resp.header("Content-Length"))
+          .isEqualTo(String.valueOf(responseBody.getBytes(UTF_8).length));
+      testHelper.assertValidJsonRpcResult(new JsonObject(responseBody), "123");
+    }
+  }
+
+  @Test
+  public void largeBatchResponseIsStreamed() throws Exception {
+    final String result = Strings.repeat("b", JsonResponseStreamer.CHUNK_SIZE);
+    stubMethod("test_batchElement", result);
+    final int batchSize = 4;
+    final JsonArray batch = new JsonArray();
+    for (int id = 0; id < batchSize; id++) {
+      batch.add(
+          new JsonObject().put("jsonrpc", "2.0").put("id", id).put("method", "test_batchElement"));
+    }
+    final RequestBody body = RequestBody.create(JSON, batch.encode());
+
+    try (final Response resp = client.newCall(buildPostRequest(body)).execute()) {
+      assertThat(resp.code()).isEqualTo(200);
+      assertThat(resp.header("Transfer-Encoding")).isEqualTo("chunked");
+      final JsonArray json = new JsonArray(resp.body().string());
+      assertThat(json.size()).isEqualTo(batchSize);
+      for (int id = 0; id < batchSize; id++) {
+        final JsonObject element = json.getJsonObject(id);
+        testHelper.assertValidJsonRpcResult(element, id);
+        assertThat(element.getString("result")).isEqualTo(result);
+      }
+    }
+  }
+
+  @Test
+  public void responseOverMaximumSizeReturnsError() throws Exception {
+    final JsonRpcConfiguration config = createJsonRpcConfig();
+    config.setMaxResponseBytes(1024);
+    final JsonRpcHttpService service = createJsonRpcHttpService(config);
+    service.start().join();
+    stubMethod("test_tooLarge", Strings.repeat("c", 2048));
+    final RequestBody body =
+        RequestBody.create(
+            JSON, "{\"jsonrpc\":\"2.0\",\"id\":\"123\",\"method\":\"test_tooLarge\"}");
+
+    try (final Response resp =
+        client.newCall(new Request.Builder().post(body).url(service.url()).build()).execute()) {
+      assertThat(resp.code()).isEqualTo(400);
+      final JsonObject json = new JsonObject(resp.body().string());
+      final JsonRpcError expectedError = JsonRpcError.RESPONSE_TOO_LARGE;
+      testHelper.assertValidJsonRpcError(
+          json, "123", expectedError.getCode(), expectedError.getMessage());
+    } finally {
+      service.stop().join();
+    }
+  }
+
+  @Test
+  public void responseExceedingMaximumSizeWhileStreamingClosesConnection() throws Exception {
+    final JsonRpcConfiguration config = createJsonRpcConfig();
+    config.setMaxResponseBytes(2 * JsonResponseStreamer.CHUNK_SIZE);
+    final JsonRpcHttpService service = createJsonRpcHttpService(config);
+    service.start().join();
+    stubMethod("test_tooLargeStream", Strings.repeat("d", 4 * JsonResponseStreamer.CHUNK_SIZE));
+    final RequestBody body =
+        RequestBody.create(
+            JSON, "{\"jsonrpc\":\"2.0\",\"id\":\"123\",\"method\":\"test_tooLargeStream\"}");
+
+    try (final Response resp =
+        client.newCall(new Request.Builder().post(body).url(service.url()).build()).execute()) {
+      // The first chunk has already been sent, so the response is cut short instead
+      assertThat(resp.code()).isEqualTo(200);
+      assertThat(resp.header("Transfer-Encoding")).isEqualTo("chunked");
+      assertThatThrownBy(() -> resp.body().string()).isInstanceOf(IOException.class);
+    } finally {
+      service.stop().join();
+    }
+  }
+
+  @Test
+  public void clientDisconnectingStopsStreaming() throws Exception {
+    // About 250MB, which is under the default maximum response size
+    final StreamedResult result = new StreamedResult(250_000);
+    stubMethod("test_streamedResult", result);
+    final RequestBody body =
+        RequestBody.create(
+            JSON, "{\"jsonrpc\":\"2.0\",\"id\":\"123\",\"method\":\"test_streamedResult\"}");
+
+    final Call call = client.newCall(buildPostRequest(body));
+    try (final Response resp = call.execute()) {
+      assertThat(resp.code()).isEqualTo(200);
+      resp.body().source().require(JsonResponseStreamer.CHUNK_SIZE);
+      call.cancel();
+    }
+
+    assertThat(result.finished.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(result.elementsWritten.get()).isLessThan(result.elementCount);
+  }
+
+  private void stubMethod(final String name, final Object result) {
+    final JsonRpcMethod jsonRpcMethod = mock(JsonRpcMethod.class);
+    when(jsonRpcMethod.response(ArgumentMatchers.any()))
+        .thenAnswer(
+            invocation -> {
+              final JsonRpcRequest request = invocation.getArgument(0);
+              return new JsonRpcSuccessResponse(request.getId(), result);
+            });
+    doReturn(jsonRpcMethod).when(rpcMethods).get(name);
+  }
+
   private Request buildPostRequest(final RequestBody body) {
     return new Request.Builder().post(body).url(baseUrl).build();
   }
@@ -2065,4 +2212,41 @@ public class JsonRpcHttpServiceTest {
   private Request buildGetRequest(final String path) {
     return new Request.Builder().get().url(baseUrl + path).build();
   }
+
+  /** A result which is serialized one element at a time, recording how far it got. */
+  private static class StreamedResult implements JsonSerializable {
+    private static final String ELEMENT = Strings.repeat("e", 1024);
+
+    private final int elementCount;
+    private final AtomicInteger elementsWritten = new AtomicInteger();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private StreamedResult(final int elementCount) {
+      this.elementCount = elementCount;
+    }
+
+    @Override
+    public void serialize(final JsonGenerator generator, final SerializerProvider serializers)
+        throws IOException {
+      try {
+        generator.writeStartArray();
+        for (int i = 0; i < elementCount; i++) {
+          generator.writeString(ELEMENT);
+          elementsWritten.incrementAndGet();
+        }
+        generator.writeEndArray();
+      } finally {
+        finished.countDown();
+      }
+    }
+
+    @Override
+    public void serializeWithType(
+        final JsonGenerator generator,
+        final SerializerProvider serializers,
+        final TypeSerializer typeSerializer)
+        throws IOException {
+      serialize(generator, serializers);
+    }
+  }
 }
@@ -17,6 +17,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.Log;
 import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.core.LogsBloomFilter;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.ArrayList;
@@ -414,4 +416,40 @@ public class LogsQueryTest {
 
     assertThat(query.matches(log)).isTrue();
   }
+
+  @Test
+  public void bloomOfMatchingLogCouldMatch() {
+    final Address address = Address.fromHexString("0x1111111111111111111111111111111111111111");
+    final LogTopic topic = LogTopic.wrap(Bytes32.leftPad(BytesValue.of(1)));
+    final List<List<LogTopic>> queryTopics = new ArrayList<>();
+    queryTopics.add(Lists.newArrayList(topic));
+    final LogsQuery query = new LogsQuery.Builder().address(address).topics(queryTopics).build();
+
+    final Log log = new Log(address, BytesValue.fromHexString("0x0102"), Lists.newArrayList(topic));
+
+    assertThat(query.couldMatch(LogsBloomFilter.compute(Lists.newArrayList(log)))).isTrue();
+  }
+
+  @Test
+  public void bloomWithoutQueriedAddressCannotMatch() {
+    final Address address1 = Address.fromHexString("0x1111111111111111111111111111111111111111");
+    final Address address2 = Address.fromHexString("0x2222222222222222222222222222222222222222");
+    final LogsQuery query = new LogsQuery.Builder().address(address1).build();
+
+    final Log log = new Log(address2, BytesValue.fromHexString("0x0102"), new ArrayList<>());
+
+    assertThat(query.couldMatch(LogsBloomFilter.compute(Lists.newArrayList(log)))).isFalse();
+  }
+
+  @Test
+  public void wildcardTopicDoesNotRestrictBloom() {
+    final List<LogTopic> wildcard = new ArrayList<>();
+    wildcard.add(null);
+    final List<List<LogTopic>> queryTopics = new ArrayList<>();
+    queryTopics.add(wildcard);
+    final LogsQuery query = new LogsQuery.Builder().topics(queryTopics).build();
+
+    assertThat(query.getBloomFilterCriteria()).isEmpty();
+    assertThat(query.couldMatch(LogsBloomFilter.empty())).isTrue();
+  }
 }
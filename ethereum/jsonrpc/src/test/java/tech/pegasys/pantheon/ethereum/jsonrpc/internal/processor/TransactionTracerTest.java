@@ -16,6 +16,8 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
@@ -31,7 +33,10 @@ import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSpec;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor;
 import tech.pegasys.pantheon.ethereum.mainnet.TransactionProcessor.Result;
+import tech.pegasys.pantheon.ethereum.mainnet.TransactionValidationParams;
+import tech.pegasys.pantheon.ethereum.vm.BlockHashLookup;
 import tech.pegasys.pantheon.ethereum.vm.DebugOperationTracer;
+import tech.pegasys.pantheon.ethereum.vm.OperationTracer;
 import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
 
 import java.util.Arrays;
@@ -132,6 +137,7 @@ public class TransactionTracerTest {
 
     when(blockBody.getTransactions()).thenReturn(Arrays.asList(otherTransaction, transaction));
     when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(blockBody));
+    when(mutableWorldState.updater()).thenReturn(mock(WorldUpdater.class));
     final List<TraceFrame> traceFrames = Collections.singletonList(mock(TraceFrame.class));
     when(tracer.getTraceFrames()).thenReturn(traceFrames);
 
@@ -141,6 +147,43 @@ public class TransactionTracerTest {
     assertEquals(traceFrames, transactionTrace.get().getTraceFrames());
   }
 
+  @Test
+  public void traceTransactionShouldStartFromCheckpointOfEarlierTrace() {
+    transactionTracer =
+        new TransactionTracer(
+            new BlockReplay(protocolSchedule, blockchain, worldStateArchive, 1, 10));
+    when(blockchain.getBlockHeader(blockHash)).thenReturn(Optional.of(blockHeader));
+    when(blockchain.getBlockHeader(previousBlockHash)).thenReturn(Optional.of(previousBlockHeader));
+    when(blockBody.getTransactions()).thenReturn(Arrays.asList(otherTransaction, transaction));
+    when(blockchain.getBlockBody(blockHash)).thenReturn(Optional.of(blockBody));
+    when(mutableWorldState.updater()).thenReturn(mock(WorldUpdater.class));
+    when(mutableWorldState.copy()).thenReturn(mutableWorldState);
+
+    transactionTracer.traceTransaction(blockHash, transactionHash, tracer);
+    transactionTracer.traceTransaction(blockHash, transactionHash, tracer);
+
+    verify(transactionProcessor, times(1))
+        .processTransaction(
+            eq(blockchain),
+            any(WorldUpdater.class),
+            eq(blockHeader),
+            eq(otherTransaction),
+            any(),
+            any(BlockHashLookup.class),
+            any(),
+            any(TransactionValidationParams.class));
+    verify(transactionProcessor, times(2))
+        .processTransaction(
+            eq(blockchain),
+            any(WorldUpdater.class),
+            eq(blockHeader),
+            eq(transaction),
+            any(),
+            any(OperationTracer.class),
+            any(BlockHashLookup.class),
+            any());
+  }
+
   @Test
   public void traceTransactionShouldReturnResultFromProcessTransaction() {
     final Result result = mock(Result.class);
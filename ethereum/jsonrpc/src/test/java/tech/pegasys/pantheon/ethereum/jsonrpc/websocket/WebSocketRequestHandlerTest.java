@@ -186,4 +186,32 @@ public class WebSocketRequestHandlerTest {
 
     async.awaitSuccess(WebSocketRequestHandlerTest.VERTX_AWAIT_TIMEOUT_MILLIS);
   }
+
+  @Test
+  public void responseExceedingMaximumSizeShouldRespondResponseTooLarge(
+      final TestContext context) {
+    final Async async = context.async();
+    handler = new WebSocketRequestHandler(vertx, methods, 64);
+
+    final JsonObject requestJson = new JsonObject().put("id", 1).put("method", "eth_x");
+    final JsonRpcRequest expectedRequest = requestJson.mapTo(WebSocketRpcRequest.class);
+    when(jsonRpcMethodMock.response(eq(expectedRequest)))
+        .thenReturn(new JsonRpcSuccessResponse(expectedRequest.getId(), "0x" + "00".repeat(64)));
+    final JsonRpcErrorResponse expectedResponse =
+        new JsonRpcErrorResponse(expectedRequest.getId(), JsonRpcError.RESPONSE_TOO_LARGE);
+
+    final String websocketId = UUID.randomUUID().toString();
+
+    vertx
+        .eventBus()
+        .consumer(websocketId)
+        .handler(
+            msg -> {
+              context.assertEquals(Json.encode(expectedResponse), msg.body());
+              async.complete();
+            })
+        .completionHandler(v -> handler.handle(websocketId, Buffer.buffer(requestJson.toString())));
+
+    async.awaitSuccess(WebSocketRequestHandlerTest.VERTX_AWAIT_TIMEOUT_MILLIS);
+  }
 }
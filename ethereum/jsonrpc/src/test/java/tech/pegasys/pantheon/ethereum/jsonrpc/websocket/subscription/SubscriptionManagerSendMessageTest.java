@@ -21,6 +21,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.request.Sub
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.response.SubscriptionResponse;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
 
+import java.util.Arrays;
 import java.util.UUID;
 
 import io.vertx.core.Vertx;
@@ -74,6 +75,49 @@ public class SubscriptionManagerSendMessageTest {
     async.awaitSuccess(VERTX_AWAIT_TIMEOUT_MILLIS);
   }
 
+  @Test
+  public void shouldSendSharedMessageToEachSubscriptionWithItsOwnId(final TestContext context) {
+    final String connectionId1 = UUID.randomUUID().toString();
+    final String connectionId2 = UUID.randomUUID().toString();
+    final Long subscriptionId1 =
+        subscriptionManager.subscribe(
+            new SubscribeRequest(SubscriptionType.SYNCING, null, null, connectionId1));
+    final Long subscriptionId2 =
+        subscriptionManager.subscribe(
+            new SubscribeRequest(SubscriptionType.SYNCING, null, null, connectionId2));
+
+    final JsonRpcResult expectedResult = mock(JsonRpcResult.class);
+
+    final Async async = context.async(2);
+
+    vertx
+        .eventBus()
+        .consumer(connectionId1)
+        .handler(
+            msg -> {
+              context.assertEquals(
+                  Json.encode(new SubscriptionResponse(subscriptionId1, expectedResult)),
+                  msg.body());
+              async.countDown();
+            });
+    vertx
+        .eventBus()
+        .consumer(connectionId2)
+        .handler(
+            msg -> {
+              context.assertEquals(
+                  Json.encode(new SubscriptionResponse(subscriptionId2, expectedResult)),
+                  msg.body());
+              async.countDown();
+            })
+        .completionHandler(
+            v ->
+                subscriptionManager.sendMessageToSubscriptions(
+                    Arrays.asList(subscriptionId1, subscriptionId2), expectedResult));
+
+    async.awaitSuccess(VERTX_AWAIT_TIMEOUT_MILLIS);
+  }
+
   @Test
   public void shouldNotSendMessageOnTheConnectionIdEventBusAddressForAbsentSubscription(
       final TestContext context) {
@@ -38,6 +38,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.Subscriptio
 import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -57,7 +58,7 @@ public class NewBlockHeadersSubscriptionServiceTest {
 
   private NewBlockHeadersSubscriptionService newBlockHeadersSubscriptionService;
 
-  @Captor ArgumentCaptor<Long> subscriptionIdCaptor;
+  @Captor ArgumentCaptor<List<Long>> subscriptionIdsCaptor;
   @Captor ArgumentCaptor<JsonRpcResult> responseCaptor;
 
   @Mock private SubscriptionManager subscriptionManager;
@@ -83,8 +84,8 @@ public class NewBlockHeadersSubscriptionServiceTest {
     simulateAddingBlockOnCanonicalChain();
 
     verify(subscriptionManager)
-        .sendMessage(subscriptionIdCaptor.capture(), responseCaptor.capture());
-    assertThat(subscriptionIdCaptor.getValue()).isEqualTo(subscription.getSubscriptionId());
+        .sendMessageToSubscriptions(subscriptionIdsCaptor.capture(), responseCaptor.capture());
+    assertThat(subscriptionIdsCaptor.getValue()).containsExactly(subscription.getSubscriptionId());
     assertThat(responseCaptor.getValue())
         .isEqualToComparingFieldByFieldRecursively(expectedNewBlock);
   }
@@ -106,8 +107,8 @@ public class NewBlockHeadersSubscriptionServiceTest {
     simulateAddingBlockOnCanonicalChain();
 
     verify(subscriptionManager)
-        .sendMessage(subscriptionIdCaptor.capture(), responseCaptor.capture());
-    assertThat(subscriptionIdCaptor.getValue()).isEqualTo(subscription.getSubscriptionId());
+        .sendMessageToSubscriptions(subscriptionIdsCaptor.capture(), responseCaptor.capture());
+    assertThat(subscriptionIdsCaptor.getValue()).containsExactly(subscription.getSubscriptionId());
     final Object actualBlock = responseCaptor.getValue();
     assertThat(actualBlock).isInstanceOf(BlockResult.class);
     assertThat(((BlockResult) actualBlock).getTransactions()).hasSize(txHashList.size());
@@ -133,20 +134,40 @@ public class NewBlockHeadersSubscriptionServiceTest {
     simulateAddingBlockOnCanonicalChain();
 
     verify(subscriptionManager)
-        .sendMessage(subscriptionIdCaptor.capture(), responseCaptor.capture());
+        .sendMessageToSubscriptions(subscriptionIdsCaptor.capture(), responseCaptor.capture());
 
-    assertThat(subscriptionIdCaptor.getValue()).isEqualTo(subscription.getSubscriptionId());
+    assertThat(subscriptionIdsCaptor.getValue()).containsExactly(subscription.getSubscriptionId());
 
     final Object actualBlock = responseCaptor.getValue();
     assertThat(actualBlock).isInstanceOf(BlockResult.class);
     assertThat(((BlockResult) actualBlock).getTransactions()).hasSize(txHashList.size());
     assertThat(actualBlock).isEqualToComparingFieldByFieldRecursively(expectedNewBlock);
 
-    verify(subscriptionManager, times(1)).sendMessage(any(), any());
+    verify(subscriptionManager, times(1)).sendMessageToSubscriptions(any(), any());
     verify(blockchainQueries, times(0)).blockByHashWithTxHashes(any());
     verify(blockchainQueries, times(1)).blockByHash(any());
   }
 
+  @Test
+  public void shouldBuildBlockOnceForAllSubscribers() {
+    final NewBlockHeadersSubscription subscription1 =
+        new NewBlockHeadersSubscription(1L, "conn1", false);
+    final NewBlockHeadersSubscription subscription2 =
+        new NewBlockHeadersSubscription(2L, "conn2", false);
+    mockSubscriptionManagerNotifyMethod(subscription1, subscription2);
+    final BlockResult expectedNewBlock = expectedBlockWithTransactions(Collections.emptyList());
+
+    simulateAddingBlockOnCanonicalChain();
+
+    verify(subscriptionManager)
+        .sendMessageToSubscriptions(subscriptionIdsCaptor.capture(), responseCaptor.capture());
+    assertThat(subscriptionIdsCaptor.getValue())
+        .containsExactly(subscription1.getSubscriptionId(), subscription2.getSubscriptionId());
+    assertThat(responseCaptor.getValue())
+        .isEqualToComparingFieldByFieldRecursively(expectedNewBlock);
+    verify(blockchainQueries, times(1)).blockByHashWithTxHashes(any());
+  }
+
   private BlockResult expectedBlockWithTransactions(final List<Hash> objects) {
     final BlockWithMetadata<Hash, Hash> testBlockWithMetadata =
         new BlockWithMetadata<>(blockHeader, objects, Collections.emptyList(), UInt256.ONE, 1);
@@ -157,11 +178,12 @@ public class NewBlockHeadersSubscriptionServiceTest {
     return expectedNewBlock;
   }
 
-  private void mockSubscriptionManagerNotifyMethod(final NewBlockHeadersSubscription subscription) {
+  private void mockSubscriptionManagerNotifyMethod(
+      final NewBlockHeadersSubscription... subscriptions) {
     doAnswer(
             invocation -> {
               Consumer<List<NewBlockHeadersSubscription>> consumer = invocation.getArgument(2);
-              consumer.accept(Collections.singletonList(subscription));
+              consumer.accept(Arrays.asList(subscriptions));
               return null;
             })
         .when(subscriptionManager)
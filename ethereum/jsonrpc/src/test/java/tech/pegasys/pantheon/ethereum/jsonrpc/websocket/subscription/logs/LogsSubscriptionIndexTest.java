@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.logs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Log;
+import tech.pegasys.pantheon.ethereum.core.LogTopic;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.FilterParameter;
+import tech.pegasys.pantheon.ethereum.jsonrpc.internal.parameters.TopicsParameter;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class LogsSubscriptionIndexTest {
+
+  private static final Address ADDRESS_1 = Address.fromHexString("0x1");
+  private static final Address ADDRESS_2 = Address.fromHexString("0x2");
+  private static final String TOPIC_1 =
+      "0x0000000000000000000000000000000000000000000000000000000000000001";
+  private static final String TOPIC_2 =
+      "0x0000000000000000000000000000000000000000000000000000000000000002";
+
+  @Test
+  public void matchesSubscriptionsByAddress() {
+    final LogsSubscriptionIndex index =
+        new LogsSubscriptionIndex(
+            Arrays.asList(
+                subscription(1L, Arrays.asList(ADDRESS_1.toString()), null),
+                subscription(2L, Arrays.asList(ADDRESS_1.toString(), ADDRESS_2.toString()), null),
+                subscription(3L, Arrays.asList(ADDRESS_2.toString()), null)));
+
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_1))).containsExactlyInAnyOrder(1L, 2L);
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_2))).containsExactlyInAnyOrder(2L, 3L);
+    assertThat(index.matchingSubscriptionIds(log(Address.fromHexString("0x3")))).isEmpty();
+  }
+
+  @Test
+  public void matchesSubscriptionsByFirstTopic() {
+    final LogsSubscriptionIndex index =
+        new LogsSubscriptionIndex(
+            Arrays.asList(
+                subscription(1L, null, topics(Arrays.asList(TOPIC_1))),
+                subscription(2L, null, topics(Arrays.asList(TOPIC_1, TOPIC_2))),
+                subscription(3L, null, topics(Arrays.asList(TOPIC_2)))));
+
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_1, TOPIC_1)))
+        .containsExactlyInAnyOrder(1L, 2L);
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_1, TOPIC_2)))
+        .containsExactlyInAnyOrder(2L, 3L);
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_1))).isEmpty();
+  }
+
+  @Test
+  public void matchesSubscriptionsWithoutAddressOrTopicAgainstEveryLog() {
+    final LogsSubscriptionIndex index =
+        new LogsSubscriptionIndex(
+            Arrays.asList(
+                subscription(1L, null, null),
+                subscription(2L, null, topics(Arrays.asList(TOPIC_1, null))),
+                subscription(3L, Arrays.asList(ADDRESS_2.toString()), null)));
+
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_1))).containsExactly(1L);
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_1, TOPIC_2)))
+        .containsExactlyInAnyOrder(1L, 2L);
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_2, TOPIC_2)))
+        .containsExactlyInAnyOrder(1L, 2L, 3L);
+  }
+
+  @Test
+  public void checksTheWholeQueryOfIndexedSubscriptions() {
+    final LogsSubscriptionIndex index =
+        new LogsSubscriptionIndex(
+            Collections.singletonList(
+                subscription(
+                    1L,
+                    Arrays.asList(ADDRESS_1.toString()),
+                    topics(Arrays.asList(TOPIC_1), Arrays.asList(TOPIC_2)))));
+
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_1, TOPIC_1, TOPIC_2))).containsExactly(1L);
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_1, TOPIC_1, TOPIC_1))).isEmpty();
+    assertThat(index.matchingSubscriptionIds(log(ADDRESS_2, TOPIC_1, TOPIC_2))).isEmpty();
+  }
+
+  private LogsSubscription subscription(
+      final long id, final List<String> addresses, final TopicsParameter topics) {
+    return new LogsSubscription(
+        id, "conn", new FilterParameter(null, null, addresses, topics, null));
+  }
+
+  @SafeVarargs
+  private static TopicsParameter topics(final List<String>... topics) {
+    return new TopicsParameter(Arrays.asList(topics));
+  }
+
+  private Log log(final Address address, final String... topics) {
+    return new Log(
+        address,
+        BytesValue.EMPTY,
+        Arrays.stream(topics).map(LogTopic::fromHexString).collect(Collectors.toList()));
+  }
+}
@@ -12,9 +12,11 @@
  */
 package tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.logs;
 
+import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.refEq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -37,6 +39,7 @@ import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.BlockchainQueries
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.LogWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.queries.TransactionReceiptWithMetadata;
 import tech.pegasys.pantheon.ethereum.jsonrpc.internal.results.LogResult;
+import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.Subscription;
 import tech.pegasys.pantheon.ethereum.jsonrpc.websocket.subscription.SubscriptionManager;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
@@ -44,6 +47,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import org.junit.Before;
@@ -81,7 +86,8 @@ public class LogsSubscriptionServiceTest {
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
 
     verify(subscriptionManager)
-        .sendMessage(eq(subscription.getSubscriptionId()), refEq(expectedLogResult));
+        .sendMessageToSubscriptions(
+            eq(singletonList(subscription.getSubscriptionId())), refEq(expectedLogResult));
   }
 
   @Test
@@ -95,7 +101,8 @@ public class LogsSubscriptionServiceTest {
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(null, transaction), blockchain);
 
     verify(subscriptionManager)
-        .sendMessage(eq(subscription.getSubscriptionId()), refEq(expectedLogResult));
+        .sendMessageToSubscriptions(
+            eq(singletonList(subscription.getSubscriptionId())), refEq(expectedLogResult));
   }
 
   @Test
@@ -112,7 +119,7 @@ public class LogsSubscriptionServiceTest {
     final int totalOfLogs = addedTransactions.size() + removedTransactions.size();
 
     verify(subscriptionManager, times(totalOfLogs))
-        .sendMessage(eq(subscription.getSubscriptionId()), any());
+        .sendMessageToSubscriptions(eq(singletonList(subscription.getSubscriptionId())), any());
   }
 
   @Test
@@ -125,8 +132,10 @@ public class LogsSubscriptionServiceTest {
 
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
 
-    verify(subscriptionManager, times(subscriptions.size()))
-        .sendMessage(any(), refEq(expectedLogResult));
+    final List<Long> subscriptionIds =
+        subscriptions.stream().map(Subscription::getSubscriptionId).collect(Collectors.toList());
+    verify(subscriptionManager)
+        .sendMessageToSubscriptions(eq(subscriptionIds), refEq(expectedLogResult));
   }
 
   @Test
@@ -138,7 +147,7 @@ public class LogsSubscriptionServiceTest {
         createBlockAddedEvent(Collections.emptyList(), Collections.emptyList()), blockchain);
 
     verify(subscriptionManager).subscriptionsOfType(any(), any());
-    verify(subscriptionManager, times(0)).sendMessage(any(), any());
+    verify(subscriptionManager, times(0)).sendMessageToSubscriptions(any(), any());
   }
 
   @Test
@@ -151,7 +160,7 @@ public class LogsSubscriptionServiceTest {
     logsSubscriptionService.onBlockAdded(createBlockAddedEvent(transaction, null), blockchain);
 
     verify(subscriptionManager).subscriptionsOfType(any(), any());
-    verify(subscriptionManager, times(0)).sendMessage(any(), any());
+    verify(subscriptionManager, times(0)).sendMessageToSubscriptions(any(), any());
   }
 
   private Transaction createTransaction() {
@@ -166,8 +175,7 @@ public class LogsSubscriptionServiceTest {
     final FilterParameter filterParameter =
         new FilterParameter(null, null, Lists.newArrayList(address.toString()), null, null);
     final LogsSubscription logsSubscription = new LogsSubscription(1L, "conn", filterParameter);
-    when(subscriptionManager.subscriptionsOfType(any(), any()))
-        .thenReturn(Lists.newArrayList(logsSubscription));
+    mockSubscriptions(Lists.newArrayList(logsSubscription));
     return logsSubscription;
   }
 
@@ -178,9 +186,21 @@ public class LogsSubscriptionServiceTest {
           new FilterParameter(null, null, Lists.newArrayList(address.toString()), null, null);
       subscriptions.add(new LogsSubscription(i, "conn", filterParameter));
     }
+    mockSubscriptions(subscriptions);
+    return subscriptions;
+  }
+
+  private void mockSubscriptions(final List<LogsSubscription> subscriptions) {
     when(subscriptionManager.subscriptionsOfType(any(), any()))
         .thenReturn(Lists.newArrayList(subscriptions));
-    return subscriptions;
+    doAnswer(
+            invocation -> {
+              final Consumer<List<LogsSubscription>> consumer = invocation.getArgument(2);
+              consumer.accept(subscriptions);
+              return null;
+            })
+        .when(subscriptionManager)
+        .notifySubscribersOnWorkerThread(any(), any(), any());
   }
 
   private LogResult createLogResult(
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.p2p.rlpx.framing;
+
+import tech.pegasys.pantheon.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
+import tech.pegasys.pantheon.ethereum.p2p.rlpx.wire.MessageData;
+import tech.pegasys.pantheon.ethereum.p2p.rlpx.wire.RawMessage;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Frames a message and deframes it again, as the two ends of an RLPx connection do, through a
+ * pooled direct buffer as used by the network pipeline. Run with {@code -prof gc} to also report
+ * the bytes allocated per frame.
+ */
+@State(Scope.Thread)
+public class FramerBenchmark {
+
+  @Param({"100", "1000", "100000"})
+  public int messageSize;
+
+  @Param({"false", "true"})
+  public boolean compression;
+
+  private Framer sendingFramer;
+  private Framer receivingFramer;
+  private MessageData message;
+  private ByteBuf buf;
+
+  @Setup
+  public void prepare() {
+    sendingFramer = new Framer(secrets());
+    receivingFramer = new Framer(secrets());
+    if (compression) {
+      sendingFramer.enableCompression();
+      receivingFramer.enableCompression();
+    }
+
+    // Half random, half zeros, so that compression has something to do.
+    final byte[] data = new byte[messageSize];
+    final Random random = new Random(1);
+    for (int i = 0; i < messageSize; i += 2) {
+      data[i] = (byte) random.nextInt(256);
+    }
+    message = new RawMessage(0x10, BytesValue.wrap(data));
+    buf = PooledByteBufAllocator.DEFAULT.directBuffer();
+  }
+
+  @TearDown
+  public void release() {
+    buf.release();
+  }
+
+  @Benchmark
+  public MessageData frameAndDeframe() {
+    buf.clear();
+    sendingFramer.frame(message, buf);
+    return receivingFramer.deframe(buf);
+  }
+
+  private static HandshakeSecrets secrets() {
+    final byte[] aes = new byte[32];
+    final byte[] mac = new byte[32];
+    Arrays.fill(aes, (byte) 0x0a);
+    Arrays.fill(mac, (byte) 0x02);
+    return new HandshakeSecrets(aes, mac, mac);
+  }
+}
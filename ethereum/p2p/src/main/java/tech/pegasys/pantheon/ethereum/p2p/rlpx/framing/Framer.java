@@ -13,13 +13,12 @@
 package tech.pegasys.pantheon.ethereum.p2p.rlpx.framing;
 
 import static io.netty.buffer.ByteBufUtil.hexDump;
-import static io.netty.buffer.Unpooled.wrappedBuffer;
-import static org.bouncycastle.pqc.math.linearalgebra.ByteUtils.xor;
 
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.handshake.HandshakeSecrets;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.wire.MessageData;
 import tech.pegasys.pantheon.ethereum.p2p.rlpx.wire.RawMessage;
 import tech.pegasys.pantheon.ethereum.rlp.RLP;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.Arrays;
@@ -45,6 +44,11 @@ import org.bouncycastle.crypto.params.ParametersWithIV;
  * fragmented frames, as well as streams of multiple messages within the same incoming buffer, as
  * long as the order of incoming bytes matches the underlying TCP sequence.
  *
+ * <p>Headers, MACs and frames are processed in scratch arrays held by each framer, so framing a
+ * message only allocates the message read from a frame. Frames larger than 64KB are processed in
+ * arrays allocated for them, so that a few large messages don't pin their size in memory for the
+ * lifetime of the connection.
+ *
  * @see <a href="https://github.com/ethereum/devp2p/blob/master/rlpx.md#framing">RLPx framing</a>
  */
 public class Framer {
@@ -54,6 +58,9 @@ public class Framer {
   private static final int LENGTH_FRAME_SIZE = 3;
   private static final int LENGTH_MESSAGE_ID = 1;
   private static final int LENGTH_MAX_MESSAGE_FRAME = 0xFFFFFF;
+  private static final int INITIAL_FRAME_SCRATCH = 1024;
+  @VisibleForTesting static final int MAX_RETAINED_FRAME_SCRATCH = 64 * 1024;
+  private static final byte ENCODED_ZERO_MESSAGE_ID = RLP.NULL.get(0);
 
   private static final byte[] IV = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
   private static final byte[] PROTOCOL_HEADER =
@@ -75,6 +82,11 @@ public class Framer {
   private int frameSize;
   private boolean compressionEnabled = false;
 
+  private final byte[] headerScratch = new byte[LENGTH_HEADER_DATA];
+  private final byte[] macScratch = new byte[Bytes32.SIZE];
+  private final byte[] macSeedScratch = new byte[LENGTH_MAC];
+  private byte[] frameScratch = new byte[INITIAL_FRAME_SCRATCH];
+
   /**
    * Creates a new framer out of the handshake secrets derived during the cryptographic handshake.
    *
@@ -120,7 +132,8 @@ public class Framer {
    *
    * <p>If there is more than one message in the byte buffer, only the first one is returned,
    * consuming it from the byte buffer. The caller should call this method again with the same byte
-   * buffer to continue extracting more messages, if possible.
+   * buffer to continue extracting more messages, if possible. Consumed bytes are not discarded from
+   * the buffer, which is left to its owner.
    *
    * <p>When this method throws an exception, it is recommended that the caller scraps away the RLPx
    * connection, as the digests and stream ciphers could have become corrupted.
@@ -140,9 +153,8 @@ public class Framer {
       if (buf.readableBytes() < LENGTH_FULL_HEADER) {
         return null;
       }
-      frameSize = processHeader(buf.readSlice(LENGTH_FULL_HEADER));
+      frameSize = processHeader(buf);
       headerProcessed = true;
-      buf.discardReadBytes();
     }
 
     final int size = frameSize + padding16(frameSize) + LENGTH_MAC;
@@ -150,137 +162,117 @@ public class Framer {
       return null;
     }
 
-    final MessageData msg = processFrame(buf.readSlice(size), frameSize);
-    buf.discardReadBytes();
+    final MessageData msg = processFrame(buf, frameSize);
     headerProcessed = false;
     return msg;
   }
 
   /**
-   * Parses, decrypts and performs MAC verification on a packet header.
+   * Reads, performs MAC verification on and decrypts a packet header.
    *
-   * <p>This method expects a buffer containing the exact number of bytes a well-formed header
-   * consists of (32 bytes at this time). Returns the frame size as extracted from the header.
+   * <p>This method expects the buffer to hold at least the number of bytes a well-formed header
+   * consists of (32 bytes at this time), and consumes exactly that many. Returns the frame size as
+   * extracted from the header.
    *
-   * @param encryptedHeader The header as seen on the wire.
+   * @param buf The buffer holding the header as seen on the wire.
    * @throws FramingException If header parsing or decryption failed.
    * @return The frame size as extracted from the header.
    */
-  private int processHeader(final ByteBuf encryptedHeader) throws FramingException {
-    if (encryptedHeader.readableBytes() != LENGTH_FULL_HEADER) {
-      throw error(
-          "Expected %s bytes in header, got %s",
-          LENGTH_FULL_HEADER, encryptedHeader.readableBytes());
-    }
-
-    // Decrypt the header.
-    final byte[] hCipher = new byte[LENGTH_HEADER_DATA];
-    final byte[] hMac = new byte[LENGTH_MAC];
-    encryptedHeader.readBytes(hCipher).readBytes(hMac);
+  private int processHeader(final ByteBuf buf) throws FramingException {
+    final byte[] h = headerScratch;
+    buf.readBytes(h);
 
     // Header MAC validation.
-    byte[] expectedMac = new byte[16];
-    macEncryptor.processBlock(secrets.getIngressMac(), 0, expectedMac, 0);
-    expectedMac = secrets.updateIngress(xor(expectedMac, hCipher)).getIngressMac();
-    expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
-
-    validateMac(hMac, expectedMac);
+    updateIngressMac(h);
+    validateMac(buf);
 
     // Perform the header decryption.
-    decryptor.processBytes(hCipher, 0, hCipher.length, hCipher, 0);
-    final ByteBuf h = wrappedBuffer(hCipher);
+    decryptor.processBytes(h, 0, LENGTH_HEADER_DATA, h, 0);
 
     // Read the frame length.
-    final byte[] length = new byte[3];
-    h.readBytes(length);
-    int frameSize = length[0] & 0xff;
-    frameSize = (frameSize << 8) + (length[1] & 0xff);
-    frameSize = (frameSize << 8) + (length[2] & 0xff);
+    int frameSize = h[0] & 0xff;
+    frameSize = (frameSize << 8) + (h[1] & 0xff);
+    frameSize = (frameSize << 8) + (h[2] & 0xff);
 
     // Discard the header data (RLP): being set to fixed value 0xc28080 (list of two null
-    // elements) by other clients.
-    final int headerDataLength = RLP.calculateSize(BytesValue.wrapBuffer(h.nioBuffer()));
-    if (h.readableBytes() < headerDataLength) {
+    // elements) by other clients. The rest of the header is zero-fill to the 16-byte boundary.
+    final int remaining = LENGTH_HEADER_DATA - LENGTH_FRAME_SIZE;
+    final int headerDataLength =
+        RLP.calculateSize(BytesValue.wrap(h, LENGTH_FRAME_SIZE, remaining));
+    if (remaining < headerDataLength) {
       throw error(
           "Expected at least %d readable bytes while processing header, remaining: %s",
-          headerDataLength, h.readableBytes());
-    }
-    h.skipBytes(headerDataLength);
-
-    // Discard padding in header (= zero-fill to 16-byte boundary).
-    h.skipBytes(padding16(LENGTH_FRAME_SIZE + headerDataLength));
-
-    if (h.readableBytes() != 0) {
-      throw error(
-          "Expected no more readable bytes while processing header, remaining: %s",
-          h.readableBytes());
+          headerDataLength, remaining);
     }
 
-    h.discardReadBytes();
     return frameSize;
   }
 
   /**
-   * Parses, decrypts and performs MAC verification on a frame.
+   * Reads, performs MAC verification on and decrypts a frame.
    *
-   * <p>This method expects a well-formed frame, sized according to the length indicated in this
-   * packet's header.
+   * <p>This method expects the buffer to hold at least a well-formed frame, sized according to the
+   * length indicated in this packet's header, and consumes exactly that frame.
    *
-   * @param f The buffer containing
-   * @param frameSize The expected
+   * @param buf The buffer holding the frame as seen on the wire.
+   * @param frameSize The frame size as extracted from the header.
    */
-  private MessageData processFrame(final ByteBuf f, final int frameSize) {
-    final int pad = padding16(frameSize);
-    final int expectedSize = frameSize + pad + LENGTH_MAC;
-    if (f.readableBytes() != expectedSize) {
-      throw error("Expected %s bytes in header, got %s", expectedSize, f.readableBytes());
-    }
-
-    final byte[] frameData = new byte[frameSize + pad];
-    final byte[] fMac = new byte[LENGTH_MAC];
-    f.readBytes(frameData).readBytes(fMac);
+  private MessageData processFrame(final ByteBuf buf, final int frameSize) {
+    final int frameLength = frameSize + padding16(frameSize);
+    final byte[] f = frameBuffer(frameLength);
+    buf.readBytes(f, 0, frameLength);
 
     // Validate the frame's MAC.
-    final byte[] fMacSeed = secrets.updateIngress(frameData).getIngressMac();
-    final byte[] fMacSeedEnc = new byte[16];
-    macEncryptor.processBlock(fMacSeed, 0, fMacSeedEnc, 0);
-    byte[] expectedMac = secrets.updateIngress(xor(fMacSeedEnc, fMacSeed)).getIngressMac();
-    expectedMac = Arrays.copyOf(expectedMac, LENGTH_MAC);
-
-    validateMac(fMac, expectedMac);
+    secrets.updateIngress(f, 0, frameLength);
+    updateIngressMac(macScratch);
+    validateMac(buf);
 
     // Decrypt frame data.
-    decryptor.processBytes(frameData, 0, frameData.length, frameData, 0);
+    decryptor.processBytes(f, 0, frameLength, f, 0);
 
-    // Read the id.
-    final BytesValue idbv = RLP.decodeOne(BytesValue.of(frameData[0]));
-    final int id = idbv.isZero() || idbv.size() == 0 ? 0 : idbv.get(0);
+    final int id = messageId(f[0]);
 
-    // Write message data to ByteBuf, decompressing as necessary
+    // Copy the message data out of the frame, decompressing as necessary.
+    final int messageLength = frameSize - LENGTH_MESSAGE_ID;
     final BytesValue data;
     if (compressionEnabled) {
-      final byte[] compressedMessageData = Arrays.copyOfRange(frameData, 1, frameData.length - pad);
-      final int uncompressedLength = compressor.uncompressedLength(compressedMessageData);
+      final int uncompressedLength =
+          compressor.uncompressedLength(f, LENGTH_MESSAGE_ID, messageLength);
       if (uncompressedLength >= LENGTH_MAX_MESSAGE_FRAME) {
         throw error("Message size %s in excess of maximum length.", uncompressedLength);
       }
-      final byte[] decompressedMessageData = compressor.decompress(compressedMessageData);
+      final byte[] decompressedMessageData = new byte[uncompressedLength];
+      compressor.decompress(f, LENGTH_MESSAGE_ID, messageLength, decompressedMessageData, 0);
       data = BytesValue.wrap(decompressedMessageData);
     } else {
-      // Move data to a ByteBuf
-      final int messageLength = frameSize - LENGTH_MESSAGE_ID;
-      data = BytesValue.wrap(frameData, 1, messageLength);
+      data = BytesValue.wrap(Arrays.copyOfRange(f, LENGTH_MESSAGE_ID, frameSize));
     }
 
     return new RawMessage(id, data);
   }
 
-  private void validateMac(final byte[] candidateMac, final byte[] expectedMac) {
-    if (!Arrays.equals(expectedMac, candidateMac)) {
-      throw error(
-          "Frame MAC did not match expected MAC; expected: %s, received: %s",
-          hexDump(expectedMac), hexDump(candidateMac));
+  private static int messageId(final byte encodedId) {
+    // The id is a single RLP encoded byte, so is either a byte below 0x80 or the empty string.
+    if (encodedId == ENCODED_ZERO_MESSAGE_ID) {
+      return 0;
+    }
+    if (encodedId < 0) {
+      throw error("Invalid message id %s", encodedId & 0xff);
+    }
+    return encodedId;
+  }
+
+  /** Validates the MAC at the start of the buffer against the MAC in the scratch, consuming it. */
+  private void validateMac(final ByteBuf buf) {
+    final int index = buf.readerIndex();
+    for (int i = 0; i < LENGTH_MAC; i++) {
+      if (buf.getByte(index + i) != macScratch[i]) {
+        throw error(
+            "Frame MAC did not match expected MAC; expected: %s, received: %s",
+            hexDump(macScratch, 0, LENGTH_MAC), hexDump(buf, index, LENGTH_MAC));
+      }
     }
+    buf.skipBytes(LENGTH_MAC);
   }
 
   /**
@@ -293,13 +285,15 @@ public class Framer {
   public synchronized void frame(final MessageData message, final ByteBuf output) {
     Preconditions.checkArgument(
         message.getSize() < LENGTH_MAX_MESSAGE_FRAME, "Message size in excess of maximum length.");
-    // Compress message
     if (compressionEnabled) {
-      // Extract data from message
-      // Compress data
-      final byte[] compressed = compressor.compress(message.getData().getArrayUnsafe());
-      // Construct new, compressed message
-      frameMessage(new RawMessage(message.getCode(), BytesValue.wrap(compressed)), output);
+      // Compress the message data straight into the frame, after the message id.
+      final byte[] uncompressed = message.getData().getArrayUnsafe();
+      final int maxFrameSize =
+          LENGTH_MESSAGE_ID + compressor.maxCompressedLength(uncompressed.length);
+      final byte[] f = frameBuffer(maxFrameSize + padding16(maxFrameSize));
+      final int compressedLength =
+          compressor.compress(uncompressed, 0, uncompressed.length, f, LENGTH_MESSAGE_ID);
+      writeFrame(message.getCode(), f, LENGTH_MESSAGE_ID + compressedLength, output);
     } else {
       frameMessage(message, output);
     }
@@ -308,44 +302,82 @@ public class Framer {
   @VisibleForTesting
   void frameMessage(final MessageData message, final ByteBuf buf) {
     final int frameSize = message.getSize() + LENGTH_MESSAGE_ID;
-    final int pad = padding16(frameSize);
+    final byte[] f = frameBuffer(frameSize + padding16(frameSize));
+    message.getData().copyTo(f, 0, LENGTH_MESSAGE_ID);
+    writeFrame(message.getCode(), f, frameSize, buf);
+  }
 
-    final byte id = (byte) message.getCode();
+  /**
+   * Writes a frame whose message data has already been written to the frame array, after the
+   * message id.
+   */
+  private void writeFrame(final int code, final byte[] f, final int frameSize, final ByteBuf buf) {
+    final int frameLength = frameSize + padding16(frameSize);
+    buf.ensureWritable(LENGTH_FULL_HEADER + frameLength + LENGTH_MAC);
 
     // Generate the header data.
-    final byte[] h = new byte[LENGTH_HEADER_DATA];
+    final byte[] h = headerScratch;
     h[0] = (byte) ((frameSize >> 16) & 0xff);
     h[1] = (byte) ((frameSize >> 8) & 0xff);
     h[2] = (byte) (frameSize & 0xff);
     System.arraycopy(PROTOCOL_HEADER, 0, h, LENGTH_FRAME_SIZE, PROTOCOL_HEADER.length);
-    Arrays.fill(h, LENGTH_FRAME_SIZE + PROTOCOL_HEADER.length, h.length - 1, (byte) 0x00);
+    Arrays.fill(h, LENGTH_FRAME_SIZE + PROTOCOL_HEADER.length, h.length, (byte) 0x00);
     encryptor.processBytes(h, 0, LENGTH_HEADER_DATA, h, 0);
 
     // Generate the header MAC.
-    byte[] hMac = Arrays.copyOf(secrets.getEgressMac(), LENGTH_MAC);
-    macEncryptor.processBlock(hMac, 0, hMac, 0);
-    hMac = secrets.updateEgress(xor(h, hMac)).getEgressMac();
-    hMac = Arrays.copyOf(hMac, LENGTH_MAC);
-    buf.writeBytes(h).writeBytes(hMac);
+    updateEgressMac(h);
+    buf.writeBytes(h).writeBytes(macScratch, 0, LENGTH_MAC);
 
-    // Encrypt payload.
-    final byte[] f = new byte[frameSize + pad];
+    // Encrypt payload, zero-padded to 16-byte boundary.
+    f[0] = code == 0 ? ENCODED_ZERO_MESSAGE_ID : (byte) code;
+    Arrays.fill(f, frameSize, frameLength, (byte) 0x00);
+    encryptor.processBytes(f, 0, frameLength, f, 0);
 
-    final BytesValue bv = id == 0 ? RLP.NULL : RLP.encodeOne(BytesValue.of(id));
-    assert bv.size() == 1;
-    f[0] = bv.get(0);
+    // Calculate the frame MAC.
+    secrets.updateEgress(f, 0, frameLength);
+    updateEgressMac(macScratch);
 
-    // Zero-padded to 16-byte boundary.
-    message.getData().copyTo(f, 0, 1);
-    encryptor.processBytes(f, 0, f.length, f, 0);
+    buf.writeBytes(f, 0, frameLength).writeBytes(macScratch, 0, LENGTH_MAC);
+  }
 
-    // Calculate the frame MAC.
-    final byte[] fMacSeed = Arrays.copyOf(secrets.updateEgress(f).getEgressMac(), LENGTH_MAC);
-    byte[] fMac = new byte[16];
-    macEncryptor.processBlock(fMacSeed, 0, fMac, 0);
-    fMac = Arrays.copyOf(secrets.updateEgress(xor(fMac, fMacSeed)).getEgressMac(), LENGTH_MAC);
+  /**
+   * Updates the egress MAC with its current value encrypted and xor-ed with the seed, leaving the
+   * updated MAC in the MAC scratch. The seed may be the MAC scratch itself.
+   */
+  private void updateEgressMac(final byte[] seed) {
+    secrets.writeEgressMac(macScratch);
+    encryptMacSeed(seed);
+    secrets.updateEgress(macSeedScratch, 0, LENGTH_MAC).writeEgressMac(macScratch);
+  }
 
-    buf.writeBytes(f).writeBytes(fMac);
+  /**
+   * Updates the ingress MAC with its current value encrypted and xor-ed with the seed, leaving the
+   * updated MAC in the MAC scratch. The seed may be the MAC scratch itself.
+   */
+  private void updateIngressMac(final byte[] seed) {
+    secrets.writeIngressMac(macScratch);
+    encryptMacSeed(seed);
+    secrets.updateIngress(macSeedScratch, 0, LENGTH_MAC).writeIngressMac(macScratch);
+  }
+
+  private void encryptMacSeed(final byte[] seed) {
+    macEncryptor.processBlock(macScratch, 0, macSeedScratch, 0);
+    for (int i = 0; i < LENGTH_MAC; i++) {
+      macSeedScratch[i] ^= seed[i];
+    }
+  }
+
+  /** Returns an array of at least the given size to process a frame in. */
+  private byte[] frameBuffer(final int size) {
+    if (size <= frameScratch.length) {
+      return frameScratch;
+    }
+    if (size > MAX_RETAINED_FRAME_SCRATCH) {
+      return new byte[size];
+    }
+    final int grown = Math.max(size, 2 * frameScratch.length);
+    frameScratch = new byte[Math.min(grown, MAX_RETAINED_FRAME_SCRATCH)];
+    return frameScratch;
   }
 
   private static int padding16(final int size) {
@@ -51,4 +51,45 @@ public class SnappyCompressor {
       throw new FramingException("Snappy uncompressedLength failed", e);
     }
   }
+
+  public int compress(
+      final byte[] uncompressed,
+      final int offset,
+      final int length,
+      final byte[] output,
+      final int outputOffset) {
+    checkNotNull(uncompressed, "input data must not be null");
+    try {
+      return Snappy.compress(uncompressed, offset, length, output, outputOffset);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy compression failed", e);
+    }
+  }
+
+  public int decompress(
+      final byte[] compressed,
+      final int offset,
+      final int length,
+      final byte[] output,
+      final int outputOffset) {
+    checkNotNull(compressed, "input data must not be null");
+    try {
+      return Snappy.uncompress(compressed, offset, length, output, outputOffset);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy decompression failed", e);
+    }
+  }
+
+  public int uncompressedLength(final byte[] compressed, final int offset, final int length) {
+    checkNotNull(compressed, "input data must not be null");
+    try {
+      return Snappy.uncompressedLength(compressed, offset, length);
+    } catch (final IOException e) {
+      throw new FramingException("Snappy uncompressedLength failed", e);
+    }
+  }
+
+  public int maxCompressedLength(final int uncompressedLength) {
+    return Snappy.maxCompressedLength(uncompressedLength);
+  }
 }
@@ -44,8 +44,11 @@ public class HandshakeSecrets {
   private final byte[] aesSecret;
   private final byte[] macSecret;
   private final byte[] token;
-  private final KeccakDigest egressMac = new KeccakDigest(Bytes32.SIZE * 8);
-  private final KeccakDigest ingressMac = new KeccakDigest(Bytes32.SIZE * 8);
+  private final MacDigest egressMac = new MacDigest();
+  private final MacDigest ingressMac = new MacDigest();
+  // Digests the MACs are copied into to read them, so that reading a MAC doesn't allocate.
+  private final MacDigest egressMacSnapshot = new MacDigest();
+  private final MacDigest ingressMacSnapshot = new MacDigest();
 
   /**
    * Creates an instance with empty MACs.
@@ -86,6 +89,32 @@ public class HandshakeSecrets {
     return this;
   }
 
+  /**
+   * Updates the egress mac with a range of the provided bytes.
+   *
+   * @param bytes The array holding the bytes of the outgoing message.
+   * @param offset The offset of the first byte to update the mac with.
+   * @param length The number of bytes to update the mac with.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateEgress(final byte[] bytes, final int offset, final int length) {
+    egressMac.update(bytes, offset, length);
+    return this;
+  }
+
+  /**
+   * Updates the ingress mac with a range of the provided bytes.
+   *
+   * @param bytes The array holding the bytes of the incoming message.
+   * @param offset The offset of the first byte to update the mac with.
+   * @param length The number of bytes to update the mac with.
+   * @return Returns this instance for fluent chaining.
+   */
+  public HandshakeSecrets updateIngress(final byte[] bytes, final int offset, final int length) {
+    ingressMac.update(bytes, offset, length);
+    return this;
+  }
+
   /**
    * Returns the AES shared secret.
    *
@@ -131,6 +160,32 @@ public class HandshakeSecrets {
     return snapshot(ingressMac);
   }
 
+  /**
+   * Writes a snapshot of the current egress MAC to the provided array, without finalising the
+   * underlying digest or allocating.
+   *
+   * <p>This must not be called concurrently with any other read or update of the egress MAC.
+   *
+   * @param out The array to write the 32 bytes of the MAC to.
+   */
+  public void writeEgressMac(final byte[] out) {
+    egressMac.copyTo(egressMacSnapshot);
+    egressMacSnapshot.doFinal(out, 0);
+  }
+
+  /**
+   * Writes a snapshot of the current ingress MAC to the provided array, without finalising the
+   * underlying digest or allocating.
+   *
+   * <p>This must not be called concurrently with any other read or update of the ingress MAC.
+   *
+   * @param out The array to write the 32 bytes of the MAC to.
+   */
+  public void writeIngressMac(final byte[] out) {
+    ingressMac.copyTo(ingressMacSnapshot);
+    ingressMacSnapshot.doFinal(out, 0);
+  }
+
   /**
    * TODO: It's not wise to print secrets. Maybe print only the first and last 8 bytes (ellipsize
    * the middle). That might be enough for testing.
@@ -198,4 +253,21 @@ public class HandshakeSecrets {
         egressMac,
         ingressMac);
   }
+
+  /** A Keccak digest whose state can be copied into an existing instance. */
+  private static class MacDigest extends KeccakDigest {
+
+    private MacDigest() {
+      super(Bytes32.SIZE * 8);
+    }
+
+    private void copyTo(final MacDigest target) {
+      System.arraycopy(state, 0, target.state, 0, state.length);
+      System.arraycopy(dataQueue, 0, target.dataQueue, 0, dataQueue.length);
+      target.rate = rate;
+      target.bitsInQueue = bitsInQueue;
+      target.fixedOutputLength = fixedOutputLength;
+      target.squeezing = squeezing;
+    }
+  }
 }
@@ -30,6 +30,8 @@ import tech.pegasys.pantheon.ethereum.p2p.rlpx.wire.messages.DisconnectMessage.D
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -240,6 +242,55 @@ public class FramerTest {
     assertThatThrownBy(() -> receivingFramer.deframe(out)).isInstanceOf(FramingException.class);
   }
 
+  @Test
+  public void framesAndDeframesMessagesOfVaryingSizes() {
+    roundTripMessagesOfVaryingSizes(false);
+  }
+
+  @Test
+  public void framesAndDeframesCompressedMessagesOfVaryingSizes() {
+    roundTripMessagesOfVaryingSizes(true);
+  }
+
+  private void roundTripMessagesOfVaryingSizes(final boolean compression) {
+    // Sizes which grow the scratch space of the framers, exceed it and then fit in it again.
+    final int[] sizes = {
+      0, 1, 15, 16, 17, 2000, 100, Framer.MAX_RETAINED_FRAME_SCRATCH + 1, 5000, 31, 0
+    };
+    final Framer sendingFramer = new Framer(roundTripSecrets());
+    final Framer receivingFramer = new Framer(roundTripSecrets());
+    if (compression) {
+      sendingFramer.enableCompression();
+      receivingFramer.enableCompression();
+    }
+
+    final Random random = new Random(1);
+    final ByteBuf buf = Unpooled.buffer();
+    final List<MessageData> sent = new ArrayList<>();
+    for (int i = 0; i < sizes.length; i++) {
+      final byte[] data = new byte[sizes[i]];
+      random.nextBytes(data);
+      final MessageData message = new RawMessage(i, BytesValue.wrap(data));
+      sendingFramer.frame(message, buf);
+      sent.add(message);
+    }
+
+    for (final MessageData expected : sent) {
+      final MessageData received = receivingFramer.deframe(buf);
+      assertThat(received.getCode()).isEqualTo(expected.getCode());
+      assertThat(received.getData()).isEqualTo(expected.getData());
+    }
+    assertThat(buf.readableBytes()).isZero();
+  }
+
+  private static HandshakeSecrets roundTripSecrets() {
+    final byte[] aes = new byte[32];
+    final byte[] mac = new byte[32];
+    Arrays.fill(aes, (byte) 0x0a);
+    Arrays.fill(mac, (byte) 0x02);
+    return new HandshakeSecrets(aes, mac, mac);
+  }
+
   private HandshakeSecrets secretsFrom(final JsonNode td, final boolean swap) {
     final byte[] aes = decodeHexDump(td.get("aes_secret").asText());
     final byte[] mac = decodeHexDump(td.get("mac_secret").asText());
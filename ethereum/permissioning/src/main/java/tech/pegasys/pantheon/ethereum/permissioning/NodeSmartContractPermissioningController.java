@@ -16,9 +16,9 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 import tech.pegasys.pantheon.crypto.Hash;
 import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.p2p.peers.EnodeURL;
 import tech.pegasys.pantheon.ethereum.permissioning.node.NodePermissioningProvider;
-import tech.pegasys.pantheon.ethereum.transaction.CallParameter;
 import tech.pegasys.pantheon.ethereum.transaction.TransactionSimulator;
 import tech.pegasys.pantheon.ethereum.transaction.TransactionSimulatorResult;
 import tech.pegasys.pantheon.metrics.Counter;
@@ -35,8 +35,7 @@ import java.util.Optional;
  * connectionAllowed(bytes32,bytes32,bytes16,uint16,bytes32,bytes32,bytes16,uint16)
  */
 public class NodeSmartContractPermissioningController implements NodePermissioningProvider {
-  private final Address contractAddress;
-  private final TransactionSimulator transactionSimulator;
+  private final PermissioningContractCallCache callCache;
 
   // full function signature for connection allowed call
   private static final String FUNCTION_SIGNATURE =
@@ -72,9 +71,6 @@ public class NodeSmartContractPermissioningController implements NodePermissioni
       final Address contractAddress,
       final TransactionSimulator transactionSimulator,
       final MetricsSystem metricsSystem) {
-    this.contractAddress = contractAddress;
-    this.transactionSimulator = transactionSimulator;
-
     this.checkCounter =
         metricsSystem.createCounter(
             PantheonMetricCategory.PERMISSIONING,
@@ -90,6 +86,14 @@ public class NodeSmartContractPermissioningController implements NodePermissioni
             PantheonMetricCategory.PERMISSIONING,
             "node_smart_contract_check_count_unpermitted",
             "Number of times the node smart contract permissioning provider has been checked and returned unpermitted");
+
+    this.callCache =
+        new PermissioningContractCallCache(
+            contractAddress,
+            transactionSimulator,
+            metricsSystem,
+            "node_smart_contract",
+            "node smart contract");
   }
 
   /**
@@ -103,18 +107,15 @@ public class NodeSmartContractPermissioningController implements NodePermissioni
   public boolean isPermitted(final EnodeURL sourceEnode, final EnodeURL destinationEnode) {
     this.checkCounter.inc();
     final BytesValue payload = createPayload(sourceEnode, destinationEnode);
-    final CallParameter callParams =
-        new CallParameter(null, contractAddress, -1, null, null, payload);
+    final BlockHeader chainHead = callCache.getChainHeadHeader();
 
-    final Optional<Boolean> contractExists =
-        transactionSimulator.doesAddressExistAtHead(contractAddress);
+    final Optional<Boolean> contractExists = callCache.doesContractExist(chainHead);
 
     if (contractExists.isPresent() && !contractExists.get()) {
       throw new IllegalStateException("Permissioning contract does not exist");
     }
 
-    final Optional<TransactionSimulatorResult> result =
-        transactionSimulator.processAtHead(callParams);
+    final Optional<TransactionSimulatorResult> result = callCache.process(payload, chainHead);
 
     if (result.isPresent()) {
       switch (result.get().getResult().getStatus()) {
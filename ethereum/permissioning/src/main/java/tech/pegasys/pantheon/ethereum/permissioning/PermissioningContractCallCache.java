@@ -0,0 +1,271 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.permissioning;
+
+import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.Gas;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.transaction.CallParameter;
+import tech.pegasys.pantheon.ethereum.transaction.TransactionSimulator;
+import tech.pegasys.pantheon.ethereum.transaction.TransactionSimulatorResult;
+import tech.pegasys.pantheon.ethereum.vm.MessageFrame;
+import tech.pegasys.pantheon.ethereum.vm.OperationTracer;
+import tech.pegasys.pantheon.ethereum.vm.ehalt.ExceptionalHaltException;
+import tech.pegasys.pantheon.ethereum.worldstate.StateTrieAccountValue;
+import tech.pegasys.pantheon.metrics.Counter;
+import tech.pegasys.pantheon.metrics.MetricsSystem;
+import tech.pegasys.pantheon.metrics.PantheonMetricCategory;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the results of recent calls to a permissioning smart contract, so that checking the same
+ * connection or transaction again doesn't need another call.
+ *
+ * <p>A result is always reused for the block it was computed in. A successful call which only
+ * read the storage and code of the contract itself is also reused for later blocks, for as long as
+ * the storage root and code hash of the contract stay the same. Which state a call read is found by
+ * tracing it: calls to other accounts and operations reading balances, the code of other accounts,
+ * the block or the remaining gas all make its result depend on more than the contract.
+ */
+class PermissioningContractCallCache {
+
+  private static final int MAXIMUM_SIZE = 4096;
+
+  private final Address contractAddress;
+  private final TransactionSimulator transactionSimulator;
+
+  // Results which only depend on the contract, keyed by its storage root and code hash.
+  private final Cache<CallKey, TransactionSimulatorResult> contractResults =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+  // Any other results, keyed by the hash of the block they were computed in.
+  private final Cache<CallKey, TransactionSimulatorResult> blockResults =
+      CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+  private volatile ContractState contractState;
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+
+  PermissioningContractCallCache(
+      final Address contractAddress,
+      final TransactionSimulator transactionSimulator,
+      final MetricsSystem metricsSystem,
+      final String metricPrefix,
+      final String description) {
+    this.contractAddress = contractAddress;
+    this.transactionSimulator = transactionSimulator;
+
+    this.hitCounter =
+        metricsSystem.createCounter(
+            PantheonMetricCategory.PERMISSIONING,
+            metricPrefix + "_cache_hit_count",
+            "Number of times the "
+                + description
+                + " permissioning provider has been checked and answered from its cache");
+    this.missCounter =
+        metricsSystem.createCounter(
+            PantheonMetricCategory.PERMISSIONING,
+            metricPrefix + "_cache_miss_count",
+            "Number of times the "
+                + description
+                + " permissioning provider has been checked and had to call the contract");
+  }
+
+  /** @return the header of the block at the head of the chain, which checks should be made at */
+  BlockHeader getChainHeadHeader() {
+    return transactionSimulator.getChainHeadHeader();
+  }
+
+  /**
+   * Checks whether the contract exists in the world state of a block.
+   *
+   * @param header the header of the block
+   * @return whether the contract exists, or empty if the world state isn't available
+   */
+  Optional<Boolean> doesContractExist(final BlockHeader header) {
+    if (header == null) {
+      return Optional.empty();
+    }
+    return contractState(header).exists;
+  }
+
+  /**
+   * Calls the contract in the world state of a block, reusing an earlier result if it still holds.
+   *
+   * @param payload the payload of the call
+   * @param header the header of the block
+   * @return the result of the call, or empty if the world state isn't available
+   */
+  Optional<TransactionSimulatorResult> process(final BytesValue payload, final BlockHeader header) {
+    if (header == null) {
+      return Optional.empty();
+    }
+    final Optional<Hash> contractStateHash = contractState(header).stateHash;
+    final CallKey blockKey = new CallKey(payload, header.getHash());
+    final Optional<CallKey> contractKey = contractStateHash.map(hash -> new CallKey(payload, hash));
+
+    TransactionSimulatorResult result = contractKey.map(contractResults::getIfPresent).orElse(null);
+    if (result == null) {
+      result = blockResults.getIfPresent(blockKey);
+    }
+    if (result != null) {
+      hitCounter.inc();
+      return Optional.of(result);
+    }
+
+    missCounter.inc();
+    final ContractOnlyTracer tracer = new ContractOnlyTracer();
+    final CallParameter callParams =
+        new CallParameter(null, contractAddress, -1, null, null, payload);
+    final Optional<TransactionSimulatorResult> processed =
+        transactionSimulator.process(callParams, tracer, header);
+    processed.ifPresent(
+        processedResult -> {
+          if (contractKey.isPresent()
+              && processedResult.isSuccessful()
+              && tracer.hasOnlyReadContract()) {
+            contractResults.put(contractKey.get(), processedResult);
+          } else {
+            blockResults.put(blockKey, processedResult);
+          }
+        });
+    return processed;
+  }
+
+  private ContractState contractState(final BlockHeader header) {
+    final ContractState state = contractState;
+    if (state != null && state.blockHash.equals(header.getHash())) {
+      return state;
+    }
+
+    final Optional<StateTrieAccountValue> account =
+        transactionSimulator.getAccountState(contractAddress, header);
+    final ContractState newState;
+    if (account.isPresent()) {
+      final Hash stateHash =
+          Hash.hash(
+              BytesValues.concatenate(
+                  account.get().getStorageRoot(), account.get().getCodeHash()));
+      newState = new ContractState(header.getHash(), Optional.of(true), Optional.of(stateHash));
+    } else {
+      // The account can't be read when the world state isn't available either.
+      newState =
+          new ContractState(
+              header.getHash(),
+              transactionSimulator.doesAddressExist(contractAddress, header),
+              Optional.empty());
+    }
+    contractState = newState;
+    return newState;
+  }
+
+  private static class ContractState {
+    private final Hash blockHash;
+    private final Optional<Boolean> exists;
+    private final Optional<Hash> stateHash;
+
+    private ContractState(
+        final Hash blockHash, final Optional<Boolean> exists, final Optional<Hash> stateHash) {
+      this.blockHash = blockHash;
+      this.exists = exists;
+      this.stateHash = stateHash;
+    }
+  }
+
+  private static class CallKey {
+    private final BytesValue payload;
+    private final Hash state;
+
+    private CallKey(final BytesValue payload, final Hash state) {
+      this.payload = payload;
+      this.state = state;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CallKey)) {
+        return false;
+      }
+      final CallKey other = (CallKey) o;
+      return payload.equals(other.payload) && state.equals(other.state);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(payload, state);
+    }
+  }
+
+  /**
+   * Records whether a call executed anything whose result may depend on more than the storage and
+   * code of the called contract.
+   */
+  private static class ContractOnlyTracer implements OperationTracer {
+    private boolean onlyReadContract = true;
+
+    @Override
+    public void traceExecution(
+        final MessageFrame frame,
+        final Optional<Gas> currentGasCost,
+        final ExecuteOperation executeOperation)
+        throws ExceptionalHaltException {
+      if (readsBeyondContract(frame.getCurrentOperation().getOpcode())) {
+        onlyReadContract = false;
+      }
+      executeOperation.execute();
+    }
+
+    boolean hasOnlyReadContract() {
+      return onlyReadContract;
+    }
+
+    private static boolean readsBeyondContract(final int opcode) {
+      switch (opcode) {
+        case 0x31: // BALANCE
+        case 0x3b: // EXTCODESIZE
+        case 0x3c: // EXTCODECOPY
+        case 0x3f: // EXTCODEHASH
+        case 0x40: // BLOCKHASH
+        case 0x41: // COINBASE
+        case 0x42: // TIMESTAMP
+        case 0x43: // NUMBER
+        case 0x44: // DIFFICULTY
+        case 0x45: // GASLIMIT
+        case 0x46: // CHAINID
+        case 0x47: // SELFBALANCE
+        case 0x5a: // GAS
+        case 0xf0: // CREATE
+        case 0xf1: // CALL
+        case 0xf2: // CALLCODE
+        case 0xf4: // DELEGATECALL
+        case 0xf5: // CREATE2
+        case 0xfa: // STATICCALL
+        case 0xff: // SELFDESTRUCT
+          return true;
+        default:
+          return false;
+      }
+    }
+  }
+}
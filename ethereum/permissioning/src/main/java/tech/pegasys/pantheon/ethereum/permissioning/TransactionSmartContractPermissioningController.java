@@ -17,9 +17,9 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 
 import tech.pegasys.pantheon.crypto.Hash;
 import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.permissioning.account.TransactionPermissioningProvider;
-import tech.pegasys.pantheon.ethereum.transaction.CallParameter;
 import tech.pegasys.pantheon.ethereum.transaction.TransactionSimulator;
 import tech.pegasys.pantheon.ethereum.transaction.TransactionSimulatorResult;
 import tech.pegasys.pantheon.metrics.Counter;
@@ -43,7 +43,7 @@ public class TransactionSmartContractPermissioningController
   private static final Logger LOG = LogManager.getLogger();
 
   private final Address contractAddress;
-  private final TransactionSimulator transactionSimulator;
+  private final PermissioningContractCallCache callCache;
 
   // full function signature for connection allowed call
   private static final String FUNCTION_SIGNATURE =
@@ -80,7 +80,6 @@ public class TransactionSmartContractPermissioningController
       final TransactionSimulator transactionSimulator,
       final MetricsSystem metricsSystem) {
     this.contractAddress = contractAddress;
-    this.transactionSimulator = transactionSimulator;
 
     this.checkCounter =
         metricsSystem.createCounter(
@@ -97,6 +96,14 @@ public class TransactionSmartContractPermissioningController
             PantheonMetricCategory.PERMISSIONING,
             "transaction_smart_contract_check_count_unpermitted",
             "Number of times the transaction smart contract permissioning provider has been checked and returned unpermitted");
+
+    this.callCache =
+        new PermissioningContractCallCache(
+            contractAddress,
+            transactionSimulator,
+            metricsSystem,
+            "transaction_smart_contract",
+            "transaction smart contract");
   }
 
   /**
@@ -114,11 +121,9 @@ public class TransactionSmartContractPermissioningController
 
     this.checkCounter.inc();
     final BytesValue payload = createPayload(transaction);
-    final CallParameter callParams =
-        new CallParameter(null, contractAddress, -1, null, null, payload);
+    final BlockHeader chainHead = callCache.getChainHeadHeader();
 
-    final Optional<Boolean> contractExists =
-        transactionSimulator.doesAddressExistAtHead(contractAddress);
+    final Optional<Boolean> contractExists = callCache.doesContractExist(chainHead);
 
     if (contractExists.isPresent() && !contractExists.get()) {
       this.checkCounterPermitted.inc();
@@ -128,8 +133,7 @@ public class TransactionSmartContractPermissioningController
       return true;
     }
 
-    final Optional<TransactionSimulatorResult> result =
-        transactionSimulator.processAtHead(callParams);
+    final Optional<TransactionSimulatorResult> result = callCache.process(payload, chainHead);
 
     if (result.isPresent()) {
       switch (result.get().getResult().getStatus()) {
@@ -50,6 +50,8 @@ public class NodeSmartContractPermissioningControllerTest {
   @Mock private Counter checkCounter;
   @Mock private Counter checkPermittedCounter;
   @Mock private Counter checkUnpermittedCounter;
+  @Mock private Counter cacheHitCounter;
+  @Mock private Counter cacheMissCounter;
 
   private NodeSmartContractPermissioningController setupController(
       final String resourceName, final String contractAddressString) throws IOException {
@@ -89,6 +91,18 @@ public class NodeSmartContractPermissioningControllerTest {
             "Number of times the node smart contract permissioning provider has been checked and returned unpermitted"))
         .thenReturn(checkUnpermittedCounter);
 
+    when(metricsSystem.createCounter(
+            PantheonMetricCategory.PERMISSIONING,
+            "node_smart_contract_cache_hit_count",
+            "Number of times the node smart contract permissioning provider has been checked and answered from its cache"))
+        .thenReturn(cacheHitCounter);
+
+    when(metricsSystem.createCounter(
+            PantheonMetricCategory.PERMISSIONING,
+            "node_smart_contract_cache_miss_count",
+            "Number of times the node smart contract permissioning provider has been checked and had to call the contract"))
+        .thenReturn(cacheMissCounter);
+
     return new NodeSmartContractPermissioningController(contractAddress, ts, metricsSystem);
   }
 
@@ -136,6 +150,28 @@ public class NodeSmartContractPermissioningControllerTest {
     verifyCountersPermitted();
   }
 
+  @Test
+  public void testRepeatedCheckIsAnsweredFromCache() throws IOException {
+    final NodeSmartContractPermissioningController controller =
+        setupController(
+            "/NodeSmartContractPermissioningControllerTest/preseededSmartPermissioning.json",
+            "0x0000000000000000000000000000000000001234");
+    final EnodeURL source =
+        EnodeURL.fromString(
+            "enode://6f8a80d14311c39f35f516fa664deaaaa13e85b2f7493f37f6144d86991ec012937307647bd3b9a82abe2974e1407241d54947bbb39763a4cac9f77166ad92a0@192.168.0.1:30303");
+    final EnodeURL destination =
+        EnodeURL.fromString(
+            "enode://6f8a80d14311c39f35f516fa664deaaaa13e85b2f7493f37f6144d86991ec012937307647bd3b9a82abe2974e1407241d54947bbb39763a4cac9f77166ad92a0@192.168.0.1:30304");
+
+    assertThat(controller.isPermitted(source, destination)).isTrue();
+    assertThat(controller.isPermitted(source, destination)).isTrue();
+
+    verify(checkCounter, times(2)).inc();
+    verify(checkPermittedCounter, times(2)).inc();
+    verify(cacheMissCounter, times(1)).inc();
+    verify(cacheHitCounter, times(1)).inc();
+  }
+
   @Test
   public void testIpv4DestinationMissing() throws IOException {
     final NodeSmartContractPermissioningController controller =
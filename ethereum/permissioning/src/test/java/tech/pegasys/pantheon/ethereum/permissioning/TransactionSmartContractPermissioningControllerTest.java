@@ -15,6 +15,7 @@ package tech.pegasys.pantheon.ethereum.permissioning;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -26,8 +27,15 @@ import tech.pegasys.pantheon.crypto.SECP256K1.Signature;
 import tech.pegasys.pantheon.ethereum.chain.GenesisState;
 import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
 import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.Block;
+import tech.pegasys.pantheon.ethereum.core.BlockBody;
+import tech.pegasys.pantheon.ethereum.core.BlockHeader;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
+import tech.pegasys.pantheon.ethereum.core.Hash;
+import tech.pegasys.pantheon.ethereum.core.MutableWorldState;
 import tech.pegasys.pantheon.ethereum.core.Transaction;
 import tech.pegasys.pantheon.ethereum.core.Wei;
+import tech.pegasys.pantheon.ethereum.core.WorldUpdater;
 import tech.pegasys.pantheon.ethereum.mainnet.MainnetProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
 import tech.pegasys.pantheon.ethereum.transaction.TransactionSimulator;
@@ -35,10 +43,15 @@ import tech.pegasys.pantheon.ethereum.worldstate.WorldStateArchive;
 import tech.pegasys.pantheon.metrics.Counter;
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.PantheonMetricCategory;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.Collections;
+import java.util.function.Consumer;
 
 import com.google.common.io.Resources;
 import org.junit.Test;
@@ -52,6 +65,11 @@ public class TransactionSmartContractPermissioningControllerTest {
   @Mock private Counter checkCounter;
   @Mock private Counter checkPermittedCounter;
   @Mock private Counter checkUnpermittedCounter;
+  @Mock private Counter cacheHitCounter;
+  @Mock private Counter cacheMissCounter;
+
+  private MutableBlockchain blockchain;
+  private WorldStateArchive worldArchive;
 
   private TransactionSmartContractPermissioningController setupController(
       final String resourceName, final String contractAddressString) throws IOException {
@@ -62,8 +80,8 @@ public class TransactionSmartContractPermissioningControllerTest {
     final GenesisState genesisState =
         GenesisState.fromConfig(GenesisConfigFile.fromConfig(emptyContractFile), protocolSchedule);
 
-    final MutableBlockchain blockchain = createInMemoryBlockchain(genesisState.getBlock());
-    final WorldStateArchive worldArchive = createInMemoryWorldStateArchive();
+    blockchain = createInMemoryBlockchain(genesisState.getBlock());
+    worldArchive = createInMemoryWorldStateArchive();
 
     genesisState.writeStateTo(worldArchive.getMutable());
 
@@ -89,6 +107,18 @@ public class TransactionSmartContractPermissioningControllerTest {
             "Number of times the transaction smart contract permissioning provider has been checked and returned unpermitted"))
         .thenReturn(checkUnpermittedCounter);
 
+    when(metricsSystem.createCounter(
+            PantheonMetricCategory.PERMISSIONING,
+            "transaction_smart_contract_cache_hit_count",
+            "Number of times the transaction smart contract permissioning provider has been checked and answered from its cache"))
+        .thenReturn(cacheHitCounter);
+
+    when(metricsSystem.createCounter(
+            PantheonMetricCategory.PERMISSIONING,
+            "transaction_smart_contract_cache_miss_count",
+            "Number of times the transaction smart contract permissioning provider has been checked and had to call the contract"))
+        .thenReturn(cacheMissCounter);
+
     return new TransactionSmartContractPermissioningController(contractAddress, ts, metricsSystem);
   }
 
@@ -104,6 +134,30 @@ public class TransactionSmartContractPermissioningControllerTest {
         .build();
   }
 
+  private void appendBlock(final Consumer<WorldUpdater> stateChange) {
+    final BlockHeader parent = blockchain.getChainHeadHeader();
+    final MutableWorldState worldState = worldArchive.getMutable(parent.getStateRoot()).get();
+    final WorldUpdater updater = worldState.updater();
+    stateChange.accept(updater);
+    updater.commit();
+    worldState.persist();
+
+    final BlockHeader header =
+        new BlockHeaderTestFixture()
+            .parentHash(parent.getHash())
+            .number(parent.getNumber() + 1)
+            .stateRoot(worldState.rootHash())
+            .gasLimit(parent.getGasLimit())
+            .difficulty(UInt256.ONE)
+            .buildHeader();
+    blockchain.appendBlock(new Block(header, BlockBody.empty()), Collections.emptyList());
+  }
+
+  private UInt256 permittedAccountSlot(final Address address) {
+    // The contract keeps the permitted accounts in a mapping in its first storage slot
+    return UInt256.wrap(Hash.hash(BytesValues.concatenate(Bytes32.leftPad(address), Bytes32.ZERO)));
+  }
+
   private void verifyCountersUntouched() {
     verify(checkCounter, times(0)).inc();
     verify(checkPermittedCounter, times(0)).inc();
@@ -158,6 +212,79 @@ public class TransactionSmartContractPermissioningControllerTest {
     verifyCountersUnpermitted();
   }
 
+  @Test
+  public void testRepeatedCheckIsAnsweredFromCache() throws IOException {
+    final TransactionSmartContractPermissioningController controller =
+        setupController(
+            "/TransactionSmartContractPermissioningControllerTest/preseededSmartPermissioning.json",
+            "0x0000000000000000000000000000000000001234");
+    final Transaction transaction = transactionForAccount(Address.fromHexString("0x2"));
+
+    assertThat(controller.isPermitted(transaction)).isFalse();
+    assertThat(controller.isPermitted(transaction)).isFalse();
+
+    verify(checkCounter, times(2)).inc();
+    verify(checkUnpermittedCounter, times(2)).inc();
+    verify(cacheMissCounter, times(1)).inc();
+    verify(cacheHitCounter, times(1)).inc();
+  }
+
+  @Test
+  public void testCachedCheckIsReusedAfterNewBlockNotChangingContract() throws IOException {
+    final TransactionSmartContractPermissioningController controller =
+        setupController(
+            "/TransactionSmartContractPermissioningControllerTest/preseededSmartPermissioning.json",
+            "0x0000000000000000000000000000000000001234");
+    final Transaction transaction = transactionForAccount(Address.fromHexString("0x2"));
+
+    assertThat(controller.isPermitted(transaction)).isFalse();
+    appendBlock(
+        updater -> updater.getOrCreate(Address.fromHexString("0xabcd")).setBalance(Wei.of(1)));
+    assertThat(controller.isPermitted(transaction)).isFalse();
+
+    verify(cacheMissCounter, times(1)).inc();
+    verify(cacheHitCounter, times(1)).inc();
+  }
+
+  @Test
+  public void testCachedCheckIsNotReusedAfterNewBlockChangingContract() throws IOException {
+    final TransactionSmartContractPermissioningController controller =
+        setupController(
+            "/TransactionSmartContractPermissioningControllerTest/preseededSmartPermissioning.json",
+            "0x0000000000000000000000000000000000001234");
+    final Address contractAddress = Address.fromHexString("0x1234");
+    final Address account = Address.fromHexString("0x2");
+    final Transaction transaction = transactionForAccount(account);
+
+    assertThat(controller.isPermitted(transaction)).isFalse();
+    appendBlock(
+        updater ->
+            updater
+                .getOrCreate(contractAddress)
+                .setStorageValue(permittedAccountSlot(account), UInt256.ONE));
+    assertThat(controller.isPermitted(transaction)).isTrue();
+
+    verify(cacheMissCounter, times(2)).inc();
+    verify(cacheHitCounter, never()).inc();
+  }
+
+  @Test
+  public void testCheckReadingBlockIsOnlyReusedWithinBlock() throws IOException {
+    final TransactionSmartContractPermissioningController controller =
+        setupController(
+            "/TransactionSmartContractPermissioningControllerTest/blockNumberSmartPermissioning.json",
+            "0x0000000000000000000000000000000000001234");
+    final Transaction transaction = transactionForAccount(Address.fromHexString("0x2"));
+
+    assertThat(controller.isPermitted(transaction)).isTrue();
+    assertThat(controller.isPermitted(transaction)).isTrue();
+    appendBlock(updater -> {});
+    assertThat(controller.isPermitted(transaction)).isTrue();
+
+    verify(cacheMissCounter, times(2)).inc();
+    verify(cacheHitCounter, times(1)).inc();
+  }
+
   @Test
   public void testPermissioningContractMissing() throws IOException {
     final TransactionSmartContractPermissioningController controller =
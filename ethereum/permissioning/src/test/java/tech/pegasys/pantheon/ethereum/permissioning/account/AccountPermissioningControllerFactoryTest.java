@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import tech.pegasys.pantheon.ethereum.core.Address;
+import tech.pegasys.pantheon.ethereum.core.BlockHeaderTestFixture;
 import tech.pegasys.pantheon.ethereum.permissioning.LocalPermissioningConfiguration;
 import tech.pegasys.pantheon.ethereum.permissioning.PermissioningConfiguration;
 import tech.pegasys.pantheon.ethereum.permissioning.SmartContractPermissioningConfiguration;
@@ -124,7 +125,9 @@ public class AccountPermissioningControllerFactoryTest {
     PermissioningConfiguration permissioningConfiguration =
         new PermissioningConfiguration(Optional.empty(), Optional.of(onchainConfig));
 
-    when(transactionSimulator.processAtHead(any())).thenThrow(new RuntimeException());
+    when(transactionSimulator.getChainHeadHeader())
+        .thenReturn(new BlockHeaderTestFixture().buildHeader());
+    when(transactionSimulator.process(any(), any(), any())).thenThrow(new RuntimeException());
 
     final Throwable thrown =
         catchThrowable(
@@ -15,6 +15,7 @@ package tech.pegasys.pantheon.ethereum.rlp;
 import tech.pegasys.pantheon.ethereum.rlp.util.RLPTestUtil;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -60,11 +61,14 @@ public class RLPBench {
 
   volatile Object toEncode;
   volatile BytesValue toDecode;
+  volatile ByteBuffer toDecodeDirect;
 
   @Setup(Level.Trial)
   public void prepare() {
     toEncode = generate(depth, width, size);
     toDecode = RLPTestUtil.encode(toEncode);
+    toDecodeDirect = ByteBuffer.allocateDirect(toDecode.size()).put(toDecode.getArrayUnsafe());
+    toDecodeDirect.flip();
   }
 
   @Benchmark
@@ -76,4 +80,9 @@ public class RLPBench {
   public Object getBenchmarkDecoding() {
     return RLPTestUtil.decode(toDecode);
   }
+
+  @Benchmark
+  public Object getBenchmarkDecodingFromDirectBuffer() {
+    return RLPTestUtil.decode(RLP.input(toDecodeDirect));
+  }
 }
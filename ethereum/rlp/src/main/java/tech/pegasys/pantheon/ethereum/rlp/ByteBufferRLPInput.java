@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.rlp;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.BytesValues;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link RLPInput} that reads RLP encoded data from a {@link ByteBuffer}, which may be a direct
+ * or memory-mapped buffer, without copying it out of the buffer first.
+ *
+ * <p>The values read are views over the buffer, whose bytes are only copied if they are needed as
+ * an array. The content of the buffer must therefore not change for as long as the values read
+ * from it are in use.
+ */
+public class ByteBufferRLPInput extends AbstractRLPInput {
+
+  // The RLP encoded data, from the position of the buffer given up to its limit.
+  private final ByteBuffer buffer;
+
+  public ByteBufferRLPInput(final ByteBuffer buffer, final boolean lenient) {
+    super(lenient);
+    // Slicing leaves the given buffer's position untouched, and reads multi-byte values big-endian.
+    this.buffer = buffer.slice();
+    init(this.buffer.limit(), true);
+  }
+
+  @Override
+  protected byte inputByte(final long offset) {
+    return buffer.get(Math.toIntExact(offset));
+  }
+
+  @Override
+  protected BytesValue inputSlice(final long offset, final int length) {
+    return BytesValue.wrapBuffer(buffer, Math.toIntExact(offset), length);
+  }
+
+  @Override
+  protected Bytes32 inputSlice32(final long offset) {
+    return Bytes32.wrap(inputSlice(offset, Bytes32.SIZE));
+  }
+
+  @Override
+  protected String inputHex(final long offset, final int length) {
+    return inputSlice(offset, length).toString().substring(2);
+  }
+
+  @Override
+  protected BigInteger getUnsignedBigInteger(final long offset, final int length) {
+    return BytesValues.asUnsignedBigInteger(inputSlice(offset, length));
+  }
+
+  @Override
+  protected int getInt(final long offset) {
+    return buffer.getInt(Math.toIntExact(offset));
+  }
+
+  @Override
+  protected long getLong(final long offset) {
+    return buffer.getLong(Math.toIntExact(offset));
+  }
+
+  @Override
+  public BytesValue raw() {
+    return BytesValue.wrapBuffer(buffer);
+  }
+}
@@ -22,6 +22,7 @@ import tech.pegasys.pantheon.ethereum.rlp.RLPDecodingHelpers.Kind;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.bytes.MutableBytesValue;
 
+import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 
 import io.vertx.core.buffer.Buffer;
@@ -79,6 +80,23 @@ public abstract class RLP {
     return new BytesValueRLPInput(BytesValue.wrapBuffer(buffer, offset), false, false);
   }
 
+  /**
+   * Creates a new {@link RLPInput} suitable for decoding an RLP value encoded in the provided
+   * {@link ByteBuffer}, from its position up to its limit, without copying it.
+   *
+   * <p>The created input is strict, in that exceptions will be thrown for any malformed input,
+   * either by this method or by future reads from the returned input. Values read from the input
+   * are views over the buffer, so its content must not change while they are in use.
+   *
+   * @param encoded A buffer containing the RLP encoded data to decode.
+   * @return A newly created {@link RLPInput} to decode RLP data in {@code encoded}.
+   * @throws MalformedRLPInputException if {@code encoded} doesn't contain a properly encoded RLP
+   *     item.
+   */
+  public static RLPInput input(final ByteBuffer encoded) {
+    return new ByteBufferRLPInput(encoded, false);
+  }
+
   /**
    * Creates a {@link RLPOutput}, pass it to the provided consumer for writing, and then return the
    * RLP encoded result of that writing.
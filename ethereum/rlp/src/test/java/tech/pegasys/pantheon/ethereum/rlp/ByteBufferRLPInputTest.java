@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.rlp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import tech.pegasys.pantheon.ethereum.rlp.util.RLPTestUtil;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class ByteBufferRLPInputTest {
+
+  @Test
+  public void decodesSameAsBytesValueInput() {
+    for (int seed = 0; seed < 100; seed++) {
+      final BytesValue encoded = RLPTestUtil.randomRLPValue(seed).encoded();
+
+      assertThat(RLPTestUtil.decode(RLP.input(heapBuffer(encoded))))
+          .isEqualTo(RLPTestUtil.decode(encoded));
+      assertThat(RLPTestUtil.decode(RLP.input(directBuffer(encoded))))
+          .isEqualTo(RLPTestUtil.decode(encoded));
+    }
+  }
+
+  @Test
+  public void readsFromBufferPosition() {
+    final BytesValue encoded = RLP.encodeOne(BytesValue.fromHexString("0x0102"));
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.size() + 2);
+    buffer.put((byte) 0xff).put(encoded.getArrayUnsafe()).put((byte) 0xff);
+    buffer.position(1).limit(1 + encoded.size());
+
+    assertThat(RLP.input(buffer).readBytesValue()).isEqualTo(BytesValue.fromHexString("0x0102"));
+    assertThat(buffer.position()).isEqualTo(1);
+  }
+
+  @Test
+  public void readsScalars() {
+    final BytesValueRLPOutput out = new BytesValueRLPOutput();
+    out.startList();
+    out.writeIntScalar(0x12345678);
+    out.writeLongScalar(0x123456789ABCDEFL);
+    out.writeBytesValue(Bytes32.fromHexStringLenient("0x01"));
+    out.endList();
+
+    final RLPInput in = RLP.input(directBuffer(out.encoded()));
+    in.enterList();
+    assertThat(in.readIntScalar()).isEqualTo(0x12345678);
+    assertThat(in.readLongScalar()).isEqualTo(0x123456789ABCDEFL);
+    assertThat(in.readBytes32()).isEqualTo(Bytes32.fromHexStringLenient("0x01"));
+    in.leaveList();
+    assertThat(in.isDone()).isTrue();
+  }
+
+  @Test
+  public void rejectsTrailingData() {
+    final ByteBuffer buffer = heapBuffer(BytesValue.fromHexString("0x0102"));
+    assertThatThrownBy(() -> RLP.input(buffer)).isInstanceOf(RLPException.class);
+  }
+
+  private static ByteBuffer heapBuffer(final BytesValue value) {
+    return ByteBuffer.wrap(value.extractArray());
+  }
+
+  private static ByteBuffer directBuffer(final BytesValue value) {
+    return ByteBuffer.allocateDirect(value.size()).put(value.getArrayUnsafe()).flip();
+  }
+}
@@ -41,7 +41,7 @@ public class RLPTestUtil {
     return decode(RLP.input(value));
   }
 
-  private static Object decode(final RLPInput in) {
+  public static Object decode(final RLPInput in) {
     if (!in.nextIsList()) {
       return in.readBytesValue();
     }
@@ -12,9 +12,16 @@
  */
 package tech.pegasys.pantheon.ethereum.trie;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 public class AllNodesVisitor<V> implements NodeVisitor<V> {
+  // The visit is split into a task for each node in this many levels at the top of the trie, and
+  // for each subtree below them, which gives up to 16 * 16 subtrees.
+  private static final int CONCURRENT_LEVELS = 2;
 
   private final Consumer<Node<V>> handler;
 
@@ -22,6 +29,53 @@ public class AllNodesVisitor<V> implements NodeVisitor<V> {
     this.handler = handler;
   }
 
+  /**
+   * Visits the nodes in the top levels of the trie, and each subtree below them, as separate tasks,
+   * so that the work is spread evenly even when some subtrees are much larger than others.
+   *
+   * @param root the root of the trie to visit
+   * @param handler called for each node, possibly from several threads at once
+   * @param executor runs the visits
+   * @param <V> the type of values stored in the trie
+   * @return a future completed once every node has been visited, or as soon as any visit fails
+   */
+  static <V> CompletableFuture<Void> visitConcurrently(
+      final Node<V> root, final Consumer<Node<V>> handler, final Executor executor) {
+    final List<CompletableFuture<Void>> visits = new ArrayList<>();
+    splitVisit(root, handler, executor, CONCURRENT_LEVELS, visits);
+    final CompletableFuture<Void> result =
+        CompletableFuture.allOf(visits.toArray(new CompletableFuture<?>[0]));
+    // Fail as soon as any visit fails, rather than once the others have finished.
+    visits.forEach(
+        visit ->
+            visit.exceptionally(
+                error -> {
+                  result.completeExceptionally(error);
+                  return null;
+                }));
+    return result;
+  }
+
+  private static <V> void splitVisit(
+      final Node<V> node,
+      final Consumer<Node<V>> handler,
+      final Executor executor,
+      final int levels,
+      final List<CompletableFuture<Void>> visits) {
+    if (levels == 0) {
+      visits.add(
+          CompletableFuture.runAsync(() -> node.accept(new AllNodesVisitor<>(handler)), executor));
+      return;
+    }
+    if (node instanceof NullNode) {
+      return;
+    }
+    visits.add(CompletableFuture.runAsync(() -> handler.accept(node), executor));
+    for (final Node<V> child : node.getChildren()) {
+      splitVisit(child, handler, executor, levels - 1, visits);
+    }
+  }
+
   @Override
   public void visit(final ExtensionNode<V> extensionNode) {
     handler.accept(extensionNode);
@@ -12,14 +12,37 @@
  */
 package tech.pegasys.pantheon.ethereum.trie;
 
+import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
 class CommitVisitor<V> implements NodeVisitor<V> {
 
   private final NodeUpdater nodeUpdater;
+  // The number of levels of branch nodes whose dirty children are committed concurrently.
+  private final int concurrentDepth;
 
   public CommitVisitor(final NodeUpdater nodeUpdater) {
+    this(nodeUpdater, 0);
+  }
+
+  /**
+   * Creates a visitor which commits the dirty children of the branch nodes in the top {@code
+   * concurrentDepth} levels as separate fork-join tasks.
+   *
+   * <p>Each task stores its nodes in a buffer, and the buffers are stored by the thread visiting
+   * the branch node in the order of its children, so nodes are stored in the same order as when
+   * committing on a single thread and {@code nodeUpdater} needn't be thread-safe.
+   *
+   * @param nodeUpdater stores the nodes
+   * @param concurrentDepth the number of levels of branch nodes to commit concurrently
+   */
+  CommitVisitor(final NodeUpdater nodeUpdater, final int concurrentDepth) {
     this.nodeUpdater = nodeUpdater;
+    this.concurrentDepth = concurrentDepth;
   }
 
   @Override
@@ -42,14 +65,38 @@ class CommitVisitor<V> implements NodeVisitor<V> {
       return;
     }
 
+    if (concurrentDepth > 0) {
+      commitChildrenConcurrently(branchNode);
+    } else {
+      for (byte i = 0; i < BranchNode.RADIX; ++i) {
+        final Node<V> child = branchNode.child(i);
+        if (child.isDirty()) {
+          child.accept(this);
+        }
+      }
+    }
+
+    maybeStoreNode(branchNode);
+  }
+
+  private void commitChildrenConcurrently(final BranchNode<V> branchNode) {
+    final List<ForkJoinTask<BufferedNodeUpdater>> childCommits = new ArrayList<>();
     for (byte i = 0; i < BranchNode.RADIX; ++i) {
       final Node<V> child = branchNode.child(i);
       if (child.isDirty()) {
-        child.accept(this);
+        childCommits.add(
+            ForkJoinTask.adapt(
+                () -> {
+                  final BufferedNodeUpdater buffer = new BufferedNodeUpdater();
+                  child.accept(new CommitVisitor<>(buffer, concurrentDepth - 1));
+                  return buffer;
+                }));
       }
     }
-
-    maybeStoreNode(branchNode);
+    ForkJoinTask.invokeAll(childCommits);
+    for (final ForkJoinTask<BufferedNodeUpdater> childCommit : childCommits) {
+      childCommit.join().storeTo(nodeUpdater);
+    }
   }
 
   @Override
@@ -70,4 +117,21 @@ class CommitVisitor<V> implements NodeVisitor<V> {
       this.nodeUpdater.store(node.getHash(), nodeRLP);
     }
   }
+
+  private static class BufferedNodeUpdater implements NodeUpdater {
+    private final List<Bytes32> hashes = new ArrayList<>();
+    private final List<BytesValue> values = new ArrayList<>();
+
+    @Override
+    public void store(final Bytes32 hash, final BytesValue value) {
+      hashes.add(hash);
+      values.add(value);
+    }
+
+    private void storeTo(final NodeUpdater nodeUpdater) {
+      for (int i = 0; i < hashes.size(); i++) {
+        nodeUpdater.store(hashes.get(i), values.get(i));
+      }
+    }
+  }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.trie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Hashes the dirty nodes of a trie, hashing the dirty children of the branch nodes in the top
+ * levels of the trie as separate fork-join tasks.
+ *
+ * <p>Nodes keep their hash once computed, so the hash of a node visited here is not computed again
+ * when hashing its parent. Each node is hashed from the same children whichever thread hashes it,
+ * so the resulting hashes are the same as when hashing the trie on a single thread.
+ */
+class HashVisitor<V> implements NodeVisitor<V> {
+
+  private final int concurrentDepth;
+
+  /** @param concurrentDepth the number of levels of branch nodes to hash concurrently */
+  HashVisitor(final int concurrentDepth) {
+    this.concurrentDepth = concurrentDepth;
+  }
+
+  @Override
+  public void visit(final ExtensionNode<V> extensionNode) {
+    if (!extensionNode.isDirty()) {
+      return;
+    }
+
+    extensionNode.getChild().accept(this);
+    extensionNode.getHash();
+  }
+
+  @Override
+  public void visit(final BranchNode<V> branchNode) {
+    if (!branchNode.isDirty()) {
+      return;
+    }
+
+    if (concurrentDepth > 0) {
+      final List<ForkJoinTask<?>> childHashes = new ArrayList<>();
+      for (byte i = 0; i < BranchNode.RADIX; ++i) {
+        final Node<V> child = branchNode.child(i);
+        if (child.isDirty()) {
+          childHashes.add(
+              ForkJoinTask.adapt(() -> child.accept(new HashVisitor<>(concurrentDepth - 1))));
+        }
+      }
+      ForkJoinTask.invokeAll(childHashes);
+    }
+    branchNode.getHash();
+  }
+
+  @Override
+  public void visit(final LeafNode<V> leafNode) {
+    if (!leafNode.isDirty()) {
+      return;
+    }
+
+    leafNode.getHash();
+  }
+
+  @Override
+  public void visit(final NullNode<V> nullNode) {}
+}
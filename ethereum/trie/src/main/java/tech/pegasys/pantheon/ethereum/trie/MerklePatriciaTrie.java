@@ -20,6 +20,9 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 
 /** An Merkle Patricial Trie. */
@@ -67,6 +70,25 @@ public interface MerklePatriciaTrie<K, V> {
    */
   Bytes32 getRootHash();
 
+  /**
+   * Returns the KECCAK256 hash of the root node of the trie, hashing the changed subtries below the
+   * top levels of the trie concurrently.
+   *
+   * @param pool runs the hashing of the subtries.
+   * @return The KECCAK256 hash of the root node of the trie.
+   */
+  Bytes32 getRootHash(ForkJoinPool pool);
+
+  /**
+   * Creates an independent copy of this trie, including any changes which are not yet committed.
+   *
+   * <p>Nodes are never modified once created, so the copy shares its nodes with this trie and is
+   * cheap to create. Changes to either trie are not visible in the other.
+   *
+   * @return a copy of this trie.
+   */
+  MerklePatriciaTrie<K, V> copy();
+
   /**
    * Commits any pending changes to the underlying storage.
    *
@@ -74,6 +96,18 @@ public interface MerklePatriciaTrie<K, V> {
    */
   void commit(NodeUpdater nodeUpdater);
 
+  /**
+   * Commits any pending changes to the underlying storage, hashing and encoding the changed
+   * subtries below the top levels of the trie concurrently.
+   *
+   * <p>Nodes are stored by the calling thread, in the same order as {@link #commit(NodeUpdater)}
+   * stores them.
+   *
+   * @param nodeUpdater used to store the node values
+   * @param pool runs the hashing and encoding of the subtries.
+   */
+  void commit(NodeUpdater nodeUpdater, ForkJoinPool pool);
+
   /**
    * Retrieve up to {@code limit} storage entries beginning from the first entry with hash equal to
    * or greater than {@code startKeyHash}.
@@ -85,4 +119,14 @@ public interface MerklePatriciaTrie<K, V> {
   Map<Bytes32, V> entriesFrom(Bytes32 startKeyHash, int limit);
 
   void visitAll(Consumer<Node<V>> visitor);
+
+  /**
+   * Visits every node of the trie, visiting the top levels of the trie and the subtrees below them
+   * concurrently.
+   *
+   * @param visitor called for each node, possibly from several threads at once.
+   * @param executor runs the visits of the top nodes and of each subtree below them.
+   * @return a future completed once every node has been visited, or as soon as any visit fails.
+   */
+  CompletableFuture<Void> visitAll(Consumer<Node<V>> visitor, Executor executor);
 }
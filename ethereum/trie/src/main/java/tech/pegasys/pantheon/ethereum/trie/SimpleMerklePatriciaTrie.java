@@ -21,6 +21,9 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -47,6 +50,11 @@ public class SimpleMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
     this.root = NullNode.instance();
   }
 
+  private SimpleMerklePatriciaTrie(final DefaultNodeFactory<V> nodeFactory, final Node<V> root) {
+    this.nodeFactory = nodeFactory;
+    this.root = root;
+  }
+
   @Override
   public Optional<V> get(final K key) {
     checkNotNull(key);
@@ -81,6 +89,17 @@ public class SimpleMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
     return root.getHash();
   }
 
+  @Override
+  public Bytes32 getRootHash(final ForkJoinPool pool) {
+    // Simple tries are small enough that hashing them concurrently isn't worthwhile.
+    return getRootHash();
+  }
+
+  @Override
+  public MerklePatriciaTrie<K, V> copy() {
+    return new SimpleMerklePatriciaTrie<>(nodeFactory, root);
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "[" + getRootHash() + "]";
@@ -91,6 +110,11 @@ public class SimpleMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
     // Nothing to do here
   }
 
+  @Override
+  public void commit(final NodeUpdater nodeUpdater, final ForkJoinPool pool) {
+    // Nothing to do here
+  }
+
   @Override
   public Map<Bytes32, V> entriesFrom(final Bytes32 startKeyHash, final int limit) {
     return StorageEntriesCollector.collectEntries(root, startKeyHash, limit);
@@ -100,4 +124,10 @@ public class SimpleMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
   public void visitAll(final Consumer<Node<V>> visitor) {
     root.accept(new AllNodesVisitor<>(visitor));
   }
+
+  @Override
+  public CompletableFuture<Void> visitAll(
+      final Consumer<Node<V>> visitor, final Executor executor) {
+    return AllNodesVisitor.visitConcurrently(root, visitor, executor);
+  }
 }
@@ -21,6 +21,10 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -31,6 +35,10 @@ import java.util.stream.Collectors;
  * @param <V> The type of values stored by this trie.
  */
 public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements MerklePatriciaTrie<K, V> {
+  // Hash the dirty children of the root and of the branch nodes below it concurrently, which is up
+  // to 256 subtries.
+  private static final int CONCURRENT_DEPTH = 2;
+
   private final GetVisitor<V> getVisitor = new GetVisitor<>();
   private final RemoveVisitor<V> removeVisitor = new RemoveVisitor<>();
   private final StoredNodeFactory<V> nodeFactory;
@@ -65,13 +73,38 @@ public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
       final Bytes32 rootHash,
       final Function<V, BytesValue> valueSerializer,
       final Function<BytesValue, V> valueDeserializer) {
-    this.nodeFactory = new StoredNodeFactory<>(nodeLoader, valueSerializer, valueDeserializer);
+    this(nodeLoader, rootHash, valueSerializer, valueDeserializer, Optional.empty());
+  }
+
+  /**
+   * Create a trie which shares decoded nodes with other tries through a cache.
+   *
+   * @param nodeLoader The {@link NodeLoader} to retrieve node data from.
+   * @param rootHash The initial root has for the trie, which should be already present in {@code
+   *     storage}.
+   * @param valueSerializer A function for serializing values to bytes.
+   * @param valueDeserializer A function for deserializing values from bytes.
+   * @param nodeCache The cache of decoded nodes loaded by {@code nodeLoader}, if any.
+   */
+  public StoredMerklePatriciaTrie(
+      final NodeLoader nodeLoader,
+      final Bytes32 rootHash,
+      final Function<V, BytesValue> valueSerializer,
+      final Function<BytesValue, V> valueDeserializer,
+      final Optional<TrieNodeCache<V>> nodeCache) {
+    this.nodeFactory =
+        new StoredNodeFactory<>(nodeLoader, valueSerializer, valueDeserializer, nodeCache);
     this.root =
         rootHash.equals(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH)
             ? NullNode.instance()
             : new StoredNode<>(nodeFactory, rootHash);
   }
 
+  private StoredMerklePatriciaTrie(final StoredNodeFactory<V> nodeFactory, final Node<V> root) {
+    this.nodeFactory = nodeFactory;
+    this.root = root;
+  }
+
   @Override
   public Optional<V> get(final K key) {
     checkNotNull(key);
@@ -103,8 +136,18 @@ public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
 
   @Override
   public void commit(final NodeUpdater nodeUpdater) {
-    final CommitVisitor<V> commitVisitor = new CommitVisitor<>(nodeUpdater);
-    root.accept(commitVisitor);
+    root.accept(new CommitVisitor<>(nodeUpdater));
+    completeCommit(nodeUpdater);
+  }
+
+  @Override
+  public void commit(final NodeUpdater nodeUpdater, final ForkJoinPool pool) {
+    final CommitVisitor<V> commitVisitor = new CommitVisitor<>(nodeUpdater, CONCURRENT_DEPTH);
+    pool.invoke(ForkJoinTask.adapt(() -> root.accept(commitVisitor)));
+    completeCommit(nodeUpdater);
+  }
+
+  private void completeCommit(final NodeUpdater nodeUpdater) {
     // Make sure root node was stored
     if (root.isDirty() && root.getRlpRef().size() < 32) {
       nodeUpdater.store(root.getHash(), root.getRlpRef());
@@ -127,11 +170,29 @@ public class StoredMerklePatriciaTrie<K extends BytesValue, V> implements Merkle
     root.accept(new AllNodesVisitor<>(visitor));
   }
 
+  @Override
+  public CompletableFuture<Void> visitAll(
+      final Consumer<Node<V>> visitor, final Executor executor) {
+    return AllNodesVisitor.visitConcurrently(root, visitor, executor);
+  }
+
   @Override
   public Bytes32 getRootHash() {
     return root.getHash();
   }
 
+  @Override
+  public Bytes32 getRootHash(final ForkJoinPool pool) {
+    final HashVisitor<V> hashVisitor = new HashVisitor<>(CONCURRENT_DEPTH);
+    pool.invoke(ForkJoinTask.adapt(() -> root.accept(hashVisitor)));
+    return root.getHash();
+  }
+
+  @Override
+  public MerklePatriciaTrie<K, V> copy() {
+    return new StoredMerklePatriciaTrie<>(nodeFactory, root);
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName() + "[" + getRootHash() + "]";
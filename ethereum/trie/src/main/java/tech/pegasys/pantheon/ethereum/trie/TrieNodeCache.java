@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.trie;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A concurrent cache of decoded trie nodes keyed by node hash, which can be shared by every {@link
+ * StoredMerklePatriciaTrie} reading from the same storage.
+ *
+ * <p>A {@link StoredNode} keeps the node it loaded until it is unloaded, so a cached node keeps the
+ * nodes loaded below it reachable while it is cached. Traversals of the whole trie unload each
+ * subtree once visited, so they don't pin the trie below the cached nodes.
+ *
+ * @param <V> The type of values stored by the tries using this cache.
+ */
+public class TrieNodeCache<V> {
+  public static final long DEFAULT_MAX_WEIGHT = 64 * 1024 * 1024;
+
+  // Decoded nodes take roughly three times the size of their RLP on the heap, mostly because of
+  // the child references of branch nodes.
+  private static final int NODE_OVERHEAD = 128;
+  private static final int RLP_SIZE_MULTIPLIER = 3;
+
+  private final Cache<Bytes32, CachedNode<V>> cache;
+
+  public TrieNodeCache(final long maxWeight) {
+    this.cache =
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxWeight)
+            .<Bytes32, CachedNode<V>>weigher((hash, node) -> node.weight)
+            .build();
+  }
+
+  Optional<Node<V>> get(final Bytes32 hash) {
+    return Optional.ofNullable(cache.getIfPresent(hash)).map(cached -> cached.node);
+  }
+
+  void put(final Bytes32 hash, final Node<V> node, final int rlpSize) {
+    cache.put(hash, new CachedNode<>(node, NODE_OVERHEAD + RLP_SIZE_MULTIPLIER * rlpSize));
+  }
+
+  public void invalidate(final Bytes32 hash) {
+    cache.invalidate(hash);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * Removes every cached node which does not pass the given check.
+   *
+   * @param retainCheck returns true for the hashes of nodes which may remain cached
+   */
+  public void invalidateUnless(final Predicate<? super Bytes32> retainCheck) {
+    cache.asMap().keySet().removeIf(hash -> !retainCheck.test(hash));
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  private static class CachedNode<V> {
+    private final Node<V> node;
+    private final int weight;
+
+    private CachedNode(final Node<V> node, final int weight) {
+      this.node = node;
+      this.weight = weight;
+    }
+  }
+}
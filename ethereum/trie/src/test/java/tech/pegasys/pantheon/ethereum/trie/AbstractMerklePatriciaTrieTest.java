@@ -21,8 +21,12 @@ import tech.pegasys.pantheon.services.kvstore.KeyValueStorage;
 import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -406,4 +410,37 @@ public abstract class AbstractMerklePatriciaTrieTest {
     final String nodeValue = new String(nodes.get(0).getValue().get().extractArray(), UTF_8);
     assertThat(nodeValue).isEqualTo(value1);
   }
+
+  @Test
+  public void concurrentVisitAllVisitsSameNodesAsVisitAll() throws Exception {
+    for (int i = 0; i < 100; i++) {
+      trie.put(BytesValue.of(i, i * 7 % 256), "value" + i);
+    }
+
+    final Set<Bytes32> visited = new HashSet<>();
+    trie.visitAll(node -> visited.add(node.getHash()));
+    final Set<Bytes32> visitedConcurrently = ConcurrentHashMap.newKeySet();
+    trie.visitAll(node -> visitedConcurrently.add(node.getHash()), ForkJoinPool.commonPool())
+        .get();
+
+    assertThat(visitedConcurrently).containsExactlyInAnyOrderElementsOf(visited);
+  }
+
+  @Test
+  public void copyIsIndependentOfOriginal() {
+    final BytesValue key1 = BytesValue.of(1, 5, 8, 9);
+    final BytesValue key2 = BytesValue.of(1, 6, 1, 2);
+    trie.put(key1, "value1");
+
+    final MerklePatriciaTrie<BytesValue, String> copy = trie.copy();
+    assertThat(copy.getRootHash()).isEqualTo(trie.getRootHash());
+
+    copy.put(key2, "value2");
+    trie.remove(key1);
+
+    assertThat(trie.get(key1)).isEmpty();
+    assertThat(trie.get(key2)).isEmpty();
+    assertThat(copy.get(key1)).contains("value1");
+    assertThat(copy.get(key2)).contains("value2");
+  }
 }
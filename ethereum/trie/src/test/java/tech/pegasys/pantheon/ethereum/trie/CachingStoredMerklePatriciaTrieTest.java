@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.ethereum.trie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.services.kvstore.InMemoryKeyValueStorage;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+public class CachingStoredMerklePatriciaTrieTest extends AbstractMerklePatriciaTrieTest {
+  private final Function<String, BytesValue> valueSerializer =
+      value -> BytesValue.wrap(value.getBytes(StandardCharsets.UTF_8));
+  private final Function<BytesValue, String> valueDeserializer =
+      bytes -> new String(bytes.getArrayUnsafe(), StandardCharsets.UTF_8);
+
+  private final MerkleStorage merkleStorage =
+      new KeyValueMerkleStorage(new InMemoryKeyValueStorage());
+  private final TrieNodeCache<String> nodeCache =
+      new TrieNodeCache<>(TrieNodeCache.DEFAULT_MAX_WEIGHT);
+  private final AtomicInteger nodeLoads = new AtomicInteger();
+
+  @Override
+  protected MerklePatriciaTrie<BytesValue, String> createTrie() {
+    return createTrie(MerklePatriciaTrie.EMPTY_TRIE_NODE_HASH);
+  }
+
+  private MerklePatriciaTrie<BytesValue, String> createTrie(final Bytes32 rootHash) {
+    return new StoredMerklePatriciaTrie<>(
+        hash -> {
+          nodeLoads.incrementAndGet();
+          return merkleStorage.get(hash);
+        },
+        rootHash,
+        valueSerializer,
+        valueDeserializer,
+        Optional.of(nodeCache));
+  }
+
+  @Test
+  public void sharesDecodedNodesBetweenTries() {
+    final Bytes32 rootHash = populateTrie();
+
+    final MerklePatriciaTrie<BytesValue, String> first = createTrie(rootHash);
+    assertThat(first.get(BytesValue.of(1, 5, 8, 9))).contains("value1");
+    final int loadsAfterFirstRead = nodeLoads.get();
+    assertThat(loadsAfterFirstRead).isGreaterThan(0);
+
+    final MerklePatriciaTrie<BytesValue, String> second = createTrie(rootHash);
+    assertThat(second.get(BytesValue.of(1, 5, 8, 9))).contains("value1");
+    assertThat(nodeLoads.get()).isEqualTo(loadsAfterFirstRead);
+  }
+
+  @Test
+  public void modifyingCachedNodesDoesNotAffectOtherTries() {
+    final Bytes32 rootHash = populateTrie();
+
+    final MerklePatriciaTrie<BytesValue, String> first = createTrie(rootHash);
+    final MerklePatriciaTrie<BytesValue, String> second = createTrie(rootHash);
+    first.put(BytesValue.of(1, 5, 8, 9), "updated");
+    first.remove(BytesValue.of(1, 6, 1, 2));
+
+    assertThat(second.get(BytesValue.of(1, 5, 8, 9))).contains("value1");
+    assertThat(second.get(BytesValue.of(1, 6, 1, 2))).contains("value2");
+    assertThat(second.getRootHash()).isEqualTo(rootHash);
+  }
+
+  @Test
+  public void reloadsNodesAfterInvalidation() {
+    final Bytes32 rootHash = populateTrie();
+    createTrie(rootHash).get(BytesValue.of(1, 5, 8, 9));
+    assertThat(nodeCache.size()).isGreaterThan(0);
+
+    nodeCache.invalidateAll();
+    final int loadsBeforeRead = nodeLoads.get();
+    assertThat(createTrie(rootHash).get(BytesValue.of(1, 5, 8, 9))).contains("value1");
+    assertThat(nodeLoads.get()).isGreaterThan(loadsBeforeRead);
+  }
+
+  @Test
+  public void keepsLoadedNodesAfterEvictionFromCache() {
+    final Bytes32 rootHash = populateTrie();
+    final MerklePatriciaTrie<BytesValue, String> trie = createTrie(rootHash);
+    assertThat(trie.get(BytesValue.of(1, 5, 8, 9))).contains("value1");
+
+    nodeCache.invalidateAll();
+    final int loadsBeforeRead = nodeLoads.get();
+    assertThat(trie.get(BytesValue.of(1, 5, 8, 9))).contains("value1");
+    assertThat(nodeLoads.get()).isEqualTo(loadsBeforeRead);
+  }
+
+  private Bytes32 populateTrie() {
+    final MerklePatriciaTrie<BytesValue, String> trie = createTrie();
+    trie.put(BytesValue.of(1, 5, 8, 9), "value1");
+    trie.put(BytesValue.of(1, 6, 1, 2), "value2");
+    trie.put(BytesValue.of(1, 6, 1, 3), "value3");
+    trie.commit(merkleStorage::put);
+    return trie.getRootHash();
+  }
+}
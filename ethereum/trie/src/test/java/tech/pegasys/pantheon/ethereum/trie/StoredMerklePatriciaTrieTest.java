@@ -20,7 +20,11 @@ import tech.pegasys.pantheon.util.bytes.Bytes32;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 import org.junit.Test;
@@ -118,4 +122,55 @@ public class StoredMerklePatriciaTrieTest extends AbstractMerklePatriciaTrieTest
     assertThat(trie.get(key2)).isEqualTo(Optional.of("value2"));
     assertThat(trie.get(key3)).isEqualTo(Optional.of("value3"));
   }
+
+  @Test
+  public void concurrentCommitMatchesSequentialCommit() {
+    final MerkleStorage sequentialStorage =
+        new KeyValueMerkleStorage(new InMemoryKeyValueStorage());
+    final MerkleStorage concurrentStorage =
+        new KeyValueMerkleStorage(new InMemoryKeyValueStorage());
+    final MerklePatriciaTrie<BytesValue, String> sequentialTrie =
+        new StoredMerklePatriciaTrie<>(sequentialStorage::get, valueSerializer, valueDeserializer);
+    final MerklePatriciaTrie<BytesValue, String> concurrentTrie =
+        new StoredMerklePatriciaTrie<>(concurrentStorage::get, valueSerializer, valueDeserializer);
+    final Random random = new Random(1);
+    final List<Bytes32> keys = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      final byte[] key = new byte[Bytes32.SIZE];
+      random.nextBytes(key);
+      keys.add(Bytes32.wrap(key));
+    }
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      // The second round updates a trie loaded from storage.
+      for (int round = 0; round < 2; round++) {
+        for (int i = round * 500; i < keys.size(); i++) {
+          sequentialTrie.put(keys.get(i), "value" + round + i);
+          concurrentTrie.put(keys.get(i), "value" + round + i);
+        }
+
+        assertThat(concurrentTrie.getRootHash(pool)).isEqualTo(sequentialTrie.getRootHash());
+
+        final List<Bytes32> sequentialHashes = new ArrayList<>();
+        sequentialTrie.commit(
+            (hash, value) -> {
+              sequentialHashes.add(hash);
+              sequentialStorage.put(hash, value);
+            });
+        final List<Bytes32> concurrentHashes = new ArrayList<>();
+        concurrentTrie.commit(
+            (hash, value) -> {
+              concurrentHashes.add(hash);
+              concurrentStorage.put(hash, value);
+            },
+            pool);
+
+        assertThat(concurrentHashes).isNotEmpty().isEqualTo(sequentialHashes);
+        assertThat(concurrentTrie.getRootHash()).isEqualTo(sequentialTrie.getRootHash());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
 }
@@ -640,7 +640,8 @@ public class RunnerBuilder {
     final WebSocketMethodsFactory websocketMethodsFactory =
         new WebSocketMethodsFactory(subscriptionManager, jsonRpcMethods);
     final WebSocketRequestHandler websocketRequestHandler =
-        new WebSocketRequestHandler(vertx, websocketMethodsFactory.methods());
+        new WebSocketRequestHandler(
+            vertx, websocketMethodsFactory.methods(), configuration.getMaxResponseBytes());
 
     return new WebSocketService(vertx, configuration, websocketRequestHandler);
   }
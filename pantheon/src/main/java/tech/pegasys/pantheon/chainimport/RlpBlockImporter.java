@@ -20,7 +20,7 @@ import tech.pegasys.pantheon.ethereum.ProtocolContext;
 import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
 import tech.pegasys.pantheon.ethereum.core.Block;
 import tech.pegasys.pantheon.ethereum.core.BlockHeader;
-import tech.pegasys.pantheon.ethereum.core.Transaction;
+import tech.pegasys.pantheon.ethereum.core.TransactionSenderRecovery;
 import tech.pegasys.pantheon.ethereum.mainnet.BlockHeaderValidator;
 import tech.pegasys.pantheon.ethereum.mainnet.HeaderValidationMode;
 import tech.pegasys.pantheon.ethereum.mainnet.ProtocolSchedule;
@@ -31,8 +31,6 @@ import tech.pegasys.pantheon.util.uint.UInt256;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -97,15 +95,14 @@ public class RlpBlockImporter {
             CompletableFuture.runAsync(
                 () -> validateBlock(protocolSpec, context, lastHeader, header), validationExecutor);
 
-        final CompletableFuture<Void> extractingFuture =
-            CompletableFuture.runAsync(() -> extractSignatures(block));
+        // Senders are recovered in parallel on the sender recovery pool while the previous block
+        // is imported, so there is no need to hand the work to another thread first.
+        extractSignatures(block);
 
-        final CompletableFuture<Void> calculationFutures;
-        if (previousBlockFuture == null) {
-          calculationFutures = extractingFuture;
-        } else {
-          calculationFutures = CompletableFuture.allOf(extractingFuture, previousBlockFuture);
-        }
+        final CompletableFuture<Void> calculationFutures =
+            previousBlockFuture == null
+                ? CompletableFuture.completedFuture(null)
+                : previousBlockFuture;
 
         try {
           blockBacklog.acquire();
@@ -145,14 +142,7 @@ public class RlpBlockImporter {
   }
 
   private void extractSignatures(final Block block) {
-    final List<CompletableFuture<Void>> futures =
-        new ArrayList<>(block.getBody().getTransactions().size());
-    for (final Transaction tx : block.getBody().getTransactions()) {
-      futures.add(CompletableFuture.runAsync(tx::getSender, validationExecutor));
-    }
-    for (final CompletableFuture<Void> future : futures) {
-      future.join();
-    }
+    TransactionSenderRecovery.getInstance().recoverSenders(block.getBody().getTransactions());
   }
 
   private <C> void validateBlock(
@@ -41,6 +41,7 @@ import tech.pegasys.pantheon.cli.custom.CorsAllowedOriginsProperty;
 import tech.pegasys.pantheon.cli.custom.JsonRPCWhitelistHostsProperty;
 import tech.pegasys.pantheon.cli.custom.RpcAuthFileValidator;
 import tech.pegasys.pantheon.cli.error.PantheonExceptionHandler;
+import tech.pegasys.pantheon.cli.options.BlockchainCacheOptions;
 import tech.pegasys.pantheon.cli.options.EthProtocolOptions;
 import tech.pegasys.pantheon.cli.options.MetricsCLIOptions;
 import tech.pegasys.pantheon.cli.options.NetworkingOptions;
@@ -62,6 +63,7 @@ import tech.pegasys.pantheon.config.GenesisConfigFile;
 import tech.pegasys.pantheon.controller.KeyPairUtil;
 import tech.pegasys.pantheon.controller.PantheonController;
 import tech.pegasys.pantheon.controller.PantheonControllerBuilder;
+import tech.pegasys.pantheon.crypto.SECP256K1;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.core.PrivacyParameters;
@@ -167,6 +169,7 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
   final MetricsCLIOptions metricsCLIOptions = MetricsCLIOptions.create();
   final RocksDBOptions rocksDBOptions = RocksDBOptions.create();
   final TransactionPoolOptions transactionPoolOptions = TransactionPoolOptions.create();
+  final BlockchainCacheOptions blockchainCacheOptions = BlockchainCacheOptions.create();
   private final RunnerBuilder runnerBuilder;
   private final PantheonController.Builder controllerBuilderFactory;
   private final PantheonPluginContextImpl pantheonPluginContext;
@@ -571,6 +574,14 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
       arity = "1")
   private final Long pruningBlockConfirmations = DEFAULT_PRUNING_BLOCK_CONFIRMATIONS;
 
+  @Option(
+      names = {"--Xsecp256k1-backend"},
+      hidden = true,
+      paramLabel = MANDATORY_MODE_FORMAT_HELP,
+      description =
+          "Arithmetic used to verify secp256k1 signatures and recover public keys, possible values are ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+  private final SECP256K1.Backend secp256k1Backend = SECP256K1.Backend.OPTIMIZED;
+
   @Option(
       names = {"--permissions-nodes-config-file-enabled"},
       description = "Enable node level permissions (default: ${DEFAULT-VALUE})")
@@ -758,6 +769,7 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
     final ImmutableMap.Builder<String, Object> unstableOptionsBuild = ImmutableMap.builder();
     final ImmutableMap<String, Object> unstableOptions =
         unstableOptionsBuild
+            .put("Blockchain Cache", blockchainCacheOptions)
             .put("Ethereum Wire Protocol", ethProtocolOptions)
             .put("Metrics", metricsCLIOptions)
             .put("P2P Network", networkingOptions)
@@ -873,6 +885,7 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
   }
 
   private PantheonCommand configure() throws Exception {
+    SECP256K1.setBackend(secp256k1Backend);
     ethNetworkConfig = updateNetworkConfig(getNetwork());
     jsonRpcConfiguration = jsonRpcConfiguration();
     graphQLConfiguration = graphQLConfiguration();
@@ -946,7 +959,8 @@ public class PantheonCommand implements DefaultCommandValues, Runnable {
           .clock(Clock.systemUTC())
           .isRevertReasonEnabled(isRevertReasonEnabled)
           .isPruningEnabled(isPruningEnabled)
-          .pruningConfiguration(buildPruningConfiguration());
+          .pruningConfiguration(buildPruningConfiguration())
+          .blockchainCacheConfiguration(blockchainCacheOptions.toDomainObject().build());
     } catch (IOException e) {
       throw new ExecutionException(this.commandLine, "Invalid path", e);
     }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.cli.options;
+
+import tech.pegasys.pantheon.ethereum.chain.BlockchainCacheConfiguration;
+
+import java.util.Arrays;
+import java.util.List;
+
+import picocli.CommandLine;
+
+public class BlockchainCacheOptions implements CLIOptions<BlockchainCacheConfiguration.Builder> {
+  private static final String CACHE_CAPACITY_FLAG = "--Xblockchain-cache-capacity";
+  private static final String BLOCK_HASH_CACHE_SIZE_FLAG = "--Xblockchain-block-hash-cache-size";
+
+  @CommandLine.Option(
+      names = {CACHE_CAPACITY_FLAG},
+      hidden = true,
+      defaultValue = "67108864",
+      paramLabel = "<LONG>",
+      description = "Approximate bytes of blocks and receipts to cache (default: ${DEFAULT-VALUE})")
+  long cacheCapacity;
+
+  @CommandLine.Option(
+      names = {BLOCK_HASH_CACHE_SIZE_FLAG},
+      hidden = true,
+      defaultValue = "4096",
+      paramLabel = "<INTEGER>",
+      description = "Number of block hashes by number to cache (default: ${DEFAULT-VALUE})")
+  int blockHashCacheSize;
+
+  private BlockchainCacheOptions() {}
+
+  public static BlockchainCacheOptions create() {
+    return new BlockchainCacheOptions();
+  }
+
+  public static BlockchainCacheOptions fromConfig(final BlockchainCacheConfiguration config) {
+    final BlockchainCacheOptions options = create();
+    options.cacheCapacity = config.getCacheCapacity();
+    options.blockHashCacheSize = config.getBlockHashCacheSize();
+    return options;
+  }
+
+  @Override
+  public BlockchainCacheConfiguration.Builder toDomainObject() {
+    return BlockchainCacheConfiguration.builder()
+        .cacheCapacity(cacheCapacity)
+        .blockHashCacheSize(blockHashCacheSize);
+  }
+
+  @Override
+  public List<String> getCLIOptions() {
+    return Arrays.asList(
+        CACHE_CAPACITY_FLAG,
+        OptionParser.format(cacheCapacity),
+        BLOCK_HASH_CACHE_SIZE_FLAG,
+        OptionParser.format(blockHashCacheSize));
+  }
+}
@@ -12,6 +12,8 @@
  */
 package tech.pegasys.pantheon.cli.options;
 
+import tech.pegasys.pantheon.services.kvstore.RocksDbColumnProfile;
+import tech.pegasys.pantheon.services.kvstore.RocksDbCommitMode;
 import tech.pegasys.pantheon.services.kvstore.RocksDbConfiguration;
 
 import java.util.Arrays;
@@ -25,6 +27,14 @@ public class RocksDBOptions implements CLIOptions<RocksDbConfiguration.Builder>
   private static final String MAX_BACKGROUND_COMPACTIONS_FLAG =
       "--Xrocksdb-max-background-compactions";
   private static final String BACKGROUND_THREAD_COUNT_FLAG = "--Xrocksdb-background-thread-count";
+  private static final String BLOCKCHAIN_COLUMN_PROFILE_FLAG =
+      "--Xrocksdb-blockchain-column-profile";
+  private static final String WORLD_STATE_COLUMN_PROFILE_FLAG =
+      "--Xrocksdb-world-state-column-profile";
+  private static final String COMMIT_MODE_FLAG = "--Xrocksdb-commit-mode";
+  private static final String WAL_DISABLED_FLAG = "--Xrocksdb-wal-disabled";
+  private static final String WAL_SYNC_INTERVAL_FLAG = "--Xrocksdb-wal-sync-interval";
+  private static final String TRIE_NODE_CACHE_CAPACITY_FLAG = "--Xrocksdb-trie-node-cache-capacity";
 
   @CommandLine.Option(
       names = {MAX_OPEN_FILES_FLAG},
@@ -58,6 +68,66 @@ public class RocksDBOptions implements CLIOptions<RocksDbConfiguration.Builder>
       description = "Number of RocksDB background threads (default: ${DEFAULT-VALUE})")
   int backgroundThreadCount;
 
+  @CommandLine.Option(
+      names = {BLOCKCHAIN_COLUMN_PROFILE_FLAG},
+      hidden = true,
+      defaultValue = "SEQUENTIAL",
+      paramLabel = "<PROFILE>",
+      description =
+          "Table layout of the RocksDB column holding the blockchain. "
+              + "Possible values are ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+  RocksDbColumnProfile blockchainColumnProfile;
+
+  @CommandLine.Option(
+      names = {WORLD_STATE_COLUMN_PROFILE_FLAG},
+      hidden = true,
+      defaultValue = "POINT_LOOKUP",
+      paramLabel = "<PROFILE>",
+      description =
+          "Table layout of the RocksDB columns holding world state nodes. "
+              + "Possible values are ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+  RocksDbColumnProfile worldStateColumnProfile;
+
+  @CommandLine.Option(
+      names = {COMMIT_MODE_FLAG},
+      hidden = true,
+      defaultValue = "TRANSACTION",
+      paramLabel = "<MODE>",
+      description =
+          "How RocksDB transactions are written. WRITE_BATCH avoids locking keys when importing. "
+              + "Possible values are ${COMPLETION-CANDIDATES} (default: ${DEFAULT-VALUE})")
+  RocksDbCommitMode commitMode;
+
+  @CommandLine.Option(
+      names = {WAL_DISABLED_FLAG},
+      hidden = true,
+      defaultValue = "false",
+      description =
+          "Whether to write RocksDB batches without the write ahead log when using WRITE_BATCH "
+              + "until the initial sync completes, losing those not yet flushed if the process "
+              + "stops abruptly before then (default: ${DEFAULT-VALUE})")
+  Boolean walDisabled;
+
+  @CommandLine.Option(
+      names = {WAL_SYNC_INTERVAL_FLAG},
+      hidden = true,
+      defaultValue = "0",
+      paramLabel = "<INTEGER>",
+      description =
+          "Number of RocksDB batches after which the write ahead log is synced to disk when using "
+              + "WRITE_BATCH, or 0 to leave it to the operating system (default: ${DEFAULT-VALUE})")
+  int walSyncInterval;
+
+  @CommandLine.Option(
+      names = {TRIE_NODE_CACHE_CAPACITY_FLAG},
+      hidden = true,
+      defaultValue = "67108864",
+      paramLabel = "<LONG>",
+      description =
+          "Approximate bytes of decoded world state trie nodes to cache, "
+              + "or 0 to disable the cache (default: ${DEFAULT-VALUE})")
+  long trieNodeCacheCapacity;
+
   private RocksDBOptions() {}
 
   public static RocksDBOptions create() {
@@ -70,6 +140,12 @@ public class RocksDBOptions implements CLIOptions<RocksDbConfiguration.Builder>
     options.cacheCapacity = config.getCacheCapacity();
     options.maxBackgroundCompactions = config.getMaxBackgroundCompactions();
     options.backgroundThreadCount = config.getBackgroundThreadCount();
+    options.blockchainColumnProfile = config.getBlockchainColumnProfile();
+    options.worldStateColumnProfile = config.getWorldStateColumnProfile();
+    options.commitMode = config.getCommitMode();
+    options.walDisabled = config.isWalDisabled();
+    options.walSyncInterval = config.getWalSyncInterval();
+    options.trieNodeCacheCapacity = config.getTrieNodeCacheCapacity();
     return options;
   }
 
@@ -79,7 +155,13 @@ public class RocksDBOptions implements CLIOptions<RocksDbConfiguration.Builder>
         .maxOpenFiles(maxOpenFiles)
         .cacheCapacity(cacheCapacity)
         .maxBackgroundCompactions(maxBackgroundCompactions)
-        .backgroundThreadCount(backgroundThreadCount);
+        .backgroundThreadCount(backgroundThreadCount)
+        .blockchainColumnProfile(blockchainColumnProfile)
+        .worldStateColumnProfile(worldStateColumnProfile)
+        .commitMode(commitMode)
+        .walDisabled(walDisabled)
+        .walSyncInterval(walSyncInterval)
+        .trieNodeCacheCapacity(trieNodeCacheCapacity);
   }
 
   @Override
@@ -92,6 +174,17 @@ public class RocksDBOptions implements CLIOptions<RocksDbConfiguration.Builder>
         MAX_BACKGROUND_COMPACTIONS_FLAG,
         OptionParser.format(maxBackgroundCompactions),
         BACKGROUND_THREAD_COUNT_FLAG,
-        OptionParser.format(backgroundThreadCount));
+        OptionParser.format(backgroundThreadCount),
+        BLOCKCHAIN_COLUMN_PROFILE_FLAG,
+        blockchainColumnProfile.name(),
+        WORLD_STATE_COLUMN_PROFILE_FLAG,
+        worldStateColumnProfile.name(),
+        COMMIT_MODE_FLAG,
+        commitMode.name(),
+        WAL_DISABLED_FLAG + "=" + walDisabled.toString(),
+        WAL_SYNC_INTERVAL_FLAG,
+        OptionParser.format(walSyncInterval),
+        TRIE_NODE_CACHE_CAPACITY_FLAG,
+        OptionParser.format(trieNodeCacheCapacity));
   }
 }
@@ -22,7 +22,9 @@ import tech.pegasys.pantheon.crypto.SECP256K1.KeyPair;
 import tech.pegasys.pantheon.ethereum.ProtocolContext;
 import tech.pegasys.pantheon.ethereum.blockcreation.MiningCoordinator;
 import tech.pegasys.pantheon.ethereum.chain.Blockchain;
+import tech.pegasys.pantheon.ethereum.chain.BlockchainCacheConfiguration;
 import tech.pegasys.pantheon.ethereum.chain.GenesisState;
+import tech.pegasys.pantheon.ethereum.chain.LogsBloomIndexer;
 import tech.pegasys.pantheon.ethereum.chain.MutableBlockchain;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.core.PrivacyParameters;
@@ -88,6 +90,8 @@ public abstract class PantheonControllerBuilder<C> {
   private RocksDbConfiguration rocksDbConfiguration;
   private boolean isPruningEnabled;
   private PruningConfiguration pruningConfiguration;
+  private BlockchainCacheConfiguration blockchainCacheConfiguration =
+      BlockchainCacheConfiguration.DEFAULT;
 
   public PantheonControllerBuilder<C> rocksDbConfiguration(
       final RocksDbConfiguration rocksDbConfiguration) {
@@ -180,6 +184,12 @@ public abstract class PantheonControllerBuilder<C> {
     return this;
   }
 
+  public PantheonControllerBuilder<C> blockchainCacheConfiguration(
+      final BlockchainCacheConfiguration blockchainCacheConfiguration) {
+    this.blockchainCacheConfiguration = blockchainCacheConfiguration;
+    return this;
+  }
+
   public PantheonController<C> build() throws IOException {
     checkNotNull(genesisConfig, "Missing genesis config");
     checkNotNull(syncConfig, "Missing sync config");
@@ -213,6 +223,7 @@ public abstract class PantheonControllerBuilder<C> {
             genesisState,
             protocolSchedule,
             metricsSystem,
+            blockchainCacheConfiguration,
             this::createConsensusContext);
     validateContext(protocolContext);
 
@@ -229,7 +240,6 @@ public abstract class PantheonControllerBuilder<C> {
                   new MarkSweepPruner(
                       protocolContext.getWorldStateArchive().getWorldStateStorage(),
                       blockchain,
-                      storageProvider.createPruningStorage(),
                       metricsSystem),
                   blockchain,
                   Executors.newSingleThreadExecutor(
@@ -253,10 +263,36 @@ public abstract class PantheonControllerBuilder<C> {
                   }
                 }));
 
+    blockchain
+        .getLogsBloomIndex()
+        .ifPresent(
+            logsBloomIndex -> {
+              final LogsBloomIndexer logsBloomIndexer =
+                  new LogsBloomIndexer(
+                      blockchain,
+                      logsBloomIndex,
+                      Executors.newSingleThreadExecutor(
+                          new ThreadFactoryBuilder()
+                              .setDaemon(true)
+                              .setPriority(Thread.MIN_PRIORITY)
+                              .setNameFormat("LogsBloomIndexer-%d")
+                              .build()));
+              logsBloomIndexer.start();
+              addShutdownAction(logsBloomIndexer::stop);
+            });
+
     final boolean fastSyncEnabled = syncConfig.getSyncMode().equals(SyncMode.FAST);
     ethProtocolManager = createEthProtocolManager(protocolContext, fastSyncEnabled);
     final SyncState syncState =
         new SyncState(blockchain, ethProtocolManager.ethContext().getEthPeers());
+    // The sync is complete once a block is imported while in sync, including when the node
+    // starts already in sync and so never reports a change of its sync status.
+    syncState.addSyncStatusListener(
+        syncStatus -> {
+          if (syncState.isInSync()) {
+            storageProvider.onSyncCompleted();
+          }
+        });
     final Synchronizer synchronizer =
         new DefaultSynchronizer<>(
             syncConfig,
@@ -27,6 +27,7 @@ import tech.pegasys.pantheon.chainexport.RlpBlockExporter;
 import tech.pegasys.pantheon.chainimport.JsonBlockImporter;
 import tech.pegasys.pantheon.chainimport.RlpBlockImporter;
 import tech.pegasys.pantheon.cli.config.EthNetworkConfig;
+import tech.pegasys.pantheon.cli.options.BlockchainCacheOptions;
 import tech.pegasys.pantheon.cli.options.EthProtocolOptions;
 import tech.pegasys.pantheon.cli.options.MetricsCLIOptions;
 import tech.pegasys.pantheon.cli.options.NetworkingOptions;
@@ -154,6 +155,8 @@ public abstract class CommandTestAbstract {
     when(mockControllerBuilder.isRevertReasonEnabled(false)).thenReturn(mockControllerBuilder);
     when(mockControllerBuilder.isPruningEnabled(anyBoolean())).thenReturn(mockControllerBuilder);
     when(mockControllerBuilder.pruningConfiguration(any())).thenReturn(mockControllerBuilder);
+    when(mockControllerBuilder.blockchainCacheConfiguration(any()))
+        .thenReturn(mockControllerBuilder);
 
     // doReturn used because of generic PantheonController
     doReturn(mockController).when(mockControllerBuilder).build();
@@ -289,6 +292,10 @@ public abstract class CommandTestAbstract {
       return rocksDBOptions;
     }
 
+    public BlockchainCacheOptions getBlockchainCacheOptions() {
+      return blockchainCacheOptions;
+    }
+
     public NetworkingOptions getNetworkingOptions() {
       return networkingOptions;
     }
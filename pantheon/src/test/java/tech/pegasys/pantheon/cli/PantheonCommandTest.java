@@ -36,6 +36,7 @@ import static tech.pegasys.pantheon.ethereum.p2p.config.DiscoveryConfiguration.M
 import tech.pegasys.pantheon.PantheonInfo;
 import tech.pegasys.pantheon.cli.config.EthNetworkConfig;
 import tech.pegasys.pantheon.config.GenesisConfigFile;
+import tech.pegasys.pantheon.crypto.SECP256K1;
 import tech.pegasys.pantheon.ethereum.core.Address;
 import tech.pegasys.pantheon.ethereum.core.MiningParameters;
 import tech.pegasys.pantheon.ethereum.core.PrivacyParameters;
@@ -2309,6 +2310,19 @@ public class PantheonCommandTest extends CommandTestAbstract {
     assertThat(commandErrorOutput.toString()).isEmpty();
   }
 
+  @Test
+  public void secp256k1BackendCanBeSelected() {
+    try {
+      parseCommand("--Xsecp256k1-backend", "BOUNCY_CASTLE");
+
+      assertThat(SECP256K1.getBackend()).isEqualTo(SECP256K1.Backend.BOUNCY_CASTLE);
+      assertThat(commandOutput.toString()).isEmpty();
+      assertThat(commandErrorOutput.toString()).isEmpty();
+    } finally {
+      SECP256K1.setBackend(SECP256K1.Backend.OPTIMIZED);
+    }
+  }
+
   @Test
   public void pruningOptionsRequiresServiceToBeEnabled() {
 
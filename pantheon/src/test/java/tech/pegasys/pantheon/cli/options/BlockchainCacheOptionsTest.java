@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.cli.options;
+
+import tech.pegasys.pantheon.ethereum.chain.BlockchainCacheConfiguration;
+
+public class BlockchainCacheOptionsTest
+    extends AbstractCLIOptionsTest<BlockchainCacheConfiguration.Builder, BlockchainCacheOptions> {
+
+  @Override
+  BlockchainCacheConfiguration.Builder createDefaultDomainObject() {
+    return BlockchainCacheConfiguration.builder();
+  }
+
+  @Override
+  BlockchainCacheConfiguration.Builder createCustomizedDomainObject() {
+    return BlockchainCacheConfiguration.builder()
+        .cacheCapacity(BlockchainCacheConfiguration.DEFAULT_CACHE_CAPACITY + 1)
+        .blockHashCacheSize(BlockchainCacheConfiguration.DEFAULT_BLOCK_HASH_CACHE_SIZE + 1);
+  }
+
+  @Override
+  BlockchainCacheOptions optionsFromDomainObject(
+      final BlockchainCacheConfiguration.Builder domainObject) {
+    return BlockchainCacheOptions.fromConfig(domainObject.build());
+  }
+
+  @Override
+  BlockchainCacheOptions getOptionsFromPantheonCommand(final TestPantheonCommand command) {
+    return command.getBlockchainCacheOptions();
+  }
+}
@@ -12,6 +12,8 @@
  */
 package tech.pegasys.pantheon.cli.options;
 
+import tech.pegasys.pantheon.services.kvstore.RocksDbColumnProfile;
+import tech.pegasys.pantheon.services.kvstore.RocksDbCommitMode;
 import tech.pegasys.pantheon.services.kvstore.RocksDbConfiguration;
 
 import java.util.Arrays;
@@ -31,7 +33,13 @@ public class RocksDBOptionsTest
         .maxOpenFiles(RocksDbConfiguration.DEFAULT_MAX_OPEN_FILES + 1)
         .cacheCapacity(RocksDbConfiguration.DEFAULT_CACHE_CAPACITY + 1)
         .maxBackgroundCompactions(RocksDbConfiguration.DEFAULT_MAX_BACKGROUND_COMPACTIONS + 1)
-        .backgroundThreadCount(RocksDbConfiguration.DEFAULT_BACKGROUND_THREAD_COUNT + 1);
+        .backgroundThreadCount(RocksDbConfiguration.DEFAULT_BACKGROUND_THREAD_COUNT + 1)
+        .blockchainColumnProfile(RocksDbColumnProfile.DEFAULT)
+        .worldStateColumnProfile(RocksDbColumnProfile.SEQUENTIAL)
+        .commitMode(RocksDbCommitMode.WRITE_BATCH)
+        .walDisabled(!RocksDbConfiguration.DEFAULT_WAL_DISABLED)
+        .walSyncInterval(RocksDbConfiguration.DEFAULT_WAL_SYNC_INTERVAL + 1)
+        .trieNodeCacheCapacity(0);
   }
 
   @Override
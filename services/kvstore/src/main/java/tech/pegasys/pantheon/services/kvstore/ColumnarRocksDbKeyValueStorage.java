@@ -12,10 +12,12 @@
  */
 package tech.pegasys.pantheon.services.kvstore;
 
+import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNullElse;
 
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.OperationTimer;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Cursor;
 import tech.pegasys.pantheon.services.util.RocksDbUtil;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
@@ -25,25 +27,31 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.ImmutableMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
 import org.rocksdb.Env;
 import org.rocksdb.LRUCache;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.Statistics;
 import org.rocksdb.TransactionDB;
 import org.rocksdb.TransactionDBOptions;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
 public class ColumnarRocksDbKeyValueStorage
@@ -51,37 +59,59 @@ public class ColumnarRocksDbKeyValueStorage
 
   private static final Logger LOG = LogManager.getLogger();
   private static final String DEFAULT_COLUMN = "default";
+  private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
 
   private final DBOptions options;
-  private final TransactionDBOptions txOptions;
-  private final TransactionDB db;
+  private final LRUCache blockCache;
+  private final BloomFilter bloomFilter;
+  private final List<ColumnFamilyOptions> columnOptions = new ArrayList<>();
+  private final RocksDbCommitMode commitMode;
+  private final Optional<TransactionDBOptions> txOptions;
+  private final RocksDB db;
+  private final RocksDbBatchWriter batchWriter;
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final Map<String, ColumnFamilyHandle> columnHandlesByName;
   private final RocksDBMetricsHelper rocksDBMetricsHelper;
+  private final ExecutorService readExecutor = KeyRanges.newReadExecutor("rocksdb-read-%d");
 
   public static ColumnarRocksDbKeyValueStorage create(
       final RocksDbConfiguration rocksDbConfiguration,
       final List<Segment> segments,
       final MetricsSystem metricsSystem)
       throws StorageException {
-    return new ColumnarRocksDbKeyValueStorage(rocksDbConfiguration, segments, metricsSystem);
+    return create(
+        rocksDbConfiguration, segments, segment -> RocksDbColumnProfile.DEFAULT, metricsSystem);
+  }
+
+  public static ColumnarRocksDbKeyValueStorage create(
+      final RocksDbConfiguration rocksDbConfiguration,
+      final List<Segment> segments,
+      final Function<Segment, RocksDbColumnProfile> columnProfiles,
+      final MetricsSystem metricsSystem)
+      throws StorageException {
+    return new ColumnarRocksDbKeyValueStorage(
+        rocksDbConfiguration, segments, columnProfiles, metricsSystem);
   }
 
   private ColumnarRocksDbKeyValueStorage(
       final RocksDbConfiguration rocksDbConfiguration,
       final List<Segment> segments,
+      final Function<Segment, RocksDbColumnProfile> columnProfiles,
       final MetricsSystem metricsSystem) {
     RocksDbUtil.loadNativeLibrary();
+    blockCache = new LRUCache(rocksDbConfiguration.getCacheCapacity());
+    bloomFilter = new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false);
     try {
-      final List<ColumnFamilyDescriptor> columnDescriptors =
-          segments.stream()
-              .map(segment -> new ColumnFamilyDescriptor(segment.getId()))
-              .collect(Collectors.toList());
+      final List<ColumnFamilyDescriptor> columnDescriptors = new ArrayList<>();
+      for (final Segment segment : segments) {
+        columnDescriptors.add(
+            new ColumnFamilyDescriptor(
+                segment.getId(), createColumnOptions(columnProfiles.apply(segment))));
+      }
       columnDescriptors.add(
           new ColumnFamilyDescriptor(
               DEFAULT_COLUMN.getBytes(StandardCharsets.UTF_8),
-              new ColumnFamilyOptions()
-                  .setTableFormatConfig(createBlockBasedTableConfig(rocksDbConfiguration))));
+              createColumnOptions(RocksDbColumnProfile.DEFAULT)));
 
       final Statistics stats = new Statistics();
       options =
@@ -95,15 +125,20 @@ public class ColumnarRocksDbKeyValueStorage
                   Env.getDefault()
                       .setBackgroundThreads(rocksDbConfiguration.getBackgroundThreadCount()));
 
-      txOptions = new TransactionDBOptions();
+      commitMode = rocksDbConfiguration.getCommitMode();
+      final String databaseDir = rocksDbConfiguration.getDatabaseDir().toString();
       final List<ColumnFamilyHandle> columnHandles = new ArrayList<>(columnDescriptors.size());
-      db =
-          TransactionDB.open(
-              options,
-              txOptions,
-              rocksDbConfiguration.getDatabaseDir().toString(),
-              columnDescriptors,
-              columnHandles);
+      if (commitMode == RocksDbCommitMode.WRITE_BATCH) {
+        txOptions = Optional.empty();
+        db = RocksDB.open(options, databaseDir, columnDescriptors, columnHandles);
+      } else {
+        final TransactionDBOptions transactionDBOptions = new TransactionDBOptions();
+        txOptions = Optional.of(transactionDBOptions);
+        db =
+            TransactionDB.open(
+                options, transactionDBOptions, databaseDir, columnDescriptors, columnHandles);
+      }
+      batchWriter = new RocksDbBatchWriter(db, rocksDbConfiguration);
       rocksDBMetricsHelper =
           RocksDBMetricsHelper.of(metricsSystem, rocksDbConfiguration, db, stats);
       final Map<BytesValue, String> segmentsById =
@@ -126,9 +161,10 @@ public class ColumnarRocksDbKeyValueStorage
     }
   }
 
-  private BlockBasedTableConfig createBlockBasedTableConfig(final RocksDbConfiguration config) {
-    final LRUCache cache = new LRUCache(config.getCacheCapacity());
-    return new BlockBasedTableConfig().setBlockCache(cache);
+  private ColumnFamilyOptions createColumnOptions(final RocksDbColumnProfile profile) {
+    final ColumnFamilyOptions options = profile.createColumnFamilyOptions(blockCache, bloomFilter);
+    columnOptions.add(options);
+    return options;
   }
 
   @Override
@@ -152,41 +188,93 @@ public class ColumnarRocksDbKeyValueStorage
   @Override
   public Transaction<ColumnFamilyHandle> startTransaction() throws StorageException {
     throwIfClosed();
+    if (commitMode == RocksDbCommitMode.WRITE_BATCH) {
+      return new RocksDbBatchTransaction();
+    }
     final WriteOptions options = new WriteOptions();
-    return new RocksDbTransaction(db.beginTransaction(options), options);
+    return new RocksDbTransaction(((TransactionDB) db).beginTransaction(options), options);
+  }
+
+  @Override
+  public Snapshot<ColumnFamilyHandle> snapshot(final boolean fillCache) throws StorageException {
+    throwIfClosed();
+    return new RocksDbSnapshot(db.getSnapshot(), fillCache);
   }
 
   @Override
   public long removeUnless(
       final ColumnFamilyHandle segmentHandle, final Predicate<BytesValue> inUseCheck) {
-    long removedNodeCounter = 0;
-    try (final RocksIterator rocksIterator = db.newIterator(segmentHandle)) {
-      rocksIterator.seekToFirst();
-      while (rocksIterator.isValid()) {
-        final byte[] key = rocksIterator.key();
-        if (!inUseCheck.test(BytesValue.wrap(key))) {
-          removedNodeCounter++;
-          db.delete(segmentHandle, key);
+    final LongAdder removedNodeCounter = new LongAdder();
+    KeyRanges.forEachParallel(
+        (fromKey, toKey) -> iterate(segmentHandle, fromKey, toKey),
+        entry -> {
+          if (!inUseCheck.test(entry.getKey())) {
+            try {
+              db.delete(segmentHandle, entry.getKey().getArrayUnsafe());
+            } catch (final RocksDBException e) {
+              throw new StorageException(e);
+            }
+            removedNodeCounter.increment();
+          }
+        },
+        readExecutor);
+    return removedNodeCounter.sum();
+  }
+
+  @Override
+  public Cursor iterate(
+      final ColumnFamilyHandle segmentHandle, final BytesValue fromKey, final BytesValue toKey)
+      throws StorageException {
+    throwIfClosed();
+    return new RocksDbCursor(
+        readOptions -> db.newIterator(segmentHandle, readOptions),
+        new ReadOptions(),
+        fromKey,
+        toKey,
+        closed);
+  }
+
+  @Override
+  public void deleteRange(
+      final ColumnFamilyHandle segmentHandle, final BytesValue fromKey, final BytesValue toKey)
+      throws StorageException {
+    throwIfClosed();
+    try {
+      if (!toKey.isEmpty()) {
+        db.deleteRange(segmentHandle, fromKey.getArrayUnsafe(), toKey.getArrayUnsafe());
+        return;
+      }
+      // A range deletion needs an end key, so the last key of a range with no end is removed on its
+      // own.
+      try (final ReadOptions readOptions = new ReadOptions().setTotalOrderSeek(true);
+          final RocksIterator rocksIterator = db.newIterator(segmentHandle, readOptions)) {
+        rocksIterator.seekToLast();
+        if (rocksIterator.isValid()) {
+          final byte[] lastKey = rocksIterator.key();
+          if (BytesValue.wrap(lastKey).compareTo(fromKey) >= 0) {
+            db.deleteRange(segmentHandle, fromKey.getArrayUnsafe(), lastKey);
+            db.delete(segmentHandle, lastKey);
+          }
         }
-        rocksIterator.next();
       }
     } catch (final RocksDBException e) {
       throw new StorageException(e);
     }
-    return removedNodeCounter;
   }
 
   @Override
   public void clear(final ColumnFamilyHandle segmentHandle) {
-    try (final RocksIterator rocksIterator = db.newIterator(segmentHandle)) {
-      rocksIterator.seekToFirst();
-      if (rocksIterator.isValid()) {
-        final byte[] firstKey = rocksIterator.key();
-        rocksIterator.seekToLast();
-        if (rocksIterator.isValid()) {
-          db.deleteRange(segmentHandle, firstKey, rocksIterator.key());
-        }
-      }
+    deleteRange(segmentHandle, BytesValue.EMPTY, BytesValue.EMPTY);
+  }
+
+  /**
+   * Flushes every column before writing all later batches with the write ahead log, so that the
+   * columns stay consistent with each other if the process crashes after the initial sync.
+   */
+  public void enableWriteAheadLog() throws StorageException {
+    throwIfClosed();
+    try {
+      batchWriter.enableWal(List.copyOf(columnHandlesByName.values()));
     } catch (final RocksDBException e) {
       throw new StorageException(e);
     }
@@ -195,10 +283,19 @@ public class ColumnarRocksDbKeyValueStorage
   @Override
   public void close() {
     if (closed.compareAndSet(false, true)) {
-      txOptions.close();
+      readExecutor.shutdown();
+      try {
+        batchWriter.flushIfWalDisabled(List.copyOf(columnHandlesByName.values()));
+      } catch (final RocksDBException e) {
+        LOG.error("Failed to flush batches written without the write ahead log", e);
+      }
+      txOptions.ifPresent(TransactionDBOptions::close);
       options.close();
       columnHandlesByName.values().forEach(ColumnFamilyHandle::close);
       db.close();
+      columnOptions.forEach(ColumnFamilyOptions::close);
+      bloomFilter.close();
+      blockCache.close();
     }
   }
 
@@ -209,6 +306,56 @@ public class ColumnarRocksDbKeyValueStorage
     }
   }
 
+  private class RocksDbSnapshot implements Snapshot<ColumnFamilyHandle> {
+    private final org.rocksdb.Snapshot snapshot;
+    private final ReadOptions readOptions;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    RocksDbSnapshot(final org.rocksdb.Snapshot snapshot, final boolean fillCache) {
+      this.snapshot = snapshot;
+      this.readOptions = new ReadOptions().setSnapshot(snapshot).setFillCache(fillCache);
+    }
+
+    @Override
+    public Optional<BytesValue> get(final ColumnFamilyHandle segment, final BytesValue key)
+        throws StorageException {
+      throwIfClosed();
+      checkState(!released.get(), "Snapshot has been closed");
+
+      try (final OperationTimer.TimingContext ignored =
+          rocksDBMetricsHelper.getReadLatency().startTimer()) {
+        return Optional.ofNullable(db.get(segment, readOptions, key.getArrayUnsafe()))
+            .map(BytesValue::wrap);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    public Cursor iterate(
+        final ColumnFamilyHandle segment, final BytesValue fromKey, final BytesValue toKey)
+        throws StorageException {
+      throwIfClosed();
+      checkState(!released.get(), "Snapshot has been closed");
+      return new RocksDbCursor(
+          readOptions -> db.newIterator(segment, readOptions),
+          new ReadOptions().setSnapshot(snapshot),
+          fromKey,
+          toKey,
+          closed);
+    }
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        readOptions.close();
+        if (!closed.get()) {
+          db.releaseSnapshot(snapshot);
+        }
+      }
+    }
+  }
+
   private class RocksDbTransaction extends AbstractTransaction<ColumnFamilyHandle> {
     private final org.rocksdb.Transaction innerTx;
     private final WriteOptions options;
@@ -268,4 +415,47 @@ public class ColumnarRocksDbKeyValueStorage
       options.close();
     }
   }
+
+  private class RocksDbBatchTransaction extends AbstractTransaction<ColumnFamilyHandle> {
+    private final WriteBatch batch = new WriteBatch();
+
+    @Override
+    protected void doPut(
+        final ColumnFamilyHandle segment, final BytesValue key, final BytesValue value) {
+      try (final OperationTimer.TimingContext ignored =
+          rocksDBMetricsHelper.getWriteLatency().startTimer()) {
+        batch.put(segment, key.getArrayUnsafe(), value.getArrayUnsafe());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doRemove(final ColumnFamilyHandle segment, final BytesValue key) {
+      try (final OperationTimer.TimingContext ignored =
+          rocksDBMetricsHelper.getRemoveLatency().startTimer()) {
+        batch.delete(segment, key.getArrayUnsafe());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doCommit() throws StorageException {
+      try (final OperationTimer.TimingContext ignored =
+          rocksDBMetricsHelper.getCommitLatency().startTimer()) {
+        batchWriter.write(batch);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        batch.close();
+      }
+    }
+
+    @Override
+    protected void doRollback() {
+      batch.close();
+      rocksDBMetricsHelper.getRollbackCount().inc();
+    }
+  }
 }
@@ -14,8 +14,10 @@ package tech.pegasys.pantheon.services.kvstore;
 
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -23,6 +25,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 public class InMemoryKeyValueStorage implements KeyValueStorage {
 
@@ -86,15 +89,77 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
     }
   }
 
+  @Override
+  public Cursor iterate(final BytesValue fromKey, final BytesValue toKey) {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      return cursorOver(hashValueStore, fromKey, toKey);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void deleteRange(final BytesValue fromKey, final BytesValue toKey) {
+    final Lock lock = rwLock.writeLock();
+    lock.lock();
+    try {
+      hashValueStore.keySet().removeIf(key -> KeyRanges.contains(fromKey, toKey, key));
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public Transaction startTransaction() {
     return new InMemoryTransaction();
   }
 
+  @Override
+  public Snapshot snapshot(final boolean fillCache) {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      return new InMemorySnapshot(new HashMap<>(hashValueStore));
+    } finally {
+      lock.unlock();
+    }
+  }
+
   public Set<BytesValue> keySet() {
     return Set.copyOf(hashValueStore.keySet());
   }
 
+  /**
+   * Copies the entries of a range out of the given values, so that later changes to the values
+   * don't affect the cursor. The values must not be changed while they are copied.
+   */
+  static Cursor cursorOver(
+      final Map<BytesValue, BytesValue> values, final BytesValue fromKey, final BytesValue toKey) {
+    final Iterator<Entry> entries =
+        values.entrySet().stream()
+            .filter(entry -> KeyRanges.contains(fromKey, toKey, entry.getKey()))
+            .map(entry -> Entry.create(entry.getKey(), entry.getValue()))
+            .sorted(Comparator.comparing(Entry::getKey))
+            .collect(Collectors.toList())
+            .iterator();
+    return new Cursor() {
+      @Override
+      public boolean hasNext() {
+        return entries.hasNext();
+      }
+
+      @Override
+      public Entry next() {
+        return entries.next();
+      }
+
+      @Override
+      public void close() {}
+    };
+  }
+
   private class InMemoryTransaction extends AbstractTransaction {
 
     private Map<BytesValue, BytesValue> updatedValues = new HashMap<>();
@@ -132,4 +197,25 @@ public class InMemoryKeyValueStorage implements KeyValueStorage {
       removedKeys = null;
     }
   }
+
+  static class InMemorySnapshot extends AbstractSnapshot {
+    private final Map<BytesValue, BytesValue> values;
+
+    InMemorySnapshot(final Map<BytesValue, BytesValue> values) {
+      this.values = values;
+    }
+
+    @Override
+    public Optional<BytesValue> get(final BytesValue key) {
+      return Optional.ofNullable(values.get(key));
+    }
+
+    @Override
+    public Cursor iterate(final BytesValue fromKey, final BytesValue toKey) {
+      return cursorOver(values, fromKey, toKey);
+    }
+
+    @Override
+    public void close() {}
+  }
 }
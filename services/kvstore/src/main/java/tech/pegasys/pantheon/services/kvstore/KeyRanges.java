@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Cursor;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Entry;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.MutableBytesValue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Ranges of keys, from a first key, inclusive, up to the key following the range, exclusive. The
+ * empty value is used as the key following a range with no end.
+ */
+final class KeyRanges {
+  // The number of ranges the keys are split into to read them in parallel.
+  private static final int PARTITIONS = 16;
+
+  private static final int PARTITION_WIDTH = 256 / PARTITIONS;
+
+  private KeyRanges() {}
+
+  /**
+   * @param prefix the prefix of the keys
+   * @return the smallest key following every key starting with the prefix, or an empty value if
+   *     there is none.
+   */
+  static BytesValue prefixEnd(final BytesValue prefix) {
+    for (int i = prefix.size() - 1; i >= 0; i--) {
+      if (prefix.get(i) != (byte) 0xFF) {
+        final MutableBytesValue end = prefix.slice(0, i + 1).mutableCopy();
+        end.set(i, (byte) (end.get(i) + 1));
+        return end;
+      }
+    }
+    return BytesValue.EMPTY;
+  }
+
+  static boolean contains(final BytesValue fromKey, final BytesValue toKey, final BytesValue key) {
+    return key.compareTo(fromKey) >= 0 && (toKey.isEmpty() || key.compareTo(toKey) < 0);
+  }
+
+  /**
+   * Creates an executor for {@link #forEachParallel(BiFunction, Consumer, ExecutorService)} with a
+   * thread for each range of keys. Its threads stop once idle, so it costs nothing between reads.
+   *
+   * @param name the name format of the threads
+   * @return the executor, which must be shut down once finished with
+   */
+  static ExecutorService newReadExecutor(final String name) {
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            PARTITIONS,
+            PARTITIONS,
+            1,
+            TimeUnit.MINUTES,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat(name).setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Reads every key by splitting the keys into ranges by their first byte, which are read in
+   * parallel on the common pool. Only suitable for storage that doesn't block on reads.
+   *
+   * @param iterate opens a cursor over a range of keys
+   * @param consumer the consumer of the entries read, called from several threads at once
+   */
+  static void forEachParallel(
+      final BiFunction<BytesValue, BytesValue, Cursor> iterate, final Consumer<Entry> consumer) {
+    forEachParallel(iterate, consumer, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Reads every key by splitting the keys into ranges by their first byte, which are read in
+   * parallel on the given executor. Returns once every range has been read.
+   *
+   * @param iterate opens a cursor over a range of keys
+   * @param consumer the consumer of the entries read, called from several threads at once
+   * @param executor the executor the ranges are read on
+   */
+  static void forEachParallel(
+      final BiFunction<BytesValue, BytesValue, Cursor> iterate,
+      final Consumer<Entry> consumer,
+      final ExecutorService executor) {
+    final CompletableFuture<?>[] reads =
+        IntStream.range(0, PARTITIONS)
+            .mapToObj(
+                partition ->
+                    CompletableFuture.runAsync(
+                        () -> {
+                          try (final Cursor cursor =
+                              iterate.apply(partitionStart(partition), partitionEnd(partition))) {
+                            cursor.forEachRemaining(consumer);
+                          }
+                        },
+                        executor))
+            .toArray(CompletableFuture<?>[]::new);
+    try {
+      CompletableFuture.allOf(reads).join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private static BytesValue partitionStart(final int partition) {
+    return partition == 0 ? BytesValue.EMPTY : BytesValue.of(partition * PARTITION_WIDTH);
+  }
+
+  private static BytesValue partitionEnd(final int partition) {
+    return partition == PARTITIONS - 1 ? BytesValue.EMPTY : partitionStart(partition + 1);
+  }
+}
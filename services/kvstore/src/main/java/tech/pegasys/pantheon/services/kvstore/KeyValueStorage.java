@@ -17,7 +17,10 @@ import static com.google.common.base.Preconditions.checkState;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.Closeable;
+import java.util.Iterator;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /** Service provided by pantheon to facilitate persistent data storage. */
@@ -37,6 +40,48 @@ public interface KeyValueStorage extends Closeable {
 
   long removeUnless(Predicate<BytesValue> inUseCheck);
 
+  /**
+   * Opens a cursor over the entries whose keys are from {@code fromKey}, inclusive, up to {@code
+   * toKey}, exclusive, in the unsigned lexicographic order of their keys. The cursor must be closed
+   * once finished with.
+   *
+   * @param fromKey The first key of the range.
+   * @param toKey The key following the range, or an empty value for a range with no end.
+   * @return A cursor over the entries of the range.
+   */
+  Cursor iterate(BytesValue fromKey, BytesValue toKey) throws StorageException;
+
+  /**
+   * Opens a cursor over the entries whose keys start with the given prefix, in the unsigned
+   * lexicographic order of their keys. The cursor must be closed once finished with.
+   *
+   * @param prefix The prefix of the keys.
+   * @return A cursor over the entries whose keys start with the prefix.
+   */
+  default Cursor iteratePrefix(final BytesValue prefix) throws StorageException {
+    return iterate(prefix, KeyRanges.prefixEnd(prefix));
+  }
+
+  /**
+   * Removes the entries whose keys are from {@code fromKey}, inclusive, up to {@code toKey},
+   * exclusive, without reading them first.
+   *
+   * @param fromKey The first key of the range.
+   * @param toKey The key following the range, or an empty value for a range with no end.
+   */
+  void deleteRange(BytesValue fromKey, BytesValue toKey) throws StorageException;
+
+  /**
+   * Passes every entry of the storage to the given consumer. The keys are split into ranges by
+   * their first byte, which are read in parallel, so the consumer must be safe to call from several
+   * threads at once and entries are not passed in order.
+   *
+   * @param consumer The consumer of the entries.
+   */
+  default void forEachParallel(final Consumer<Entry> consumer) throws StorageException {
+    KeyRanges.forEachParallel(this::iterate, consumer);
+  }
+
   /**
    * Begins a transaction. Returns a transaction object that can be updated and committed.
    *
@@ -44,6 +89,17 @@ public interface KeyValueStorage extends Closeable {
    */
   Transaction startTransaction() throws StorageException;
 
+  /**
+   * Opens a read-only view of this storage as it is now, which later changes to the storage don't
+   * affect. The view must be closed once finished with.
+   *
+   * @param fillCache whether values read through the view should be added to the read cache of the
+   *     storage. Large scans should not fill the cache, so that they don't evict values which are
+   *     read often.
+   * @return A view of the current contents of the storage.
+   */
+  Snapshot snapshot(boolean fillCache) throws StorageException;
+
   class StorageException extends RuntimeException {
     public StorageException(final Throwable t) {
       super(t);
@@ -85,6 +141,105 @@ public interface KeyValueStorage extends Closeable {
     void rollback();
   }
 
+  /** A key and its value, as read from a storage. */
+  final class Entry {
+    private final BytesValue key;
+    private final BytesValue value;
+
+    private Entry(final BytesValue key, final BytesValue value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    public static Entry create(final BytesValue key, final BytesValue value) {
+      return new Entry(key, value);
+    }
+
+    public BytesValue getKey() {
+      return key;
+    }
+
+    public BytesValue getValue() {
+      return value;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      final Entry other = (Entry) o;
+      return key.equals(other.key) && value.equals(other.value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(key, value);
+    }
+
+    @Override
+    public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  /**
+   * Reads through the entries of a range of keys. Entries are read from the storage in batches as
+   * the cursor advances, and reading the last of them releases what the cursor held on to, but a
+   * cursor must still be closed if it is not read to the end.
+   */
+  interface Cursor extends Iterator<Entry>, Closeable {
+
+    /** Releases the cursor. Reading from the cursor after closing it is not allowed. */
+    @Override
+    void close() throws StorageException;
+  }
+
+  /**
+   * A read-only view of a storage at the point it was opened. Attempting to change the storage
+   * through the view throws {@link UnsupportedOperationException}.
+   */
+  interface Snapshot extends KeyValueStorage {
+
+    /**
+     * Releases the view. Reading from the view after closing it is not allowed, and cursors opened
+     * on the view must be closed first.
+     */
+    @Override
+    void close() throws StorageException;
+  }
+
+  abstract class AbstractSnapshot implements Snapshot {
+
+    @Override
+    public final void clear() {
+      throw new UnsupportedOperationException("Cannot clear a snapshot");
+    }
+
+    @Override
+    public final long removeUnless(final Predicate<BytesValue> inUseCheck) {
+      throw new UnsupportedOperationException("Cannot remove values from a snapshot");
+    }
+
+    @Override
+    public final void deleteRange(final BytesValue fromKey, final BytesValue toKey) {
+      throw new UnsupportedOperationException("Cannot remove values from a snapshot");
+    }
+
+    @Override
+    public final Transaction startTransaction() {
+      throw new UnsupportedOperationException("Cannot update a snapshot");
+    }
+
+    @Override
+    public final Snapshot snapshot(final boolean fillCache) {
+      throw new UnsupportedOperationException("Cannot take a snapshot of a snapshot");
+    }
+  }
+
   abstract class AbstractTransaction implements Transaction {
 
     private boolean active = true;
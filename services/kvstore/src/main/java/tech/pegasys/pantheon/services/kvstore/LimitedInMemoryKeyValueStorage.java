@@ -89,6 +89,39 @@ public class LimitedInMemoryKeyValueStorage implements KeyValueStorage {
     }
   }
 
+  @Override
+  public Cursor iterate(final BytesValue fromKey, final BytesValue toKey) {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      return InMemoryKeyValueStorage.cursorOver(storage.asMap(), fromKey, toKey);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void deleteRange(final BytesValue fromKey, final BytesValue toKey) {
+    final Lock lock = rwLock.writeLock();
+    lock.lock();
+    try {
+      storage.asMap().keySet().removeIf(key -> KeyRanges.contains(fromKey, toKey, key));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Snapshot snapshot(final boolean fillCache) {
+    final Lock lock = rwLock.readLock();
+    lock.lock();
+    try {
+      return new InMemoryKeyValueStorage.InMemorySnapshot(new HashMap<>(storage.asMap()));
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public Transaction startTransaction() {
     return new InMemoryTransaction();
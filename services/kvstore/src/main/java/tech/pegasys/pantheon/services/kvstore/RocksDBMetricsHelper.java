@@ -21,9 +21,9 @@ import tech.pegasys.pantheon.metrics.rocksdb.RocksDBStats;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Statistics;
-import org.rocksdb.TransactionDB;
 
 public class RocksDBMetricsHelper {
   private static final Logger LOG = LogManager.getLogger();
@@ -50,7 +50,7 @@ public class RocksDBMetricsHelper {
   public static RocksDBMetricsHelper of(
       final MetricsSystem metricsSystem,
       final RocksDbConfiguration rocksDbConfiguration,
-      final TransactionDB db,
+      final RocksDB db,
       final Statistics stats) {
     final OperationTimer readLatency =
         metricsSystem
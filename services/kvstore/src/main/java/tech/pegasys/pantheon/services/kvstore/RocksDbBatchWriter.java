@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+/**
+ * Writes the batches of a storage using {@link RocksDbCommitMode#WRITE_BATCH}, following the write
+ * ahead log settings of its configuration.
+ *
+ * <p>Batches written without the write ahead log are lost if the process stops before they are
+ * flushed from the memtables, and the columns they were written to may then disagree. The log is
+ * therefore only disabled until {@link #enableWal(List)} is called once the initial sync completes,
+ * which flushes every column together before any batch is written with the log again. Otherwise
+ * the log is synced to disk every {@link RocksDbConfiguration#getWalSyncInterval()} batches, so
+ * that a crash of the machine loses at most that many batches.
+ */
+class RocksDbBatchWriter {
+  private final RocksDB db;
+  private final int walSyncInterval;
+  private final AtomicLong batchCount = new AtomicLong();
+  private final ReadWriteLock walLock = new ReentrantReadWriteLock();
+  private volatile boolean walDisabled;
+
+  RocksDbBatchWriter(final RocksDB db, final RocksDbConfiguration configuration) {
+    this.db = db;
+    this.walDisabled = configuration.isWalDisabled();
+    this.walSyncInterval = configuration.getWalSyncInterval();
+  }
+
+  void write(final WriteBatch batch) throws RocksDBException {
+    walLock.readLock().lock();
+    try {
+      final boolean sync =
+          !walDisabled
+              && walSyncInterval > 0
+              && batchCount.incrementAndGet() % walSyncInterval == 0;
+      try (final WriteOptions options =
+          new WriteOptions().setDisableWAL(walDisabled).setSync(sync)) {
+        db.write(options, batch);
+      }
+    } finally {
+      walLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Flushes the memtables of the given columns and writes all later batches with the write ahead
+   * log, if it was disabled. Batches are not written while the columns are flushed.
+   *
+   * @param columns the columns to flush, or an empty list for an unsegmented database
+   */
+  void enableWal(final List<ColumnFamilyHandle> columns) throws RocksDBException {
+    if (!walDisabled) {
+      return;
+    }
+    walLock.writeLock().lock();
+    try {
+      if (walDisabled) {
+        flush(columns);
+        walDisabled = false;
+      }
+    } finally {
+      walLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Flushes the memtables of the given columns if the write ahead log is disabled. Must be called
+   * before the database is closed.
+   *
+   * @param columns the columns to flush, or an empty list for an unsegmented database
+   */
+  void flushIfWalDisabled(final List<ColumnFamilyHandle> columns) throws RocksDBException {
+    walLock.writeLock().lock();
+    try {
+      if (walDisabled) {
+        flush(columns);
+      }
+    } finally {
+      walLock.writeLock().unlock();
+    }
+  }
+
+  private void flush(final List<ColumnFamilyHandle> columns) throws RocksDBException {
+    try (final FlushOptions options = new FlushOptions().setWaitForFlush(true)) {
+      if (columns.isEmpty()) {
+        db.flush(options);
+      }
+      for (final ColumnFamilyHandle column : columns) {
+        db.flush(options, column);
+      }
+    }
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import static org.rocksdb.CompressionType.LZ4_COMPRESSION;
+import static org.rocksdb.CompressionType.NO_COMPRESSION;
+import static org.rocksdb.CompressionType.ZSTD_COMPRESSION;
+
+import java.util.List;
+
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.Filter;
+
+/**
+ * How the tables of a RocksDB column are laid out, chosen to suit the way the column is read.
+ *
+ * <p>All columns of a database share one block cache and one bloom filter policy. The tuned
+ * profiles keep index and filter blocks in the block cache, so that they count towards its capacity
+ * rather than growing with the database, and pin those of level 0 so the newest tables are never
+ * read from disk to rule out a key. Levels 0 and 1 are not compressed, since they are rewritten
+ * soon after being written.
+ */
+public enum RocksDbColumnProfile {
+  /** The RocksDB defaults, apart from the shared block cache. */
+  DEFAULT {
+    @Override
+    ColumnFamilyOptions createColumnFamilyOptions(final Cache blockCache, final Filter filter) {
+      return new ColumnFamilyOptions()
+          .setTableFormatConfig(new BlockBasedTableConfig().setBlockCache(blockCache));
+    }
+  },
+
+  /**
+   * For columns read by looking up keys which are uniformly distributed, such as the nodes of the
+   * world state tries which are keyed by their hash. Small blocks keep the cost of each lookup
+   * down, and the values are hashes which don't compress well, so only a cheap compression is used.
+   */
+  POINT_LOOKUP {
+    @Override
+    ColumnFamilyOptions createColumnFamilyOptions(final Cache blockCache, final Filter filter) {
+      return new ColumnFamilyOptions()
+          .setTableFormatConfig(createTableConfig(blockCache, filter, 4 * 1024))
+          .setCompressionPerLevel(
+              List.of(
+                  NO_COMPRESSION,
+                  NO_COMPRESSION,
+                  LZ4_COMPRESSION,
+                  LZ4_COMPRESSION,
+                  LZ4_COMPRESSION,
+                  LZ4_COMPRESSION,
+                  LZ4_COMPRESSION));
+    }
+  },
+
+  /**
+   * For columns whose keys start with a one byte type prefix and are often read in order, such as
+   * the blockchain. Keys are also filtered by their prefix, larger blocks favour reading through
+   * neighbouring keys, and old data is rarely read so the last level uses a stronger compression.
+   */
+  SEQUENTIAL {
+    @Override
+    ColumnFamilyOptions createColumnFamilyOptions(final Cache blockCache, final Filter filter) {
+      return new ColumnFamilyOptions()
+          .setTableFormatConfig(createTableConfig(blockCache, filter, 16 * 1024))
+          .useFixedLengthPrefixExtractor(1)
+          .setMemtablePrefixBloomSizeRatio(0.1)
+          .setCompressionPerLevel(
+              List.of(
+                  NO_COMPRESSION,
+                  NO_COMPRESSION,
+                  LZ4_COMPRESSION,
+                  LZ4_COMPRESSION,
+                  LZ4_COMPRESSION,
+                  LZ4_COMPRESSION,
+                  LZ4_COMPRESSION))
+          .setBottommostCompressionType(ZSTD_COMPRESSION);
+    }
+  };
+
+  /**
+   * Creates the options for a column using this profile. The options must be closed once the
+   * database is closed.
+   *
+   * @param blockCache the block cache shared by all columns
+   * @param filter the bloom filter policy shared by all columns
+   * @return the options for the column
+   */
+  abstract ColumnFamilyOptions createColumnFamilyOptions(Cache blockCache, Filter filter);
+
+  private static BlockBasedTableConfig createTableConfig(
+      final Cache blockCache, final Filter filter, final long blockSize) {
+    return new BlockBasedTableConfig()
+        .setBlockCache(blockCache)
+        .setBlockSize(blockSize)
+        .setFilter(filter)
+        .setCacheIndexAndFilterBlocks(true)
+        .setPinL0FilterAndIndexBlocksInCache(true);
+  }
+}
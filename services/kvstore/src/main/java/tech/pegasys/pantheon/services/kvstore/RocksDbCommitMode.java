@@ -0,0 +1,31 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+/** How the transactions of a RocksDB storage are written to the database. */
+public enum RocksDbCommitMode {
+  /**
+   * Each transaction is a RocksDB pessimistic transaction, which locks every key it writes until it
+   * is committed.
+   */
+  TRANSACTION,
+
+  /**
+   * Each transaction collects its changes in a write batch, which is written atomically when it is
+   * committed without locking any keys. Concurrent transactions writing the same key are applied in
+   * the order they are committed, as they are with pessimistic transactions, so this only saves the
+   * cost of locking, which is significant when importing a large number of keys which are never
+   * written concurrently, as during a sync.
+   */
+  WRITE_BATCH
+}
@@ -21,6 +21,14 @@ public class RocksDbConfiguration {
   public static final long DEFAULT_CACHE_CAPACITY = 8388608;
   public static final int DEFAULT_MAX_BACKGROUND_COMPACTIONS = 4;
   public static final int DEFAULT_BACKGROUND_THREAD_COUNT = 4;
+  public static final RocksDbColumnProfile DEFAULT_BLOCKCHAIN_COLUMN_PROFILE =
+      RocksDbColumnProfile.SEQUENTIAL;
+  public static final RocksDbColumnProfile DEFAULT_WORLD_STATE_COLUMN_PROFILE =
+      RocksDbColumnProfile.POINT_LOOKUP;
+  public static final RocksDbCommitMode DEFAULT_COMMIT_MODE = RocksDbCommitMode.TRANSACTION;
+  public static final boolean DEFAULT_WAL_DISABLED = false;
+  public static final int DEFAULT_WAL_SYNC_INTERVAL = 0;
+  public static final long DEFAULT_TRIE_NODE_CACHE_CAPACITY = 64 * 1024 * 1024;
 
   private final Path databaseDir;
   private final int maxOpenFiles;
@@ -28,6 +36,12 @@ public class RocksDbConfiguration {
   private final int maxBackgroundCompactions;
   private final int backgroundThreadCount;
   private final long cacheCapacity;
+  private final RocksDbColumnProfile blockchainColumnProfile;
+  private final RocksDbColumnProfile worldStateColumnProfile;
+  private final RocksDbCommitMode commitMode;
+  private final boolean walDisabled;
+  private final int walSyncInterval;
+  private final long trieNodeCacheCapacity;
 
   private RocksDbConfiguration(
       final Path databaseDir,
@@ -35,6 +49,12 @@ public class RocksDbConfiguration {
       final int maxBackgroundCompactions,
       final int backgroundThreadCount,
       final long cacheCapacity,
+      final RocksDbColumnProfile blockchainColumnProfile,
+      final RocksDbColumnProfile worldStateColumnProfile,
+      final RocksDbCommitMode commitMode,
+      final boolean walDisabled,
+      final int walSyncInterval,
+      final long trieNodeCacheCapacity,
       final String label) {
     this.maxBackgroundCompactions = maxBackgroundCompactions;
     this.backgroundThreadCount = backgroundThreadCount;
@@ -42,6 +62,12 @@ public class RocksDbConfiguration {
     this.databaseDir = databaseDir;
     this.maxOpenFiles = maxOpenFiles;
     this.cacheCapacity = cacheCapacity;
+    this.blockchainColumnProfile = blockchainColumnProfile;
+    this.worldStateColumnProfile = worldStateColumnProfile;
+    this.commitMode = commitMode;
+    this.walDisabled = walDisabled;
+    this.walSyncInterval = walSyncInterval;
+    this.trieNodeCacheCapacity = trieNodeCacheCapacity;
     this.label = label;
   }
 
@@ -69,6 +95,44 @@ public class RocksDbConfiguration {
     return cacheCapacity;
   }
 
+  /** @return the profile of the column holding the blockchain, in segmented databases. */
+  public RocksDbColumnProfile getBlockchainColumnProfile() {
+    return blockchainColumnProfile;
+  }
+
+  /** @return the profile of the columns holding world state nodes, in segmented databases. */
+  public RocksDbColumnProfile getWorldStateColumnProfile() {
+    return worldStateColumnProfile;
+  }
+
+  public RocksDbCommitMode getCommitMode() {
+    return commitMode;
+  }
+
+  /**
+   * @return whether batches are written without the write ahead log until the initial sync
+   *     completes, when using {@link RocksDbCommitMode#WRITE_BATCH}.
+   */
+  public boolean isWalDisabled() {
+    return walDisabled;
+  }
+
+  /**
+   * @return the number of batches after which the write ahead log is synced to disk, when using
+   *     {@link RocksDbCommitMode#WRITE_BATCH}, or 0 to leave syncing to the operating system.
+   */
+  public int getWalSyncInterval() {
+    return walSyncInterval;
+  }
+
+  /**
+   * @return the approximate number of bytes of decoded world state trie nodes to keep in memory, or
+   *     0 to not cache them.
+   */
+  public long getTrieNodeCacheCapacity() {
+    return trieNodeCacheCapacity;
+  }
+
   public String getLabel() {
     return label;
   }
@@ -82,6 +146,12 @@ public class RocksDbConfiguration {
     long cacheCapacity = DEFAULT_CACHE_CAPACITY;
     int maxBackgroundCompactions = DEFAULT_MAX_BACKGROUND_COMPACTIONS;
     int backgroundThreadCount = DEFAULT_BACKGROUND_THREAD_COUNT;
+    RocksDbColumnProfile blockchainColumnProfile = DEFAULT_BLOCKCHAIN_COLUMN_PROFILE;
+    RocksDbColumnProfile worldStateColumnProfile = DEFAULT_WORLD_STATE_COLUMN_PROFILE;
+    RocksDbCommitMode commitMode = DEFAULT_COMMIT_MODE;
+    boolean walDisabled = DEFAULT_WAL_DISABLED;
+    int walSyncInterval = DEFAULT_WAL_SYNC_INTERVAL;
+    long trieNodeCacheCapacity = DEFAULT_TRIE_NODE_CACHE_CAPACITY;
 
     private Builder() {}
 
@@ -115,6 +185,36 @@ public class RocksDbConfiguration {
       return this;
     }
 
+    public Builder blockchainColumnProfile(final RocksDbColumnProfile blockchainColumnProfile) {
+      this.blockchainColumnProfile = blockchainColumnProfile;
+      return this;
+    }
+
+    public Builder worldStateColumnProfile(final RocksDbColumnProfile worldStateColumnProfile) {
+      this.worldStateColumnProfile = worldStateColumnProfile;
+      return this;
+    }
+
+    public Builder commitMode(final RocksDbCommitMode commitMode) {
+      this.commitMode = commitMode;
+      return this;
+    }
+
+    public Builder walDisabled(final boolean walDisabled) {
+      this.walDisabled = walDisabled;
+      return this;
+    }
+
+    public Builder walSyncInterval(final int walSyncInterval) {
+      this.walSyncInterval = walSyncInterval;
+      return this;
+    }
+
+    public Builder trieNodeCacheCapacity(final long trieNodeCacheCapacity) {
+      this.trieNodeCacheCapacity = trieNodeCacheCapacity;
+      return this;
+    }
+
     public RocksDbConfiguration build() {
       return new RocksDbConfiguration(
           databaseDir,
@@ -122,6 +222,12 @@ public class RocksDbConfiguration {
           maxBackgroundCompactions,
           backgroundThreadCount,
           cacheCapacity,
+          blockchainColumnProfile,
+          worldStateColumnProfile,
+          commitMode,
+          walDisabled,
+          walSyncInterval,
+          trieNodeCacheCapacity,
           label);
     }
   }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Cursor;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Entry;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.StorageException;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Slice;
+
+/**
+ * A {@link Cursor} over a range of a RocksDB database or column.
+ *
+ * <p>The range is read in order whatever prefix extractor the column uses, and iteration stops at
+ * the end of the range within RocksDB, so that deleted keys beyond it are never scanned. Entries
+ * are read in batches with read-ahead, without being added to the block cache, and the iterator is
+ * released as soon as the last batch is read.
+ */
+class RocksDbCursor implements Cursor {
+  private static final int BATCH_SIZE = 256;
+  private static final long READAHEAD_SIZE = 2 * 1024 * 1024;
+
+  private final AtomicBoolean storageClosed;
+  private final ReadOptions readOptions;
+  private final Slice upperBound;
+  private final RocksIterator iterator;
+  private final Deque<Entry> batch = new ArrayDeque<>(BATCH_SIZE);
+  private boolean exhausted;
+  private boolean released;
+  private boolean closed;
+
+  /**
+   * @param newIterator opens an iterator with the given read options
+   * @param readOptions the options to read with, which are closed along with the cursor
+   * @param fromKey the first key of the range
+   * @param toKey the key following the range, or an empty value for a range with no end
+   * @param storageClosed whether the storage the cursor reads from has been closed
+   */
+  RocksDbCursor(
+      final Function<ReadOptions, RocksIterator> newIterator,
+      final ReadOptions readOptions,
+      final BytesValue fromKey,
+      final BytesValue toKey,
+      final AtomicBoolean storageClosed) {
+    this.storageClosed = storageClosed;
+    this.readOptions =
+        readOptions.setFillCache(false).setTotalOrderSeek(true).setReadaheadSize(READAHEAD_SIZE);
+    if (toKey.isEmpty()) {
+      upperBound = null;
+    } else {
+      upperBound = new Slice(toKey.extractArray());
+      readOptions.setIterateUpperBound(upperBound);
+    }
+    iterator = newIterator.apply(readOptions);
+    iterator.seek(fromKey.getArrayUnsafe());
+  }
+
+  @Override
+  public boolean hasNext() {
+    checkState(!closed, "Cursor has been closed");
+    checkState(!storageClosed.get(), "Storage has been closed");
+    if (batch.isEmpty() && !exhausted) {
+      readBatch();
+    }
+    return !batch.isEmpty();
+  }
+
+  @Override
+  public Entry next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return batch.removeFirst();
+  }
+
+  private void readBatch() {
+    while (batch.size() < BATCH_SIZE && iterator.isValid()) {
+      final BytesValue key = BytesValue.wrap(iterator.key());
+      batch.addLast(Entry.create(key, BytesValue.wrap(iterator.value())));
+      iterator.next();
+    }
+    if (!iterator.isValid()) {
+      try {
+        iterator.status();
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+      exhausted = true;
+      release();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      exhausted = true;
+      batch.clear();
+      release();
+    }
+  }
+
+  private void release() {
+    if (released) {
+      return;
+    }
+    released = true;
+    // The native iterator is freed along with the database, and must not be freed twice.
+    if (!storageClosed.get()) {
+      iterator.close();
+    }
+    readOptions.close();
+    if (upperBound != null) {
+      upperBound.close();
+    }
+  }
+}
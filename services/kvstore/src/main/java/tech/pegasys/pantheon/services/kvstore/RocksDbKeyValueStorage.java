@@ -12,14 +12,20 @@
  */
 package tech.pegasys.pantheon.services.kvstore;
 
+import static com.google.common.base.Preconditions.checkState;
+
 import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.OperationTimer;
 import tech.pegasys.pantheon.services.util.RocksDbUtil;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.Closeable;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import org.apache.logging.log4j.LogManager;
@@ -27,11 +33,14 @@ import org.apache.logging.log4j.Logger;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.LRUCache;
 import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.Statistics;
 import org.rocksdb.TransactionDB;
 import org.rocksdb.TransactionDBOptions;
+import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
 public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
@@ -39,12 +48,15 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
   private static final Logger LOG = LogManager.getLogger();
 
   private final Options options;
-  private final TransactionDBOptions txOptions;
-  private final TransactionDB db;
+  private final RocksDbCommitMode commitMode;
+  private final Optional<TransactionDBOptions> txOptions;
+  private final RocksDB db;
+  private final RocksDbBatchWriter batchWriter;
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final RocksDBMetricsHelper rocksDBMetricsHelper;
+  private final ExecutorService readExecutor = KeyRanges.newReadExecutor("rocksdb-read-%d");
 
-  public static KeyValueStorage create(
+  public static RocksDbKeyValueStorage create(
       final RocksDbConfiguration rocksDbConfiguration, final MetricsSystem metricsSystem)
       throws StorageException {
     return new RocksDbKeyValueStorage(rocksDbConfiguration, metricsSystem);
@@ -64,8 +76,17 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
               .setStatistics(stats);
       options.getEnv().setBackgroundThreads(rocksDbConfiguration.getBackgroundThreadCount());
 
-      txOptions = new TransactionDBOptions();
-      db = TransactionDB.open(options, txOptions, rocksDbConfiguration.getDatabaseDir().toString());
+      commitMode = rocksDbConfiguration.getCommitMode();
+      final String databaseDir = rocksDbConfiguration.getDatabaseDir().toString();
+      if (commitMode == RocksDbCommitMode.WRITE_BATCH) {
+        txOptions = Optional.empty();
+        db = RocksDB.open(options, databaseDir);
+      } else {
+        final TransactionDBOptions transactionDBOptions = new TransactionDBOptions();
+        txOptions = Optional.of(transactionDBOptions);
+        db = TransactionDB.open(options, transactionDBOptions, databaseDir);
+      }
+      batchWriter = new RocksDbBatchWriter(db, rocksDbConfiguration);
       rocksDBMetricsHelper =
           RocksDBMetricsHelper.of(metricsSystem, rocksDbConfiguration, db, stats);
     } catch (final RocksDBException e) {
@@ -75,17 +96,17 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
 
   @Override
   public void clear() {
-    try (final RocksIterator rocksIterator = db.newIterator()) {
-      if (!rocksIterator.isValid()) {
-        return;
-      }
-      rocksIterator.seekToFirst();
-      final byte[] firstKey = rocksIterator.key();
-      rocksIterator.seekToLast();
-      if (!rocksIterator.isValid()) {
-        return;
-      }
-      db.deleteRange(firstKey, rocksIterator.key());
+    deleteRange(BytesValue.EMPTY, BytesValue.EMPTY);
+  }
+
+  /**
+   * Flushes the batches written without the write ahead log and writes all later batches with it.
+   * Called once the initial sync completes, so that the storage survives a crash from then on.
+   */
+  public void enableWriteAheadLog() throws StorageException {
+    throwIfClosed();
+    try {
+      batchWriter.enableWal(Collections.emptyList());
     } catch (final RocksDBException e) {
       throw new StorageException(e);
     }
@@ -94,7 +115,13 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
   @Override
   public void close() {
     if (closed.compareAndSet(false, true)) {
-      txOptions.close();
+      readExecutor.shutdown();
+      try {
+        batchWriter.flushIfWalDisabled(Collections.emptyList());
+      } catch (final RocksDBException e) {
+        LOG.error("Failed to flush batches written without the write ahead log", e);
+      }
+      txOptions.ifPresent(TransactionDBOptions::close);
       options.close();
       db.close();
     }
@@ -114,28 +141,72 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
 
   @Override
   public long removeUnless(final Predicate<BytesValue> inUseCheck) throws StorageException {
-    long removedNodeCounter = 0;
-    try (final RocksIterator rocksIterator = db.newIterator()) {
-      rocksIterator.seekToFirst();
-      while (rocksIterator.isValid()) {
-        final byte[] key = rocksIterator.key();
-        if (!inUseCheck.test(BytesValue.wrap(key))) {
-          removedNodeCounter++;
-          db.delete(key);
+    final LongAdder removedNodeCounter = new LongAdder();
+    forEachParallel(
+        entry -> {
+          if (!inUseCheck.test(entry.getKey())) {
+            try {
+              db.delete(entry.getKey().getArrayUnsafe());
+            } catch (final RocksDBException e) {
+              throw new StorageException(e);
+            }
+            removedNodeCounter.increment();
+          }
+        });
+    return removedNodeCounter.sum();
+  }
+
+  @Override
+  public void forEachParallel(final Consumer<Entry> consumer) throws StorageException {
+    KeyRanges.forEachParallel(this::iterate, consumer, readExecutor);
+  }
+
+  @Override
+  public Cursor iterate(final BytesValue fromKey, final BytesValue toKey) throws StorageException {
+    throwIfClosed();
+    return new RocksDbCursor(db::newIterator, new ReadOptions(), fromKey, toKey, closed);
+  }
+
+  @Override
+  public void deleteRange(final BytesValue fromKey, final BytesValue toKey)
+      throws StorageException {
+    throwIfClosed();
+    try {
+      if (!toKey.isEmpty()) {
+        db.deleteRange(fromKey.getArrayUnsafe(), toKey.getArrayUnsafe());
+        return;
+      }
+      // A range deletion needs an end key, so the last key of a range with no end is removed on its
+      // own.
+      try (final RocksIterator rocksIterator = db.newIterator()) {
+        rocksIterator.seekToLast();
+        if (rocksIterator.isValid()) {
+          final byte[] lastKey = rocksIterator.key();
+          if (BytesValue.wrap(lastKey).compareTo(fromKey) >= 0) {
+            db.deleteRange(fromKey.getArrayUnsafe(), lastKey);
+            db.delete(lastKey);
+          }
         }
-        rocksIterator.next();
       }
     } catch (final RocksDBException e) {
       throw new StorageException(e);
     }
-    return removedNodeCounter;
   }
 
   @Override
   public Transaction startTransaction() throws StorageException {
     throwIfClosed();
+    if (commitMode == RocksDbCommitMode.WRITE_BATCH) {
+      return new RocksDbBatchTransaction();
+    }
     final WriteOptions options = new WriteOptions();
-    return new RocksDbTransaction(db.beginTransaction(options), options);
+    return new RocksDbTransaction(((TransactionDB) db).beginTransaction(options), options);
+  }
+
+  @Override
+  public Snapshot snapshot(final boolean fillCache) throws StorageException {
+    throwIfClosed();
+    return new RocksDbSnapshot(db.getSnapshot(), fillCache);
   }
 
   private BlockBasedTableConfig createBlockBasedTableConfig(final RocksDbConfiguration config) {
@@ -150,6 +221,49 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
     }
   }
 
+  private class RocksDbSnapshot extends AbstractSnapshot {
+    private final org.rocksdb.Snapshot snapshot;
+    private final ReadOptions readOptions;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    RocksDbSnapshot(final org.rocksdb.Snapshot snapshot, final boolean fillCache) {
+      this.snapshot = snapshot;
+      this.readOptions = new ReadOptions().setSnapshot(snapshot).setFillCache(fillCache);
+    }
+
+    @Override
+    public Optional<BytesValue> get(final BytesValue key) throws StorageException {
+      throwIfClosed();
+      checkState(!released.get(), "Snapshot has been closed");
+
+      try (final OperationTimer.TimingContext ignored =
+          rocksDBMetricsHelper.getReadLatency().startTimer()) {
+        return Optional.ofNullable(db.get(readOptions, key.getArrayUnsafe())).map(BytesValue::wrap);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    public Cursor iterate(final BytesValue fromKey, final BytesValue toKey)
+        throws StorageException {
+      throwIfClosed();
+      checkState(!released.get(), "Snapshot has been closed");
+      return new RocksDbCursor(
+          db::newIterator, new ReadOptions().setSnapshot(snapshot), fromKey, toKey, closed);
+    }
+
+    @Override
+    public void close() {
+      if (released.compareAndSet(false, true)) {
+        readOptions.close();
+        if (!closed.get()) {
+          db.releaseSnapshot(snapshot);
+        }
+      }
+    }
+  }
+
   private class RocksDbTransaction extends AbstractTransaction {
 
     private final org.rocksdb.Transaction innerTx;
@@ -209,4 +323,47 @@ public class RocksDbKeyValueStorage implements KeyValueStorage, Closeable {
       options.close();
     }
   }
+
+  private class RocksDbBatchTransaction extends AbstractTransaction {
+
+    private final WriteBatch batch = new WriteBatch();
+
+    @Override
+    protected void doPut(final BytesValue key, final BytesValue value) {
+      try (final OperationTimer.TimingContext ignored =
+          rocksDBMetricsHelper.getWriteLatency().startTimer()) {
+        batch.put(key.getArrayUnsafe(), value.getArrayUnsafe());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doRemove(final BytesValue key) {
+      try (final OperationTimer.TimingContext ignored =
+          rocksDBMetricsHelper.getRemoveLatency().startTimer()) {
+        batch.delete(key.getArrayUnsafe());
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      }
+    }
+
+    @Override
+    protected void doCommit() throws StorageException {
+      try (final OperationTimer.TimingContext ignored =
+          rocksDBMetricsHelper.getCommitLatency().startTimer()) {
+        batchWriter.write(batch);
+      } catch (final RocksDBException e) {
+        throw new StorageException(e);
+      } finally {
+        batch.close();
+      }
+    }
+
+    @Override
+    protected void doRollback() {
+      batch.close();
+      rocksDBMetricsHelper.getRollbackCount().inc();
+    }
+  }
 }
@@ -14,6 +14,7 @@ package tech.pegasys.pantheon.services.kvstore;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Cursor;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.Closeable;
@@ -47,6 +48,38 @@ public interface SegmentedKeyValueStorage<S> extends Closeable {
    */
   Transaction<S> startTransaction() throws StorageException;
 
+  /**
+   * Opens a read-only view of every segment as it is now, which later changes to the storage don't
+   * affect. The view must be closed once finished with.
+   *
+   * @param fillCache whether values read through the view should be added to the read cache of the
+   *     storage.
+   * @return A view of the current contents of the storage.
+   */
+  Snapshot<S> snapshot(boolean fillCache) throws StorageException;
+
+  /**
+   * Opens a cursor over the entries of a segment whose keys are from {@code fromKey}, inclusive, up
+   * to {@code toKey}, exclusive, in the unsigned lexicographic order of their keys. The cursor must
+   * be closed once finished with.
+   *
+   * @param segmentHandle the segment
+   * @param fromKey The first key of the range.
+   * @param toKey The key following the range, or an empty value for a range with no end.
+   * @return A cursor over the entries of the range.
+   */
+  Cursor iterate(S segmentHandle, BytesValue fromKey, BytesValue toKey) throws StorageException;
+
+  /**
+   * Removes the entries of a segment whose keys are from {@code fromKey}, inclusive, up to {@code
+   * toKey}, exclusive, without reading them first.
+   *
+   * @param segmentHandle the segment
+   * @param fromKey The first key of the range.
+   * @param toKey The key following the range, or an empty value for a range with no end.
+   */
+  void deleteRange(S segmentHandle, BytesValue fromKey, BytesValue toKey) throws StorageException;
+
   long removeUnless(S segmentHandle, Predicate<BytesValue> inUseCheck);
 
   void clear(S segmentHandle);
@@ -57,6 +90,36 @@ public interface SegmentedKeyValueStorage<S> extends Closeable {
     }
   }
 
+  /**
+   * A read-only view of the segments of a storage at the point it was opened.
+   *
+   * @param <S> the segment identifier type
+   */
+  interface Snapshot<S> extends Closeable {
+
+    /**
+     * @param segment the segment
+     * @param key Index into persistent data repository.
+     * @return The value persisted at the key index when the view was opened.
+     */
+    Optional<BytesValue> get(S segment, BytesValue key) throws StorageException;
+
+    /**
+     * Opens a cursor over a range of the entries of a segment as they were when the view was
+     * opened. The cursor must be closed before the view is.
+     *
+     * @param segment the segment
+     * @param fromKey The first key of the range.
+     * @param toKey The key following the range, or an empty value for a range with no end.
+     * @return A cursor over the entries of the range.
+     */
+    Cursor iterate(S segment, BytesValue fromKey, BytesValue toKey) throws StorageException;
+
+    /** Releases the view. Reading from the view after closing it is not allowed. */
+    @Override
+    void close() throws StorageException;
+  }
+
   /**
    * Represents a set of changes to be committed atomically. A single transaction is not
    * thread-safe, but multiple transactions can execute concurrently.
@@ -55,6 +55,39 @@ public class SegmentedKeyValueStorageAdapter<S> implements KeyValueStorage {
     return storage.removeUnless(segmentHandle, inUseCheck);
   }
 
+  @Override
+  public Cursor iterate(final BytesValue fromKey, final BytesValue toKey) throws StorageException {
+    return storage.iterate(segmentHandle, fromKey, toKey);
+  }
+
+  @Override
+  public void deleteRange(final BytesValue fromKey, final BytesValue toKey)
+      throws StorageException {
+    storage.deleteRange(segmentHandle, fromKey, toKey);
+  }
+
+  @Override
+  public Snapshot snapshot(final boolean fillCache) throws StorageException {
+    final SegmentedKeyValueStorage.Snapshot<S> snapshot = storage.snapshot(fillCache);
+    return new AbstractSnapshot() {
+      @Override
+      public Optional<BytesValue> get(final BytesValue key) throws StorageException {
+        return snapshot.get(segmentHandle, key);
+      }
+
+      @Override
+      public Cursor iterate(final BytesValue fromKey, final BytesValue toKey)
+          throws StorageException {
+        return snapshot.iterate(segmentHandle, fromKey, toKey);
+      }
+
+      @Override
+      public void close() throws StorageException {
+        snapshot.close();
+      }
+    };
+  }
+
   @Override
   public Transaction startTransaction() throws StorageException {
     final SegmentedKeyValueStorage.Transaction<S> transaction = storage.startTransaction();
@@ -13,13 +13,21 @@
 package tech.pegasys.pantheon.services.kvstore;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Cursor;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Entry;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Snapshot;
 import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Transaction;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 import tech.pegasys.pantheon.util.bytes.BytesValues;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.Function;
 
@@ -323,6 +331,153 @@ public abstract class AbstractKeyValueStorageTest {
     assertThat(store.get(BytesValue.of(2))).contains(BytesValue.of(2));
   }
 
+  @Test
+  public void snapshotIsUnaffectedByLaterChanges() throws Exception {
+    final KeyValueStorage store = createStore();
+    Transaction tx = store.startTransaction();
+    tx.put(BytesValue.of(1), BytesValue.of(1));
+    tx.put(BytesValue.of(2), BytesValue.of(2));
+    tx.commit();
+
+    try (final Snapshot snapshot = store.snapshot(false)) {
+      tx = store.startTransaction();
+      tx.put(BytesValue.of(1), BytesValue.of(10));
+      tx.remove(BytesValue.of(2));
+      tx.put(BytesValue.of(3), BytesValue.of(3));
+      tx.commit();
+
+      assertThat(snapshot.get(BytesValue.of(1))).contains(BytesValue.of(1));
+      assertThat(snapshot.get(BytesValue.of(2))).contains(BytesValue.of(2));
+      assertThat(snapshot.containsKey(BytesValue.of(3))).isFalse();
+    }
+    assertThat(store.get(BytesValue.of(1))).contains(BytesValue.of(10));
+    assertThat(store.containsKey(BytesValue.of(2))).isFalse();
+    assertThat(store.get(BytesValue.of(3))).contains(BytesValue.of(3));
+  }
+
+  @Test
+  public void snapshotCannotBeUpdated() throws Exception {
+    final KeyValueStorage store = createStore();
+
+    try (final Snapshot snapshot = store.snapshot(true)) {
+      assertThatThrownBy(snapshot::startTransaction)
+          .isInstanceOf(UnsupportedOperationException.class);
+      assertThatThrownBy(snapshot::clear).isInstanceOf(UnsupportedOperationException.class);
+    }
+  }
+
+  @Test
+  public void iterateReadsRangeInOrder() throws Exception {
+    final KeyValueStorage store = createStore();
+    putAll(store, "01", "0100", "0101", "02", "03", "ff", "ffff");
+
+    assertThat(readAll(store.iterate(BytesValue.fromHexString("0100"), BytesValue.of(3))))
+        .containsExactly(entry("0100"), entry("0101"), entry("02"));
+    assertThat(readAll(store.iterate(BytesValue.of(3), BytesValue.EMPTY)))
+        .containsExactly(entry("03"), entry("ff"), entry("ffff"));
+    assertThat(readAll(store.iterate(BytesValue.of(4), BytesValue.of(5)))).isEmpty();
+  }
+
+  @Test
+  public void iteratePrefixReadsKeysWithPrefix() throws Exception {
+    final KeyValueStorage store = createStore();
+    putAll(store, "00ff", "01", "0100", "01ff", "02", "ff", "ffff");
+
+    assertThat(readAll(store.iteratePrefix(BytesValue.of(1))))
+        .containsExactly(entry("01"), entry("0100"), entry("01ff"));
+    assertThat(readAll(store.iteratePrefix(BytesValue.of(0xff))))
+        .containsExactly(entry("ff"), entry("ffff"));
+  }
+
+  @Test
+  public void deleteRangeRemovesOnlyRange() throws Exception {
+    final KeyValueStorage store = createStore();
+    putAll(store, "01", "02", "03", "04", "ff");
+
+    store.deleteRange(BytesValue.of(2), BytesValue.of(4));
+    assertThat(readAll(store.iterate(BytesValue.EMPTY, BytesValue.EMPTY)))
+        .containsExactly(entry("01"), entry("04"), entry("ff"));
+
+    store.deleteRange(BytesValue.of(4), BytesValue.EMPTY);
+    assertThat(readAll(store.iterate(BytesValue.EMPTY, BytesValue.EMPTY)))
+        .containsExactly(entry("01"));
+  }
+
+  @Test
+  public void clearRemovesEverything() throws Exception {
+    final KeyValueStorage store = createStore();
+    putAll(store, "01", "02", "ff");
+
+    store.clear();
+    assertThat(readAll(store.iterate(BytesValue.EMPTY, BytesValue.EMPTY))).isEmpty();
+  }
+
+  @Test
+  public void forEachParallelReadsEveryEntry() throws Exception {
+    final KeyValueStorage store = createStore();
+    final Transaction tx = store.startTransaction();
+    final List<Entry> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      final BytesValue key = BytesValues.toMinimalBytes((i + 1) * 7919);
+      tx.put(key, key);
+      expected.add(Entry.create(key, key));
+    }
+    tx.commit();
+
+    final Set<Entry> read = ConcurrentHashMap.newKeySet();
+    store.forEachParallel(read::add);
+    assertThat(read).containsExactlyInAnyOrderElementsOf(expected);
+  }
+
+  @Test
+  public void forEachParallelRethrowsConsumerException() throws Exception {
+    final KeyValueStorage store = createStore();
+    putAll(store, "01", "80", "ff");
+
+    final IllegalStateException failure = new IllegalStateException("Consumer failed");
+    assertThatThrownBy(
+            () ->
+                store.forEachParallel(
+                    entry -> {
+                      throw failure;
+                    }))
+        .isSameAs(failure);
+  }
+
+  @Test
+  public void snapshotIterateIsUnaffectedByLaterChanges() throws Exception {
+    final KeyValueStorage store = createStore();
+    putAll(store, "01", "02");
+
+    try (final Snapshot snapshot = store.snapshot(false)) {
+      store.deleteRange(BytesValue.EMPTY, BytesValue.EMPTY);
+      putAll(store, "03");
+
+      assertThat(readAll(snapshot.iterate(BytesValue.EMPTY, BytesValue.EMPTY)))
+          .containsExactly(entry("01"), entry("02"));
+    }
+  }
+
+  private static void putAll(final KeyValueStorage store, final String... keys) {
+    final Transaction tx = store.startTransaction();
+    for (final String key : keys) {
+      tx.put(BytesValue.fromHexString(key), BytesValue.fromHexString(key));
+    }
+    tx.commit();
+  }
+
+  private static Entry entry(final String key) {
+    return Entry.create(BytesValue.fromHexString(key), BytesValue.fromHexString(key));
+  }
+
+  private static List<Entry> readAll(final Cursor cursor) {
+    try (cursor) {
+      final List<Entry> entries = new ArrayList<>();
+      cursor.forEachRemaining(entries::add);
+      return entries;
+    }
+  }
+
   @Test
   public void transactionIsolation() throws Exception {
     final int keyCount = 1000;
@@ -77,13 +77,15 @@ public class ColumnarRocksDbKeyValueStorageTest extends AbstractKeyValueStorageT
   }
 
   public enum TestSegment implements Segment {
-    FOO(new byte[] {1}),
-    BAR(new byte[] {2});
+    FOO(new byte[] {1}, RocksDbColumnProfile.POINT_LOOKUP),
+    BAR(new byte[] {2}, RocksDbColumnProfile.SEQUENTIAL);
 
     private final byte[] id;
+    private final RocksDbColumnProfile columnProfile;
 
-    TestSegment(final byte[] id) {
+    TestSegment(final byte[] id, final RocksDbColumnProfile columnProfile) {
       this.id = id;
+      this.columnProfile = columnProfile;
     }
 
     @Override
@@ -101,6 +103,7 @@ public class ColumnarRocksDbKeyValueStorageTest extends AbstractKeyValueStorageT
     return ColumnarRocksDbKeyValueStorage.create(
         RocksDbConfiguration.builder().databaseDir(folder.newFolder().toPath()).build(),
         Arrays.asList(TestSegment.FOO, TestSegment.BAR),
+        segment -> ((TestSegment) segment).columnProfile,
         new NoOpMetricsSystem());
   }
 
@@ -26,7 +26,11 @@ import tech.pegasys.pantheon.metrics.MetricsSystem;
 import tech.pegasys.pantheon.metrics.OperationTimer;
 import tech.pegasys.pantheon.metrics.PantheonMetricCategory;
 import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Transaction;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.LongSupplier;
 
 import org.junit.Rule;
@@ -120,6 +124,21 @@ public class RocksDbKeyValueStorageTest extends AbstractKeyValueStorageTest {
         .isEqualTo("Number of RocksDB transactions rolled back.");
   }
 
+  @Test
+  public void forEachParallelReadsOnStorageThreads() throws Exception {
+    final KeyValueStorage store = createStore();
+    final Transaction tx = store.startTransaction();
+    for (int i = 0; i < 256; i++) {
+      tx.put(BytesValue.of(i), BytesValue.of(i));
+    }
+    tx.commit();
+
+    final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+    store.forEachParallel(entry -> threadNames.add(Thread.currentThread().getName()));
+    assertThat(threadNames).isNotEmpty().allMatch(name -> name.startsWith("rocksdb-read-"));
+    store.close();
+  }
+
   private RocksDbConfiguration config() throws Exception {
     return RocksDbConfiguration.builder().databaseDir(folder.newFolder().toPath()).build();
   }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.services.kvstore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.metrics.noop.NoOpMetricsSystem;
+import tech.pegasys.pantheon.services.kvstore.KeyValueStorage.Transaction;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RocksDbWriteBatchKeyValueStorageTest extends AbstractKeyValueStorageTest {
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  @Override
+  protected KeyValueStorage createStore() throws Exception {
+    return RocksDbKeyValueStorage.create(
+        config(folder.newFolder().toPath()), new NoOpMetricsSystem());
+  }
+
+  @Test
+  public void batchesWrittenWithoutWalAreKeptAfterClose() throws Exception {
+    final RocksDbConfiguration config = config(folder.newFolder().toPath());
+    final KeyValueStorage store = RocksDbKeyValueStorage.create(config, new NoOpMetricsSystem());
+    final Transaction tx = store.startTransaction();
+    tx.put(BytesValue.of(1), BytesValue.of(2));
+    tx.commit();
+    store.close();
+
+    final KeyValueStorage reopened = RocksDbKeyValueStorage.create(config, new NoOpMetricsSystem());
+    assertThat(reopened.get(BytesValue.of(1))).contains(BytesValue.of(2));
+    reopened.close();
+  }
+
+  @Test
+  public void flushesBatchesAndWritesWalOnceEnabled() throws Exception {
+    final Path databaseDir = folder.newFolder().toPath();
+    final RocksDbKeyValueStorage store =
+        RocksDbKeyValueStorage.create(config(databaseDir), new NoOpMetricsSystem());
+    put(store, BytesValue.of(1), BytesValue.of(2));
+    assertThat(filesSize(databaseDir, ".log")).isZero();
+    assertThat(filesSize(databaseDir, ".sst")).isZero();
+
+    store.enableWriteAheadLog();
+    assertThat(filesSize(databaseDir, ".sst")).isPositive();
+
+    put(store, BytesValue.of(3), BytesValue.of(4));
+    assertThat(filesSize(databaseDir, ".log")).isPositive();
+    store.close();
+  }
+
+  private void put(final KeyValueStorage store, final BytesValue key, final BytesValue value) {
+    final Transaction tx = store.startTransaction();
+    tx.put(key, value);
+    tx.commit();
+  }
+
+  private long filesSize(final Path databaseDir, final String extension) throws IOException {
+    try (final Stream<Path> files = Files.list(databaseDir)) {
+      return files
+          .filter(file -> file.getFileName().toString().endsWith(extension))
+          .mapToLong(file -> file.toFile().length())
+          .sum();
+    }
+  }
+
+  private RocksDbConfiguration config(final Path databaseDir) {
+    return RocksDbConfiguration.builder()
+        .databaseDir(databaseDir)
+        .commitMode(RocksDbCommitMode.WRITE_BATCH)
+        .walDisabled(true)
+        .build();
+  }
+}
@@ -14,7 +14,10 @@ package tech.pegasys.pantheon.services.tasks;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
 
@@ -56,6 +59,23 @@ public class CachingTaskCollection<T> implements TaskCollection<T> {
     cache.add(newTask);
   }
 
+  @Override
+  public synchronized void addAll(final Collection<T> taskData) {
+    assertNotClosed();
+    // Fill the cache, then push the rest to the underlying collection in one go.
+    final List<T> overflow = new ArrayList<>();
+    for (final T data : taskData) {
+      if (cacheSize() >= maxCacheSize) {
+        overflow.add(data);
+      } else {
+        cache.add(new CachedTask<>(this, data));
+      }
+    }
+    if (!overflow.isEmpty()) {
+      wrappedCollection.addAll(overflow);
+    }
+  }
+
   @Override
   public synchronized Task<T> remove() {
     assertNotClosed();
@@ -68,6 +88,21 @@ public class CachingTaskCollection<T> implements TaskCollection<T> {
     return pendingTask;
   }
 
+  @Override
+  public synchronized List<Task<T>> removeBatch(final int maxTasks) {
+    assertNotClosed();
+    final List<Task<T>> tasks = new ArrayList<>(Math.min(maxTasks, cache.size()));
+    while (tasks.size() < maxTasks && !cache.isEmpty()) {
+      final Task<T> pendingTask = cache.remove();
+      outstandingTasks.add(pendingTask);
+      tasks.add(pendingTask);
+    }
+    if (tasks.size() < maxTasks) {
+      tasks.addAll(wrappedCollection.removeBatch(maxTasks - tasks.size()));
+    }
+    return tasks;
+  }
+
   @Override
   public synchronized void clear() {
     assertNotClosed();
@@ -17,10 +17,17 @@ import tech.pegasys.pantheon.util.bytes.BytesValue;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
@@ -29,21 +36,38 @@ import com.google.common.annotations.VisibleForTesting;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * A task collection which stores tasks in a log of memory-mapped segment files.
+ *
+ * <p>Each task is appended to the segment being written as its 4-byte length followed by its
+ * serialized data, and tasks are read back in order from the oldest segment. When a task doesn't
+ * fit in the rest of the segment being written, an end of segment marker is written if there is
+ * room for it and writing moves on to a new segment. Segments which have been read are reused for
+ * later writes, and writing restarts at the beginning of the segment whenever all tasks have been
+ * read, so a queue which is kept short never grows beyond a single segment.
+ *
+ * <p>The segments only hold tasks which haven't been removed yet. When a download is resumed its
+ * tasks are requested again, so segments left behind by a previous run are deleted when the
+ * collection is created.
+ */
 public class FlatFileTaskCollection<T> implements TaskCollection<T> {
   private static final Logger LOG = LogManager.getLogger();
   private static final long DEFAULT_FILE_ROLL_SIZE_BYTES = 1024 * 1024 * 10; // 10Mb
+  private static final int END_OF_SEGMENT = -1;
   static final String FILENAME_PREFIX = "tasks";
   private final Set<FlatFileTask<T>> outstandingTasks = new HashSet<>();
 
   private final Path storageDirectory;
   private final Function<T, BytesValue> serializer;
   private final Function<BytesValue, T> deserializer;
-  private final long rollWhenFileSizeExceedsBytes;
+  private final int segmentSize;
 
-  private final ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
-
-  private FileChannel readFileChannel;
-  private FileChannel writeFileChannel;
+  // The segments holding unread tasks, from the one being read to the one being written.
+  private final Deque<Segment> segments = new ArrayDeque<>();
+  // Segments which have been read and can be written again.
+  private final Deque<Segment> freeSegments = new ArrayDeque<>();
+  private ByteBuffer readBuffer;
+  private int nextFileNumber = 0;
 
   private long size = 0;
   private int readFileNumber = 0;
@@ -64,49 +88,56 @@ public class FlatFileTaskCollection<T> implements TaskCollection<T> {
     this.storageDirectory = storageDirectory;
     this.serializer = serializer;
     this.deserializer = deserializer;
-    this.rollWhenFileSizeExceedsBytes = rollWhenFileSizeExceedsBytes;
-    writeFileChannel = openWriteFileChannel(writeFileNumber);
-    readFileChannel = openReadFileChannel(readFileNumber);
+    this.segmentSize = Math.toIntExact(rollWhenFileSizeExceedsBytes);
+    deleteSegmentFiles();
+    startLog();
+  }
+
+  private void startLog() {
+    final Segment segment = openSegment(0);
+    segments.add(segment);
+    readBuffer = segment.buffer.duplicate();
   }
 
-  private FileChannel openReadFileChannel(final int fileNumber) {
-    try {
-      return FileChannel.open(
-          pathForFileNumber(fileNumber),
-          StandardOpenOption.DELETE_ON_CLOSE,
-          StandardOpenOption.READ);
+  private Segment openSegment(final int minimumSize) {
+    if (minimumSize <= segmentSize && !freeSegments.isEmpty()) {
+      final Segment segment = freeSegments.remove();
+      segment.buffer.clear();
+      return segment;
+    }
+
+    final Path path = storageDirectory.resolve(FILENAME_PREFIX + nextFileNumber++);
+    try (final FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE)) {
+      final int capacity = Math.max(segmentSize, minimumSize);
+      return new Segment(path, channel.map(MapMode.READ_WRITE, 0, capacity));
     } catch (final IOException e) {
       throw new StorageException(e);
     }
   }
 
-  private FileChannel openWriteFileChannel(final int fileNumber) {
-    try {
-      return FileChannel.open(
-          pathForFileNumber(fileNumber),
-          StandardOpenOption.TRUNCATE_EXISTING,
-          StandardOpenOption.WRITE,
-          StandardOpenOption.CREATE);
-    } catch (final IOException e) {
-      throw new StorageException(e);
+  private void releaseSegment(final Segment segment) {
+    if (segment.buffer.capacity() == segmentSize) {
+      freeSegments.add(segment);
+    } else {
+      // Segments made larger for a single large task are not kept around.
+      deleteFile(segment.path.toFile());
     }
   }
 
   @Override
   public synchronized void add(final T taskData) {
-    final BytesValue data = serializer.apply(taskData);
-    try {
-      writeTaskData(data);
-      size++;
-      if (writeFileChannel.size() > rollWhenFileSizeExceedsBytes) {
-        LOG.debug("Writing reached end of file {}", writeFileNumber);
-        writeFileChannel.close();
-        writeFileNumber++;
-        writeFileChannel = openWriteFileChannel(writeFileNumber);
-      }
-    } catch (final IOException e) {
-      throw new StorageException(e);
-    }
+    writeTaskData(serializer.apply(taskData));
+  }
+
+  @Override
+  public synchronized void addAll(final Collection<T> taskData) {
+    taskData.forEach(data -> writeTaskData(serializer.apply(data)));
   }
 
   @Override
@@ -114,63 +145,75 @@ public class FlatFileTaskCollection<T> implements TaskCollection<T> {
     if (isEmpty()) {
       return null;
     }
-    try {
-      final ByteBuffer dataBuffer = readNextTaskData();
-      final T data = deserializer.apply(BytesValue.wrapBuffer(dataBuffer));
-      final FlatFileTask<T> task = new FlatFileTask<>(this, data);
-      outstandingTasks.add(task);
-      size--;
-      return task;
-    } catch (final IOException e) {
-      throw new StorageException(e);
-    }
+    return createTask(readNextTaskData());
   }
 
-  private ByteBuffer readNextTaskData() throws IOException {
-    final int dataLength = readDataLength();
-    final ByteBuffer dataBuffer = ByteBuffer.allocate(dataLength);
-    readBytes(dataBuffer, dataLength);
-    return dataBuffer;
-  }
-
-  private void writeTaskData(final BytesValue data) throws IOException {
-    final long offset = writeFileChannel.size();
-    writeDataLength(data.size(), offset);
-    writeFileChannel.write(ByteBuffer.wrap(data.getArrayUnsafe()), offset + Integer.BYTES);
+  @Override
+  public synchronized List<Task<T>> removeBatch(final int maxTasks) {
+    final List<Task<T>> tasks = new ArrayList<>((int) Math.min(maxTasks, size));
+    while (tasks.size() < maxTasks && !isEmpty()) {
+      tasks.add(createTask(readNextTaskData()));
+    }
+    return tasks;
   }
 
-  private int readDataLength() throws IOException {
-    lengthBuffer.position(0);
-    lengthBuffer.limit(Integer.BYTES);
-    readBytes(lengthBuffer, Integer.BYTES);
-    return lengthBuffer.getInt(0);
+  private Task<T> createTask(final BytesValue data) {
+    final FlatFileTask<T> task = new FlatFileTask<>(this, deserializer.apply(data));
+    outstandingTasks.add(task);
+    return task;
   }
 
-  private void writeDataLength(final int size, final long offset) throws IOException {
-    lengthBuffer.position(0);
-    lengthBuffer.putInt(size);
-    lengthBuffer.flip();
-    writeFileChannel.write(lengthBuffer, offset);
+  private void writeTaskData(final BytesValue data) {
+    final int recordSize = Integer.BYTES + data.size();
+    MappedByteBuffer writeBuffer = segments.getLast().buffer;
+    if (writeBuffer.remaining() < recordSize) {
+      LOG.debug("Writing reached end of file {}", writeFileNumber);
+      if (writeBuffer.remaining() >= Integer.BYTES) {
+        writeBuffer.putInt(END_OF_SEGMENT);
+      }
+      segments.add(openSegment(recordSize));
+      writeFileNumber++;
+      writeBuffer = segments.getLast().buffer;
+    }
+    writeBuffer.putInt(data.size());
+    writeBuffer.put(data.getArrayUnsafe());
+    size++;
   }
 
-  private void readBytes(final ByteBuffer buffer, final int expectedLength) throws IOException {
-    int readBytes = readFileChannel.read(buffer);
-
-    if (readBytes == -1 && writeFileNumber > readFileNumber) {
+  private BytesValue readNextTaskData() {
+    // Only segments which have been written to the end have an end, the last one continues.
+    if (segments.size() > 1 && isAtEndOfSegment()) {
       LOG.debug("Reading reached end of file {}", readFileNumber);
-      readFileChannel.close();
+      releaseSegment(segments.remove());
       readFileNumber++;
-      readFileChannel = openReadFileChannel(readFileNumber);
-
-      readBytes = readFileChannel.read(buffer);
+      readBuffer = segments.getFirst().buffer.duplicate();
+      readBuffer.clear();
     }
-    if (readBytes != expectedLength) {
+
+    final int dataLength = readBuffer.getInt();
+    if (dataLength < 0 || dataLength > readBuffer.remaining()) {
       throw new IllegalStateException(
           "Task queue corrupted. Expected to read "
-              + expectedLength
-              + " bytes but only got "
-              + readBytes);
+              + dataLength
+              + " bytes but only "
+              + readBuffer.remaining()
+              + " remain");
     }
+    final byte[] data = new byte[dataLength];
+    readBuffer.get(data);
+    size--;
+
+    if (size == 0) {
+      // Everything written has been read, so start writing from the beginning again.
+      segments.getFirst().buffer.clear();
+      readBuffer.clear();
+    }
+    return BytesValue.wrap(data);
+  }
+
+  private boolean isAtEndOfSegment() {
+    return readBuffer.remaining() < Integer.BYTES
+        || readBuffer.getInt(readBuffer.position()) == END_OF_SEGMENT;
   }
 
   @Override
@@ -196,23 +239,14 @@ public class FlatFileTaskCollection<T> implements TaskCollection<T> {
   @Override
   public synchronized void clear() {
     outstandingTasks.clear();
-    try {
-      readFileChannel.close();
-      writeFileChannel.close();
-      for (int i = readFileNumber; i <= writeFileNumber; i++) {
-        final File file = pathForFileNumber(i).toFile();
-        if (!file.delete() && file.exists()) {
-          LOG.error("Failed to delete tasks file {}", file.getAbsolutePath());
-        }
-      }
-      readFileNumber = 0;
-      writeFileNumber = 0;
-      writeFileChannel = openWriteFileChannel(writeFileNumber);
-      readFileChannel = openReadFileChannel(readFileNumber);
-      size = 0;
-    } catch (final IOException e) {
-      throw new StorageException(e);
-    }
+    segments.clear();
+    freeSegments.clear();
+    deleteSegmentFiles();
+    nextFileNumber = 0;
+    readFileNumber = 0;
+    writeFileNumber = 0;
+    size = 0;
+    startLog();
   }
 
   @Override
@@ -222,16 +256,25 @@ public class FlatFileTaskCollection<T> implements TaskCollection<T> {
 
   @Override
   public synchronized void close() {
-    try {
-      readFileChannel.close();
-      writeFileChannel.close();
-    } catch (final IOException e) {
-      throw new StorageException(e);
+    segments.clear();
+    freeSegments.clear();
+    deleteSegmentFiles();
+  }
+
+  private void deleteSegmentFiles() {
+    final File[] files =
+        storageDirectory.toFile().listFiles((dir, name) -> name.startsWith(FILENAME_PREFIX));
+    if (files != null) {
+      for (final File file : files) {
+        deleteFile(file);
+      }
     }
   }
 
-  private Path pathForFileNumber(final int fileNumber) {
-    return storageDirectory.resolve(FILENAME_PREFIX + fileNumber);
+  private static void deleteFile(final File file) {
+    if (!file.delete() && file.exists()) {
+      LOG.error("Failed to delete tasks file {}", file.getAbsolutePath());
+    }
   }
 
   private synchronized boolean markTaskCompleted(final FlatFileTask<T> task) {
@@ -250,6 +293,17 @@ public class FlatFileTaskCollection<T> implements TaskCollection<T> {
     }
   }
 
+  private static class Segment {
+    private final Path path;
+    // Positioned where the next task is written.
+    private final MappedByteBuffer buffer;
+
+    private Segment(final Path path, final MappedByteBuffer buffer) {
+      this.path = path;
+      this.buffer = buffer;
+    }
+  }
+
   private static class FlatFileTask<T> implements Task<T> {
     private final AtomicBoolean completed = new AtomicBoolean(false);
     private final FlatFileTaskCollection<T> parentQueue;
@@ -173,6 +173,29 @@ public class CachingTaskCollectionTest {
         .containsExactlyInAnyOrder(getTaskData(failedTasks).toArray(new BytesValue[0]));
   }
 
+  @Test
+  public void addAllAndRemoveBatchOverflowingCache() {
+    final CachingTaskCollection<BytesValue> taskCollection = createCachingCollection(5);
+    final List<BytesValue> taskData = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      taskData.add(BytesValue.of(i));
+    }
+
+    taskCollection.addAll(taskData);
+    assertThat(taskCollection.cacheSize()).isEqualTo(5);
+    assertThat(wrappedTaskCollection.size()).isEqualTo(7);
+
+    final List<Task<BytesValue>> tasks = new ArrayList<>(taskCollection.removeBatch(8));
+    assertThat(tasks).hasSize(8);
+    tasks.addAll(taskCollection.removeBatch(8));
+    assertThat(getTaskData(tasks)).isEqualTo(taskData);
+    assertThat(taskCollection.isEmpty()).isTrue();
+    assertThat(taskCollection.removeBatch(8)).isEmpty();
+
+    tasks.forEach(Task::markCompleted);
+    assertThat(taskCollection.allTasksCompleted()).isTrue();
+  }
+
   @Test
   public void close() throws IOException {
     final CachingTaskCollection<BytesValue> taskCollection = createCachingCollection(10);
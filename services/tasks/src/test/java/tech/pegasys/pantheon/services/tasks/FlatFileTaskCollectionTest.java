@@ -17,6 +17,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import tech.pegasys.pantheon.util.bytes.BytesValue;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
@@ -81,6 +82,66 @@ public class FlatFileTaskCollectionTest
     }
   }
 
+  @Test
+  public void shouldAddAndRemoveTasksInBatchesAcrossFiles() throws Exception {
+    final Path dataDir = folder.newFolder().toPath();
+    try (final FlatFileTaskCollection<BytesValue> queue = createQueue(dataDir)) {
+      final List<BytesValue> tasks = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        // Include tasks larger than a file.
+        tasks.add(BytesValue.wrap(new byte[i % 7 == 0 ? 2 * ROLL_SIZE : i % 4]));
+      }
+      queue.addAll(tasks);
+      assertThat(queue.size()).isEqualTo(tasks.size());
+      assertThat(queue.getWriteFileNumber()).isGreaterThan(1);
+
+      final List<BytesValue> removedTasks = new ArrayList<>();
+      List<Task<BytesValue>> batch = queue.removeBatch(3);
+      while (!batch.isEmpty()) {
+        assertThat(batch.size()).isLessThanOrEqualTo(3);
+        batch.forEach(task -> removedTasks.add(task.getData()));
+        batch = queue.removeBatch(3);
+      }
+
+      assertThat(removedTasks).isEqualTo(tasks);
+      assertThat(queue.isEmpty()).isTrue();
+      assertThat(queue.getReadFileNumber()).isEqualTo(queue.getWriteFileNumber());
+    }
+  }
+
+  @Test
+  public void shouldReuseFileOnceAllTasksHaveBeenRead() throws Exception {
+    final Path dataDir = folder.newFolder().toPath();
+    try (final FlatFileTaskCollection<BytesValue> queue = createQueue(dataDir)) {
+      for (int i = 0; i < 10; i++) {
+        queue.add(BytesValue.of(i));
+        queue.add(BytesValue.of(i + 1));
+        assertThat(queue.remove().getData()).isEqualTo(BytesValue.of(i));
+        assertThat(queue.remove().getData()).isEqualTo(BytesValue.of(i + 1));
+      }
+      assertThat(queue.getWriteFileNumber()).isEqualTo(0);
+      assertThat(queue.getReadFileNumber()).isEqualTo(0);
+    }
+  }
+
+  @Test
+  public void shouldDeleteTaskFilesLeftByPreviousRun() throws Exception {
+    final Path dataDir = folder.newFolder().toPath();
+    final Path staleFile = dataDir.resolve(FlatFileTaskCollection.FILENAME_PREFIX + 5);
+    Files.write(dataDir.resolve(FlatFileTaskCollection.FILENAME_PREFIX + 0), new byte[] {0, 0, 1});
+    Files.write(staleFile, new byte[] {1, 2, 3});
+
+    try (final FlatFileTaskCollection<BytesValue> queue = createQueue(dataDir)) {
+      assertThat(queue.isEmpty()).isTrue();
+      assertThat(queue.remove()).isNull();
+      assertThat(staleFile).doesNotExist();
+
+      queue.add(BytesValue.of(1));
+      assertThat(queue.remove().getData()).isEqualTo(BytesValue.of(1));
+    }
+    assertThat(dataDir.toFile().list()).isEmpty();
+  }
+
   private void addItem(
       final FlatFileTaskCollection<BytesValue> queue,
       final List<BytesValue> tasks,
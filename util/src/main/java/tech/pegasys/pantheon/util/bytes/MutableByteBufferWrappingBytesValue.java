@@ -114,6 +114,14 @@ public class MutableByteBufferWrappingBytesValue extends AbstractBytesValue
     return new MutableByteBufferWrappingBytesValue(bytes, offset + index, length);
   }
 
+  @Override
+  public byte[] extractArray() {
+    // Copy in bulk, using a duplicate so the position of the wrapped buffer is left untouched.
+    final byte[] array = new byte[size];
+    bytes.duplicate().position(offset).get(array);
+    return array;
+  }
+
   @Override
   public byte[] getArrayUnsafe() {
     if (bytes.hasArray() && offset == 0 && size == bytes.capacity() && bytes.arrayOffset() == 0) {
@@ -0,0 +1,506 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.util.uint;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import tech.pegasys.pantheon.util.bytes.AbstractBytesValue;
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.BytesValue;
+import tech.pegasys.pantheon.util.bytes.MutableBytes32;
+
+import java.security.MessageDigest;
+
+/**
+ * An immutable 256-bit word held in four {@code long} limbs, with the unsigned and two's complement
+ * signed arithmetic of the EVM implemented directly on the limbs rather than through {@link
+ * java.math.BigInteger}.
+ *
+ * <p>A word is also a {@link Bytes32}, so it can be kept as-is on the EVM operand stack and read as
+ * bytes by anything expecting them. Chaining arithmetic on words taken from the stack then involves
+ * no conversion at all.
+ *
+ * <p>All operations are modulo 2^256, and division or modulo by zero yields zero, as in the EVM.
+ */
+public final class UInt256Word extends AbstractBytesValue implements Bytes32 {
+  public static final UInt256Word ZERO = new UInt256Word(0, 0, 0, 0);
+  public static final UInt256Word ONE = new UInt256Word(0, 0, 0, 1);
+
+  private static final long INT_MASK = 0xFFFFFFFFL;
+  private static final int DIGITS = 8;
+
+  // u3 is the most significant limb, u0 the least significant one.
+  private final long u3;
+  private final long u2;
+  private final long u1;
+  private final long u0;
+
+  private UInt256Word(final long u3, final long u2, final long u1, final long u0) {
+    this.u3 = u3;
+    this.u2 = u2;
+    this.u1 = u1;
+    this.u0 = u0;
+  }
+
+  /**
+   * Returns the given bytes as a word, without copying them if they already are one.
+   *
+   * @param bytes the bytes to interpret as a word.
+   * @return the word for {@code bytes}.
+   */
+  public static UInt256Word of(final Bytes32 bytes) {
+    if (bytes instanceof UInt256Word) {
+      return (UInt256Word) bytes;
+    }
+    return new UInt256Word(
+        bytes.getLong(0), bytes.getLong(8), bytes.getLong(16), bytes.getLong(24));
+  }
+
+  public static UInt256Word of(final long value) {
+    checkArgument(value >= 0, "Argument must be positive, got %s", value);
+    return new UInt256Word(0, 0, 0, value);
+  }
+
+  // Arithmetic
+
+  public UInt256Word add(final UInt256Word other) {
+    final long r0 = u0 + other.u0;
+    long carry = Long.compareUnsigned(r0, u0) < 0 ? 1 : 0;
+    final long s1 = u1 + other.u1;
+    final long r1 = s1 + carry;
+    carry = (Long.compareUnsigned(s1, u1) < 0 || Long.compareUnsigned(r1, s1) < 0) ? 1 : 0;
+    final long s2 = u2 + other.u2;
+    final long r2 = s2 + carry;
+    carry = (Long.compareUnsigned(s2, u2) < 0 || Long.compareUnsigned(r2, s2) < 0) ? 1 : 0;
+    // Discard the final carry since we work modulo 2^256.
+    return new UInt256Word(u3 + other.u3 + carry, r2, r1, r0);
+  }
+
+  public UInt256Word subtract(final UInt256Word other) {
+    final long r0 = u0 - other.u0;
+    long borrow = Long.compareUnsigned(u0, other.u0) < 0 ? 1 : 0;
+    final long d1 = u1 - other.u1;
+    final long r1 = d1 - borrow;
+    borrow =
+        (Long.compareUnsigned(u1, other.u1) < 0 || Long.compareUnsigned(d1, borrow) < 0) ? 1 : 0;
+    final long d2 = u2 - other.u2;
+    final long r2 = d2 - borrow;
+    borrow =
+        (Long.compareUnsigned(u2, other.u2) < 0 || Long.compareUnsigned(d2, borrow) < 0) ? 1 : 0;
+    return new UInt256Word(u3 - other.u3 - borrow, r2, r1, r0);
+  }
+
+  public UInt256Word multiply(final UInt256Word other) {
+    if (isZero() || other.isZero()) {
+      return ZERO;
+    }
+    if (fitsInt() && other.fitsInt()) {
+      return new UInt256Word(0, 0, 0, u0 * other.u0);
+    }
+    return fromDigits(multiplyDigits(toDigits(), other.toDigits(), DIGITS));
+  }
+
+  public UInt256Word divide(final UInt256Word other) {
+    if (other.isZero()) {
+      return ZERO;
+    }
+    if (fitsLong() && other.fitsLong()) {
+      return new UInt256Word(0, 0, 0, Long.divideUnsigned(u0, other.u0));
+    }
+    if (compareUnsigned(other) < 0) {
+      return ZERO;
+    }
+    return fromDigits(divideDigits(toDigits(), other.toDigits(), true));
+  }
+
+  public UInt256Word mod(final UInt256Word modulus) {
+    if (modulus.isZero()) {
+      return ZERO;
+    }
+    if (fitsLong() && modulus.fitsLong()) {
+      return new UInt256Word(0, 0, 0, Long.remainderUnsigned(u0, modulus.u0));
+    }
+    if (compareUnsigned(modulus) < 0) {
+      return this;
+    }
+    return fromDigits(divideDigits(toDigits(), modulus.toDigits(), false));
+  }
+
+  /**
+   * Returns {@code (this + other) mod modulus}, computed without truncating the intermediate sum.
+   *
+   * @param other the value to add.
+   * @param modulus the modulus.
+   * @return the result, or zero if {@code modulus} is zero.
+   */
+  public UInt256Word addMod(final UInt256Word other, final UInt256Word modulus) {
+    if (modulus.isZero()) {
+      return ZERO;
+    }
+    final int[] x = toDigits();
+    final int[] y = other.toDigits();
+    final int[] sum = new int[DIGITS + 1];
+    long carry = 0;
+    for (int i = 0; i < DIGITS; i++) {
+      final long s = (x[i] & INT_MASK) + (y[i] & INT_MASK) + carry;
+      sum[i] = (int) s;
+      carry = s >>> 32;
+    }
+    sum[DIGITS] = (int) carry;
+    return fromDigits(divideDigits(sum, modulus.toDigits(), false));
+  }
+
+  /**
+   * Returns {@code (this * other) mod modulus}, computed without truncating the intermediate
+   * product.
+   *
+   * @param other the value to multiply by.
+   * @param modulus the modulus.
+   * @return the result, or zero if {@code modulus} is zero.
+   */
+  public UInt256Word multiplyMod(final UInt256Word other, final UInt256Word modulus) {
+    if (modulus.isZero() || isZero() || other.isZero()) {
+      return ZERO;
+    }
+    final int[] product = multiplyDigits(toDigits(), other.toDigits(), 2 * DIGITS);
+    return fromDigits(divideDigits(product, modulus.toDigits(), false));
+  }
+
+  public UInt256Word pow(final UInt256Word exponent) {
+    int[] result = ONE.toDigits();
+    int[] base = toDigits();
+    final int bits = exponent.bitLength();
+    for (int i = 0; i < bits; i++) {
+      if (exponent.testBit(i)) {
+        result = multiplyDigits(result, base, DIGITS);
+      }
+      if (i < bits - 1) {
+        base = multiplyDigits(base, base, DIGITS);
+      }
+    }
+    return fromDigits(result);
+  }
+
+  public UInt256Word negate() {
+    return not().add(ONE);
+  }
+
+  public UInt256Word not() {
+    return new UInt256Word(~u3, ~u2, ~u1, ~u0);
+  }
+
+  /**
+   * Signed division, truncating towards zero.
+   *
+   * @param other the divisor.
+   * @return the quotient, or zero if {@code other} is zero.
+   */
+  public UInt256Word signedDivide(final UInt256Word other) {
+    if (other.isZero()) {
+      return ZERO;
+    }
+    final UInt256Word quotient = abs().divide(other.abs());
+    return isNegative() != other.isNegative() ? quotient.negate() : quotient;
+  }
+
+  /**
+   * Signed modulo, the result taking the sign of this value.
+   *
+   * @param modulus the modulus.
+   * @return the remainder, or zero if {@code modulus} is zero.
+   */
+  public UInt256Word signedMod(final UInt256Word modulus) {
+    if (modulus.isZero()) {
+      return ZERO;
+    }
+    final UInt256Word remainder = abs().mod(modulus.abs());
+    return isNegative() ? remainder.negate() : remainder;
+  }
+
+  // Comparisons
+
+  @Override
+  public int compareTo(final BytesValue other) {
+    // Bytes compare as unsigned big-endian numbers, which is also the unsigned order of words.
+    if (other instanceof UInt256Word) {
+      return compareUnsigned((UInt256Word) other);
+    }
+    return Bytes32.super.compareTo(other);
+  }
+
+  private int compareUnsigned(final UInt256Word other) {
+    if (u3 != other.u3) return Long.compareUnsigned(u3, other.u3);
+    if (u2 != other.u2) return Long.compareUnsigned(u2, other.u2);
+    if (u1 != other.u1) return Long.compareUnsigned(u1, other.u1);
+    return Long.compareUnsigned(u0, other.u0);
+  }
+
+  public int compareSigned(final UInt256Word other) {
+    if (u3 != other.u3) return Long.compare(u3, other.u3);
+    if (u2 != other.u2) return Long.compareUnsigned(u2, other.u2);
+    if (u1 != other.u1) return Long.compareUnsigned(u1, other.u1);
+    return Long.compareUnsigned(u0, other.u0);
+  }
+
+  public boolean isNegative() {
+    return u3 < 0;
+  }
+
+  public int bitLength() {
+    if (u3 != 0) return 256 - Long.numberOfLeadingZeros(u3);
+    if (u2 != 0) return 192 - Long.numberOfLeadingZeros(u2);
+    if (u1 != 0) return 128 - Long.numberOfLeadingZeros(u1);
+    return 64 - Long.numberOfLeadingZeros(u0);
+  }
+
+  private boolean testBit(final int bit) {
+    return ((limb(bit / 64) >>> (bit % 64)) & 1) != 0;
+  }
+
+  private long limb(final int index) {
+    switch (index) {
+      case 0:
+        return u0;
+      case 1:
+        return u1;
+      case 2:
+        return u2;
+      default:
+        return u3;
+    }
+  }
+
+  private UInt256Word abs() {
+    return isNegative() ? negate() : this;
+  }
+
+  private boolean fitsLong() {
+    return (u3 | u2 | u1) == 0;
+  }
+
+  private boolean fitsInt() {
+    return fitsLong() && (u0 >>> 32) == 0;
+  }
+
+  // Digit arithmetic, on little-endian arrays of unsigned 32-bit digits.
+
+  private int[] toDigits() {
+    final int[] digits = new int[DIGITS];
+    for (int i = 0; i < 4; i++) {
+      final long limb = limb(i);
+      digits[2 * i] = (int) limb;
+      digits[2 * i + 1] = (int) (limb >>> 32);
+    }
+    return digits;
+  }
+
+  private static UInt256Word fromDigits(final int[] digits) {
+    return new UInt256Word(
+        digitPair(digits, 6), digitPair(digits, 4), digitPair(digits, 2), digitPair(digits, 0));
+  }
+
+  private static long digitPair(final int[] digits, final int index) {
+    final long low = index < digits.length ? digits[index] & INT_MASK : 0;
+    final long high = index + 1 < digits.length ? digits[index + 1] & INT_MASK : 0;
+    return (high << 32) | low;
+  }
+
+  private static int significantDigits(final int[] digits) {
+    int length = digits.length;
+    while (length > 0 && digits[length - 1] == 0) {
+      length--;
+    }
+    return length;
+  }
+
+  /** Schoolbook multiplication, keeping only the lowest {@code length} digits of the product. */
+  private static int[] multiplyDigits(final int[] x, final int[] y, final int length) {
+    final int[] result = new int[length];
+    final int xLength = significantDigits(x);
+    final int yLength = significantDigits(y);
+    for (int i = 0; i < xLength && i < length; i++) {
+      final long xi = x[i] & INT_MASK;
+      if (xi == 0) {
+        continue;
+      }
+      long carry = 0;
+      int j = 0;
+      for (; j < yLength && i + j < length; j++) {
+        final long t = xi * (y[j] & INT_MASK) + (result[i + j] & INT_MASK) + carry;
+        result[i + j] = (int) t;
+        carry = t >>> 32;
+      }
+      if (i + j < length) {
+        result[i + j] = (int) carry;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Divides {@code u} by the non-zero {@code v} using Knuth's algorithm D (The Art of Computer
+   * Programming, Vol. 2, 4.3.1), as presented in Hacker's Delight.
+   *
+   * @return the quotient if {@code quotient} is true, the remainder otherwise.
+   */
+  private static int[] divideDigits(final int[] u, final int[] v, final boolean quotient) {
+    final int m = significantDigits(u);
+    final int n = significantDigits(v);
+    if (m < n) {
+      return quotient ? new int[0] : u;
+    }
+
+    final int[] q = new int[m - n + 1];
+    if (n == 1) {
+      final long divisor = v[0] & INT_MASK;
+      long remainder = 0;
+      for (int i = m - 1; i >= 0; i--) {
+        final long current = (remainder << 32) | (u[i] & INT_MASK);
+        q[i] = (int) Long.divideUnsigned(current, divisor);
+        remainder = Long.remainderUnsigned(current, divisor);
+      }
+      return quotient ? q : new int[] {(int) remainder};
+    }
+
+    // Normalise so that the top digit of the divisor has its high bit set.
+    final int shift = Integer.numberOfLeadingZeros(v[n - 1]);
+    final int[] vn = shiftLeft(v, n, shift, n);
+    final int[] un = shiftLeft(u, m, shift, m + 1);
+    final long vTop = vn[n - 1] & INT_MASK;
+    final long vNext = vn[n - 2] & INT_MASK;
+
+    for (int j = m - n; j >= 0; j--) {
+      final long numerator = ((un[j + n] & INT_MASK) << 32) | (un[j + n - 1] & INT_MASK);
+      long qhat = Long.divideUnsigned(numerator, vTop);
+      long rhat = Long.remainderUnsigned(numerator, vTop);
+      while ((qhat >>> 32) != 0
+          || Long.compareUnsigned(qhat * vNext, (rhat << 32) | (un[j + n - 2] & INT_MASK)) > 0) {
+        qhat--;
+        rhat += vTop;
+        if ((rhat >>> 32) != 0) {
+          break;
+        }
+      }
+
+      // Multiply and subtract.
+      long borrow = 0;
+      long t;
+      for (int i = 0; i < n; i++) {
+        final long p = qhat * (vn[i] & INT_MASK);
+        t = (un[i + j] & INT_MASK) - borrow - (p & INT_MASK);
+        un[i + j] = (int) t;
+        borrow = (p >>> 32) - (t >> 32);
+      }
+      t = (un[j + n] & INT_MASK) - borrow;
+      un[j + n] = (int) t;
+
+      q[j] = (int) qhat;
+      if (t < 0) {
+        // Subtracted too much, add back.
+        q[j]--;
+        long carry = 0;
+        for (int i = 0; i < n; i++) {
+          t = (un[i + j] & INT_MASK) + (vn[i] & INT_MASK) + carry;
+          un[i + j] = (int) t;
+          carry = t >>> 32;
+        }
+        un[j + n] += (int) carry;
+      }
+    }
+
+    if (quotient) {
+      return q;
+    }
+    final int[] remainder = new int[n];
+    for (int i = 0; i < n; i++) {
+      remainder[i] = shift == 0 ? un[i] : (un[i] >>> shift) | (un[i + 1] << (32 - shift));
+    }
+    return remainder;
+  }
+
+  /** Shifts the first {@code length} digits of {@code digits} left into a new array. */
+  private static int[] shiftLeft(
+      final int[] digits, final int length, final int shift, final int resultLength) {
+    final int[] result = new int[resultLength];
+    if (shift == 0) {
+      System.arraycopy(digits, 0, result, 0, length);
+      return result;
+    }
+    for (int i = length - 1; i > 0; i--) {
+      result[i] = (digits[i] << shift) | (digits[i - 1] >>> (32 - shift));
+    }
+    result[0] = digits[0] << shift;
+    if (resultLength > length) {
+      result[length] = digits[length - 1] >>> (32 - shift);
+    }
+    return result;
+  }
+
+  // Bytes32
+
+  @Override
+  public byte get(final int i) {
+    checkElementIndex(i, SIZE);
+    return (byte) (limb(3 - i / 8) >>> (8 * (7 - i % 8)));
+  }
+
+  @Override
+  public BytesValue slice(final int index, final int length) {
+    return BytesValue.wrap(extractArray()).slice(index, length);
+  }
+
+  @Override
+  public byte[] extractArray() {
+    final byte[] bytes = new byte[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      bytes[i] = get(i);
+    }
+    return bytes;
+  }
+
+  @Override
+  public Bytes32 copy() {
+    return this;
+  }
+
+  @Override
+  public MutableBytes32 mutableCopy() {
+    return MutableBytes32.wrap(extractArray());
+  }
+
+  @Override
+  public boolean isZero() {
+    return (u3 | u2 | u1 | u0) == 0;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (other instanceof UInt256Word) {
+      final UInt256Word that = (UInt256Word) other;
+      return u3 == that.u3 && u2 == that.u2 && u1 == that.u1 && u0 == that.u0;
+    }
+    return super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    // Must be consistent with the hash code of any other bytes value.
+    return super.hashCode();
+  }
+
+  @Override
+  public void update(final MessageDigest digest) {
+    digest.update(extractArray());
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.pantheon.util.uint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.pantheon.util.bytes.Bytes32;
+import tech.pegasys.pantheon.util.bytes.MutableBytes32;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class UInt256WordTest {
+  private static final int ITERATIONS = 2_000;
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void unsignedArithmeticMatchesUInt256() {
+    for (int i = 0; i < ITERATIONS; i++) {
+      final Bytes32 a = randomValue();
+      final Bytes32 b = randomValue();
+      final Bytes32 m = randomValue();
+      final UInt256Word x = UInt256Word.of(a);
+      final UInt256Word y = UInt256Word.of(b);
+      final UInt256Word z = UInt256Word.of(m);
+
+      assertThat(x.add(y)).isEqualTo(a.asUInt256().plus(b.asUInt256()).getBytes());
+      assertThat(x.subtract(y)).isEqualTo(a.asUInt256().minus(b.asUInt256()).getBytes());
+      assertThat(x.multiply(y)).isEqualTo(a.asUInt256().times(b.asUInt256()).getBytes());
+      assertThat(x.divide(y)).isEqualTo(a.asUInt256().dividedBy(b.asUInt256()).getBytes());
+      assertThat(x.mod(y)).isEqualTo(a.asUInt256().mod(b.asUInt256()).getBytes());
+      assertThat(x.addMod(y, z))
+          .isEqualTo(a.asUInt256().plusModulo(b.asUInt256(), m.asUInt256()).getBytes());
+      assertThat(x.multiplyMod(y, z))
+          .isEqualTo(a.asUInt256().timesModulo(b.asUInt256(), m.asUInt256()).getBytes());
+      assertThat(Integer.signum(x.compareTo(y)))
+          .isEqualTo(Integer.signum(a.asUInt256().compareTo(b.asUInt256())));
+    }
+  }
+
+  @Test
+  public void signedArithmeticMatchesInt256() {
+    for (int i = 0; i < ITERATIONS; i++) {
+      final Bytes32 a = randomValue();
+      final Bytes32 b = randomValue();
+      final UInt256Word x = UInt256Word.of(a);
+      final UInt256Word y = UInt256Word.of(b);
+
+      assertThat(x.signedDivide(y)).isEqualTo(a.asInt256().dividedBy(b.asInt256()).getBytes());
+      assertThat(x.signedMod(y)).isEqualTo(a.asInt256().mod(b.asInt256()).getBytes());
+      assertThat(Integer.signum(x.compareSigned(y)))
+          .isEqualTo(Integer.signum(a.asInt256().compareTo(b.asInt256())));
+    }
+  }
+
+  @Test
+  public void exponentiationMatchesUInt256() {
+    for (int i = 0; i < ITERATIONS / 10; i++) {
+      final Bytes32 a = randomValue();
+      final Bytes32 b = randomValue();
+
+      assertThat(UInt256Word.of(a).pow(UInt256Word.of(b)))
+          .isEqualTo(a.asUInt256().pow(b.asUInt256()).getBytes());
+    }
+  }
+
+  @Test
+  public void handlesEdgeCases() {
+    final UInt256Word max = UInt256Word.of(Bytes32.fromHexString("0x" + "ff".repeat(32)));
+    final UInt256Word minSigned = UInt256Word.of(Bytes32.fromHexString("0x80" + "00".repeat(31)));
+    final UInt256Word minusOne = max;
+
+    assertThat(max.add(UInt256Word.ONE)).isEqualTo(UInt256Word.ZERO);
+    assertThat(UInt256Word.ZERO.subtract(UInt256Word.ONE)).isEqualTo(max);
+    assertThat(max.divide(UInt256Word.ZERO)).isEqualTo(UInt256Word.ZERO);
+    assertThat(max.mod(UInt256Word.ZERO)).isEqualTo(UInt256Word.ZERO);
+    assertThat(minSigned.signedDivide(minusOne)).isEqualTo(minSigned);
+    assertThat(UInt256Word.ZERO.pow(UInt256Word.ZERO)).isEqualTo(UInt256Word.ONE);
+    assertThat(max.multiplyMod(max, UInt256Word.of(12345)))
+        .isEqualTo(max.asUInt256().timesModulo(max.asUInt256(), UInt256.of(12345)).getBytes());
+  }
+
+  @Test
+  public void behavesAsBytes() {
+    final Bytes32 bytes = randomValue();
+    final UInt256Word word = UInt256Word.of(bytes);
+
+    assertThat(word).isEqualTo(bytes);
+    assertThat(bytes).isEqualTo(word);
+    assertThat(word.hashCode()).isEqualTo(bytes.hashCode());
+    assertThat(word.toString()).isEqualTo(bytes.toString());
+    assertThat(word.slice(3, 7)).isEqualTo(bytes.slice(3, 7));
+    assertThat(UInt256Word.of(word)).isSameAs(word);
+  }
+
+  // Values of random sizes, so that all the paths depending on the number of significant limbs and
+  // digits are exercised, including zero and values with the sign bit set.
+  private Bytes32 randomValue() {
+    final MutableBytes32 value = MutableBytes32.create();
+    final int size = random.nextInt(Bytes32.SIZE + 1);
+    for (int i = Bytes32.SIZE - size; i < Bytes32.SIZE; i++) {
+      value.set(i, (byte) random.nextInt(256));
+    }
+    if (random.nextInt(8) == 0) {
+      // Leading 0xff bytes, which are large unsigned values and small negative signed ones.
+      for (int i = 0; i < Bytes32.SIZE - size; i++) {
+        value.set(i, (byte) 0xff);
+      }
+    }
+    return value;
+  }
+}